@@ -0,0 +1,159 @@
+package com.xai.benchmarks;
+
+import com.xai.memory.Conversation;
+import com.xai.memory.ConversationStore;
+import com.xai.memory.Turn;
+import com.xai.memory.TurnEncoder;
+import com.xai.tokens.CharacterTokenEstimator;
+import com.xai.tokens.TokenEstimator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.ai.chat.memory.InMemoryChatMemoryRepository;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Footprint and per-request cost of the conversation memory.
+ *
+ * <p>At the start of each trial, {@value #SESSIONS} sessions of {@value #EXCHANGES}
+ * exchanges each are stored, and the heap and direct memory they retain are printed
+ * (after forcing collections, so the figure is retained memory, not garbage). The
+ * {@code spring-ai} storage is the baseline: Spring AI's
+ * {@link InMemoryChatMemoryRepository} holding {@link Message} objects. The
+ * benchmarks measure reading a session's window and recording an exchange.</p>
+ */
+@State(Scope.Benchmark)
+public class ConversationMemoryBenchmark {
+
+    private static final int SESSIONS = 10_000;
+
+    private static final int EXCHANGES = 10;
+
+    private static final int BUDGET = 2000;
+
+    private static final String[] WORDS = ("the a player team goal season league match scored coach transfer "
+            + "championship record defender striker midfielder keeper penalty final cup minute injury "
+            + "contract club fans stadium tactics pressing counter attack possession").split(" ");
+
+    @Param({"spring-ai", "heap", "compressed", "off-heap"})
+    public String storage;
+
+    private final TokenEstimator tokenEstimator = new CharacterTokenEstimator();
+
+    private TurnEncoder encoder;
+
+    private ConversationStore store;
+
+    private InMemoryChatMemoryRepository repository;
+
+    private String question;
+
+    private String answer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        question = text(random, 25);
+        answer = text(random, 120);
+        long heapBefore = usedHeap();
+        long directBefore = usedDirect();
+        if (storage.equals("spring-ai")) {
+            repository = new InMemoryChatMemoryRepository();
+            for (int session = 0; session < SESSIONS; session++) {
+                List<Message> messages = new ArrayList<>(2 * EXCHANGES);
+                for (int exchange = 0; exchange < EXCHANGES; exchange++) {
+                    messages.add(new UserMessage(text(random, 25)));
+                    messages.add(new AssistantMessage(text(random, 120)));
+                }
+                repository.saveAll("session-" + session, messages);
+            }
+        } else {
+            encoder = new TurnEncoder(!storage.equals("heap"), storage.equals("off-heap"), 256);
+            store = new ConversationStore(Long.MAX_VALUE, Duration.ofHours(1), null);
+            for (int session = 0; session < SESSIONS; session++) {
+                Conversation conversation = store.getOrCreate("session-" + session);
+                for (int exchange = 0; exchange < EXCHANGES; exchange++) {
+                    conversation.append(List.of(turn(Turn.Role.USER, text(random, 25)),
+                            turn(Turn.Role.ASSISTANT, text(random, 120))));
+                }
+                store.save("session-" + session, conversation);
+            }
+            store.cleanUp();
+        }
+        long heap = usedHeap() - heapBefore;
+        long direct = usedDirect() - directBefore;
+        System.out.printf("%n%,d sessions x %d exchanges, storage %s: heap %.1f MiB, direct %.1f MiB%s%n",
+                SESSIONS, EXCHANGES, storage, heap / 1048576.0, direct / 1048576.0,
+                store == null ? "" : String.format(", weighed %.1f MiB", store.weightedBytes() / 1048576.0));
+    }
+
+    @Benchmark
+    public int window() {
+        String sessionId = "session-" + ThreadLocalRandom.current().nextInt(SESSIONS);
+        if (repository != null) {
+            return repository.findByConversationId(sessionId).size();
+        }
+        int length = 0;
+        for (Turn turn : store.get(sessionId).window(BUDGET)) {
+            length += turn.text().length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int record() {
+        String sessionId = "session-" + ThreadLocalRandom.current().nextInt(SESSIONS);
+        if (repository != null) {
+            List<Message> messages = new ArrayList<>(repository.findByConversationId(sessionId));
+            messages.add(new UserMessage(question));
+            messages.add(new AssistantMessage(answer));
+            messages.subList(0, 2).clear();
+            repository.saveAll(sessionId, messages);
+            return messages.size();
+        }
+        Conversation conversation = store.get(sessionId);
+        conversation.append(List.of(turn(Turn.Role.USER, question), turn(Turn.Role.ASSISTANT, answer)));
+        conversation.trimTo(BUDGET);
+        store.save(sessionId, conversation);
+        return conversation.size();
+    }
+
+    private Turn turn(Turn.Role role, String text) {
+        return encoder.encode(role, text, tokenEstimator.estimate(text));
+    }
+
+    private static String text(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.append('.').toString();
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long usedDirect() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+}
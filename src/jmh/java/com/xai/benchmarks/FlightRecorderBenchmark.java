@@ -0,0 +1,83 @@
+package com.xai.benchmarks;
+
+import com.xai.advisors.BulkheadAdvisor;
+import com.xai.advisors.ModelCallEventAdvisor;
+import com.xai.appconfig.BulkheadProperties;
+import com.xai.jfr.AdmissionEvent;
+import com.xai.jfr.ModelCallEvent;
+import com.xai.jfr.TemplateRenderEvent;
+import com.xai.resilience.BulkheadRegistry;
+import com.xai.templates.CompiledTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.ai.chat.client.ChatClient;
+
+import java.util.Map;
+
+/**
+ * Overhead of the request pipeline's flight recorder events.
+ *
+ * <p>With {@code recording=off} no recording runs and the events are only begun and
+ * checked; with {@code on} a recording with the pipeline events enabled is running, so
+ * every event is filled in and written to the JFR buffers. The benchmarks are the two
+ * finest-grained instrumented operations: rendering a template, and a call through the
+ * bulkhead and model call advisors to a stub model.</p>
+ */
+@State(Scope.Benchmark)
+public class FlightRecorderBenchmark {
+
+    @Param({"off", "on"})
+    public String recording;
+
+    private final Map<String, Object> values = Map.of("sportName", "Pickleball", "countryName", "India", "year", "2030");
+
+    private Recording jfr;
+
+    private CompiledTemplate template;
+
+    private ChatClient chatClient;
+
+    @Setup
+    public void setUp() {
+        template = CompiledTemplate.compile("user-message",
+                "Provide me brief introduction about the sport {sportName}, also explain how many people are "
+                        + "currently playing this sport in {countryName}, what is the expected count of the player "
+                        + "till the year {year} for this sport in {countryName}?");
+        chatClient = ChatClient.builder(new StubChatModel())
+                .defaultAdvisors(
+                        new BulkheadAdvisor(new BulkheadRegistry(new BulkheadProperties(), new SimpleMeterRegistry())),
+                        new ModelCallEventAdvisor())
+                .build();
+        if ("on".equals(recording)) {
+            jfr = new Recording();
+            jfr.enable(TemplateRenderEvent.class).withoutThreshold();
+            jfr.enable(AdmissionEvent.class).withoutThreshold();
+            jfr.enable(ModelCallEvent.class).withoutThreshold();
+            jfr.setToDisk(true);
+            jfr.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (jfr != null) {
+            jfr.close();
+        }
+    }
+
+    @Benchmark
+    public String renderTemplate() {
+        return template.render(values);
+    }
+
+    @Benchmark
+    public String advisedCall() {
+        return chatClient.prompt("Tell me about football").call().content();
+    }
+}
@@ -0,0 +1,111 @@
+package com.xai.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import com.xai.appconfig.OpenAiTransportConfig;
+import com.xai.appconfig.OpenAiTransportProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Per-call cost of the HTTP transport under the OpenAI {@code RestClient}, against a
+ * local server answering with a canned chat completion.
+ *
+ * <ul>
+ *     <li>{@code pooled} – the transport of {@link OpenAiTransportConfig}</li>
+ *     <li>{@code unpooled} – Reactor Netty opening a new connection per call</li>
+ *     <li>{@code jdk} – the JDK {@code HttpClient}, what Spring Boot falls back to</li>
+ * </ul>
+ *
+ * <p>The server speaks plain HTTP/1.1 on loopback, so this isolates connection reuse
+ * and client overhead; against the real API each avoided connection also saves a TLS
+ * handshake and a network round trip or two.</p>
+ */
+@State(Scope.Benchmark)
+@Threads(8)
+public class OpenAiTransportBenchmark {
+
+    private static final byte[] COMPLETION = """
+            {"id":"chatcmpl-1","object":"chat.completion","model":"gpt-4o","choices":[{"index":0,\
+            "message":{"role":"assistant","content":"Harry Kane is England's all-time top scorer."},\
+            "finish_reason":"stop"}],"usage":{"prompt_tokens":12,"completion_tokens":9,"total_tokens":21}}"""
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static final String REQUEST = """
+            {"model":"gpt-4o","messages":[{"role":"user","content":"Tell me about Harry Kane"}]}""";
+
+    @Param({"pooled", "unpooled", "jdk"})
+    public String transport;
+
+    private HttpServer server;
+
+    private ConnectionProvider connectionProvider;
+
+    private RestClient restClient;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/v1/chat/completions", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, COMPLETION.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(COMPLETION);
+            }
+        });
+        server.start();
+
+        RestClient.Builder builder = RestClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        switch (transport) {
+            case "pooled" -> {
+                OpenAiTransportConfig config = new OpenAiTransportConfig();
+                OpenAiTransportProperties properties = new OpenAiTransportProperties();
+                properties.setHttp2(false);
+                connectionProvider = config.openAiConnectionProvider(properties);
+                builder.requestFactory(new ReactorClientHttpRequestFactory(
+                        config.openAiHttpClient(connectionProvider, properties)));
+            }
+            case "unpooled" -> builder.requestFactory(new ReactorClientHttpRequestFactory(
+                    HttpClient.newConnection()));
+            default -> builder.requestFactory(new JdkClientHttpRequestFactory());
+        }
+        restClient = builder.build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+    }
+
+    @Benchmark
+    public String chatCompletion() {
+        return restClient.post()
+                .uri("/v1/chat/completions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(REQUEST)
+                .retrieve()
+                .body(String.class);
+    }
+}
@@ -0,0 +1,69 @@
+package com.xai.benchmarks;
+
+import com.xai.templates.CompiledTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Per-request cost of rendering the application's prompt templates.
+ *
+ * <p>The {@code springAi*} benchmarks reproduce what {@code AiServiceImpl} did on
+ * every request before templates were precompiled: build a {@link PromptTemplate}
+ * (re-reading the {@code .st} resource for the external-file endpoint) and render it
+ * through StringTemplate. The {@code compiled*} benchmarks render the same text with
+ * a {@link CompiledTemplate} built once, as {@code PromptTemplateRegistry} does.</p>
+ */
+@State(Scope.Benchmark)
+public class PromptTemplateBenchmark {
+
+    private static final String SPORT_PLAYER =
+            "Explain briefly about {sport} in 100 words, and also provide a short summary of {playerName}.";
+
+    private final Map<String, Object> sportPlayerValues = Map.of("sport", "Football", "playerName", "Harry Kane");
+
+    private final Map<String, Object> userMessageValues =
+            Map.of("sportName", "Pickleball", "countryName", "India", "year", "2030");
+
+    private Resource userMessage;
+
+    private CompiledTemplate compiledSportPlayer;
+
+    private CompiledTemplate compiledUserMessage;
+
+    @Setup
+    public void setUp() throws IOException {
+        userMessage = new ClassPathResource("prompts/user-message.st");
+        compiledSportPlayer = CompiledTemplate.compile("sport-player", SPORT_PLAYER);
+        compiledUserMessage = CompiledTemplate.compile("user-message",
+                userMessage.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public String springAiInlineTemplate() {
+        return PromptTemplate.builder().template(SPORT_PLAYER).build().render(sportPlayerValues);
+    }
+
+    @Benchmark
+    public String compiledInlineTemplate() {
+        return compiledSportPlayer.render(sportPlayerValues);
+    }
+
+    @Benchmark
+    public String springAiResourceTemplate() {
+        return PromptTemplate.builder().resource(userMessage).build().render(userMessageValues);
+    }
+
+    @Benchmark
+    public String compiledResourceTemplate() {
+        return compiledUserMessage.render(userMessageValues);
+    }
+}
@@ -0,0 +1,127 @@
+package com.xai.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xai.advisors.BulkheadAdvisor;
+import com.xai.advisors.ModelCallEventAdvisor;
+import com.xai.advisors.ObservabilityAdvisor;
+import com.xai.advisors.RateLimitAdvisor;
+import com.xai.appconfig.BulkheadProperties;
+import com.xai.appconfig.PromptTemplateProperties;
+import com.xai.appconfig.RateLimitProperties;
+import com.xai.entities.AiResponse;
+import com.xai.resilience.BulkheadRegistry;
+import com.xai.resilience.RateLimitScheduler;
+import com.xai.services.AiService;
+import com.xai.services.impl.AiServiceImpl;
+import com.xai.services.impl.StreamingMetrics;
+import com.xai.services.impl.UsageServiceImpl;
+import com.xai.structured.StructuredOutputRegistry;
+import com.xai.templates.PromptTemplateRegistry;
+import com.xai.tokens.CharacterTokenEstimator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+/**
+ * Latency and allocation the application adds on top of the model call.
+ *
+ * <p>{@link AiServiceImpl} is wired as in the application but against a
+ * {@link StubChatModel} that answers instantly, so every benchmark measures only
+ * in-process work: template rendering, {@code Prompt}/{@code ChatOptions}
+ * construction, the {@link ChatClient} and its advisors, structured-output
+ * conversion and usage accounting.</p>
+ *
+ * <p>{@code chain=bare} runs without advisors; {@code chain=advised} adds the
+ * observability, rate-limit and bulkhead advisors, with limits high enough never to
+ * block. Caches are left out on purpose: a hit would skip the path being measured.</p>
+ *
+ * <p>Run with {@code ./gradlew jmh -PjmhIncludes=RequestPathBenchmark}; the {@code gc}
+ * profiler reports {@code gc.alloc.rate.norm}, the bytes allocated per request.</p>
+ */
+@State(Scope.Benchmark)
+public class RequestPathBenchmark {
+
+    private static final String PROMPT = "Tell me about Harry Kane";
+
+    @Param({"bare", "advised"})
+    public String chain;
+
+    private AiService aiService;
+
+    @Setup
+    public void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ChatClient.Builder builder = ChatClient.builder(new StubChatModel());
+        if ("advised".equals(chain)) {
+            RateLimitProperties rateLimits = new RateLimitProperties();
+            rateLimits.setRequestsPerMinute(Long.MAX_VALUE / 2);
+            rateLimits.setTokensPerMinute(Long.MAX_VALUE / 2);
+            builder.defaultAdvisors(
+                    new ObservabilityAdvisor(meterRegistry),
+                    new RateLimitAdvisor(new RateLimitScheduler(rateLimits, meterRegistry),
+                            new CharacterTokenEstimator(), rateLimits),
+                    new BulkheadAdvisor(new BulkheadRegistry(new BulkheadProperties(), meterRegistry)),
+                    new ModelCallEventAdvisor());
+        }
+        PromptTemplateProperties templates = new PromptTemplateProperties();
+        templates.setHotReload(false);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        aiService = new AiServiceImpl(builder.build(), new UsageServiceImpl(), new StreamingMetrics(meterRegistry),
+                new PromptTemplateRegistry(new PathMatchingResourcePatternResolver(), templates), objectMapper,
+                new StructuredOutputRegistry(objectMapper, meterRegistry));
+    }
+
+    @Benchmark
+    public String chat() {
+        return aiService.chat(PROMPT);
+    }
+
+    @Benchmark
+    public String promptDefaults() {
+        return aiService.getResponseUsingPromptDefaults(PROMPT);
+    }
+
+    @Benchmark
+    public String promptTemplate() {
+        return aiService.getResponseUsingPromptTemplate();
+    }
+
+    @Benchmark
+    public String systemAndUserPromptTemplate() {
+        return aiService.getResponseUsingSystemAndUserPromptTemplate();
+    }
+
+    @Benchmark
+    public String fluentApi() {
+        return aiService.getResponseUsingFluentApi();
+    }
+
+    @Benchmark
+    public String externalFiles() {
+        return aiService.getResponseByFetchingPromptFromExternalFiles();
+    }
+
+    @Benchmark
+    public AiResponse entity() {
+        return aiService.getResponse(PROMPT);
+    }
+
+    @Benchmark
+    public List<AiResponse> entityList() {
+        return aiService.getResponseList(PROMPT);
+    }
+
+    @Benchmark
+    public List<String> streamChat() {
+        return aiService.streamChat(PROMPT).collectList().block();
+    }
+}
@@ -0,0 +1,62 @@
+package com.xai.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xai.entities.AiResponse;
+import com.xai.entities.StreamChunk;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+/**
+ * Cost of writing controller responses, i.e. what
+ * {@code MappingJackson2HttpMessageConverter} does with the value a handler returns.
+ *
+ * <p>The mapper is built by {@link Jackson2ObjectMapperBuilder} with the same defaults
+ * Spring Boot applies.</p>
+ */
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private AiResponse response;
+
+    private List<AiResponse> responses;
+
+    private StreamChunk chunk;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        response = objectMapper.readValue(StubChatModel.OBJECT_JSON, AiResponse.class);
+        responses = objectMapper.readValue(StubChatModel.ARRAY_JSON, new TypeReference<>() {
+        });
+        chunk = new StreamChunk("Harry Kane ");
+    }
+
+    @Benchmark
+    public byte[] writeText() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(StubChatModel.TEXT);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] writeResponseList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] writeStreamChunk() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(chunk);
+    }
+}
@@ -0,0 +1,98 @@
+package com.xai.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.xai.entities.AiResponse;
+import com.xai.structured.StructuredOutput;
+import com.xai.structured.StructuredOutputRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.ai.converter.BeanOutputConverter;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+/**
+ * Cost of structured output: formatting the instructions sent with the prompt and
+ * binding the reply.
+ *
+ * <p>The {@code springAi*} benchmarks reproduce what {@code responseEntity(…)} does on
+ * every call: build a {@link BeanOutputConverter} (mapper and schema included), take
+ * its format and convert the reply. The {@code registry*} benchmarks are the
+ * application's path through a pre-built {@link StructuredOutput}; {@code databind*}
+ * isolates the binder by reading the same text with a pre-built {@link ObjectReader}.
+ * {@code registryRepair} binds a fenced array cut off in the middle of its fourth element,
+ * which {@code responseEntity(…)} would reject.</p>
+ */
+@State(Scope.Benchmark)
+public class StructuredOutputBenchmark {
+
+    private static final ParameterizedTypeReference<List<AiResponse>> LIST_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private static final String BROKEN_ARRAY_JSON = "```json\n" + StubChatModel.ARRAY_JSON
+            .substring(0, StubChatModel.ARRAY_JSON.lastIndexOf('}') + 1) + ",\n {\"title\": \"Wayne Gre";
+
+    private StructuredOutput<AiResponse> response;
+
+    private StructuredOutput<List<AiResponse>> responseList;
+
+    private ObjectReader responseReader;
+
+    private ObjectReader responseListReader;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        StructuredOutputRegistry registry = new StructuredOutputRegistry(objectMapper, new SimpleMeterRegistry());
+        response = registry.get(AiResponse.class);
+        responseList = registry.get(LIST_TYPE);
+        responseReader = objectMapper.readerFor(AiResponse.class);
+        responseListReader = objectMapper.readerFor(objectMapper.constructType(LIST_TYPE.getType()));
+    }
+
+    @Benchmark
+    public AiResponse springAiResponse() {
+        BeanOutputConverter<AiResponse> converter = new BeanOutputConverter<>(AiResponse.class);
+        converter.getFormat();
+        return converter.convert(StubChatModel.OBJECT_JSON);
+    }
+
+    @Benchmark
+    public List<AiResponse> springAiResponseList() {
+        BeanOutputConverter<List<AiResponse>> converter = new BeanOutputConverter<>(LIST_TYPE);
+        converter.getFormat();
+        return converter.convert(StubChatModel.ARRAY_JSON);
+    }
+
+    @Benchmark
+    public AiResponse registryResponse() {
+        return response.convert(StubChatModel.OBJECT_JSON);
+    }
+
+    @Benchmark
+    public List<AiResponse> registryResponseList() {
+        return responseList.convert(StubChatModel.ARRAY_JSON);
+    }
+
+    @Benchmark
+    public List<AiResponse> registryRepair() {
+        return responseList.convert(BROKEN_ARRAY_JSON);
+    }
+
+    @Benchmark
+    public AiResponse databindResponse() throws JsonProcessingException {
+        return responseReader.readValue(StubChatModel.OBJECT_JSON);
+    }
+
+    @Benchmark
+    public List<AiResponse> databindResponseList() throws JsonProcessingException {
+        return responseListReader.readValue(StubChatModel.ARRAY_JSON);
+    }
+}
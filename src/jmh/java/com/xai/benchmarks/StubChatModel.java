@@ -0,0 +1,81 @@
+package com.xai.benchmarks;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ChatModel} answering instantly with canned responses, so benchmarks measure
+ * only the application's own request path.
+ *
+ * <p>Requests carrying structured-output format instructions get a JSON object or
+ * array matching {@code AiResponse}; all others get plain text. Streams emit the text
+ * in word-sized chunks, with usage on the last one, like the OpenAI API.</p>
+ */
+public class StubChatModel implements ChatModel {
+
+    static final String TEXT = "Harry Kane is an English professional footballer who plays as a striker "
+            + "for Bundesliga club Bayern Munich and captains the England national team. He is widely "
+            + "regarded as one of the best strikers in the world and is England's all-time top scorer.";
+
+    static final String OBJECT_JSON = """
+            {"title": "Harry Kane", "data": "England's all-time top scorer.", "createdAt": "2025-01-01"}""";
+
+    static final String ARRAY_JSON = """
+            [{"title": "Harry Kane", "data": "England's all-time top scorer.", "createdAt": "2025-01-01"},
+             {"title": "Wayne Rooney", "data": "Manchester United's record scorer.", "createdAt": "2025-01-01"},
+             {"title": "Michael Jordan", "data": "Six-time NBA champion.", "createdAt": "2025-01-01"}]""";
+
+    private final ChatResponse textResponse = response(TEXT);
+
+    private final ChatResponse objectResponse = response(OBJECT_JSON);
+
+    private final ChatResponse arrayResponse = response(ARRAY_JSON);
+
+    private final List<ChatResponse> textChunks = chunks(TEXT);
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        UserMessage userMessage = prompt.getUserMessage();
+        String text = userMessage == null || userMessage.getText() == null ? "" : userMessage.getText();
+        if (!text.contains("$schema")) {
+            return textResponse;
+        }
+        return text.contains("\"type\" : \"array\"") ? arrayResponse : objectResponse;
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.fromIterable(textChunks);
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(
+                List.of(new Generation(new AssistantMessage(text),
+                        ChatGenerationMetadata.builder().finishReason("STOP").build())),
+                ChatResponseMetadata.builder()
+                        .model("gpt-4o")
+                        .usage(new DefaultUsage(40, text.length() / 4))
+                        .build());
+    }
+
+    private static List<ChatResponse> chunks(String text) {
+        List<ChatResponse> chunks = new ArrayList<>();
+        String[] words = text.split("(?<= )");
+        for (int i = 0; i < words.length - 1; i++) {
+            chunks.add(new ChatResponse(List.of(new Generation(new AssistantMessage(words[i])))));
+        }
+        chunks.add(response(words[words.length - 1]));
+        return List.copyOf(chunks);
+    }
+}
@@ -0,0 +1,62 @@
+package com.xai.benchmarks;
+
+import com.xai.tokens.BpeTokenEstimator;
+import com.xai.tokens.CharacterTokenEstimator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+
+/**
+ * Cost of counting the tokens of a prompt, as the prompt budget advisor does for
+ * every request.
+ *
+ * <p>{@code bpeCount} is the application's tokenizer; {@code springAiCount} is Spring
+ * AI's {@link JTokkitTokenCountEstimator}, which encodes the full token list;
+ * {@code characterEstimate} is the approximate rule of thumb it replaces. Run with the
+ * {@code gc} profiler to compare allocation per call.</p>
+ */
+@State(Scope.Benchmark)
+public class TokenizerBenchmark {
+
+    private static final String SENTENCE = "Explain briefly about Football in 100 words, and also provide a short "
+            + "summary of Harry Kane, including his goals for Tottenham, Bayern Munich and England. ";
+
+    @Param({"1", "16", "256"})
+    public int sentences;
+
+    private final BpeTokenEstimator bpe = new BpeTokenEstimator("o200k_base");
+
+    private final JTokkitTokenCountEstimator springAi = new JTokkitTokenCountEstimator();
+
+    private final CharacterTokenEstimator characters = new CharacterTokenEstimator();
+
+    private String prompt;
+
+    @Setup
+    public void setUp() {
+        prompt = SENTENCE.repeat(sentences);
+    }
+
+    @Benchmark
+    public int bpeCount() {
+        return bpe.estimate(prompt, "gpt-4o");
+    }
+
+    @Benchmark
+    public int springAiCount() {
+        return springAi.estimate(prompt);
+    }
+
+    @Benchmark
+    public int characterEstimate() {
+        return characters.estimate(prompt);
+    }
+
+    @Benchmark
+    public String bpeTruncate() {
+        return bpe.truncate(prompt, 20, true, "gpt-4o");
+    }
+}
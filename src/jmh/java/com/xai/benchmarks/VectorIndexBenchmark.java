@@ -0,0 +1,147 @@
+package com.xai.benchmarks;
+
+import com.xai.rag.VectorIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build time, query latency and footprint of the retrieval vector store.
+ *
+ * <p>The data set is {@code size} vectors drawn around {@value #CLUSTERS} random
+ * centres, the shape real embeddings have, generated once per trial. Setup builds a
+ * flat index and an IVF index with {@code √size} partitions and prints how long each
+ * took, the IVF's recall@10 against the exact search and the bytes both hold. The
+ * benchmarks measure a top-10 query against each index and, as a single shot, loading
+ * the vectors into a flat index.</p>
+ *
+ * <p>At 1M vectors of 256 dimensions every index and the source data hold 1 GiB each,
+ * so the fork needs about 4 GiB of heap, and the IVF build takes a while; run it on its own with {@code -PjmhIncludes=VectorIndexBenchmark}. The
+ * build passes {@code --add-modules jdk.incubator.vector}, without which the scalar
+ * kernel is measured; the printed line says which one ran.</p>
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VectorIndexBenchmark {
+
+    private static final int CLUSTERS = 1000;
+
+    private static final int QUERIES = 256;
+
+    private static final int K = 10;
+
+    private static final int PROBES = 8;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"256"})
+    public int dimensions;
+
+    private float[][] data;
+
+    private float[][] queries;
+
+    private VectorIndex flat;
+
+    private VectorIndex ivf;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        float[][] centres = new float[CLUSTERS][];
+        for (int c = 0; c < CLUSTERS; c++) {
+            centres[c] = gaussian(random, null, 1f);
+        }
+        data = new float[size][];
+        for (int i = 0; i < size; i++) {
+            data[i] = gaussian(random, centres[random.nextInt(CLUSTERS)], 0.3f);
+        }
+        queries = new float[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = gaussian(random, centres[random.nextInt(CLUSTERS)], 0.3f);
+        }
+
+        long start = System.nanoTime();
+        flat = load();
+        long flatMillis = (System.nanoTime() - start) / 1_000_000;
+        start = System.nanoTime();
+        ivf = load();
+        int lists = (int) Math.sqrt(size);
+        ivf.buildIvf(lists, 10, 42L);
+        long ivfMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%n%,d x %d vectors (%s): flat build %,d ms, %.1f MiB; IVF (%d lists) build %,d ms, "
+                        + "%.1f MiB, recall@%d with %d probes %.3f%n",
+                size, dimensions, VectorIndex.simd() ? "SIMD" : "scalar", flatMillis,
+                flat.memoryBytes() / 1048576.0, lists, ivfMillis, ivf.memoryBytes() / 1048576.0, K, PROBES,
+                recall());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public List<VectorIndex.Match> searchFlat() {
+        return flat.search(nextQuery(), K, 0);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public List<VectorIndex.Match> searchIvf() {
+        return ivf.search(nextQuery(), K, PROBES);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public VectorIndex buildFlat() {
+        return load();
+    }
+
+    private VectorIndex load() {
+        VectorIndex index = new VectorIndex(dimensions, size);
+        for (float[] vector : data) {
+            index.add(vector);
+        }
+        return index;
+    }
+
+    private double recall() {
+        int found = 0;
+        for (float[] query : queries) {
+            List<VectorIndex.Match> exact = flat.search(query, K, 0);
+            List<VectorIndex.Match> approximate = ivf.search(query, K, PROBES);
+            for (VectorIndex.Match match : exact) {
+                if (approximate.stream().anyMatch(m -> m.id() == match.id())) {
+                    found++;
+                }
+            }
+        }
+        return (double) found / (QUERIES * K);
+    }
+
+    private float[] nextQuery() {
+        return queries[next++ & (QUERIES - 1)];
+    }
+
+    private float[] gaussian(SplittableRandom random, float[] centre, float sigma) {
+        float[] vector = new float[dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            double u = random.nextDouble(Double.MIN_VALUE, 1);
+            double v = random.nextDouble();
+            float noise = (float) (Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v)) * sigma;
+            vector[d] = centre == null ? noise : centre[d] + noise;
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,228 @@
+package com.xai.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the application's HTTP endpoints.
+ *
+ * <p>Requests are started at a fixed rate regardless of how long earlier ones take,
+ * each on its own virtual thread. Latency is measured from the time a request was
+ * <em>scheduled</em> to start, not from when it was actually sent, so a stalled
+ * client or server shows up in the percentiles instead of silently lowering the
+ * request rate (coordinated omission).</p>
+ *
+ * <p>For every path, and in total, the report shows throughput, errors by status and
+ * the p50/p90/p99/p999/max of both time to first byte (what a streaming client
+ * waits for) and total latency. Requests scheduled during the warm-up are not
+ * counted.</p>
+ *
+ * <pre>
+ * ./gradlew bootRun --args='--spring.profiles.active=simulated'
+ * ./gradlew loadTest -PloadTestArgs="--rps 100 --duration 60s --path /api/v1/chat?prompt=Hi"
+ * </pre>
+ *
+ * <p>Options: {@code --base-url} (default {@code http://localhost:8080}),
+ * {@code --path} (repeatable, requests are spread round-robin), {@code --rps}
+ * (default 50), {@code --duration} and {@code --warmup} (e.g. {@code 60s}, {@code 2m};
+ * defaults 60s and 10s), {@code --timeout} (default 120s) and {@code --accept}
+ * (default {@code application/json}).</p>
+ */
+public final class LoadGenerator {
+
+    private static final String DEFAULT_PATH = "/api/v1/chat?prompt=Tell%20me%20about%20football";
+
+    private final ConcurrentLinkedQueue<Sample> samples = new ConcurrentLinkedQueue<>();
+
+    private final Options options;
+
+    private final HttpClient client;
+
+    private LoadGenerator(Options options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Options options = Options.parse(args);
+        System.out.printf("Driving %s at %d req/s for %s (warm-up %s) over %s%n",
+                options.baseUrl, options.rps, options.duration, options.warmup, options.paths);
+        new LoadGenerator(options).run();
+    }
+
+    private void run() throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rps;
+        long start = System.nanoTime();
+        long warmupEnd = start + options.warmup.toNanos();
+        long end = warmupEnd + options.duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long scheduled = start + i * intervalNanos;
+                if (scheduled >= end) {
+                    break;
+                }
+                long delay = scheduled - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                String path = options.paths.get((int) (i % options.paths.size()));
+                boolean measured = scheduled >= warmupEnd;
+                executor.execute(() -> send(path, scheduled, measured));
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(options.timeout.toSeconds() + 5, TimeUnit.SECONDS)) {
+                System.out.println("Some requests did not finish in time and are not reported");
+            }
+        }
+        report(options.duration.toNanos());
+    }
+
+    private void send(String path, long scheduled, boolean measured) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.baseUrl + path))
+                .timeout(options.timeout)
+                .header("Accept", options.accept)
+                .GET()
+                .build();
+        int status;
+        long firstByte;
+        try {
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            status = response.statusCode();
+            try (InputStream body = response.body()) {
+                body.read();
+                firstByte = System.nanoTime();
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+        } catch (IOException e) {
+            status = 0;
+            firstByte = System.nanoTime();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (measured) {
+            samples.add(new Sample(path, status, firstByte - scheduled, System.nanoTime() - scheduled));
+        }
+    }
+
+    private void report(long measuredNanos) {
+        Map<String, List<Sample>> byPath = new TreeMap<>();
+        for (Sample sample : samples) {
+            byPath.computeIfAbsent(sample.path, p -> new ArrayList<>()).add(sample);
+        }
+        byPath.put("TOTAL", new ArrayList<>(samples));
+        byPath.forEach((path, pathSamples) -> {
+            double seconds = measuredNanos / 1e9;
+            Map<Integer, Integer> errors = new TreeMap<>();
+            int ok = 0;
+            for (Sample sample : pathSamples) {
+                if (sample.status >= 200 && sample.status < 300) {
+                    ok++;
+                } else {
+                    errors.merge(sample.status, 1, Integer::sum);
+                }
+            }
+            System.out.printf("%n%s%n", path);
+            System.out.printf("  requests %d, ok %d, throughput %.1f req/s, errors by status %s%n",
+                    pathSamples.size(), ok, ok / seconds, errors.isEmpty() ? "none" : errors);
+            System.out.println("  ttfb     " + percentiles(pathSamples.stream().mapToLong(Sample::ttfbNanos).toArray()));
+            System.out.println("  latency  " + percentiles(pathSamples.stream().mapToLong(Sample::latencyNanos).toArray()));
+        });
+    }
+
+    private static String percentiles(long[] values) {
+        if (values.length == 0) {
+            return "no samples";
+        }
+        Arrays.sort(values);
+        return String.format("p50 %s  p90 %s  p99 %s  p999 %s  max %s",
+                millis(percentile(values, 0.50)), millis(percentile(values, 0.90)), millis(percentile(values, 0.99)),
+                millis(percentile(values, 0.999)), millis(values[values.length - 1]));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1fms", nanos / 1e6);
+    }
+
+    /**
+     * One completed request.
+     *
+     * @param status       the HTTP status, {@code 0} for an I/O error
+     * @param ttfbNanos    time from scheduled start to the first byte of the body
+     * @param latencyNanos time from scheduled start to the end of the body
+     */
+    private record Sample(String path, int status, long ttfbNanos, long latencyNanos) {
+    }
+
+    private record Options(String baseUrl, List<String> paths, int rps, Duration duration, Duration warmup,
+                           Duration timeout, String accept) {
+
+        static Options parse(String[] args) {
+            String baseUrl = "http://localhost:8080";
+            List<String> paths = new ArrayList<>();
+            int rps = 50;
+            Duration duration = Duration.ofSeconds(60);
+            Duration warmup = Duration.ofSeconds(10);
+            Duration timeout = Duration.ofSeconds(120);
+            String accept = "application/json";
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--base-url" -> baseUrl = value;
+                    case "--path" -> paths.add(value);
+                    case "--rps" -> rps = Integer.parseInt(value);
+                    case "--duration" -> duration = duration(value);
+                    case "--warmup" -> warmup = duration(value);
+                    case "--timeout" -> timeout = duration(value);
+                    case "--accept" -> accept = value;
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (rps <= 0) {
+                throw new IllegalArgumentException("--rps must be positive");
+            }
+            return new Options(baseUrl, paths.isEmpty() ? List.of(DEFAULT_PATH) : List.copyOf(paths),
+                    rps, duration, warmup, timeout, accept);
+        }
+
+        /**
+         * Parses {@code 500ms}, {@code 30s} or {@code 2m}.
+         */
+        private static Duration duration(String value) {
+            if (value.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+            }
+            long amount = Long.parseLong(value.substring(0, value.length() - 1));
+            return switch (value.charAt(value.length() - 1)) {
+                case 's' -> Duration.ofSeconds(amount);
+                case 'm' -> Duration.ofMinutes(amount);
+                default -> throw new IllegalArgumentException("Unsupported duration " + value);
+            };
+        }
+    }
+}
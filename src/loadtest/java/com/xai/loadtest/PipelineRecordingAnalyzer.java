@@ -0,0 +1,327 @@
+package com.xai.loadtest;
+
+import com.xai.jfr.AdmissionEvent;
+import com.xai.jfr.HttpExchangeEvent;
+import com.xai.jfr.ModelCallEvent;
+import com.xai.jfr.RequestEvent;
+import com.xai.jfr.ResponseConversionEvent;
+import com.xai.jfr.TemplateRenderEvent;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Offline report of the request pipeline events in a flight recording.
+ *
+ * <p>For every stage ({@code request}, {@code template-render},
+ * {@code admission:<gate>}, {@code model-call:<endpoint>}, {@code http-exchange},
+ * {@code response-conversion}) the report shows the count and the mean, p50, p90, p99
+ * and maximum duration; model calls also show their mean prompt and completion
+ * tokens.</p>
+ *
+ * <p>It then breaks requests down by path: a stage event is attributed to the request
+ * event that encloses it on the same thread, which covers the blocking endpoints,
+ * where the whole pipeline runs on the request's thread. For each path the mean time
+ * of a request is split into template rendering, admission, the model call (of which
+ * the HTTP exchange is a part) and response conversion; {@code other} is what is left,
+ * i.e. the web layer, advisors, caches and serialization. Streamed and hedged calls run
+ * on other threads and only appear in the stage table.</p>
+ *
+ * <pre>
+ * java -XX:StartFlightRecording=filename=pipeline.jfr,settings=default -jar app.jar
+ * jcmd &lt;pid&gt; JFR.dump name=1 filename=pipeline.jfr
+ * ./gradlew jfrReport -PjfrFile=pipeline.jfr
+ * </pre>
+ */
+public final class PipelineRecordingAnalyzer {
+
+    private static final String REQUEST = "request";
+
+    private final Map<String, Stage> stages = new TreeMap<>();
+
+    private final Map<String, Breakdown> breakdowns = new TreeMap<>();
+
+    private PipelineRecordingAnalyzer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: PipelineRecordingAnalyzer <recording.jfr>");
+            System.exit(2);
+        }
+        read(Path.of(args[0])).print(System.out);
+    }
+
+    /**
+     * Reads the pipeline events of a recording.
+     *
+     * @param recording the {@code .jfr} file
+     * @return the analysis
+     * @throws IOException if the file cannot be read or is not a recording
+     */
+    public static PipelineRecordingAnalyzer read(Path recording) throws IOException {
+        PipelineRecordingAnalyzer analyzer = new PipelineRecordingAnalyzer();
+        Map<Long, List<RecordedEvent>> byThread = new HashMap<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String stage = stage(event);
+                if (stage == null) {
+                    continue;
+                }
+                analyzer.stages.computeIfAbsent(stage, Stage::new).add(event);
+                RecordedThread thread = event.getThread();
+                if (thread != null) {
+                    byThread.computeIfAbsent(thread.getId(), id -> new ArrayList<>()).add(event);
+                }
+            }
+        }
+        byThread.values().forEach(analyzer::attribute);
+        return analyzer;
+    }
+
+    /**
+     * @return the statistics of every stage, by stage name
+     */
+    public Map<String, StageStatistics> stages() {
+        Map<String, StageStatistics> statistics = new TreeMap<>();
+        stages.forEach((name, stage) -> statistics.put(name, stage.statistics()));
+        return statistics;
+    }
+
+    /**
+     * @return the mean time per stage of the requests to each path, by path
+     */
+    public Map<String, RequestBreakdown> breakdowns() {
+        Map<String, RequestBreakdown> result = new TreeMap<>();
+        breakdowns.forEach((path, breakdown) -> result.put(path, breakdown.mean(path)));
+        return result;
+    }
+
+    /**
+     * Prints the stage table and the per-path breakdown.
+     *
+     * @param out the stream to print to
+     */
+    public void print(PrintStream out) {
+        out.printf("%-36s %7s %9s %9s %9s %9s %9s %9s %9s%n", "stage", "count", "mean", "p50", "p90", "p99", "max",
+                "tokens in", "out");
+        for (StageStatistics stage : stages().values()) {
+            out.printf("%-36s %7d %9s %9s %9s %9s %9s %9s %9s%n", stage.stage(), stage.count(),
+                    millis(stage.meanNanos()), millis(stage.p50Nanos()), millis(stage.p90Nanos()),
+                    millis(stage.p99Nanos()), millis(stage.maxNanos()),
+                    stage.stage().startsWith("model-call") ? String.format("%.0f", stage.meanPromptTokens()) : "",
+                    stage.stage().startsWith("model-call") ? String.format("%.0f", stage.meanCompletionTokens()) : "");
+        }
+        if (breakdowns.isEmpty()) {
+            return;
+        }
+        out.printf("%nMean time per request, by path (http is part of model)%n");
+        out.printf("%-36s %7s %9s %9s %9s %9s %9s %9s %9s%n", "path", "count", "total", "template", "admission",
+                "model", "http", "convert", "other");
+        for (RequestBreakdown breakdown : breakdowns().values()) {
+            out.printf("%-36s %7d %9s %9s %9s %9s %9s %9s %9s%n", breakdown.path(), breakdown.requests(),
+                    millis(breakdown.totalNanos()), millis(breakdown.templateNanos()),
+                    millis(breakdown.admissionNanos()), millis(breakdown.modelNanos()), millis(breakdown.httpNanos()),
+                    millis(breakdown.conversionNanos()), millis(breakdown.otherNanos()));
+        }
+    }
+
+    /**
+     * @return the stage of a pipeline event, or {@code null} for other events
+     */
+    private static String stage(RecordedEvent event) {
+        return switch (event.getEventType().getName()) {
+            case RequestEvent.NAME -> REQUEST;
+            case TemplateRenderEvent.NAME -> "template-render";
+            case AdmissionEvent.NAME -> "admission:" + event.getString("gate");
+            case ModelCallEvent.NAME -> "model-call:" + event.getString("endpoint");
+            case HttpExchangeEvent.NAME -> "http-exchange";
+            case ResponseConversionEvent.NAME -> "response-conversion";
+            default -> null;
+        };
+    }
+
+    /**
+     * Adds the stage events of one thread to the requests enclosing them. Requests on a
+     * thread do not overlap, so each stage is looked up by binary search on start time.
+     */
+    private void attribute(List<RecordedEvent> events) {
+        List<RecordedEvent> requests = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(RequestEvent.NAME)) {
+                requests.add(event);
+            }
+        }
+        if (requests.isEmpty()) {
+            return;
+        }
+        requests.sort(Comparator.comparing(RecordedEvent::getStartTime));
+        long[] starts = requests.stream().mapToLong(e -> nanos(e.getStartTime())).toArray();
+        long[][] totals = new long[requests.size()][Breakdown.STAGES];
+        for (RecordedEvent event : events) {
+            int slot = Breakdown.slot(event.getEventType().getName());
+            if (slot < 0) {
+                continue;
+            }
+            long start = nanos(event.getStartTime());
+            int index = Arrays.binarySearch(starts, start);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            if (index >= 0 && !event.getEndTime().isAfter(requests.get(index).getEndTime())) {
+                totals[index][slot] += event.getDuration().toNanos();
+            }
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            RecordedEvent request = requests.get(i);
+            breakdowns.computeIfAbsent(request.getString("path"), path -> new Breakdown())
+                    .add(request.getDuration().toNanos(), totals[i]);
+        }
+    }
+
+    private static long nanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1fms", nanos / 1e6);
+    }
+
+    /**
+     * Duration statistics of one stage.
+     *
+     * @param stage                the stage name
+     * @param count                the number of events
+     * @param meanNanos            the mean duration
+     * @param p50Nanos             the median duration
+     * @param p90Nanos             the 90th percentile
+     * @param p99Nanos             the 99th percentile
+     * @param maxNanos             the longest duration
+     * @param meanPromptTokens     the mean prompt tokens of model calls, {@code 0} for other stages
+     * @param meanCompletionTokens the mean completion tokens of model calls, {@code 0} for other stages
+     */
+    public record StageStatistics(String stage, int count, long meanNanos, long p50Nanos, long p90Nanos,
+                                  long p99Nanos, long maxNanos, double meanPromptTokens,
+                                  double meanCompletionTokens) {
+    }
+
+    /**
+     * Mean time per stage of the requests to one path.
+     *
+     * @param path            the request path
+     * @param requests        the number of requests
+     * @param totalNanos      the mean request duration
+     * @param templateNanos   the mean time rendering templates
+     * @param admissionNanos  the mean time waiting at admission gates
+     * @param modelNanos      the mean time in model calls
+     * @param httpNanos       the mean time in HTTP exchanges, part of {@code modelNanos}
+     * @param conversionNanos the mean time converting replies
+     * @param otherNanos      the mean time not spent in any of these stages
+     */
+    public record RequestBreakdown(String path, int requests, long totalNanos, long templateNanos,
+                                   long admissionNanos, long modelNanos, long httpNanos, long conversionNanos,
+                                   long otherNanos) {
+    }
+
+    /**
+     * The durations and token counts of one stage.
+     */
+    private static final class Stage {
+
+        private final String name;
+
+        private final List<Long> durations = new ArrayList<>();
+
+        private long promptTokens;
+
+        private long completionTokens;
+
+        private Stage(String name) {
+            this.name = name;
+        }
+
+        private void add(RecordedEvent event) {
+            durations.add(event.getDuration().toNanos());
+            if (event.getEventType().getName().equals(ModelCallEvent.NAME)) {
+                promptTokens += event.getInt("promptTokens");
+                completionTokens += event.getInt("completionTokens");
+            }
+        }
+
+        private StageStatistics statistics() {
+            long[] sorted = durations.stream().mapToLong(Long::longValue).sorted().toArray();
+            int count = sorted.length;
+            return new StageStatistics(name, count, Arrays.stream(sorted).sum() / count,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), sorted[count - 1],
+                    (double) promptTokens / count, (double) completionTokens / count);
+        }
+    }
+
+    /**
+     * Stage totals of the requests to one path.
+     */
+    private static final class Breakdown {
+
+        private static final int TEMPLATE = 0;
+
+        private static final int ADMISSION = 1;
+
+        private static final int MODEL = 2;
+
+        private static final int HTTP = 3;
+
+        private static final int CONVERSION = 4;
+
+        private static final int STAGES = 5;
+
+        private final long[] totals = new long[STAGES];
+
+        private long requestNanos;
+
+        private int requests;
+
+        private static int slot(String eventName) {
+            return switch (eventName) {
+                case TemplateRenderEvent.NAME -> TEMPLATE;
+                case AdmissionEvent.NAME -> ADMISSION;
+                case ModelCallEvent.NAME -> MODEL;
+                case HttpExchangeEvent.NAME -> HTTP;
+                case ResponseConversionEvent.NAME -> CONVERSION;
+                default -> -1;
+            };
+        }
+
+        private void add(long duration, long[] stageTotals) {
+            requests++;
+            requestNanos += duration;
+            for (int i = 0; i < STAGES; i++) {
+                totals[i] += stageTotals[i];
+            }
+        }
+
+        private RequestBreakdown mean(String path) {
+            long other = requestNanos - totals[TEMPLATE] - totals[ADMISSION] - totals[MODEL] - totals[CONVERSION];
+            return new RequestBreakdown(path, requests, requestNanos / requests, totals[TEMPLATE] / requests,
+                    totals[ADMISSION] / requests, totals[MODEL] / requests, totals[HTTP] / requests,
+                    totals[CONVERSION] / requests, Math.max(0, other) / requests);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.xai.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast the application starts in each deployment mode.
+ *
+ * <p>For every mode the probe launches the given command, polls a URL until it answers
+ * {@code 200}, and records the time from process start to that first successful
+ * response: JVM start, context refresh, the lazy work of the first request and the
+ * reply itself. It then reads the resident set size of the process and stops it. Each
+ * mode is started {@code --runs} times; the report shows the median and range of both
+ * figures.</p>
+ *
+ * <p>It is meant to run against the {@code simulated} profile, where the model answers
+ * locally and startup dominates; see the {@code startupComparison} task.</p>
+ *
+ * <pre>
+ * ./gradlew nativeCompile cdsArchive startupComparison -PaotProfiles=simulated
+ * </pre>
+ *
+ * <p>Options: {@code --mode name=command} (repeatable; the command is split on
+ * spaces), {@code --url} (default {@code http://localhost:8080/api/v1/chat/response?prompt=Hi}),
+ * {@code --runs} (default 3), {@code --timeout} in seconds (default 120) and
+ * {@code --log-dir}, where the output of every run is written (default the working
+ * directory). Resident memory is read from {@code /proc}, so it is only reported on
+ * Linux.</p>
+ */
+public final class StartupProbe {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    private final Options options;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private StartupProbe(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Options options = Options.parse(args);
+        if (options.modes.isEmpty()) {
+            System.err.println("Usage: StartupProbe --mode name=command [--mode ...] [--url url] [--runs n]");
+            System.exit(2);
+        }
+        new StartupProbe(options).run();
+    }
+
+    private void run() throws IOException, InterruptedException {
+        Files.createDirectories(options.logDir);
+        Map<String, List<Run>> results = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> mode : options.modes.entrySet()) {
+            List<Run> runs = new ArrayList<>();
+            for (int i = 1; i <= options.runs; i++) {
+                Run run = probe(mode.getKey(), mode.getValue(), i);
+                System.out.printf("%-10s run %d: %s%n", mode.getKey(), i, run);
+                runs.add(run);
+            }
+            results.put(mode.getKey(), runs);
+        }
+        System.out.printf("%nFirst successful response from %s%n", options.url);
+        System.out.printf("%-10s %12s %22s %10s %18s%n", "mode", "ready", "range", "rss", "range");
+        results.forEach((mode, runs) -> {
+            long[] ready = runs.stream().filter(Run::ok).mapToLong(Run::readyNanos).sorted().toArray();
+            long[] rss = runs.stream().filter(Run::ok).mapToLong(Run::rssKiB).filter(k -> k > 0).sorted().toArray();
+            if (ready.length == 0) {
+                System.out.printf("%-10s %12s%n", mode, "failed");
+                return;
+            }
+            System.out.printf("%-10s %12s %22s %10s %18s%n", mode,
+                    millis(median(ready)), millis(ready[0]) + " - " + millis(ready[ready.length - 1]),
+                    rss.length == 0 ? "n/a" : mebibytes(median(rss)),
+                    rss.length == 0 ? "" : mebibytes(rss[0]) + " - " + mebibytes(rss[rss.length - 1]));
+        });
+    }
+
+    /**
+     * Starts one instance, waits for its first successful response and stops it.
+     */
+    private Run probe(String mode, List<String> command, int run) throws IOException, InterruptedException {
+        File log = options.logDir.resolve(mode + "-" + run + ".log").toFile();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.url))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        try {
+            long deadline = start + options.timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    return Run.failed("exited with " + process.exitValue() + ", see " + log);
+                }
+                if (succeeds(request)) {
+                    long ready = System.nanoTime() - start;
+                    return new Run(true, ready, residentKiB(process.pid()), null);
+                }
+                Thread.sleep(POLL_INTERVAL);
+            }
+            return Run.failed("no successful response within " + options.timeout.toSeconds() + "s, see " + log);
+        } finally {
+            stop(process);
+        }
+    }
+
+    private boolean succeeds(HttpRequest request) throws InterruptedException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the {@code VmRSS} of a process in KiB, or {@code 0} if it cannot be read
+     */
+    private static long residentKiB(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring("VmRSS:".length()).replace("kB", "").strip());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // not Linux, or the process is gone
+        }
+        return 0;
+    }
+
+    private static void stop(Process process) throws InterruptedException {
+        process.descendants().forEach(ProcessHandle::destroy);
+        process.destroy();
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[(sorted.length - 1) / 2];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.0fms", nanos / 1e6);
+    }
+
+    private static String mebibytes(long kib) {
+        return String.format("%.0fMiB", kib / 1024.0);
+    }
+
+    /**
+     * One start of an instance.
+     *
+     * @param ok         whether it answered successfully
+     * @param readyNanos time from process start to the first successful response
+     * @param rssKiB     resident set size after the first response, {@code 0} if unknown
+     * @param failure    why it did not answer, if it did not
+     */
+    private record Run(boolean ok, long readyNanos, long rssKiB, String failure) {
+
+        static Run failed(String failure) {
+            return new Run(false, 0, 0, failure);
+        }
+
+        @Override
+        public String toString() {
+            if (!ok) {
+                return "failed: " + failure;
+            }
+            return millis(readyNanos) + (rssKiB > 0 ? ", " + mebibytes(rssKiB) + " resident" : "");
+        }
+    }
+
+    private record Options(Map<String, List<String>> modes, String url, int runs, Duration timeout, Path logDir) {
+
+        static Options parse(String[] args) {
+            Map<String, List<String>> modes = new LinkedHashMap<>();
+            String url = "http://localhost:8080/api/v1/chat/response?prompt=Hi";
+            int runs = 3;
+            Duration timeout = Duration.ofSeconds(120);
+            Path logDir = Path.of(".");
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--mode" -> {
+                        int separator = value.indexOf('=');
+                        if (separator <= 0) {
+                            throw new IllegalArgumentException("Expected --mode name=command, got " + value);
+                        }
+                        modes.put(value.substring(0, separator),
+                                Arrays.asList(value.substring(separator + 1).strip().split(" +")));
+                    }
+                    case "--url" -> url = value;
+                    case "--runs" -> runs = Integer.parseInt(value);
+                    case "--timeout" -> timeout = Duration.ofSeconds(Long.parseLong(value));
+                    case "--log-dir" -> logDir = Path.of(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (runs <= 0) {
+                throw new IllegalArgumentException("--runs must be positive");
+            }
+            return new Options(modes, url, runs, timeout, logDir);
+        }
+    }
+}
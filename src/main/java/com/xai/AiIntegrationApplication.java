@@ -1,9 +1,12 @@
 package com.xai;
 
+import com.xai.appconfig.ApplicationRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(ApplicationRuntimeHints.class)
 public class AiIntegrationApplication {
 
 	public static void main(String[] args) {
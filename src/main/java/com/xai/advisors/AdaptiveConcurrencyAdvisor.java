@@ -0,0 +1,142 @@
+package com.xai.advisors;
+
+import com.xai.appconfig.ConcurrencyLimitProperties;
+import com.xai.resilience.AdaptiveConcurrencyLimiter;
+import com.xai.resilience.CapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Advisor bounding the number of in-flight model calls with an
+ * {@link AdaptiveConcurrencyLimiter}, so a slowing provider makes the instance shed
+ * load early instead of piling up requests until threads, memory and client timeouts
+ * run out.
+ *
+ * <p>A call over the limit is rejected at once with a {@link CapacityExceededException}
+ * (HTTP 503) whose {@code Retry-After} is the current short-term latency, i.e. about
+ * when a slot is expected to free up. Blocking calls feed their latency into the limit;
+ * streams feed their time to first token, since their total duration depends on the
+ * length of the reply. The advisor runs inside the bulkheads, so time spent queueing
+ * for a bulkhead permit is neither measured nor holds a slot.</p>
+ *
+ * <p>Admissions and rejections are recorded as {@code com.xai.Admission} flight
+ * recorder events.</p>
+ *
+ * <p>Meters: {@code ai.concurrency.limit}, {@code ai.concurrency.in.flight},
+ * {@code ai.concurrency.rtt} by {@code window} ({@code short}, {@code long}) and
+ * {@code ai.concurrency.rejected}.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "xai.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdaptiveConcurrencyAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final Counter rejected;
+
+    public AdaptiveConcurrencyAdvisor(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.limiter = new AdaptiveConcurrencyLimiter(properties.getInitialLimit(), properties.getMinLimit(),
+                properties.getMaxLimit(), properties.getSmoothing(), properties.getTolerance(),
+                properties.getShortWindow(), properties.getLongWindow());
+        Gauge.builder("ai.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit).register(meterRegistry);
+        Gauge.builder("ai.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::inFlight).register(meterRegistry);
+        Gauge.builder("ai.concurrency.rtt", limiter, l -> l.shortRtt().toNanos() / 1e9)
+                .tag("window", "short")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("ai.concurrency.rtt", limiter, l -> l.longRtt().toNanos() / 1e9)
+                .tag("window", "long")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("ai.concurrency.rejected").register(meterRegistry);
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        acquire(chatClientRequest);
+        long start = System.nanoTime();
+        try {
+            ChatClientResponse response = callAdvisorChain.nextCall(chatClientRequest);
+            limiter.onSuccess(System.nanoTime() - start);
+            return response;
+        } catch (CapacityExceededException e) {
+            // Shed further down the chain; not a sign of upstream latency.
+            limiter.onIgnore();
+            throw e;
+        } catch (RuntimeException e) {
+            limiter.onFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        return Flux.defer(() -> {
+            acquire(chatClientRequest);
+            long start = System.nanoTime();
+            Flux<ChatClientResponse> stream;
+            try {
+                stream = streamAdvisorChain.nextStream(chatClientRequest);
+            } catch (CapacityExceededException e) {
+                limiter.onIgnore();
+                throw e;
+            } catch (RuntimeException e) {
+                // Thrown before the stream exists, so doFinally would never release the slot.
+                limiter.onFailure();
+                throw e;
+            }
+            AtomicBoolean released = new AtomicBoolean();
+            return stream
+                    .doOnNext(response -> {
+                        if (released.compareAndSet(false, true)) {
+                            limiter.onSuccess(System.nanoTime() - start);
+                        }
+                    })
+                    .doFinally(signal -> {
+                        if (released.compareAndSet(false, true)) {
+                            if (signal == SignalType.ON_ERROR) {
+                                limiter.onFailure();
+                            } else {
+                                limiter.onIgnore();
+                            }
+                        }
+                    });
+        });
+    }
+
+    private void acquire(ChatClientRequest chatClientRequest) {
+        AdmissionEvents.admit("concurrency-limit", chatClientRequest, () -> {
+            if (!limiter.tryAcquire()) {
+                rejected.increment();
+                Duration retryAfter = limiter.shortRtt();
+                throw new CapacityExceededException("Too many model calls in flight (limit " + limiter.limit() + ")",
+                        "concurrency_limit", retryAfter.isZero() ? Duration.ofSeconds(1) : retryAfter);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return AdvisorOrder.CONCURRENCY_LIMIT;
+    }
+}
@@ -0,0 +1,49 @@
+package com.xai.advisors;
+
+import com.xai.jfr.AdmissionEvent;
+import com.xai.services.AiEndpoint;
+import org.springframework.ai.chat.client.ChatClientRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Records the wait of a model call at an admission gate as an {@link AdmissionEvent}.
+ *
+ * <p>Without a running flight recording the event is not committed and its fields are
+ * not computed, so the gates can record unconditionally.</p>
+ */
+final class AdmissionEvents {
+
+    private AdmissionEvents() {
+    }
+
+    /**
+     * Runs an admission and records how long it took and whether it succeeded.
+     *
+     * @param gate    the gate, e.g. {@code rate-limit}
+     * @param request the request being admitted
+     * @param admit   the admission; throws if the call is rejected
+     * @param <T>     the result of the admission
+     * @return the result of the admission
+     */
+    static <T> T admit(String gate, ChatClientRequest request, Supplier<T> admit) {
+        AdmissionEvent event = new AdmissionEvent();
+        event.begin();
+        boolean admitted = false;
+        try {
+            T result = admit.get();
+            admitted = true;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                AiEndpoint endpoint = AdvisorContext.endpoint(request);
+                event.gate = gate;
+                event.endpoint = endpoint == null ? "unknown" : endpoint.key();
+                event.model = BulkheadAdvisor.model(request);
+                event.admitted = admitted;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.xai.advisors;
+
+import com.xai.resilience.Deadline;
+import com.xai.resilience.RequestPriority;
+import com.xai.routing.Backend;
+import com.xai.services.AiEndpoint;
+import com.xai.services.InvalidRequestException;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Keys and helpers for the advisor context shared between {@code AiServiceImpl}
+ * and the application's {@link ChatClient} advisors.
+ *
+ * <p>The service tags every request with the {@link AiEndpoint} it serves, so
+ * advisors can apply per-endpoint behaviour without parsing the prompt. Tagging also
+ * captures the {@link Deadline#current() deadline} of the HTTP request being served and
+ * the {@link RequestPriority#current() priority} of background work, since the request
+ * is built on its thread while streams run elsewhere.</p>
+ */
+public final class AdvisorContext {
+
+    /**
+     * Context key holding the {@link AiEndpoint} a request is made for.
+     */
+    public static final String ENDPOINT = "xai.endpoint";
+
+    /**
+     * Context key holding the name of the prompt template the request was rendered from.
+     */
+    public static final String TEMPLATE = "xai.template";
+
+    /**
+     * Context key holding the {@link Deadline} the request must be answered by.
+     */
+    public static final String DEADLINE = "xai.deadline";
+
+    /**
+     * Context key holding the {@link RequestPriority} a request was made with.
+     */
+    public static final String PRIORITY = "xai.priority";
+
+    /**
+     * Context key holding the id of the conversation session a request belongs to.
+     */
+    public static final String SESSION = "xai.session";
+
+    /**
+     * Context key holding the exact number of prompt tokens, once counted by the prompt budget advisor.
+     */
+    public static final String PROMPT_TOKENS = "xai.prompt-tokens";
+
+    /**
+     * Context key holding the routing {@link Backend} selected for a request.
+     */
+    public static final String BACKEND = "xai.backend";
+
+    private static final Pattern SESSION_ID = Pattern.compile("[A-Za-z0-9._:-]{1,128}");
+
+    private AdvisorContext() {
+    }
+
+    /**
+     * Tags a request with its endpoint.
+     *
+     * <pre>
+     * chatClient.prompt(prompt).advisors(AdvisorContext.endpoint(AiEndpoint.CHAT))
+     * </pre>
+     *
+     * @param endpoint the endpoint the request is made for
+     * @return an advisor spec customizer setting the endpoint and, if any, the deadline
+     * and priority parameters
+     */
+    public static Consumer<ChatClient.AdvisorSpec> endpoint(AiEndpoint endpoint) {
+        Deadline deadline = Deadline.current();
+        RequestPriority priority = RequestPriority.current();
+        return advisorSpec -> {
+            advisorSpec.param(ENDPOINT, endpoint);
+            if (deadline != null) {
+                advisorSpec.param(DEADLINE, deadline);
+            }
+            if (priority != null) {
+                advisorSpec.param(PRIORITY, priority);
+            }
+        };
+    }
+
+    /**
+     * Reads the endpoint a request was tagged with.
+     *
+     * @param request the request seen by an advisor
+     * @return the endpoint, or {@code null} if the request was not tagged
+     */
+    public static AiEndpoint endpoint(ChatClientRequest request) {
+        return request.context().get(ENDPOINT) instanceof AiEndpoint endpoint ? endpoint : null;
+    }
+
+    /**
+     * Reads the scheduling priority of a request: the priority it was tagged with, else
+     * {@link RequestPriority#BATCH} for the batch endpoint and
+     * {@link RequestPriority#INTERACTIVE} for everything else.
+     *
+     * @param request the request seen by an advisor
+     * @return the priority
+     */
+    public static RequestPriority priority(ChatClientRequest request) {
+        if (request.context().get(PRIORITY) instanceof RequestPriority priority) {
+            return priority;
+        }
+        return endpoint(request) == AiEndpoint.BATCH ? RequestPriority.BATCH : RequestPriority.INTERACTIVE;
+    }
+
+    /**
+     * Tags a request with the prompt template its user message was rendered from.
+     *
+     * @param template the template name
+     * @return an advisor spec customizer setting the template parameter
+     */
+    public static Consumer<ChatClient.AdvisorSpec> template(String template) {
+        return advisorSpec -> advisorSpec.param(TEMPLATE, template);
+    }
+
+    /**
+     * Reads the template a request was tagged with.
+     *
+     * @param request the request seen by an advisor
+     * @return the template name, or {@code null} if the request was not rendered from a template
+     */
+    public static String template(ChatClientRequest request) {
+        return request.context().get(TEMPLATE) instanceof String template ? template : null;
+    }
+
+    /**
+     * Sets the deadline of a request explicitly, e.g. for work not started by an HTTP request.
+     *
+     * @param deadline the deadline
+     * @return an advisor spec customizer setting the deadline parameter
+     */
+    public static Consumer<ChatClient.AdvisorSpec> deadline(Deadline deadline) {
+        return advisorSpec -> advisorSpec.param(DEADLINE, deadline);
+    }
+
+    /**
+     * Reads the deadline a request was tagged with.
+     *
+     * @param request the request seen by an advisor
+     * @return the deadline, or {@code null} if the request carries none
+     */
+    public static Deadline deadline(ChatClientRequest request) {
+        return request.context().get(DEADLINE) instanceof Deadline deadline ? deadline : null;
+    }
+
+    /**
+     * Tags a request with the conversation session it belongs to.
+     *
+     * @param sessionId the session id: 1 to 128 letters, digits, {@code .}, {@code _}, {@code :} or {@code -}
+     * @return an advisor spec customizer setting the session parameter
+     * @throws InvalidRequestException if the session id is malformed
+     */
+    public static Consumer<ChatClient.AdvisorSpec> session(String sessionId) {
+        if (!SESSION_ID.matcher(sessionId).matches()) {
+            throw new InvalidRequestException("Invalid session id: " + sessionId);
+        }
+        return advisorSpec -> advisorSpec.param(SESSION, sessionId);
+    }
+
+    /**
+     * Reads the session a request was tagged with.
+     *
+     * @param request the request seen by an advisor
+     * @return the session id, or {@code null} if the request is not part of a conversation
+     */
+    public static String session(ChatClientRequest request) {
+        return request.context().get(SESSION) instanceof String sessionId ? sessionId : null;
+    }
+
+    /**
+     * Reads the prompt token count of a request.
+     *
+     * @param request the request seen by an advisor
+     * @return the number of prompt tokens, or {@code -1} if they have not been counted
+     */
+    public static int promptTokens(ChatClientRequest request) {
+        return request.context().get(PROMPT_TOKENS) instanceof Integer tokens ? tokens : -1;
+    }
+
+    /**
+     * Reads the prompt token count of the request a response answers.
+     *
+     * @param response the response returned by the chain
+     * @return the number of prompt tokens, or {@code -1} if they have not been counted
+     */
+    public static int promptTokens(ChatClientResponse response) {
+        return response.context().get(PROMPT_TOKENS) instanceof Integer tokens ? tokens : -1;
+    }
+
+    /**
+     * Reads the routing backend selected for a request.
+     *
+     * @param request the request seen by an advisor
+     * @return the backend, or {@code null} if the request was not routed
+     */
+    public static Backend backend(ChatClientRequest request) {
+        return request.context().get(BACKEND) instanceof Backend backend ? backend : null;
+    }
+}
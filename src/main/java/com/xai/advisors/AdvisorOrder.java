@@ -0,0 +1,91 @@
+package com.xai.advisors;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Order of the application's advisors in the {@link org.springframework.ai.chat.client.ChatClient}
+ * chain. Lower values run first, i.e. further away from the model.
+ */
+public final class AdvisorOrder {
+
+    /**
+     * Metrics of every call; outermost so cache hits and rejections are measured too.
+     */
+    public static final int OBSERVABILITY = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    /**
+     * Conversation memory; before the caches, so cache keys include the history.
+     */
+    public static final int MEMORY = Ordered.HIGHEST_PRECEDENCE + 200;
+
+    /**
+     * Retrieval-augmented prompts; after memory, so only the new question is searched,
+     * and before the prompt budget and the caches, so the augmented prompt is counted
+     * and cached.
+     */
+    public static final int RETRIEVAL = Ordered.HIGHEST_PRECEDENCE + 300;
+
+    /**
+     * Backend selection of the model router; before the prompt budget and the gates,
+     * so they see the model of the backend that serves the call.
+     */
+    public static final int ROUTING = Ordered.HIGHEST_PRECEDENCE + 350;
+
+    /**
+     * Prompt token budget; after memory, so the history is counted, and before the
+     * caches, so a trimmed prompt is cached as sent.
+     */
+    public static final int PROMPT_BUDGET = Ordered.HIGHEST_PRECEDENCE + 400;
+
+    /**
+     * Exact-match response cache; runs before anything that costs a model call.
+     */
+    public static final int RESPONSE_CACHE = Ordered.HIGHEST_PRECEDENCE + 500;
+
+    /**
+     * Semantic response cache; consulted after an exact-match miss.
+     */
+    public static final int SEMANTIC_CACHE = Ordered.HIGHEST_PRECEDENCE + 550;
+
+    /**
+     * In-flight request coalescing; runs after the cache so only misses are coalesced.
+     */
+    public static final int REQUEST_COALESCING = Ordered.HIGHEST_PRECEDENCE + 600;
+
+    /**
+     * Deadline enforcement; after the caches, so capping {@code maxTokens} does not
+     * change cache keys, and before the gates that may queue a call.
+     */
+    public static final int DEADLINE = Ordered.HIGHEST_PRECEDENCE + 650;
+
+    /**
+     * Provider quota admission; after coalescing so duplicates are charged once.
+     */
+    public static final int RATE_LIMIT = Ordered.HIGHEST_PRECEDENCE + 700;
+
+    /**
+     * Per-model concurrency bulkhead; queues calls once the rate limiter has admitted them.
+     */
+    public static final int BULKHEAD = Ordered.HIGHEST_PRECEDENCE + 900;
+
+    /**
+     * Adaptive concurrency limit; the last gate before the model call, inside the
+     * bulkhead, so the latency it adapts to excludes the wait for a bulkhead permit.
+     */
+    public static final int CONCURRENCY_LIMIT = Ordered.HIGHEST_PRECEDENCE + 925;
+
+    /**
+     * Counts model round-trips caused by tool calls; innermost, so it sees only calls
+     * that reach the model.
+     */
+    public static final int TOOL_ROUND_TRIPS = Ordered.HIGHEST_PRECEDENCE + 950;
+
+    /**
+     * Model call flight recorder events; innermost, so the event measures the model
+     * call alone, after every gate has admitted it.
+     */
+    public static final int MODEL_CALL_EVENTS = Ordered.HIGHEST_PRECEDENCE + 975;
+
+    private AdvisorOrder() {
+    }
+}
@@ -0,0 +1,123 @@
+package com.xai.advisors;
+
+import com.xai.resilience.Bulkhead;
+import com.xai.resilience.BulkheadRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Advisor isolating each model behind its own {@link Bulkhead}, so a slow model
+ * cannot take every request thread with it.
+ *
+ * <p>Blocking calls hold a permit for the duration of the model call. Streaming calls
+ * wait for it on a virtual thread, off the subscriber's thread, and hold it until the
+ * stream completes, fails or is cancelled. The wait for a permit is recorded as a
+ * {@code com.xai.Admission} flight recorder event.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkheadAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private static final String GATE = "bulkhead";
+
+    private final BulkheadRegistry bulkheads;
+
+    /**
+     * Runs the permit waits of streams; a parked virtual thread costs next to nothing,
+     * unlike a thread of the bounded elastic pool.
+     */
+    private final Scheduler scheduler = Schedulers.fromExecutorService(
+            Executors.newVirtualThreadPerTaskExecutor(), "bulkhead");
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        Bulkhead bulkhead = AdmissionEvents.admit(GATE, chatClientRequest,
+                () -> bulkheads.acquire(model(chatClientRequest)));
+        try {
+            return callAdvisorChain.nextCall(chatClientRequest);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        return Flux.defer(() -> {
+            Permit permit = new Permit();
+            return Mono.fromRunnable(() -> permit.acquired(AdmissionEvents.admit(GATE, chatClientRequest,
+                            () -> bulkheads.acquire(model(chatClientRequest)))))
+                    .subscribeOn(scheduler)
+                    .thenMany(Flux.defer(() -> streamAdvisorChain.nextStream(chatClientRequest)))
+                    .doFinally(signal -> permit.finish());
+        });
+    }
+
+    /**
+     * @return the model the request is addressed to, or {@code null} for the client default
+     */
+    static String model(ChatClientRequest chatClientRequest) {
+        ChatOptions options = chatClientRequest.prompt().getOptions();
+        return options == null ? null : options.getModel();
+    }
+
+    /**
+     * The permit of one stream. The stream may be cancelled while the permit is being
+     * acquired on another thread; whichever of both happens last releases it.
+     */
+    private static final class Permit {
+
+        private final AtomicReference<Bulkhead> bulkhead = new AtomicReference<>();
+
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        void acquired(Bulkhead acquired) {
+            bulkhead.set(acquired);
+            if (finished.get()) {
+                release();
+            }
+        }
+
+        void finish() {
+            finished.set(true);
+            release();
+        }
+
+        private void release() {
+            Bulkhead held = bulkhead.getAndSet(null);
+            if (held != null) {
+                held.release();
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.dispose();
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return AdvisorOrder.BULKHEAD;
+    }
+}
@@ -0,0 +1,111 @@
+package com.xai.advisors;
+
+import com.xai.memory.ConversationMemory;
+import com.xai.memory.Turn;
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.chat.client.ChatClientMessageAggregator;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Advisor giving requests tagged with a session id (see
+ * {@link AdvisorContext#session(String)}) the history of their conversation, so
+ * multi-turn clients send only the new message.
+ *
+ * <p>The history from {@link ConversationMemory}, already fitted to the token budget,
+ * is inserted after the prompt's system messages and before its new messages; a
+ * summary of older turns is added as a system message. After a successful reply,
+ * the user message and the reply are recorded. Streams are recorded once complete;
+ * a cancelled or failed exchange is not recorded. Requests without a session id pass
+ * through unchanged.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "xai.memory", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ConversationMemoryAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private final ConversationMemory memory;
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        String sessionId = AdvisorContext.session(chatClientRequest);
+        if (sessionId == null) {
+            return callAdvisorChain.nextCall(chatClientRequest);
+        }
+        ChatClientResponse response = callAdvisorChain.nextCall(withHistory(chatClientRequest, sessionId));
+        record(sessionId, chatClientRequest, response);
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        String sessionId = AdvisorContext.session(chatClientRequest);
+        if (sessionId == null) {
+            return streamAdvisorChain.nextStream(chatClientRequest);
+        }
+        return Flux.defer(() -> new ChatClientMessageAggregator().aggregateChatClientResponse(
+                streamAdvisorChain.nextStream(withHistory(chatClientRequest, sessionId)),
+                aggregated -> record(sessionId, chatClientRequest, aggregated)));
+    }
+
+    private ChatClientRequest withHistory(ChatClientRequest request, String sessionId) {
+        List<Turn> history = memory.history(sessionId);
+        if (history.isEmpty()) {
+            return request;
+        }
+        List<Message> instructions = request.prompt().getInstructions();
+        List<Message> messages = new ArrayList<>(instructions.size() + history.size());
+        instructions.stream().filter(message -> message.getMessageType() == MessageType.SYSTEM).forEach(messages::add);
+        for (Turn turn : history) {
+            messages.add(switch (turn.role()) {
+                case USER -> new UserMessage(turn.text());
+                case ASSISTANT -> new AssistantMessage(turn.text());
+                case SUMMARY -> new SystemMessage("Summary of the earlier conversation:\n" + turn.text());
+            });
+        }
+        instructions.stream().filter(message -> message.getMessageType() != MessageType.SYSTEM).forEach(messages::add);
+        return request.mutate()
+                .prompt(new Prompt(messages, request.prompt().getOptions()))
+                .build();
+    }
+
+    private void record(String sessionId, ChatClientRequest request, ChatClientResponse response) {
+        UserMessage userMessage = request.prompt().getUserMessage();
+        ChatResponse chatResponse = response.chatResponse();
+        if (userMessage == null || userMessage.getText() == null || userMessage.getText().isBlank()
+                || chatResponse == null || chatResponse.getResult() == null) {
+            return;
+        }
+        String reply = chatResponse.getResult().getOutput().getText();
+        if (reply != null && !reply.isBlank()) {
+            memory.record(sessionId, userMessage.getText(), reply);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return AdvisorOrder.MEMORY;
+    }
+}
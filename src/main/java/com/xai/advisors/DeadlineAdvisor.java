@@ -0,0 +1,206 @@
+package com.xai.advisors;
+
+import com.xai.appconfig.DeadlineProperties;
+import com.xai.resilience.Deadline;
+import com.xai.resilience.DeadlineExceededException;
+import com.xai.services.AiEndpoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Advisor bounding every model call by its request's {@link Deadline}, so a client
+ * that gave up no longer holds a thread and a provider connection.
+ *
+ * <p>The deadline is the one the client sent (see {@code DeadlineFilter}) or, without
+ * one, the endpoint's default from {@code xai.deadline}. Before the call:</p>
+ * <ul>
+ *     <li>an expired deadline is rejected with a {@link DeadlineExceededException}
+ *     (HTTP 504);</li>
+ *     <li>{@code maxTokens} is capped to what the provider can generate in the time
+ *     left, at {@code tokens-per-second} after a {@code first-token-allowance}; a call
+ *     that could not produce {@code min-tokens} is rejected instead of started.</li>
+ * </ul>
+ *
+ * <p>When the deadline passes during the call, it is cancelled: a blocking call's
+ * thread is interrupted, which disposes the pending Reactor Netty (or JDK HttpClient)
+ * exchange and frees its connection or HTTP/2 stream; a stream is cancelled upstream
+ * by a Reactor timeout. Either way the caller receives a
+ * {@link DeadlineExceededException}. Queue waits in the rate limiter and bulkheads,
+ * which run further down the chain, are interrupted the same way.</p>
+ *
+ * <p>Runs after the caches, so hits are served regardless of the deadline and capping
+ * {@code maxTokens} does not change cache keys.</p>
+ *
+ * <p>Meters: {@code ai.deadline.exceeded} by {@code endpoint} and {@code stage}
+ * ({@code admission}, {@code upstream}), and {@code ai.deadline.capped} by
+ * {@code endpoint}.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "xai.deadline", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class DeadlineAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private final DeadlineProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Fires the interrupts of blocking calls whose deadline passed.
+     */
+    private final ScheduledThreadPoolExecutor timer;
+
+    public DeadlineAdvisor(DeadlineProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.timer = new ScheduledThreadPoolExecutor(1, Thread.ofPlatform().name("deadline-timer").daemon().factory());
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        AiEndpoint endpoint = AdvisorContext.endpoint(chatClientRequest);
+        Deadline deadline = deadline(chatClientRequest, endpoint);
+        ChatClientRequest bounded = admit(chatClientRequest, endpoint, deadline);
+
+        Thread caller = Thread.currentThread();
+        AtomicBoolean settled = new AtomicBoolean();
+        ScheduledFuture<?> cancellation = timer.schedule(() -> {
+            if (settled.compareAndSet(false, true)) {
+                caller.interrupt();
+            }
+        }, deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+
+        ChatClientResponse response;
+        try {
+            response = callAdvisorChain.nextCall(bounded);
+        } catch (RuntimeException e) {
+            if (settle(settled, cancellation)) {
+                throw exceeded(endpoint, "upstream", "Model call cancelled at the request deadline", e);
+            }
+            throw e;
+        }
+        // A response that raced the deadline is still returned.
+        settle(settled, cancellation);
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        return Flux.defer(() -> {
+            AiEndpoint endpoint = AdvisorContext.endpoint(chatClientRequest);
+            Deadline deadline = deadline(chatClientRequest, endpoint);
+            ChatClientRequest bounded = admit(chatClientRequest, endpoint, deadline);
+            // Every chunk re-arms the timeout with the time left, so it fires at the deadline.
+            return streamAdvisorChain.nextStream(bounded)
+                    .timeout(timeLeft(deadline), response -> timeLeft(deadline))
+                    .onErrorMap(TimeoutException.class,
+                            e -> exceeded(endpoint, "upstream", "Model stream cancelled at the request deadline", e));
+        });
+    }
+
+    private Deadline deadline(ChatClientRequest request, AiEndpoint endpoint) {
+        Deadline deadline = AdvisorContext.deadline(request);
+        return deadline != null ? deadline : Deadline.after(properties.timeoutFor(endpoint == null ? null : endpoint.key()));
+    }
+
+    /**
+     * Rejects a request that cannot be answered in time, and caps its {@code maxTokens}
+     * to what can be generated before the deadline.
+     */
+    private ChatClientRequest admit(ChatClientRequest request, AiEndpoint endpoint, Deadline deadline) {
+        if (deadline.isExpired()) {
+            throw exceeded(endpoint, "admission", "Request deadline passed before the model call", null);
+        }
+        int affordable = affordableTokens(deadline.remaining());
+        if (affordable < properties.getMinTokens()) {
+            throw exceeded(endpoint, "admission", "Too little time left for a reply (" + deadline.remaining().toMillis()
+                    + " ms, about " + affordable + " tokens)", null);
+        }
+        ChatOptions options = request.prompt().getOptions();
+        Integer maxTokens = options == null ? null : options.getMaxTokens();
+        if (maxTokens != null && maxTokens <= affordable) {
+            return request;
+        }
+        log.debug("Capping maxTokens from {} to {} for a deadline in {}", maxTokens, affordable, deadline.remaining());
+        Counter.builder("ai.deadline.capped")
+                .tag("endpoint", endpointTag(endpoint))
+                .register(meterRegistry)
+                .increment();
+        return request.mutate()
+                .prompt(PromptOptions.withMaxTokens(request.prompt(), affordable))
+                .build();
+    }
+
+    private int affordableTokens(Duration remaining) {
+        double seconds = remaining.minus(properties.getFirstTokenAllowance()).toNanos() / 1e9;
+        return seconds <= 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, seconds * properties.getTokensPerSecond());
+    }
+
+    private DeadlineExceededException exceeded(AiEndpoint endpoint, String stage, String message, Throwable cause) {
+        Counter.builder("ai.deadline.exceeded")
+                .tag("endpoint", endpointTag(endpoint))
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .increment();
+        return new DeadlineExceededException(message, cause);
+    }
+
+    /**
+     * Marks a blocking call as finished and stops its pending interrupt.
+     *
+     * @return whether the deadline fired first; its interrupt is then cleared, so it
+     * does not leak into the rest of the request
+     */
+    private static boolean settle(AtomicBoolean settled, ScheduledFuture<?> cancellation) {
+        cancellation.cancel(false);
+        if (settled.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread.interrupted();
+        return true;
+    }
+
+    private static Mono<Long> timeLeft(Deadline deadline) {
+        Duration remaining = deadline.remaining();
+        return Mono.delay(remaining.isNegative() ? Duration.ZERO : remaining);
+    }
+
+    private static String endpointTag(AiEndpoint endpoint) {
+        return endpoint == null ? "unknown" : endpoint.key();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return AdvisorOrder.DEADLINE;
+    }
+}
@@ -0,0 +1,135 @@
+package com.xai.advisors;
+
+import com.xai.jfr.ModelCallEvent;
+import com.xai.services.AiEndpoint;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Advisor recording every model call as a {@link ModelCallEvent} for Java Flight
+ * Recorder, with its endpoint, model, token counts and finish reason.
+ *
+ * <p>It runs innermost, so the event covers the model call alone: admission waits are
+ * separate {@code com.xai.Admission} events and cache hits never get here. Streams are
+ * recorded from subscription to completion, with the time to the first token.</p>
+ *
+ * <p>Without a running recording the events are neither committed nor filled in; what
+ * remains is the allocation of the event, usually removed by escape analysis, and a
+ * few clock reads.</p>
+ */
+@Component
+public class ModelCallEventAdvisor implements CallAdvisor, StreamAdvisor {
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        ModelCallEvent event = new ModelCallEvent();
+        event.begin();
+        ChatClientResponse response = null;
+        try {
+            response = callAdvisorChain.nextCall(chatClientRequest);
+            return response;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                ChatResponse chatResponse = response == null ? null : response.chatResponse();
+                commit(event, chatClientRequest, "call", chatResponse, chatResponse,
+                        response == null ? "error" : "success");
+            }
+        }
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        return Flux.defer(() -> {
+            ModelCallEvent event = new ModelCallEvent();
+            StreamState state = new StreamState();
+            event.begin();
+            return streamAdvisorChain.nextStream(chatClientRequest)
+                    .doOnNext(response -> state.onChunk(response.chatResponse()))
+                    .doFinally(signal -> {
+                        event.end();
+                        if (event.shouldCommit()) {
+                            event.timeToFirstToken = state.firstToken == 0 ? 0 : state.firstToken - state.start;
+                            commit(event, chatClientRequest, "stream", state.usageChunk, state.finishChunk,
+                                    signal == SignalType.ON_COMPLETE ? "success"
+                                            : signal == SignalType.ON_ERROR ? "error" : "cancelled");
+                        }
+                    });
+        });
+    }
+
+    private static void commit(ModelCallEvent event, ChatClientRequest request, String mode,
+                               ChatResponse usageResponse, ChatResponse finishResponse, String outcome) {
+        AiEndpoint endpoint = AdvisorContext.endpoint(request);
+        event.endpoint = endpoint == null ? "unknown" : endpoint.key();
+        event.model = BulkheadAdvisor.model(request);
+        event.mode = mode;
+        event.outcome = outcome;
+        Usage usage = usageResponse == null ? null : usageResponse.getMetadata().getUsage();
+        if (usage != null) {
+            event.promptTokens = usage.getPromptTokens() == null ? 0 : usage.getPromptTokens();
+            event.completionTokens = usage.getCompletionTokens() == null ? 0 : usage.getCompletionTokens();
+        }
+        if (usageResponse != null && usageResponse.getMetadata().getModel() != null
+                && !usageResponse.getMetadata().getModel().isEmpty()) {
+            event.model = usageResponse.getMetadata().getModel();
+        }
+        Generation result = finishResponse == null ? null : finishResponse.getResult();
+        if (result != null && result.getMetadata().getFinishReason() != null) {
+            event.finishReason = result.getMetadata().getFinishReason().toLowerCase();
+        }
+        event.commit();
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return AdvisorOrder.MODEL_CALL_EVENTS;
+    }
+
+    /**
+     * Per-subscription progress of a streamed response.
+     */
+    private static final class StreamState {
+
+        private final long start = System.nanoTime();
+
+        private long firstToken;
+
+        private ChatResponse usageChunk;
+
+        private ChatResponse finishChunk;
+
+        private void onChunk(ChatResponse chunk) {
+            if (chunk == null) {
+                return;
+            }
+            Generation result = chunk.getResult();
+            if (firstToken == 0 && result != null && result.getOutput().getText() != null
+                    && !result.getOutput().getText().isEmpty()) {
+                firstToken = System.nanoTime();
+            }
+            if (result != null && result.getMetadata().getFinishReason() != null) {
+                finishChunk = chunk;
+            }
+            Usage usage = chunk.getMetadata().getUsage();
+            if (usage != null && usage.getTotalTokens() != null && usage.getTotalTokens() > 0) {
+                usageChunk = chunk;
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.xai.advisors;
+
+import com.xai.services.AiEndpoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Advisor recording Micrometer metrics for every {@link org.springframework.ai.chat.client.ChatClient} call.
+ *
+ * <p>Meters, all tagged by {@code endpoint}, {@code model}, {@code template} and
+ * {@code mode} ({@code call} or {@code stream}):</p>
+ * <ul>
+ *     <li>{@code ai.client.latency} – time until the response is complete, failed or (for
+ *     streams) cancelled by the subscriber, as a histogram by {@code outcome}
+ *     ({@code success}, {@code error}, {@code cancelled})</li>
+ *     <li>{@code ai.client.ttft} – time to the first token of a streamed response</li>
+ *     <li>{@code ai.client.tokens} – prompt and completion tokens per call, by {@code type}</li>
+ *     <li>{@code ai.client.tokens.per.second} – completion tokens per second of generation;
+ *     for streams measured from the first token</li>
+ *     <li>{@code ai.client.finish} – calls by {@code reason} the model stopped generating</li>
+ *     <li>{@code ai.client.errors} – failed calls, by {@code exception}</li>
+ * </ul>
+ *
+ * <p>The advisor runs outermost, so the latency of cache hits and of calls rejected by
+ * the rate limiter or bulkhead is included. Meters are resolved once per tag combination,
+ * error counters once per exception type, and cached; on the hot path a call costs a map
+ * lookup and a few clock reads.</p>
+ */
+@Component
+public class ObservabilityAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<MeterKey, Meters> meters = new ConcurrentHashMap<>();
+
+    public ObservabilityAdvisor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        Meters m = meters(chatClientRequest, "call");
+        long start = System.nanoTime();
+        ChatClientResponse response;
+        try {
+            response = callAdvisorChain.nextCall(chatClientRequest);
+        } catch (RuntimeException e) {
+            m.error(e, System.nanoTime() - start);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        m.latency.record(elapsed, TimeUnit.NANOSECONDS);
+        m.completed(response.chatResponse(), response.chatResponse(), elapsed);
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        Meters m = meters(chatClientRequest, "stream");
+        return Flux.defer(() -> {
+            StreamState state = new StreamState(System.nanoTime());
+            return streamAdvisorChain.nextStream(chatClientRequest)
+                    .doOnNext(response -> state.onChunk(m, response.chatResponse()))
+                    .doOnComplete(() -> {
+                        long end = System.nanoTime();
+                        m.latency.record(end - state.start, TimeUnit.NANOSECONDS);
+                        m.completed(state.usageChunk, state.finishChunk,
+                                end - (state.firstToken == 0 ? state.start : state.firstToken));
+                    })
+                    .doOnError(e -> m.error(e, System.nanoTime() - state.start))
+                    .doOnCancel(() -> m.cancelledLatency.record(System.nanoTime() - state.start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private Meters meters(ChatClientRequest chatClientRequest, String mode) {
+        AiEndpoint endpoint = AdvisorContext.endpoint(chatClientRequest);
+        String model = BulkheadAdvisor.model(chatClientRequest);
+        String template = AdvisorContext.template(chatClientRequest);
+        MeterKey key = new MeterKey(
+                endpoint == null ? NONE : endpoint.key(),
+                model == null ? NONE : model,
+                template == null ? NONE : template,
+                mode);
+        Meters m = meters.get(key);
+        return m != null ? m : meters.computeIfAbsent(key, Meters::new);
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return AdvisorOrder.OBSERVABILITY;
+    }
+
+    private record MeterKey(String endpoint, String model, String template, String mode) {
+    }
+
+    /**
+     * Per-subscription progress of a streamed response.
+     */
+    private static final class StreamState {
+
+        private final long start;
+
+        private long firstToken;
+
+        private ChatResponse usageChunk;
+
+        private ChatResponse finishChunk;
+
+        private StreamState(long start) {
+            this.start = start;
+        }
+
+        private void onChunk(Meters m, ChatResponse chunk) {
+            if (chunk == null) {
+                return;
+            }
+            Generation result = chunk.getResult();
+            if (firstToken == 0 && result != null && result.getOutput().getText() != null
+                    && !result.getOutput().getText().isEmpty()) {
+                firstToken = System.nanoTime();
+                m.ttft.record(firstToken - start, TimeUnit.NANOSECONDS);
+            }
+            if (result != null && result.getMetadata().getFinishReason() != null) {
+                finishChunk = chunk;
+            }
+            Usage usage = chunk.getMetadata().getUsage();
+            if (usage != null && usage.getTotalTokens() != null && usage.getTotalTokens() > 0) {
+                usageChunk = chunk;
+            }
+        }
+    }
+
+    /**
+     * The meters of one tag combination.
+     */
+    private final class Meters {
+
+        private final Tags tags;
+
+        private final Timer latency;
+
+        private final Timer errorLatency;
+
+        private final Timer cancelledLatency;
+
+        private final Timer ttft;
+
+        private final DistributionSummary promptTokens;
+
+        private final DistributionSummary completionTokens;
+
+        private final DistributionSummary tokensPerSecond;
+
+        private final Map<String, Counter> finishReasons = new ConcurrentHashMap<>();
+
+        private final Map<Class<?>, Counter> errors = new ConcurrentHashMap<>();
+
+        private Meters(MeterKey key) {
+            this.tags = Tags.of("endpoint", key.endpoint(), "model", key.model(),
+                    "template", key.template(), "mode", key.mode());
+            this.latency = latency("success");
+            this.errorLatency = latency("error");
+            this.cancelledLatency = latency("cancelled");
+            this.ttft = Timer.builder("ai.client.ttft")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.promptTokens = DistributionSummary.builder("ai.client.tokens")
+                    .tags(tags)
+                    .tag("type", "prompt")
+                    .baseUnit("tokens")
+                    .register(meterRegistry);
+            this.completionTokens = DistributionSummary.builder("ai.client.tokens")
+                    .tags(tags)
+                    .tag("type", "completion")
+                    .baseUnit("tokens")
+                    .register(meterRegistry);
+            this.tokensPerSecond = DistributionSummary.builder("ai.client.tokens.per.second")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+
+        private Timer latency(String outcome) {
+            return Timer.builder("ai.client.latency")
+                    .tags(tags)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        /**
+         * @param usageResponse     the response carrying the token usage
+         * @param finishResponse    the response carrying the finish reason
+         * @param generationNanos   the time the model spent generating the completion
+         */
+        private void completed(ChatResponse usageResponse, ChatResponse finishResponse, long generationNanos) {
+            if (usageResponse != null && usageResponse.getMetadata().getUsage() != null) {
+                Usage usage = usageResponse.getMetadata().getUsage();
+                Integer prompt = usage.getPromptTokens();
+                Integer completion = usage.getCompletionTokens();
+                if (prompt != null && prompt > 0) {
+                    promptTokens.record(prompt);
+                }
+                if (completion != null && completion > 0) {
+                    completionTokens.record(completion);
+                    if (generationNanos > 0) {
+                        tokensPerSecond.record(completion * 1e9 / generationNanos);
+                    }
+                }
+            }
+            Generation result = finishResponse == null ? null : finishResponse.getResult();
+            String reason = result == null || result.getMetadata().getFinishReason() == null
+                    ? "unknown"
+                    : result.getMetadata().getFinishReason().toLowerCase();
+            finishReasons.computeIfAbsent(reason, r -> Counter.builder("ai.client.finish")
+                    .tags(tags)
+                    .tag("reason", r)
+                    .register(meterRegistry)).increment();
+        }
+
+        private void error(Throwable error, long elapsedNanos) {
+            errorLatency.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            errors.computeIfAbsent(error.getClass(), type -> Counter.builder("ai.client.errors")
+                    .tags(tags)
+                    .tag("exception", type.getSimpleName())
+                    .register(meterRegistry)).increment();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.xai.advisors;
+
+import com.xai.appconfig.TokenizerProperties;
+import com.xai.services.AiEndpoint;
+import com.xai.services.InvalidRequestException;
+import com.xai.tokens.TokenEstimator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Advisor counting the tokens of every rendered prompt with the application's
+ * {@link TokenEstimator} and fitting the request to the model's context window before
+ * it is sent, instead of letting the provider reject it after a round trip.
+ *
+ * <p>A prompt fits when it leaves at least {@code min-completion-tokens} of the
+ * context window (from {@code xai.tokens.context-windows}) and stays within
+ * {@code max-prompt-tokens}, if set. A prompt that does not fit is rejected with an
+ * {@link InvalidRequestException} (HTTP 400), or its last user message is trimmed at
+ * the start or the end, as configured by {@code overflow}. Then {@code maxTokens} is
+ * lowered to the context left after the prompt, so the provider never receives a
+ * completion limit it cannot honour.</p>
+ *
+ * <p>Counts include the chat format's per-message overhead. The total is stored under
+ * {@link AdvisorContext#PROMPT_TOKENS}, so the rate limiter does not count again.</p>
+ *
+ * <p>Meters: {@code ai.prompt.tokens} by {@code endpoint},
+ * {@code ai.prompt.overflow} by {@code endpoint} and {@code action}
+ * ({@code rejected}, {@code trimmed}), and {@code ai.prompt.max.tokens.lowered} by
+ * {@code endpoint}.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "xai.tokens.budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PromptBudgetAdvisor implements CallAdvisor, StreamAdvisor {
+
+    /**
+     * Tokens the chat format adds around each message (role and delimiters).
+     */
+    private static final int TOKENS_PER_MESSAGE = 3;
+
+    /**
+     * Tokens that prime the assistant's reply.
+     */
+    private static final int REPLY_PRIMING = 3;
+
+    private final TokenEstimator tokenEstimator;
+
+    private final TokenizerProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        return callAdvisorChain.nextCall(fit(chatClientRequest));
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        return Flux.defer(() -> streamAdvisorChain.nextStream(fit(chatClientRequest)));
+    }
+
+    private ChatClientRequest fit(ChatClientRequest request) {
+        String endpoint = endpointTag(AdvisorContext.endpoint(request));
+        String model = BulkheadAdvisor.model(request);
+        TokenizerProperties.Budget budget = properties.getBudget();
+        int contextWindow = properties.contextWindow(model);
+        int limit = contextWindow - budget.getMinCompletionTokens();
+        if (budget.getMaxPromptTokens() > 0) {
+            limit = Math.min(limit, budget.getMaxPromptTokens());
+        }
+
+        Prompt prompt = request.prompt();
+        List<Message> messages = prompt.getInstructions();
+        int[] counts = new int[messages.size()];
+        int total = REPLY_PRIMING;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = tokenEstimator.estimate(messages.get(i).getText(), model);
+            total += TOKENS_PER_MESSAGE + counts[i];
+        }
+
+        if (total > limit) {
+            int last = lastUserMessage(messages);
+            int keep = last < 0 ? 0 : counts[last] - (total - limit);
+            if (budget.getOverflow() == TokenizerProperties.Overflow.REJECT || keep <= 0) {
+                overflow(endpoint, "rejected");
+                throw new InvalidRequestException("The prompt has " + total + " tokens, "
+                        + (model == null ? "the model" : model) + " accepts at most " + limit);
+            }
+            UserMessage userMessage = (UserMessage) messages.get(last);
+            String trimmed = tokenEstimator.truncate(userMessage.getText(), keep,
+                    budget.getOverflow() == TokenizerProperties.Overflow.TRIM_START, model);
+            List<Message> fitted = new ArrayList<>(messages);
+            fitted.set(last, UserMessage.builder()
+                    .text(trimmed)
+                    .media(userMessage.getMedia())
+                    .metadata(userMessage.getMetadata())
+                    .build());
+            total -= counts[last] - tokenEstimator.estimate(trimmed, model);
+            prompt = new Prompt(fitted, prompt.getOptions());
+            overflow(endpoint, "trimmed");
+        }
+
+        DistributionSummary.builder("ai.prompt.tokens")
+                .tag("endpoint", endpoint)
+                .baseUnit("tokens")
+                .register(meterRegistry)
+                .record(total);
+
+        ChatOptions options = prompt.getOptions();
+        Integer maxTokens = options == null ? null : options.getMaxTokens();
+        int available = contextWindow - total;
+        if (maxTokens != null && maxTokens > available) {
+            prompt = PromptOptions.withMaxTokens(prompt, available);
+            Counter.builder("ai.prompt.max.tokens.lowered")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .increment();
+        }
+        return request.mutate()
+                .prompt(prompt)
+                .context(AdvisorContext.PROMPT_TOKENS, total)
+                .build();
+    }
+
+    private static int lastUserMessage(List<Message> messages) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i).getMessageType() == MessageType.USER && messages.get(i).getText() != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void overflow(String endpoint, String action) {
+        Counter.builder("ai.prompt.overflow")
+                .tag("endpoint", endpoint)
+                .tag("action", action)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String endpointTag(AiEndpoint endpoint) {
+        return endpoint == null ? "unknown" : endpoint.key();
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return AdvisorOrder.PROMPT_BUDGET;
+    }
+}
@@ -0,0 +1,74 @@
+package com.xai.advisors;
+
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.DefaultChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.DefaultToolCallingChatOptions;
+
+import java.util.function.Consumer;
+
+/**
+ * Derives prompts with modified {@link ChatOptions}, keeping every other option,
+ * including tool-calling ones.
+ *
+ * <p>Supports prompts without options and with {@link DefaultChatOptions} or
+ * {@link DefaultToolCallingChatOptions}, the types the chat client builds; other option
+ * types are rejected rather than rebuilt without their provider-specific settings.</p>
+ */
+public final class PromptOptions {
+
+    private PromptOptions() {
+    }
+
+    /**
+     * @param prompt the prompt
+     * @param model  the model to request
+     * @return the prompt addressed to {@code model}
+     * @throws IllegalArgumentException if the prompt's options are of an unsupported type
+     */
+    public static Prompt withModel(Prompt prompt, String model) {
+        return modify(prompt, options -> options.setModel(model), builder -> builder.model(model));
+    }
+
+    /**
+     * @param prompt    the prompt
+     * @param maxTokens the completion token limit
+     * @return the prompt with its completion limited to {@code maxTokens}
+     * @throws IllegalArgumentException if the prompt's options are of an unsupported type
+     */
+    public static Prompt withMaxTokens(Prompt prompt, int maxTokens) {
+        return modify(prompt, options -> options.setMaxTokens(maxTokens), builder -> builder.maxTokens(maxTokens));
+    }
+
+    private static Prompt modify(Prompt prompt, Consumer<Mutable> change, Consumer<ChatOptions.Builder> rebuild) {
+        ChatOptions options = prompt.getOptions();
+        if (options == null) {
+            ChatOptions.Builder builder = ChatOptions.builder();
+            rebuild.accept(builder);
+            return new Prompt(prompt.getInstructions(), builder.build());
+        }
+        ChatOptions copy = options.copy();
+        if (copy instanceof DefaultToolCallingChatOptions toolCalling) {
+            change.accept(new Mutable(toolCalling::setModel, toolCalling::setMaxTokens));
+        } else if (copy instanceof DefaultChatOptions defaults) {
+            change.accept(new Mutable(defaults::setModel, defaults::setMaxTokens));
+        } else {
+            throw new IllegalArgumentException("Cannot modify chat options of type " + options.getClass().getName());
+        }
+        return new Prompt(prompt.getInstructions(), copy);
+    }
+
+    /**
+     * The setters shared by the mutable option types, which have no common interface.
+     */
+    private record Mutable(Consumer<String> model, Consumer<Integer> maxTokens) {
+
+        void setModel(String value) {
+            model.accept(value);
+        }
+
+        void setMaxTokens(Integer value) {
+            maxTokens.accept(value);
+        }
+    }
+}
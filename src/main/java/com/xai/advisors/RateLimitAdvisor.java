@@ -0,0 +1,131 @@
+package com.xai.advisors;
+
+import com.xai.appconfig.RateLimitProperties;
+import com.xai.resilience.ProviderErrors;
+import com.xai.resilience.RateLimitScheduler;
+import com.xai.resilience.RequestPriority;
+import com.xai.routing.Backend;
+import com.xai.services.AiEndpoint;
+import com.xai.tokens.TokenEstimator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Advisor admitting model calls through the {@link RateLimitScheduler}, so the
+ * application stays inside the provider's request and token quotas instead of
+ * running into {@code 429} responses.
+ *
+ * <p>A call is sized as its prompt tokens plus its {@code maxTokens}, the most it can
+ * cost; the prompt count of the prompt budget advisor is reused when there is one.
+ * Calls are scheduled at {@link AdvisorContext#priority their priority}: background
+ * jobs and the {@link AiEndpoint#BATCH} endpoint as {@link RequestPriority#BATCH},
+ * everything else as interactive. Streaming calls
+ * wait for quota off the subscriber's thread and are settled from their last chunk.
+ * Every wait is recorded as a {@code com.xai.Admission} flight recorder event.</p>
+ *
+ * <p>Requests routed to a backend outside the quota, e.g. a local Ollama model, pass
+ * without being charged.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "xai.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RateLimitAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private static final String GATE = "rate-limit";
+
+    private final RateLimitScheduler scheduler;
+
+    private final TokenEstimator tokenEstimator;
+
+    private final RateLimitProperties properties;
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        if (!rateLimited(chatClientRequest)) {
+            return callAdvisorChain.nextCall(chatClientRequest);
+        }
+        int charged = AdmissionEvents.admit(GATE, chatClientRequest,
+                () -> scheduler.acquire(AdvisorContext.priority(chatClientRequest), estimate(chatClientRequest)));
+        ChatClientResponse response;
+        try {
+            response = callAdvisorChain.nextCall(chatClientRequest);
+        } catch (RuntimeException e) {
+            if (ProviderErrors.isThrottled(e)) {
+                scheduler.throttled();
+            }
+            throw e;
+        }
+        scheduler.complete(charged, response.chatResponse());
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        if (!rateLimited(chatClientRequest)) {
+            return streamAdvisorChain.nextStream(chatClientRequest);
+        }
+        AtomicReference<ChatResponse> last = new AtomicReference<>();
+        return Mono.fromCallable(() -> AdmissionEvents.admit(GATE, chatClientRequest,
+                        () -> scheduler.acquire(AdvisorContext.priority(chatClientRequest),
+                                estimate(chatClientRequest))))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(charged -> Flux.defer(() -> streamAdvisorChain.nextStream(chatClientRequest))
+                        .doOnNext(response -> {
+                            if (response.chatResponse() != null) {
+                                last.set(response.chatResponse());
+                            }
+                        })
+                        .doOnComplete(() -> scheduler.complete(charged, last.get()))
+                        .doOnError(e -> {
+                            if (ProviderErrors.isThrottled(e)) {
+                                scheduler.throttled();
+                            }
+                        }));
+    }
+
+    private static boolean rateLimited(ChatClientRequest chatClientRequest) {
+        Backend backend = AdvisorContext.backend(chatClientRequest);
+        return backend == null || backend.rateLimited();
+    }
+
+    /**
+     * @return the prompt tokens plus the completion tokens the call may produce
+     */
+    private int estimate(ChatClientRequest chatClientRequest) {
+        int promptTokens = AdvisorContext.promptTokens(chatClientRequest);
+        if (promptTokens < 0) {
+            promptTokens = 0;
+            for (Message message : chatClientRequest.prompt().getInstructions()) {
+                promptTokens += tokenEstimator.estimate(message.getText());
+            }
+        }
+        ChatOptions options = chatClientRequest.prompt().getOptions();
+        Integer maxTokens = options == null ? null : options.getMaxTokens();
+        return promptTokens + (maxTokens == null ? properties.getDefaultMaxTokens() : maxTokens);
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return AdvisorOrder.RATE_LIMIT;
+    }
+}
@@ -0,0 +1,105 @@
+package com.xai.advisors;
+
+import com.xai.appconfig.CoalescingProperties;
+import com.xai.cache.PromptKey;
+import com.xai.cache.SingleFlight;
+import com.xai.services.AiEndpoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link CallAdvisor} de-duplicating identical concurrent requests.
+ *
+ * <p>Requests are identical when they target the same endpoint and have the same
+ * {@link PromptKey}. The first one calls the model; the others wait for it and
+ * receive the same generations, so structured endpoints convert the shared text
+ * into their own {@code AiResponse} / {@code List<AiResponse>} instances.
+ * Followers get a copy of the response without token usage, so usage accounting
+ * only counts the one upstream call.</p>
+ *
+ * <p>A follower waits at most until the deadline of its own request and then fails
+ * with a {@code DeadlineExceededException}, as it would had it called the model
+ * itself. Without a request deadline the wait is bounded by the leader's, which the
+ * {@link DeadlineAdvisor} further down the chain applies to the upstream call.</p>
+ *
+ * <p>Publishes {@code ai.coalescing.requests} by endpoint and role
+ * ({@code leader} or {@code follower}) and the {@code ai.coalescing.inflight} gauge.</p>
+ */
+@Component
+public class RequestCoalescingAdvisor implements CallAdvisor {
+
+    /**
+     * Metadata key set to {@code true} on responses shared from another request.
+     */
+    public static final String COALESCED = "xai.coalesced";
+
+    private final SingleFlight<String, ChatClientResponse> singleFlight = new SingleFlight<>();
+
+    private final CoalescingProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescingAdvisor(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("ai.coalescing.inflight", singleFlight, SingleFlight::inFlight);
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        AiEndpoint endpoint = AdvisorContext.endpoint(chatClientRequest);
+        if (endpoint == null || !properties.getEndpoints().contains(endpoint)) {
+            return callAdvisorChain.nextCall(chatClientRequest);
+        }
+
+        String key = endpoint.key() + ':' + PromptKey.of(chatClientRequest.prompt());
+        SingleFlight.Result<ChatClientResponse> result =
+                singleFlight.execute(key, AdvisorContext.deadline(chatClientRequest),
+                        () -> callAdvisorChain.nextCall(chatClientRequest));
+
+        count(endpoint, result.shared() ? "follower" : "leader");
+        if (!result.shared()) {
+            return result.value();
+        }
+        return ChatClientResponse.builder()
+                .chatResponse(withoutUsage(result.value().chatResponse()))
+                .context(chatClientRequest.context())
+                .build();
+    }
+
+    private static ChatResponse withoutUsage(ChatResponse chatResponse) {
+        if (chatResponse == null) {
+            return null;
+        }
+        String model = chatResponse.getMetadata().getModel();
+        return new ChatResponse(chatResponse.getResults(), ChatResponseMetadata.builder()
+                .model(model == null ? "" : model)
+                .keyValue(COALESCED, true)
+                .build());
+    }
+
+    private void count(AiEndpoint endpoint, String role) {
+        Counter.builder("ai.coalescing.requests")
+                .tag("endpoint", endpoint.key())
+                .tag("role", role)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return AdvisorOrder.REQUEST_COALESCING;
+    }
+}
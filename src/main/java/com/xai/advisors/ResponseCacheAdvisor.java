@@ -0,0 +1,81 @@
+package com.xai.advisors;
+
+import com.xai.appconfig.ResponseCacheProperties;
+import com.xai.cache.CachedResponse;
+import com.xai.cache.PromptKey;
+import com.xai.cache.TieredResponseCache;
+import com.xai.services.AiEndpoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link CallAdvisor} serving repeated prompts from the {@link TieredResponseCache}.
+ *
+ * <p>Only requests tagged with an endpoint listed in {@code xai.cache.endpoints}
+ * are cached. The cache key is computed by {@link PromptKey} from the prompt as the
+ * model would receive it, i.e. after templates have been rendered. Replies cut off
+ * by the token limit are not cached. Hits and misses are counted per endpoint in
+ * {@code ai.cache.requests}.</p>
+ *
+ * <p>Streaming requests bypass this advisor.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseCacheAdvisor implements CallAdvisor {
+
+    private final TieredResponseCache cache;
+
+    private final ResponseCacheProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        AiEndpoint endpoint = AdvisorContext.endpoint(chatClientRequest);
+        if (endpoint == null || !properties.getEndpoints().contains(endpoint)) {
+            return callAdvisorChain.nextCall(chatClientRequest);
+        }
+
+        String key = PromptKey.of(chatClientRequest.prompt());
+        CachedResponse cached = cache.get(key);
+        if (cached != null) {
+            count(endpoint, "hit");
+            return ChatClientResponse.builder()
+                    .chatResponse(cached.toChatResponse())
+                    .context(chatClientRequest.context())
+                    .build();
+        }
+
+        count(endpoint, "miss");
+        ChatClientResponse chatClientResponse = callAdvisorChain.nextCall(chatClientRequest);
+        CachedResponse reply = CachedResponse.of(chatClientResponse.chatResponse());
+        if (reply != null) {
+            cache.put(key, reply);
+        }
+        return chatClientResponse;
+    }
+
+    private void count(AiEndpoint endpoint, String result) {
+        Counter.builder("ai.cache.requests")
+                .tag("endpoint", endpoint.key())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return AdvisorOrder.RESPONSE_CACHE;
+    }
+}
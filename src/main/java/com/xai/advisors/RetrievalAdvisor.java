@@ -0,0 +1,171 @@
+package com.xai.advisors;
+
+import com.xai.appconfig.RetrievalProperties;
+import com.xai.rag.PassageRetriever;
+import com.xai.rag.ScoredPassage;
+import com.xai.services.AiEndpoint;
+import com.xai.templates.PromptTemplateRegistry;
+import com.xai.tokens.TokenEstimator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Advisor grounding the answers of opted-in endpoints in the local document corpus.
+ *
+ * <p>For requests tagged with an endpoint listed in {@code xai.rag.endpoints}, the last
+ * user message is used as the query of the {@link PassageRetriever}; the best
+ * {@code top-k} passages scoring at least {@code min-score} are rendered with the
+ * question into the {@code retrieval-context} template, which replaces the user
+ * message. Passages are added best first until {@code max-context-tokens} is reached,
+ * so the model reads a few relevant paragraphs instead of answering from memory, and
+ * the prompt stays short. A request with no passage above the threshold is sent
+ * unchanged.</p>
+ *
+ * <p>Runs after conversation memory, so the history is not searched, and before the
+ * prompt budget and the caches, so the augmented prompt is what is counted and cached.</p>
+ *
+ * <p>Meters: {@code ai.rag.retrieval} (embedding and search time), {@code ai.rag.passages}
+ * (passages injected per request) and {@code ai.rag.requests} by {@code result}
+ * ({@code augmented}, {@code no-match}), all by {@code endpoint}.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "xai.rag", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RetrievalAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private static final String TEMPLATE = "retrieval-context";
+
+    private final PassageRetriever retriever;
+
+    private final RetrievalProperties properties;
+
+    private final PromptTemplateRegistry promptTemplates;
+
+    private final TokenEstimator tokenEstimator;
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        return callAdvisorChain.nextCall(augment(chatClientRequest));
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        return Flux.defer(() -> streamAdvisorChain.nextStream(augment(chatClientRequest)));
+    }
+
+    private ChatClientRequest augment(ChatClientRequest request) {
+        AiEndpoint endpoint = AdvisorContext.endpoint(request);
+        if (endpoint == null || !properties.getEndpoints().contains(endpoint)) {
+            return request;
+        }
+        List<Message> messages = request.prompt().getInstructions();
+        int last = lastUserMessage(messages);
+        if (last < 0) {
+            return request;
+        }
+
+        UserMessage userMessage = (UserMessage) messages.get(last);
+        long start = System.nanoTime();
+        List<ScoredPassage> passages = retriever.search(userMessage.getText(), properties.getTopK(),
+                properties.getMinScore());
+        Timer.builder("ai.rag.retrieval")
+                .tag("endpoint", endpoint.key())
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        String context = context(passages);
+        DistributionSummary.builder("ai.rag.passages")
+                .tag("endpoint", endpoint.key())
+                .register(meterRegistry)
+                .record(context == null ? 0 : passages.size());
+        if (context == null) {
+            count(endpoint, "no-match");
+            return request;
+        }
+
+        count(endpoint, "augmented");
+        List<Message> augmented = new ArrayList<>(messages);
+        augmented.set(last, UserMessage.builder()
+                .text(promptTemplates.render(TEMPLATE, Map.of(
+                        "passages", context,
+                        "question", userMessage.getText())))
+                .media(userMessage.getMedia())
+                .metadata(userMessage.getMetadata())
+                .build());
+        return request.mutate()
+                .prompt(new Prompt(augmented, request.prompt().getOptions()))
+                .build();
+    }
+
+    /**
+     * Numbers the passages that fit the context budget, best first.
+     *
+     * @return the passages block, or {@code null} if none fits
+     */
+    private String context(List<ScoredPassage> passages) {
+        StringBuilder context = new StringBuilder();
+        int tokens = 0;
+        int number = 0;
+        for (ScoredPassage scored : passages) {
+            String entry = "[" + (number + 1) + "] (" + scored.passage().source() + ") " + scored.passage().text();
+            int entryTokens = tokenEstimator.estimate(entry);
+            if (tokens + entryTokens > properties.getMaxContextTokens()) {
+                break;
+            }
+            context.append(entry).append('\n');
+            tokens += entryTokens;
+            number++;
+        }
+        return number == 0 ? null : context.toString().stripTrailing();
+    }
+
+    private static int lastUserMessage(List<Message> messages) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i).getMessageType() == MessageType.USER && messages.get(i).getText() != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void count(AiEndpoint endpoint, String result) {
+        Counter.builder("ai.rag.requests")
+                .tag("endpoint", endpoint.key())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return AdvisorOrder.RETRIEVAL;
+    }
+}
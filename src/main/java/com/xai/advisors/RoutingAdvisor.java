@@ -0,0 +1,62 @@
+package com.xai.advisors;
+
+import com.xai.routing.Backend;
+import com.xai.routing.RoutingChatModel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+/**
+ * Advisor choosing the {@link RoutingChatModel} backend of a request before the gates
+ * of the chain run.
+ *
+ * <p>The prompt is pointed at the backend's model and the backend is put in the
+ * context under {@link AdvisorContext#BACKEND}, so the prompt budget fits the prompt
+ * to that model's context window, the bulkhead admits it for that model and the rate
+ * limiter charges only backends inside the provider quota. The backend is then pinned
+ * as the router's first choice for the call; failovers and hedges still go elsewhere.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class RoutingAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private final RoutingChatModel router;
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        Backend backend = router.select(false);
+        ChatClientRequest routed = route(chatClientRequest, backend);
+        return router.callOn(backend, () -> callAdvisorChain.nextCall(routed));
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        return Flux.defer(() -> {
+            Backend backend = router.select(true);
+            return router.streamOn(backend, streamAdvisorChain.nextStream(route(chatClientRequest, backend)));
+        });
+    }
+
+    private static ChatClientRequest route(ChatClientRequest request, Backend backend) {
+        return request.mutate()
+                .prompt(RoutingChatModel.forBackend(backend, request.prompt()))
+                .context(AdvisorContext.BACKEND, backend)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return AdvisorOrder.ROUTING;
+    }
+}
@@ -0,0 +1,102 @@
+package com.xai.advisors;
+
+import com.xai.appconfig.SemanticCacheProperties;
+import com.xai.cache.CachedResponse;
+import com.xai.cache.PromptKey;
+import com.xai.cache.SemanticResponseCache;
+import com.xai.services.AiEndpoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CallAdvisor} answering prompts from the {@link SemanticResponseCache}
+ * when a sufficiently similar prompt was asked before.
+ *
+ * <p>Only requests tagged with an endpoint listed in {@code xai.semantic-cache.endpoints}
+ * are considered. The user messages are embedded; everything else in the prompt must
+ * match exactly. Replies cut off by the token limit are not cached. Hits and misses
+ * are counted per endpoint in {@code ai.semantic-cache.requests}, and embedding plus
+ * search time is recorded in {@code ai.semantic-cache.lookup}.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class SemanticCacheAdvisor implements CallAdvisor {
+
+    private final SemanticResponseCache cache;
+
+    private final SemanticCacheProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        AiEndpoint endpoint = AdvisorContext.endpoint(chatClientRequest);
+        if (endpoint == null || !properties.getEndpoints().contains(endpoint)) {
+            return callAdvisorChain.nextCall(chatClientRequest);
+        }
+
+        String contextKey = endpoint.key() + ':' + PromptKey.ofContext(chatClientRequest.prompt());
+        long start = System.nanoTime();
+        float[] embedding = cache.embed(userText(chatClientRequest));
+        CachedResponse cached = cache.get(contextKey, embedding);
+        Timer.builder("ai.semantic-cache.lookup")
+                .tag("endpoint", endpoint.key())
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (cached != null) {
+            count(endpoint, "hit");
+            return ChatClientResponse.builder()
+                    .chatResponse(cached.toChatResponse())
+                    .context(chatClientRequest.context())
+                    .build();
+        }
+
+        count(endpoint, "miss");
+        ChatClientResponse chatClientResponse = callAdvisorChain.nextCall(chatClientRequest);
+        CachedResponse reply = CachedResponse.of(chatClientResponse.chatResponse());
+        if (reply != null) {
+            cache.put(contextKey, embedding, reply);
+        }
+        return chatClientResponse;
+    }
+
+    private static String userText(ChatClientRequest chatClientRequest) {
+        StringBuilder text = new StringBuilder();
+        for (Message message : chatClientRequest.prompt().getInstructions()) {
+            if (message.getMessageType() == MessageType.USER && message.getText() != null) {
+                text.append(message.getText()).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    private void count(AiEndpoint endpoint, String result) {
+        Counter.builder("ai.semantic-cache.requests")
+                .tag("endpoint", endpoint.key())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return AdvisorOrder.SEMANTIC_CACHE;
+    }
+}
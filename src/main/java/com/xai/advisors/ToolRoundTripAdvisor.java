@@ -0,0 +1,100 @@
+package com.xai.advisors;
+
+import com.xai.services.AiEndpoint;
+import com.xai.tools.ParallelToolCallingManager;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Advisor measuring how many model round-trips a request needs once tools are involved.
+ *
+ * <p>The chat model executes tool calls internally: it calls the tools the model asked
+ * for, sends the results back and repeats until the model answers, all within the one
+ * call this advisor sees. To count the turns, the advisor puts a counter into the tool
+ * context of requests that offer tools; {@link ParallelToolCallingManager} increments
+ * it on every turn with tool calls. On completion the request's round-trips (the turns
+ * plus the final answer) are recorded as {@code ai.tools.round.trips{endpoint}}.</p>
+ *
+ * <p>Requests without tools pass through untouched.</p>
+ */
+@Component
+public class ToolRoundTripAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private final MeterRegistry meterRegistry;
+
+    public ToolRoundTripAdvisor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        if (!offersTools(chatClientRequest.prompt())) {
+            return callAdvisorChain.nextCall(chatClientRequest);
+        }
+        AtomicInteger turns = new AtomicInteger();
+        ChatClientResponse response = callAdvisorChain.nextCall(withCounter(chatClientRequest, turns));
+        record(chatClientRequest, turns);
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        if (!offersTools(chatClientRequest.prompt())) {
+            return streamAdvisorChain.nextStream(chatClientRequest);
+        }
+        return Flux.defer(() -> {
+            AtomicInteger turns = new AtomicInteger();
+            return streamAdvisorChain.nextStream(withCounter(chatClientRequest, turns))
+                    .doOnComplete(() -> record(chatClientRequest, turns));
+        });
+    }
+
+    private static boolean offersTools(Prompt prompt) {
+        return prompt.getOptions() instanceof ToolCallingChatOptions options
+                && (!isEmpty(options.getToolCallbacks()) || !isEmpty(options.getToolNames()));
+    }
+
+    private static boolean isEmpty(Collection<?> collection) {
+        return collection == null || collection.isEmpty();
+    }
+
+    private static ChatClientRequest withCounter(ChatClientRequest request, AtomicInteger turns) {
+        Prompt prompt = request.prompt();
+        ToolCallingChatOptions options = prompt.getOptions().copy();
+        options.setToolContext(ParallelToolCallingManager.withRoundTrips(options.getToolContext(), turns));
+        return request.mutate()
+                .prompt(new Prompt(prompt.getInstructions(), options))
+                .build();
+    }
+
+    private void record(ChatClientRequest request, AtomicInteger turns) {
+        AiEndpoint endpoint = AdvisorContext.endpoint(request);
+        DistributionSummary.builder("ai.tools.round.trips")
+                .tag("endpoint", endpoint == null ? "unknown" : endpoint.key())
+                .register(meterRegistry)
+                .record(turns.get() + 1);
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return AdvisorOrder.TOOL_ROUND_TRIPS;
+    }
+}
@@ -1,12 +1,24 @@
 package com.xai.appconfig;
 
+import com.xai.tokens.BpeTokenEstimator;
+import com.xai.tokens.CharacterTokenEstimator;
+import com.xai.tokens.TokenEstimator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
 import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Arrays;
+
 /**
  * Spring configuration for creating {@link ChatClient} beans backed by
  * OpenAI's LLMs via Spring AI.
@@ -23,21 +35,28 @@ import org.springframework.context.annotation.Configuration;
  *     prompts and receive responses.</li>
  * </ul>
  *
+ * <p>Under the {@code simulated} profile the OpenAI model is replaced by
+ * {@code SimulatedChatModel}, so the application runs without an API key.</p>
+ *
  * <p>By exposing the {@link ChatClient} as a Spring bean, it can be injected
  * wherever conversational AI functionality is required within the application.</p>
  */
 @Configuration
+@EnableConfigurationProperties({PromptTemplateProperties.class, BulkheadProperties.class, BatchProperties.class,
+        RateLimitProperties.class, ConcurrencyLimitProperties.class, DeadlineProperties.class,
+        ConversationMemoryProperties.class, TokenizerProperties.class, JobProperties.class})
 @RequiredArgsConstructor
 public class AiConfig {
 
     /**
-     * The model used to communicate with OpenAI’s chat-based LLM endpoints.
+     * The model used to communicate with OpenAI’s chat-based LLM endpoints
+     * ({@link OpenAiChatModel}, or the simulated model in load tests).
      */
-    private final OpenAiChatModel openAiChatModel;
+    private final ChatModel chatModel;
 
     /**
      * Creates and configures the application-wide {@link ChatClient} bean backed by
-     * the provided {@link OpenAiChatModel}.
+     * the provided {@link ChatModel}.
      *
      * <p>This client defines global/default {@link ChatOptions} such as model,
      * temperature, token limits, and penalties. These defaults are applied to every
@@ -48,12 +67,20 @@ public class AiConfig {
      * shared across the entire application. If different endpoints or services
      * require different LLM settings, they must override these defaults per prompt.</p>
      *
+     * <p>Every {@link Advisor} bean in the context (response cache, …) is registered
+     * as a default advisor; the chain is ordered by {@code AdvisorOrder}. Every
+     * {@link ToolCallbackProvider} bean (the sports statistics tools, …) is offered to the
+     * model as a default tool. The defaults are {@link ToolCallingChatOptions}, the option
+     * type {@link ChatClient} attaches tools to.</p>
+     *
+     * @param advisors the application's advisor beans
+     * @param tools    the application's tool beans
      * @return a fully configured {@link ChatClient} instance with default LLM options
      */
     @Bean
-    public ChatClient chatClient() {
-        return ChatClient.builder(openAiChatModel)
-                .defaultOptions(ChatOptions.builder()
+    public ChatClient chatClient(ObjectProvider<Advisor> advisors, ObjectProvider<ToolCallbackProvider> tools) {
+        return ChatClient.builder(chatModel)
+                .defaultOptions(ToolCallingChatOptions.builder()
                         .model("gpt-4o")            // The specific LLM to use for generating responses
                         .maxTokens(300)             // Maximum length of the generated reply (limits output size)
                         .temperature(0.5)           // Controls creativity (lower = factual, higher = creative)
@@ -61,9 +88,27 @@ public class AiConfig {
                         .presencePenalty(0.1)       // Encourages the model to introduce new ideas or topics
                         .topP(1.0)
                         .build())
+                .defaultAdvisors(advisors.orderedStream().toList())
+                .defaultToolCallbacks(tools.orderedStream()
+                        .flatMap(provider -> Arrays.stream(provider.getToolCallbacks()))
+                        .toArray(ToolCallback[]::new))
                 .build();
     }
-}
-
-
 
+    /**
+     * Counts tokens for the prompt budget, the rate limiter and the conversation memory.
+     *
+     * <p>The default is the model's BPE tokenizer; {@code xai.tokens.estimator: characters}
+     * falls back to the cheaper four-characters-per-token estimate.</p>
+     *
+     * @param properties the tokenizer settings
+     * @return the application's {@link TokenEstimator}
+     */
+    @Bean
+    public TokenEstimator tokenEstimator(TokenizerProperties properties) {
+        return switch (properties.getEstimator()) {
+            case BPE -> new BpeTokenEstimator(properties.getDefaultEncoding());
+            case CHARACTERS -> new CharacterTokenEstimator();
+        };
+    }
+}
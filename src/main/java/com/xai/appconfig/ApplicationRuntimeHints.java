@@ -0,0 +1,69 @@
+package com.xai.appconfig;
+
+import com.xai.entities.AiResponse;
+import com.xai.entities.BatchItem;
+import com.xai.entities.BatchRequest;
+import com.xai.entities.BatchResult;
+import com.xai.entities.JobRequest;
+import com.xai.entities.JobStatus;
+import com.xai.entities.StreamChunk;
+import com.xai.entities.UsageSummary;
+import com.xai.jobs.Job;
+import com.xai.structured.StructuredOutputRegistry;
+import com.xai.tools.Participation;
+import com.xai.tools.PlayerStatistics;
+import com.xai.tools.SportsStatisticsTools;
+import com.xai.tools.TeamStanding;
+import com.xai.tools.ToolResultCache;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection and resource hints for the GraalVM native image, registered on
+ * {@code AiIntegrationApplication} and read by Spring AOT ({@code processAot}).
+ *
+ * <p>Spring AOT derives the hints for beans, configuration properties and controller
+ * signatures by itself. What it cannot see is what the application does reflectively
+ * at run time:</p>
+ * <ul>
+ *     <li>Jackson binding of {@link AiResponse} (the structured-output converters and
+ *     the JSON schema in their format instructions), of the other entities, of the
+ *     {@link Job} records in the job log and of the tool results;</li>
+ *     <li>the generic signatures of {@link StructuredOutputRegistry#AI_RESPONSE_LIST}
+ *     and of {@link ToolResultCache.SortedObject}: both are type reference subclasses
+ *     whose type argument is read from {@code getGenericSuperclass()};</li>
+ *     <li>the {@code @Tool} methods of {@link SportsStatisticsTools}, which Spring AI
+ *     finds and invokes by reflection;</li>
+ *     <li>the classpath resources found by pattern at startup: the prompt templates,
+ *     the statistics CSVs, the retrieval corpus and the tokenizer's BPE ranks.</li>
+ * </ul>
+ *
+ * <p>The resource patterns cover the default locations; an image configured with
+ * other {@code classpath:} locations needs them added here.</p>
+ */
+public class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+                AiResponse.class, StreamChunk.class, BatchRequest.class, BatchItem.class, BatchResult.class,
+                JobRequest.class, JobStatus.class, UsageSummary.class, Job.class,
+                TeamStanding.class, PlayerStatistics.class, Participation.class);
+
+        hints.reflection().registerType(StructuredOutputRegistry.AI_RESPONSE_LIST.getClass());
+        hints.reflection().registerType(ToolResultCache.SortedObject.class);
+
+        hints.reflection().registerType(SportsStatisticsTools.class,
+                MemberCategory.INTROSPECT_PUBLIC_METHODS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        hints.resources()
+                .registerPattern("prompts/*.st")
+                .registerPattern("statistics/*.csv")
+                .registerPattern("corpus/*.md")
+                .registerPattern("com/knuddels/jtokkit/*.tiktoken");
+    }
+}
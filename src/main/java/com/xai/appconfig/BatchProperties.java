@@ -0,0 +1,29 @@
+package com.xai.appconfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the batch endpoint, bound from {@code xai.batch.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.batch")
+public class BatchProperties {
+
+    /**
+     * Concurrent model calls per batch when the request does not ask for a value.
+     */
+    private int defaultParallelism = 4;
+
+    /**
+     * Upper bound on the parallelism a request may ask for.
+     */
+    private int maxParallelism = 16;
+
+    /**
+     * Maximum number of items in one batch.
+     */
+    private int maxItems = 1000;
+}
@@ -0,0 +1,53 @@
+package com.xai.appconfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of the per-model concurrency bulkheads, bound from {@code xai.bulkhead.*}.
+ *
+ * <p>{@code defaults} apply to every model; entries under {@code models} override
+ * them for a single model, e.g. {@code xai.bulkhead.models.gpt-4o.max-concurrent}.</p>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.bulkhead")
+public class BulkheadProperties {
+
+    private Limits defaults = new Limits();
+
+    private Map<String, Limits> models = new HashMap<>();
+
+    /**
+     * @param model the model name
+     * @return the limits of that model
+     */
+    public Limits forModel(String model) {
+        return models.getOrDefault(model, defaults);
+    }
+
+    @Getter
+    @Setter
+    public static class Limits {
+
+        /**
+         * Maximum number of concurrent calls to the model.
+         */
+        private int maxConcurrent = 64;
+
+        /**
+         * Maximum number of calls waiting for a permit; further calls are rejected at once.
+         */
+        private int maxQueue = 256;
+
+        /**
+         * Maximum time a call waits for a permit before it is rejected.
+         */
+        private Duration maxWait = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,82 @@
+package com.xai.appconfig;
+
+import com.xai.cache.DiskResponseCache;
+import com.xai.cache.EmbeddingModelPromptEmbedder;
+import com.xai.cache.HashingPromptEmbedder;
+import com.xai.cache.HnswIndex;
+import com.xai.cache.PromptEmbedder;
+import com.xai.cache.SemanticResponseCache;
+import com.xai.cache.TieredResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring configuration for the response caches and request coalescing placed in
+ * front of the {@code ChatClient}.
+ */
+@Configuration
+@EnableConfigurationProperties({ResponseCacheProperties.class, CoalescingProperties.class,
+        SemanticCacheProperties.class})
+public class CacheConfig {
+
+    /**
+     * Creates the exact-match response cache shared by all opted-in endpoints.
+     *
+     * <p>The disk tier is only opened when {@code xai.cache.disk.enabled} is set;
+     * it is closed together with the cache on shutdown.</p>
+     *
+     * @param properties    the cache settings
+     * @param meterRegistry registry for cache metrics
+     * @return the tiered response cache
+     */
+    @Bean
+    public TieredResponseCache tieredResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        ResponseCacheProperties.Disk disk = properties.getDisk();
+        DiskResponseCache diskResponseCache = disk.isEnabled()
+                ? new DiskResponseCache(disk.getPath(), disk.getMaxBytes())
+                : null;
+        return new TieredResponseCache(properties.getMaxEntries(), properties.getTtl(), diskResponseCache, meterRegistry);
+    }
+
+    /**
+     * Creates the embedder used by the semantic cache.
+     *
+     * @param properties     the semantic cache settings
+     * @param embeddingModel the application's embedding model, required for {@code embedder: model}
+     * @return the configured prompt embedder
+     */
+    @Bean
+    public PromptEmbedder promptEmbedder(SemanticCacheProperties properties, ObjectProvider<EmbeddingModel> embeddingModel) {
+        return switch (properties.getEmbedder()) {
+            case LOCAL -> new HashingPromptEmbedder(properties.getDimensions());
+            case MODEL -> new EmbeddingModelPromptEmbedder(embeddingModel.getObject());
+        };
+    }
+
+    /**
+     * Creates the semantic response cache shared by all opted-in endpoints.
+     *
+     * @param properties     the semantic cache settings
+     * @param promptEmbedder source of prompt embeddings
+     * @param meterRegistry  registry for cache metrics
+     * @return the semantic response cache
+     */
+    @Bean
+    public SemanticResponseCache semanticResponseCache(SemanticCacheProperties properties,
+                                                       PromptEmbedder promptEmbedder,
+                                                       MeterRegistry meterRegistry) {
+        HnswIndex<SemanticResponseCache.Entry> index = new HnswIndex<>(
+                promptEmbedder.dimensions(),
+                properties.getMaxEntries(),
+                properties.getM(),
+                properties.getEfConstruction(),
+                properties.getEfSearch(),
+                42L);
+        return new SemanticResponseCache(promptEmbedder, index, properties.getSimilarityThreshold(),
+                properties.getTtl(), meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.xai.appconfig;
+
+import com.xai.services.AiEndpoint;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Settings of in-flight request coalescing, bound from {@code xai.coalescing.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.coalescing")
+public class CoalescingProperties {
+
+    /**
+     * Endpoints whose identical concurrent requests share one upstream call.
+     */
+    private Set<AiEndpoint> endpoints = EnumSet.allOf(AiEndpoint.class);
+}
@@ -0,0 +1,54 @@
+package com.xai.appconfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the adaptive concurrency limiter, bound from {@code xai.concurrency-limit.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Whether model calls are admitted through the adaptive limiter.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Limit before any latency has been observed.
+     */
+    private int initialLimit = 20;
+
+    /**
+     * Lowest the limit can shrink to.
+     */
+    private int minLimit = 4;
+
+    /**
+     * Highest the limit can grow to.
+     */
+    private int maxLimit = 200;
+
+    /**
+     * How fast the limit moves towards its new value, between 0 and 1.
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * Latency increase over the long-term average tolerated before the limit shrinks.
+     */
+    private double tolerance = 1.5;
+
+    /**
+     * Number of calls the short-term latency average spans.
+     */
+    private int shortWindow = 10;
+
+    /**
+     * Number of calls the long-term latency average spans.
+     */
+    private int longWindow = 600;
+}
@@ -0,0 +1,93 @@
+package com.xai.appconfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the conversation memory, bound from {@code xai.memory.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.memory")
+public class ConversationMemoryProperties {
+
+    /**
+     * Whether requests carrying a session id get the session's history.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of history tokens added to a request.
+     */
+    private int historyBudget = 2000;
+
+    /**
+     * How a history larger than the budget is reduced.
+     */
+    private Strategy strategy = Strategy.WINDOW;
+
+    /**
+     * How turns are stored.
+     */
+    private Storage storage = Storage.HEAP;
+
+    /**
+     * Minimum UTF-8 length, in bytes, of a text compressed under {@link Storage#COMPRESSED}.
+     */
+    private int compressionThreshold = 256;
+
+    /**
+     * Maximum bytes retained by all sessions; least recently used sessions are evicted beyond it.
+     */
+    private long maxBytes = 256L * 1024 * 1024;
+
+    /**
+     * Time after the last request at which a session is forgotten.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(30);
+
+    /**
+     * Maximum tokens of a summary under {@link Strategy#SUMMARIZE}.
+     */
+    private int summaryMaxTokens = 300;
+
+    /**
+     * Maximum number of summaries written at the same time; a history that exceeds the
+     * budget while all are busy is windowed and summarized with a later exchange.
+     */
+    private int summaryConcurrency = 2;
+
+    /**
+     * Model that writes summaries; the default backend's model if not set.
+     */
+    private String summaryModel;
+
+    public enum Strategy {
+        /**
+         * Keep only the newest turns that fit the budget.
+         */
+        WINDOW,
+        /**
+         * Fold the oldest turns into a model-written summary once the budget is exceeded.
+         */
+        SUMMARIZE
+    }
+
+    public enum Storage {
+        /**
+         * UTF-8 bytes on the heap.
+         */
+        HEAP,
+        /**
+         * UTF-8 bytes on the heap, long texts deflate-compressed.
+         */
+        COMPRESSED,
+        /**
+         * UTF-8 bytes in direct buffers, long texts deflate-compressed.
+         */
+        OFF_HEAP
+    }
+}
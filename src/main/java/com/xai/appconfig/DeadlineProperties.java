@@ -0,0 +1,75 @@
+package com.xai.appconfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of request deadlines, bound from {@code xai.deadline.*}.
+ *
+ * <p>A client sets the deadline of a request with the {@code header}, e.g.
+ * {@code X-Request-Timeout: 5s}; without one, the endpoint's entry under
+ * {@code endpoints} (keyed by {@code AiEndpoint} key) or {@code default-timeout}
+ * applies.</p>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.deadline")
+public class DeadlineProperties {
+
+    /**
+     * Whether model calls are bounded by deadlines.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Request header carrying the client's timeout, as a duration ({@code 5s},
+     * {@code 1500ms}, {@code PT5S}) or a number of milliseconds.
+     */
+    private String header = "X-Request-Timeout";
+
+    /**
+     * Upper bound of a client-supplied timeout.
+     */
+    private Duration maxTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Timeout of requests whose endpoint has no entry in {@code endpoints}.
+     */
+    private Duration defaultTimeout = Duration.ofSeconds(60);
+
+    /**
+     * Timeouts by endpoint key.
+     */
+    private Map<String, Duration> endpoints = new HashMap<>();
+
+    /**
+     * Expected generation speed, in completion tokens per second, used to cap
+     * {@code maxTokens} to what can be generated before the deadline.
+     */
+    private double tokensPerSecond = 40;
+
+    /**
+     * Time reserved for the provider to start generating, subtracted from the time
+     * left before {@code maxTokens} is derived from it.
+     */
+    private Duration firstTokenAllowance = Duration.ofSeconds(1);
+
+    /**
+     * Smallest useful completion; a call that could not generate this many tokens
+     * before its deadline is rejected instead of started.
+     */
+    private int minTokens = 32;
+
+    /**
+     * @param endpoint the endpoint key, or {@code null}
+     * @return the timeout of requests to that endpoint that carry no deadline of their own
+     */
+    public Duration timeoutFor(String endpoint) {
+        return endpoint == null ? defaultTimeout : endpoints.getOrDefault(endpoint, defaultTimeout);
+    }
+}
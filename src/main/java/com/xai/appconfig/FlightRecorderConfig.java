@@ -0,0 +1,38 @@
+package com.xai.appconfig;
+
+import com.xai.jfr.HttpExchangeRecorder;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring configuration of the Java Flight Recorder events of the request pipeline.
+ *
+ * <p>The events themselves are emitted by the request filter, the template registry,
+ * the admission advisors, the model call advisor and the structured output binder;
+ * this configuration adds the recorder of HTTP exchanges to the clients Spring AI
+ * builds from Spring Boot's builders. Events cost next to nothing unless a recording
+ * is running, e.g. one started with {@code -XX:StartFlightRecording}.</p>
+ */
+@Configuration
+public class FlightRecorderConfig {
+
+    private final HttpExchangeRecorder httpExchangeRecorder = new HttpExchangeRecorder();
+
+    /**
+     * @return the customizer recording the exchanges of blocking model calls
+     */
+    @Bean
+    public RestClientCustomizer httpExchangeEventRestClientCustomizer() {
+        return builder -> builder.requestInterceptor(httpExchangeRecorder);
+    }
+
+    /**
+     * @return the customizer recording the exchanges of streaming model calls
+     */
+    @Bean
+    public WebClientCustomizer httpExchangeEventWebClientCustomizer() {
+        return builder -> builder.filter(httpExchangeRecorder);
+    }
+}
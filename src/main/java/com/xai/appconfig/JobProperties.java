@@ -0,0 +1,81 @@
+package com.xai.appconfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the asynchronous job API, bound from {@code xai.jobs.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.jobs")
+public class JobProperties {
+
+    /**
+     * Whether the job API and its workers are started.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of jobs executed concurrently.
+     */
+    private int workers = 4;
+
+    /**
+     * Log file holding the queue and the results.
+     */
+    private Path path = Path.of("data/jobs.log");
+
+    /**
+     * Whether every state change is forced to disk before it is acknowledged.
+     */
+    private boolean fsync = true;
+
+    /**
+     * Log size above which the log is compacted, dropping superseded versions and finished
+     * jobs past their retention, once at least half of it is superseded versions.
+     */
+    private long compactBytes = 64L * 1024 * 1024;
+
+    /**
+     * How long finished jobs remain retrievable.
+     */
+    private Duration retention = Duration.ofHours(24);
+
+    /**
+     * Maximum number of queued jobs; further submissions are rejected with 503.
+     */
+    private int maxQueued = 10_000;
+
+    /**
+     * Deadline of a job's model call.
+     */
+    private Duration timeout = Duration.ofMinutes(10);
+
+    /**
+     * Attempts after which a job interrupted by restarts is failed.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Attempts to deliver a callback.
+     */
+    private int callbackAttempts = 3;
+
+    /**
+     * Hosts callbacks may be posted to; {@code *.example.com} allows its subdomains.
+     * Empty disables callbacks.
+     */
+    private List<String> callbackHosts = new ArrayList<>();
+
+    /**
+     * Connect and read timeout of a callback request.
+     */
+    private Duration callbackTimeout = Duration.ofSeconds(10);
+}
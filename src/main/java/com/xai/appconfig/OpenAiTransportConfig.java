@@ -0,0 +1,234 @@
+package com.xai.appconfig;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.observation.ChatModelObservationConvention;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiChatProperties;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiConnectionProperties;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiEmbeddingProperties;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiEmbeddingModel;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.Http2AllocationStrategy;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Pooled, HTTP/2-capable transport for the OpenAI API.
+ *
+ * <p>Spring AI builds its blocking ({@code RestClient}) and streaming
+ * ({@code WebClient}) OpenAI clients from Spring Boot's builders, which every other
+ * client (Ollama, …) is built from as well. So instead of customizing those builders,
+ * this configuration defines the {@code openAiChatModel} and {@code openAiEmbeddingModel}
+ * beans itself, in place of Spring AI's, with an {@link OpenAiApi} whose own copies of
+ * the builders use one Reactor Netty {@link HttpClient}. Blocking and streaming OpenAI
+ * calls draw from the same bounded connection pool; other clients keep Spring Boot's
+ * default transport. The models are configured from the usual
+ * {@code spring.ai.openai.*} properties (base URL, API key, paths and default options;
+ * organization and project headers are not supported) and, like Spring AI's, are only
+ * created when {@code spring.ai.model.chat} / {@code spring.ai.model.embedding} select
+ * OpenAI.</p>
+ * <ul>
+ *     <li>HTTP/2 is negotiated through ALPN, with HTTP/1.1 as fallback; concurrent calls
+ *     are multiplexed over a few connections instead of one connection each.</li>
+ *     <li>The pool is bounded, callers wait at most {@code pending-acquire-timeout} for a
+ *     connection, and idle or aged connections are evicted in the background.</li>
+ *     <li>Connect and read timeouts bound hung connections and stalled streams.</li>
+ *     <li>At startup, {@code warm-up-connections} requests open TLS connections, so the
+ *     first user requests do not pay for the handshakes.</li>
+ * </ul>
+ *
+ * <p>Pool metrics are published as {@code reactor.netty.connection.provider.*}
+ * (total, active, idle and pending connections) with {@code name=openai}.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "xai.openai.transport", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(OpenAiTransportProperties.class)
+@Slf4j
+public class OpenAiTransportConfig {
+
+    private static final String POOL_NAME = "openai";
+
+    /**
+     * @param properties the transport settings
+     * @return the connection pool shared by the OpenAI clients
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider openAiConnectionProvider(OpenAiTransportProperties properties) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getMaxPendingAcquires())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxLifeTime(properties.getMaxLifeTime())
+                .evictInBackground(properties.getEvictionInterval())
+                .metrics(true);
+        if (properties.isHttp2()) {
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(properties.getMaxConnections())
+                    .maxConcurrentStreams(properties.getMaxConcurrentStreams())
+                    .build());
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param connectionProvider the connection pool
+     * @param properties         the transport settings
+     * @return the HTTP client behind both OpenAI clients
+     */
+    @Bean
+    public HttpClient openAiHttpClient(ConnectionProvider connectionProvider, OpenAiTransportProperties properties) {
+        HttpProtocol[] protocols = properties.isHttp2()
+                ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                : new HttpProtocol[]{HttpProtocol.HTTP11};
+        return HttpClient.create(connectionProvider)
+                .protocol(protocols)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout())
+                .keepAlive(true);
+    }
+
+    /**
+     * The OpenAI chat model, calling the API through the pooled client.
+     *
+     * @param connection            the common OpenAI connection settings
+     * @param chat                  the chat settings, overriding the common ones
+     * @param openAiHttpClient      the pooled HTTP client
+     * @param restClientBuilder     Spring Boot's {@code RestClient.Builder}, a new copy per injection
+     * @param webClientBuilder      Spring Boot's {@code WebClient.Builder}, a new copy per injection
+     * @param responseErrorHandler  Spring AI's handler of error responses
+     * @param toolCallingManager    executes the tools the model calls
+     * @param retryTemplate         Spring AI's retry settings
+     * @param observationRegistry   the observation registry, if any
+     * @param observationConvention a custom observation convention, if any
+     * @return the chat model
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.ai.model.chat", havingValue = "openai", matchIfMissing = true)
+    public OpenAiChatModel openAiChatModel(OpenAiConnectionProperties connection, OpenAiChatProperties chat,
+                                           HttpClient openAiHttpClient,
+                                           ObjectProvider<RestClient.Builder> restClientBuilder,
+                                           ObjectProvider<WebClient.Builder> webClientBuilder,
+                                           ResponseErrorHandler responseErrorHandler,
+                                           ToolCallingManager toolCallingManager,
+                                           RetryTemplate retryTemplate,
+                                           ObjectProvider<ObservationRegistry> observationRegistry,
+                                           ObjectProvider<ChatModelObservationConvention> observationConvention) {
+        OpenAiApi openAiApi = openAiApi(openAiHttpClient, restClientBuilder, webClientBuilder, responseErrorHandler)
+                .baseUrl(StringUtils.hasText(chat.getBaseUrl()) ? chat.getBaseUrl() : connection.getBaseUrl())
+                .apiKey(StringUtils.hasText(chat.getApiKey()) ? chat.getApiKey() : connection.getApiKey())
+                .completionsPath(chat.getCompletionsPath())
+                .build();
+        OpenAiChatModel chatModel = OpenAiChatModel.builder()
+                .openAiApi(openAiApi)
+                .defaultOptions(chat.getOptions())
+                .toolCallingManager(toolCallingManager)
+                .retryTemplate(retryTemplate)
+                .observationRegistry(observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP))
+                .build();
+        observationConvention.ifAvailable(chatModel::setObservationConvention);
+        return chatModel;
+    }
+
+    /**
+     * The OpenAI embedding model, calling the API through the pooled client.
+     *
+     * @param connection           the common OpenAI connection settings
+     * @param embedding            the embedding settings, overriding the common ones
+     * @param openAiHttpClient     the pooled HTTP client
+     * @param restClientBuilder    Spring Boot's {@code RestClient.Builder}, a new copy per injection
+     * @param webClientBuilder     Spring Boot's {@code WebClient.Builder}, a new copy per injection
+     * @param responseErrorHandler Spring AI's handler of error responses
+     * @param retryTemplate        Spring AI's retry settings
+     * @param observationRegistry  the observation registry, if any
+     * @return the embedding model
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.ai.model.embedding", havingValue = "openai", matchIfMissing = true)
+    public OpenAiEmbeddingModel openAiEmbeddingModel(OpenAiConnectionProperties connection,
+                                                     OpenAiEmbeddingProperties embedding, HttpClient openAiHttpClient,
+                                                     ObjectProvider<RestClient.Builder> restClientBuilder,
+                                                     ObjectProvider<WebClient.Builder> webClientBuilder,
+                                                     ResponseErrorHandler responseErrorHandler,
+                                                     RetryTemplate retryTemplate,
+                                                     ObjectProvider<ObservationRegistry> observationRegistry) {
+        OpenAiApi openAiApi = openAiApi(openAiHttpClient, restClientBuilder, webClientBuilder, responseErrorHandler)
+                .baseUrl(StringUtils.hasText(embedding.getBaseUrl()) ? embedding.getBaseUrl() : connection.getBaseUrl())
+                .apiKey(StringUtils.hasText(embedding.getApiKey()) ? embedding.getApiKey() : connection.getApiKey())
+                .embeddingsPath(embedding.getEmbeddingsPath())
+                .build();
+        return new OpenAiEmbeddingModel(openAiApi, embedding.getMetadataMode(), embedding.getOptions(), retryTemplate,
+                observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP));
+    }
+
+    /**
+     * Opens connections to the API once the application is ready. The response status
+     * does not matter; the point is the TCP and TLS handshake. Failures are logged only.
+     *
+     * @param openAiHttpClient the pooled HTTP client
+     * @param properties       the transport settings
+     * @param baseUrl          the OpenAI base URL
+     * @return the listener running the warm-up
+     */
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> openAiConnectionWarmUp(
+            HttpClient openAiHttpClient, OpenAiTransportProperties properties,
+            @Value("${spring.ai.openai.base-url:https://api.openai.com}") String baseUrl) {
+        return event -> {
+            if (properties.getWarmUpConnections() <= 0) {
+                return;
+            }
+            long start = System.nanoTime();
+            openAiHttpClient.warmup()
+                    .thenMany(Flux.range(0, properties.getWarmUpConnections())
+                            .flatMap(i -> openAiHttpClient.head().uri(baseUrl).response()))
+                    .timeout(Duration.ofSeconds(10))
+                    .then()
+                    .subscribe(
+                            ignored -> {
+                            },
+                            e -> log.warn("OpenAI connection warm-up failed: {}", e.toString()),
+                            () -> log.info("Warmed up {} connection(s) to {} in {} ms", properties.getWarmUpConnections(),
+                                    baseUrl, Duration.ofNanos(System.nanoTime() - start).toMillis()));
+        };
+    }
+
+    /**
+     * Starts an {@link OpenAiApi} whose blocking and streaming clients use the pooled
+     * transport. The API gets its own copies of Spring Boot's builders, so the transport
+     * is not applied to any other client.
+     */
+    private static OpenAiApi.Builder openAiApi(HttpClient openAiHttpClient,
+                                               ObjectProvider<RestClient.Builder> restClientBuilder,
+                                               ObjectProvider<WebClient.Builder> webClientBuilder,
+                                               ResponseErrorHandler responseErrorHandler) {
+        return OpenAiApi.builder()
+                .restClientBuilder(restClientBuilder.getIfAvailable(RestClient::builder)
+                        .requestFactory(new ReactorClientHttpRequestFactory(openAiHttpClient)))
+                .webClientBuilder(webClientBuilder.getIfAvailable(WebClient::builder)
+                        .clientConnector(new ReactorClientHttpConnector(openAiHttpClient)))
+                .responseErrorHandler(responseErrorHandler);
+    }
+}
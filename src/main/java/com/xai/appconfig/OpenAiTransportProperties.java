@@ -0,0 +1,77 @@
+package com.xai.appconfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the pooled HTTP transport used to reach the OpenAI API, bound from
+ * {@code xai.openai.transport.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.openai.transport")
+public class OpenAiTransportProperties {
+
+    /**
+     * Whether the OpenAI clients use the pooled transport instead of Spring Boot's default.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether HTTP/2 is negotiated (via ALPN), multiplexing concurrent calls over few connections.
+     */
+    private boolean http2 = true;
+
+    /**
+     * Maximum number of pooled connections.
+     */
+    private int maxConnections = 50;
+
+    /**
+     * Maximum concurrent streams per HTTP/2 connection.
+     */
+    private int maxConcurrentStreams = 100;
+
+    /**
+     * Maximum number of calls waiting for a pooled connection.
+     */
+    private int maxPendingAcquires = 1000;
+
+    /**
+     * Maximum time a call waits for a pooled connection.
+     */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    /**
+     * TCP connect timeout.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(3);
+
+    /**
+     * Maximum time between two reads of a response; bounds stalled streams as well.
+     */
+    private Duration responseTimeout = Duration.ofSeconds(60);
+
+    /**
+     * Idle connections older than this are closed.
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    /**
+     * Connections older than this are closed once idle, so DNS changes are picked up.
+     */
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    /**
+     * How often idle and expired connections are evicted in the background.
+     */
+    private Duration evictionInterval = Duration.ofSeconds(15);
+
+    /**
+     * Number of connections opened at startup; {@code 0} disables the warm-up.
+     */
+    private int warmUpConnections = 2;
+}
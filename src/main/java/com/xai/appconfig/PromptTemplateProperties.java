@@ -0,0 +1,26 @@
+package com.xai.appconfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the prompt template registry, bound from {@code xai.prompts.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.prompts")
+public class PromptTemplateProperties {
+
+    /**
+     * Directory holding the {@code *.st} templates, as a Spring resource location.
+     * Point it to a {@code file:} directory to edit templates without a rebuild.
+     */
+    private String location = "classpath:/prompts/";
+
+    /**
+     * Whether to recompile templates when files in {@code location} change.
+     * Only effective when the location is a filesystem directory.
+     */
+    private boolean hotReload = true;
+}
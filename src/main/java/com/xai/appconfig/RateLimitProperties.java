@@ -0,0 +1,54 @@
+package com.xai.appconfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the client-side provider rate limiter, bound from {@code xai.rate-limit.*}.
+ *
+ * <p>The limits are starting values: once the provider reports its actual quota in
+ * the rate-limit headers of a response, the buckets follow those values.</p>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Whether calls are admitted through the rate limiter at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Requests allowed per minute before the provider reports its own limit.
+     */
+    private long requestsPerMinute = 500;
+
+    /**
+     * Tokens (prompt + completion) allowed per minute before the provider reports its own limit.
+     */
+    private long tokensPerMinute = 30_000;
+
+    /**
+     * Completion tokens assumed for a request whose options set no {@code maxTokens}.
+     */
+    private int defaultMaxTokens = 300;
+
+    /**
+     * How long the buckets stay drained after the provider answered {@code 429}.
+     */
+    private Duration backoffAfterThrottle = Duration.ofSeconds(2);
+
+    /**
+     * Maximum time an interactive call waits for quota before it is rejected.
+     */
+    private Duration interactiveMaxWait = Duration.ofSeconds(10);
+
+    /**
+     * Maximum time a batch call waits for quota before it is rejected.
+     */
+    private Duration batchMaxWait = Duration.ofMinutes(2);
+}
@@ -0,0 +1,60 @@
+package com.xai.appconfig;
+
+import com.xai.services.AiEndpoint;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Settings of the exact-match response cache, bound from {@code xai.cache.*}.
+ *
+ * <p>Caching is opt-in per endpoint: only endpoints listed in {@code endpoints}
+ * are served from the cache.</p>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.cache")
+public class ResponseCacheProperties {
+
+    /**
+     * Endpoints whose responses may be cached.
+     */
+    private Set<AiEndpoint> endpoints = EnumSet.noneOf(AiEndpoint.class);
+
+    /**
+     * Maximum number of entries held in memory.
+     */
+    private long maxEntries = 10_000;
+
+    /**
+     * Time after which a cached response is no longer served.
+     */
+    private Duration ttl = Duration.ofHours(1);
+
+    private final Disk disk = new Disk();
+
+    @Getter
+    @Setter
+    public static class Disk {
+
+        /**
+         * Whether to keep a disk tier that survives restarts.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Location of the append-only cache log.
+         */
+        private Path path = Path.of("data", "response-cache.log");
+
+        /**
+         * Maximum size of the log; the oldest entries are evicted to stay below it.
+         */
+        private long maxBytes = 256L * 1024 * 1024;
+    }
+}
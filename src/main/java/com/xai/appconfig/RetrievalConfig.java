@@ -0,0 +1,74 @@
+package com.xai.appconfig;
+
+import com.xai.cache.PromptEmbedder;
+import com.xai.rag.DocumentChunker;
+import com.xai.rag.Passage;
+import com.xai.rag.PassageRetriever;
+import com.xai.rag.VectorIndex;
+import com.xai.tokens.TokenEstimator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Spring configuration of retrieval-augmented prompts.
+ *
+ * <p>The documents matching {@code xai.rag.location} are chunked into passages and
+ * embedded with the application's {@link PromptEmbedder} at startup; the resulting
+ * in-memory index is used by the {@code RetrievalAdvisor}.</p>
+ */
+@Configuration
+@EnableConfigurationProperties(RetrievalProperties.class)
+@ConditionalOnProperty(prefix = "xai.rag", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class RetrievalConfig {
+
+    /**
+     * Chunks, embeds and indexes the corpus.
+     *
+     * @param properties      the retrieval settings
+     * @param resolver        resolves the corpus location pattern
+     * @param tokenEstimator  measures passages
+     * @param promptEmbedder  embeds passages and questions
+     * @return the passage retriever
+     * @throws IOException if a document cannot be read
+     */
+    @Bean
+    public PassageRetriever passageRetriever(RetrievalProperties properties, ResourcePatternResolver resolver,
+                                             TokenEstimator tokenEstimator, PromptEmbedder promptEmbedder)
+            throws IOException {
+        long start = System.nanoTime();
+        DocumentChunker chunker = new DocumentChunker(tokenEstimator, properties.getChunkTokens());
+        Resource[] documents = resolver.getResources(properties.getLocation());
+        List<Passage> passages = new ArrayList<>();
+        for (Resource document : sorted(documents)) {
+            passages.addAll(chunker.chunk(document.getFilename(), document.getContentAsString(StandardCharsets.UTF_8)));
+        }
+        PassageRetriever retriever = PassageRetriever.build(passages, promptEmbedder, properties.getIvfLists(),
+                properties.getIvfProbes());
+        log.info("Indexed {} passages of {} documents from {} in {} ms ({} KiB, {} search)", retriever.size(),
+                documents.length, properties.getLocation(), (System.nanoTime() - start) / 1_000_000,
+                retriever.memoryBytes() / 1024, VectorIndex.simd() ? "SIMD" : "scalar");
+        if (!VectorIndex.simd()) {
+            log.warn("The Vector API is not available, vector search falls back to scalar code; "
+                    + "start the JVM with --add-modules jdk.incubator.vector to enable SIMD");
+        }
+        return retriever;
+    }
+
+    private static List<Resource> sorted(Resource[] documents) {
+        List<Resource> sorted = new ArrayList<>(List.of(documents));
+        sorted.sort(Comparator.comparing(Resource::getFilename, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return sorted;
+    }
+}
@@ -0,0 +1,64 @@
+package com.xai.appconfig;
+
+import com.xai.services.AiEndpoint;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Settings of retrieval-augmented prompts, bound from {@code xai.rag.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.rag")
+public class RetrievalProperties {
+
+    /**
+     * Whether the corpus is indexed and the retrieval advisor registered.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Endpoints whose user message is augmented with retrieved passages.
+     */
+    private Set<AiEndpoint> endpoints = EnumSet.noneOf(AiEndpoint.class);
+
+    /**
+     * Location pattern of the corpus documents (plain text or Markdown).
+     */
+    private String location = "classpath:/corpus/*.md";
+
+    /**
+     * Maximum tokens of a passage.
+     */
+    private int chunkTokens = 200;
+
+    /**
+     * Maximum number of passages injected into a prompt.
+     */
+    private int topK = 4;
+
+    /**
+     * Minimum cosine similarity between the question and an injected passage.
+     */
+    private double minScore = 0.2;
+
+    /**
+     * Maximum tokens of all injected passages together; lower-ranked passages are dropped beyond it.
+     */
+    private int maxContextTokens = 600;
+
+    /**
+     * IVF partitions of the vector index; {@code 0} for exact search, which is the
+     * better choice below some hundred thousand passages.
+     */
+    private int ivfLists = 0;
+
+    /**
+     * IVF partitions scanned per query.
+     */
+    private int ivfProbes = 8;
+}
@@ -0,0 +1,51 @@
+package com.xai.appconfig;
+
+import com.xai.resilience.BulkheadRegistry;
+import com.xai.routing.Backend;
+import com.xai.routing.RoutingChatModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exposes the {@link RoutingChatModel} as the application's primary {@link ChatModel},
+ * the one {@code AiConfig} builds the {@code ChatClient} on.
+ *
+ * <p>Each entry of {@code xai.routing.backends} names a provider's chat model bean
+ * (e.g. {@code openAiChatModel}, {@code ollamaChatModel}) and the model to request
+ * from it. With a single backend the router only adds profiling.</p>
+ */
+@Configuration
+@EnableConfigurationProperties(RoutingProperties.class)
+public class RoutingConfig {
+
+    /**
+     * @param properties    the routing settings
+     * @param beanFactory   to look up the providers' chat models by name
+     * @param bulkheads     the bulkheads failovers and hedges take a permit of
+     * @param meterRegistry the registry for routing metrics
+     * @return the router over the configured backends
+     */
+    @Bean
+    @Primary
+    public RoutingChatModel routingChatModel(RoutingProperties properties, BeanFactory beanFactory,
+                                             BulkheadRegistry bulkheads, MeterRegistry meterRegistry) {
+        List<Backend> backends = new ArrayList<>();
+        for (RoutingProperties.BackendProperties backend : properties.getBackends()) {
+            String name = backend.getName() != null ? backend.getName() : backend.getChatModel();
+            backends.add(new Backend(name, beanFactory.getBean(backend.getChatModel(), ChatModel.class),
+                    backend.getModel(), backend.isRateLimited(), properties.getSmoothing(), properties.getWindow()));
+        }
+        if (backends.isEmpty()) {
+            throw new IllegalStateException("xai.routing.backends must name at least one chat model");
+        }
+        return new RoutingChatModel(backends, properties, bulkheads, meterRegistry);
+    }
+}
@@ -0,0 +1,92 @@
+package com.xai.appconfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the latency-aware model router, bound from {@code xai.routing.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.routing")
+public class RoutingProperties {
+
+    /**
+     * The backends requests are routed over, e.g. several OpenAI models and a local Ollama model.
+     */
+    private List<BackendProperties> backends = new ArrayList<>();
+
+    /**
+     * Weight of a new sample in the moving latency and error averages.
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * Number of recent latencies per backend used for quantiles.
+     */
+    private int window = 128;
+
+    /**
+     * Share of requests sent to a random backend instead of the best one, so the
+     * profiles of backends out of favour, e.g. after an outage, are refreshed.
+     */
+    private double explorationRate = 0.02;
+
+    private Hedging hedging = new Hedging();
+
+    @Getter
+    @Setter
+    public static class BackendProperties {
+
+        /**
+         * Name of the backend in metrics and logs.
+         */
+        private String name;
+
+        /**
+         * Bean name of the provider's {@code ChatModel}, e.g. {@code openAiChatModel} or {@code ollamaChatModel}.
+         */
+        private String chatModel = "openAiChatModel";
+
+        /**
+         * Model requested from the provider; if unset, the model of the request is kept.
+         */
+        private String model;
+
+        /**
+         * Whether calls to the backend count against the provider quota of
+         * {@code xai.rate-limit}; disable for local models such as Ollama.
+         */
+        private boolean rateLimited = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Hedging {
+
+        /**
+         * Whether a slow request is duplicated to the next best backend.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Latency quantile of the primary backend after which the hedge is sent.
+         */
+        private double quantile = 0.95;
+
+        /**
+         * Lower bound of the hedging delay, to avoid duplicating fast requests.
+         */
+        private Duration minDelay = Duration.ofMillis(100);
+
+        /**
+         * Upper bound of the hedging delay; also used while a backend has no samples.
+         */
+        private Duration maxDelay = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,75 @@
+package com.xai.appconfig;
+
+import com.xai.services.AiEndpoint;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Settings of the semantic response cache, bound from {@code xai.semantic-cache.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.semantic-cache")
+public class SemanticCacheProperties {
+
+    /**
+     * Endpoints whose prompts may be answered from a similar earlier prompt.
+     */
+    private Set<AiEndpoint> endpoints = EnumSet.noneOf(AiEndpoint.class);
+
+    /**
+     * Minimum cosine similarity between two prompts for a cache hit.
+     */
+    private double similarityThreshold = 0.85;
+
+    /**
+     * Maximum number of cached prompts; the oldest are evicted beyond it.
+     */
+    private int maxEntries = 100_000;
+
+    /**
+     * Time after which a cached answer is no longer served.
+     */
+    private Duration ttl = Duration.ofHours(1);
+
+    /**
+     * Where prompt embeddings come from.
+     */
+    private Embedder embedder = Embedder.LOCAL;
+
+    /**
+     * Vector size of the {@link Embedder#LOCAL} embedder.
+     */
+    private int dimensions = 256;
+
+    /**
+     * HNSW links per node.
+     */
+    private int m = 16;
+
+    /**
+     * HNSW candidate list size while inserting.
+     */
+    private int efConstruction = 100;
+
+    /**
+     * HNSW candidate list size while searching.
+     */
+    private int efSearch = 64;
+
+    public enum Embedder {
+        /**
+         * Deterministic in-process feature hashing; no model call.
+         */
+        LOCAL,
+        /**
+         * The application's Spring AI {@code EmbeddingModel}.
+         */
+        MODEL
+    }
+}
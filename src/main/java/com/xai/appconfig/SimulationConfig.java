@@ -0,0 +1,33 @@
+package com.xai.appconfig;
+
+import com.xai.simulation.SimulatedChatModel;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Replaces the OpenAI chat model with a {@link SimulatedChatModel} when the
+ * {@code simulated} profile is active.
+ *
+ * <p>{@code application-simulated.yaml} switches off Spring AI's OpenAI
+ * auto-configuration, so no API key is needed. Start with:</p>
+ * <pre>
+ * ./gradlew bootRun --args='--spring.profiles.active=simulated'
+ * </pre>
+ */
+@Configuration
+@Profile("simulated")
+@EnableConfigurationProperties(SimulationProperties.class)
+public class SimulationConfig {
+
+    /**
+     * @param properties latency, length and fault settings of the simulation
+     * @return the simulated model the {@code ChatClient} is built on
+     */
+    @Bean
+    public ChatModel simulatedChatModel(SimulationProperties properties) {
+        return new SimulatedChatModel(properties);
+    }
+}
@@ -0,0 +1,61 @@
+package com.xai.appconfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Behaviour of the simulated chat model used by the {@code simulated} profile,
+ * bound from {@code xai.simulation.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.simulation")
+public class SimulationProperties {
+
+    /**
+     * Time until the first token of a reply.
+     */
+    private Duration timeToFirstToken = Duration.ofMillis(300);
+
+    /**
+     * Generation speed after the first token.
+     */
+    private double tokensPerSecond = 50;
+
+    /**
+     * Length of a text reply, before it is cut at the request's {@code maxTokens}.
+     */
+    private int completionTokens = 150;
+
+    /**
+     * Random variation applied to every delay, as a fraction (0.2 = ±20 %).
+     */
+    private double jitter = 0.2;
+
+    /**
+     * Fraction of calls failing with a server error.
+     */
+    private double errorRate = 0.0;
+
+    /**
+     * Fraction of calls rejected with {@code 429 Too Many Requests}.
+     */
+    private double throttleRate = 0.0;
+
+    /**
+     * Reply to requests for a single {@code AiResponse}.
+     */
+    private String objectJson = """
+            {"title": "Harry Kane", "data": "England's all-time top scorer and captain.", "createdAt": "2025-01-01"}""";
+
+    /**
+     * Reply to requests for a {@code List<AiResponse>}.
+     */
+    private String arrayJson = """
+            [{"title": "Harry Kane", "data": "England's all-time top scorer and captain.", "createdAt": "2025-01-01"},
+             {"title": "Wayne Rooney", "data": "Manchester United's record goalscorer.", "createdAt": "2025-01-01"},
+             {"title": "Michael Jordan", "data": "Six-time NBA champion with the Chicago Bulls.", "createdAt": "2025-01-01"}]""";
+}
@@ -0,0 +1,98 @@
+package com.xai.appconfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of token counting and of the prompt token budget, bound from {@code xai.tokens.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.tokens")
+public class TokenizerProperties {
+
+    /**
+     * How tokens are counted.
+     */
+    private Estimator estimator = Estimator.BPE;
+
+    /**
+     * BPE encoding of models the tokenizer does not know, e.g. local Ollama models.
+     */
+    private String defaultEncoding = "o200k_base";
+
+    /**
+     * Context window, in tokens, by model name.
+     */
+    private Map<String, Integer> contextWindows = new HashMap<>();
+
+    /**
+     * Context window of models without an entry in {@code context-windows}.
+     */
+    private int defaultContextWindow = 128_000;
+
+    private Budget budget = new Budget();
+
+    /**
+     * @param model the model name, may be {@code null}
+     * @return the model's context window in tokens
+     */
+    public int contextWindow(String model) {
+        return model == null ? defaultContextWindow : contextWindows.getOrDefault(model, defaultContextWindow);
+    }
+
+    public enum Estimator {
+        /**
+         * Exact counts with the model's byte-pair encoding.
+         */
+        BPE,
+        /**
+         * Four characters per token; approximate.
+         */
+        CHARACTERS
+    }
+
+    public enum Overflow {
+        /**
+         * Reject the request with {@code 400}.
+         */
+        REJECT,
+        /**
+         * Cut the start of the last user message, keeping its end.
+         */
+        TRIM_START,
+        /**
+         * Cut the end of the last user message, keeping its start.
+         */
+        TRIM_END
+    }
+
+    @Getter
+    @Setter
+    public static class Budget {
+
+        /**
+         * Whether prompts are counted and fitted to the model before they are sent.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum prompt tokens per request; {@code 0} for the context window only.
+         */
+        private int maxPromptTokens = 0;
+
+        /**
+         * Completion tokens that must remain in the context window after the prompt.
+         */
+        private int minCompletionTokens = 64;
+
+        /**
+         * What happens to a prompt that does not fit.
+         */
+        private Overflow overflow = Overflow.REJECT;
+    }
+}
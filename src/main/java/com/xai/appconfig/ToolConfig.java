@@ -0,0 +1,120 @@
+package com.xai.appconfig;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xai.tools.CachingToolCallback;
+import com.xai.tools.ParallelToolCallingManager;
+import com.xai.tools.SportsStatisticsIndex;
+import com.xai.tools.SportsStatisticsTools;
+import com.xai.tools.ToolResultCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.model.tool.DefaultToolCallingManager;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.execution.ToolExecutionExceptionProcessor;
+import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+import org.springframework.ai.tool.resolution.ToolCallbackResolver;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Spring configuration of the tools offered to the model through the {@code ChatClient}.
+ *
+ * <p>The sports statistics tools read an in-process {@link SportsStatisticsIndex} loaded
+ * from {@code xai.tools.statistics-location} at startup. Their results are cached, and
+ * {@link ParallelToolCallingManager} replaces Spring AI's default tool calling manager
+ * in the chat models, so the calls of one turn run in parallel.</p>
+ */
+@Configuration
+@EnableConfigurationProperties(ToolProperties.class)
+@ConditionalOnProperty(prefix = "xai.tools", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ToolConfig {
+
+    /**
+     * Loads the statistics index.
+     *
+     * @param properties     the tool settings
+     * @param resourceLoader resolves the statistics location
+     * @return the loaded index
+     * @throws IOException if a statistics file cannot be read
+     */
+    @Bean
+    public SportsStatisticsIndex sportsStatisticsIndex(ToolProperties properties, ResourceLoader resourceLoader)
+            throws IOException {
+        String location = properties.getStatisticsLocation();
+        try (Reader teams = reader(resourceLoader, location + "teams.csv");
+             Reader players = reader(resourceLoader, location + "players.csv");
+             Reader participation = reader(resourceLoader, location + "participation.csv")) {
+            SportsStatisticsIndex index = SportsStatisticsIndex.load(teams, players, participation);
+            log.info("Loaded sports statistics from {}: {} teams, {} players", location, index.teamCount(),
+                    index.playerCount());
+            return index;
+        }
+    }
+
+    /**
+     * Creates the sports statistics tools, each answering from the tool result cache.
+     * {@code AiConfig} registers them on the {@code ChatClient}.
+     *
+     * @param index         the statistics index
+     * @param properties    the tool settings
+     * @param objectMapper  normalizes tool arguments for the cache
+     * @param meterRegistry registry for the cache and execution metrics
+     * @return the tool callbacks
+     */
+    @Bean
+    public ToolCallbackProvider sportsStatisticsTools(SportsStatisticsIndex index, ToolProperties properties,
+                                                      ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        ToolResultCache cache = new ToolResultCache(properties.getCacheMaxEntries(), properties.getCacheTtl(),
+                objectMapper, meterRegistry);
+        ToolCallback[] tools = MethodToolCallbackProvider.builder()
+                .toolObjects(new SportsStatisticsTools(index))
+                .build()
+                .getToolCallbacks();
+        return ToolCallbackProvider.from(Arrays.stream(tools)
+                .map(tool -> new CachingToolCallback(tool, cache, meterRegistry))
+                .toArray(ToolCallback[]::new));
+    }
+
+    /**
+     * Replaces Spring AI's tool calling manager, which the chat model auto-configurations
+     * pick up, with one that executes the calls of a turn in parallel.
+     *
+     * @param toolCallbackResolver              resolves tools by name
+     * @param toolExecutionExceptionProcessor   turns tool failures into messages for the model
+     * @param observationRegistry               observations of the tool calls, if available
+     * @param properties                        the tool settings
+     * @param meterRegistry                     registry for the tool calling metrics
+     * @return the parallel tool calling manager
+     */
+    @Bean
+    public ToolCallingManager toolCallingManager(ToolCallbackResolver toolCallbackResolver,
+                                                 ToolExecutionExceptionProcessor toolExecutionExceptionProcessor,
+                                                 ObjectProvider<ObservationRegistry> observationRegistry,
+                                                 ToolProperties properties, MeterRegistry meterRegistry) {
+        ToolCallingManager delegate = DefaultToolCallingManager.builder()
+                .observationRegistry(observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP))
+                .toolCallbackResolver(toolCallbackResolver)
+                .toolExecutionExceptionProcessor(toolExecutionExceptionProcessor)
+                .build();
+        return new ParallelToolCallingManager(delegate, toolCallbackResolver, properties.getMaxParallelCalls(),
+                properties.getParallelTimeout(), meterRegistry);
+    }
+
+    private static Reader reader(ResourceLoader resourceLoader, String location) throws IOException {
+        return new InputStreamReader(resourceLoader.getResource(location).getInputStream(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,46 @@
+package com.xai.appconfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the tools offered to the model, bound from {@code xai.tools.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "xai.tools")
+public class ToolProperties {
+
+    /**
+     * Whether the sports statistics tools are registered on the {@code ChatClient}.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Directory holding {@code teams.csv}, {@code players.csv} and {@code participation.csv}.
+     */
+    private String statisticsLocation = "classpath:/statistics/";
+
+    /**
+     * Maximum number of tool calls of one model turn executed concurrently.
+     */
+    private int maxParallelCalls = 8;
+
+    /**
+     * How long the parallel calls of a turn are awaited before the remaining ones run sequentially.
+     */
+    private Duration parallelTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Maximum number of cached tool results.
+     */
+    private long cacheMaxEntries = 10_000;
+
+    /**
+     * Time after which a cached tool result is recomputed.
+     */
+    private Duration cacheTtl = Duration.ofMinutes(10);
+}
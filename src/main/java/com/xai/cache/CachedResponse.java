@@ -0,0 +1,56 @@
+package com.xai.cache;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+
+import java.util.List;
+
+/**
+ * A model reply as stored in the response caches.
+ *
+ * @param text  the generated text
+ * @param model the model that generated it, may be {@code null}
+ */
+public record CachedResponse(String text, String model) {
+
+    /**
+     * Metadata key set to {@code true} on responses served from a cache.
+     */
+    public static final String CACHE_HIT = "xai.cache.hit";
+
+    /**
+     * Captures a model reply for the caches. Replies cut off at the token limit are not
+     * cached: a later, identical request may allow more tokens and deserves a complete one.
+     *
+     * @param chatResponse the reply, may be {@code null}
+     * @return the reply to cache, or {@code null} if it has no text or was truncated
+     */
+    public static CachedResponse of(ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getResult() == null) {
+            return null;
+        }
+        Generation generation = chatResponse.getResult();
+        String finishReason = generation.getMetadata() == null ? null : generation.getMetadata().getFinishReason();
+        if (generation.getOutput().getText() == null || "LENGTH".equalsIgnoreCase(finishReason)) {
+            return null;
+        }
+        return new CachedResponse(generation.getOutput().getText(), chatResponse.getMetadata().getModel());
+    }
+
+    /**
+     * Rebuilds a {@link ChatResponse} equivalent to the original reply, without usage.
+     *
+     * @return a response carrying the cached text
+     */
+    public ChatResponse toChatResponse() {
+        return ChatResponse.builder()
+                .generations(List.of(new Generation(new AssistantMessage(text))))
+                .metadata(ChatResponseMetadata.builder()
+                        .model(model == null ? "" : model)
+                        .keyValue(CACHE_HIT, true)
+                        .build())
+                .build();
+    }
+}
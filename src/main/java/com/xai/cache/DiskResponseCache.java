@@ -0,0 +1,315 @@
+package com.xai.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append-only, file-backed response cache that survives restarts.
+ *
+ * <p>Entries are appended to a single log file; an in-memory index maps each key
+ * to the offset of its latest record. The index is rebuilt by scanning the log on
+ * startup, and a torn record at the end of the file (e.g. after a crash) is
+ * truncated. Reads are positional and served from the OS page cache.</p>
+ *
+ * <p>Record layout: {@code int length | int keyLength | key | long expiresAt |
+ * int modelLength | model | int textLength | text}, where {@code length} covers
+ * everything after itself and a model length of {@code -1} means no model.</p>
+ *
+ * <p>The log never exceeds {@code maxBytes}. When an append would cross it, the log is
+ * compacted: the latest version of the newest unexpired entries, up to half of
+ * {@code maxBytes}, is copied into a new file which then atomically replaces the old
+ * one; superseded versions, expired entries and the oldest entries beyond that are
+ * dropped (FIFO eviction). Leaving half the space free means a compaction copies at
+ * most as many bytes as were appended since the previous one. An entry larger than
+ * half of {@code maxBytes} is not stored.</p>
+ *
+ * <p>Reads and the index lookup preceding them run under a shared lock; appends and
+ * compaction are exclusive.</p>
+ */
+public class DiskResponseCache implements Closeable {
+
+    private final Path file;
+
+    private final long maxBytes;
+
+    private final Map<String, Location> index = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel channel;
+
+    /**
+     * Opens (or creates) a disk cache.
+     *
+     * @param file     the log file
+     * @param maxBytes the maximum size of the log
+     */
+    public DiskResponseCache(Path file, long maxBytes) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.channel = open(file);
+            rebuildIndex();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open response cache " + file, e);
+        }
+    }
+
+    /**
+     * Looks up an entry.
+     *
+     * @param key the prompt key
+     * @return the cached response, or {@code null} if absent or expired
+     */
+    public CachedResponse get(String key) {
+        Entry entry = getEntry(key);
+        return entry == null ? null : entry.value();
+    }
+
+    /**
+     * Looks up an entry together with its expiry.
+     *
+     * @param key the prompt key
+     * @return the entry, or {@code null} if absent or expired
+     */
+    public Entry getEntry(String key) {
+        lock.readLock().lock();
+        try {
+            Location location = index.get(key);
+            if (location == null || location.expiresAt() < System.currentTimeMillis()) {
+                return null;
+            }
+            Record record = read(channel, location.offset());
+            if (record == null || !record.key.equals(key)) {
+                return null;
+            }
+            return new Entry(record.value, record.expiresAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends an entry, evicting the oldest ones if the log is full. An entry larger
+     * than half of the maximum size is not stored.
+     *
+     * @param key       the prompt key
+     * @param value     the response to store
+     * @param expiresAt epoch millis after which the entry is no longer served
+     */
+    public void put(String key, CachedResponse value, long expiresAt) {
+        ByteBuffer buffer = encode(key, value, expiresAt);
+        int length = buffer.remaining();
+        if (length > maxBytes / 2) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (channel.size() + length > maxBytes) {
+                compact();
+            }
+            long offset = channel.size();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, offset + buffer.position());
+            }
+            index.put(key, new Location(offset, length, expiresAt));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of indexed entries, including ones that have expired but not yet been compacted
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            channel.force(true);
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuildIndex() throws IOException {
+        long offset = 0;
+        long size = channel.size();
+        while (offset < size) {
+            Record record = read(channel, offset);
+            if (record == null) {
+                // Torn write at the tail: drop it so the next append starts clean.
+                channel.truncate(offset);
+                break;
+            }
+            index.put(record.key, new Location(offset, Integer.BYTES + record.length, record.expiresAt));
+            offset += Integer.BYTES + record.length;
+        }
+    }
+
+    /**
+     * Rewrites the log with the newest unexpired entries that fit in half of {@code maxBytes}.
+     * Records are copied as they are, oldest first, so the file stays in insertion order.
+     */
+    private void compact() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        long now = System.currentTimeMillis();
+        List<Map.Entry<String, Location>> newestFirst = new ArrayList<>(index.entrySet());
+        newestFirst.sort(Comparator.comparingLong((Map.Entry<String, Location> e) -> e.getValue().offset()).reversed());
+        List<Map.Entry<String, Location>> kept = new ArrayList<>();
+        long budget = maxBytes / 2;
+        for (Map.Entry<String, Location> entry : newestFirst) {
+            Location location = entry.getValue();
+            if (location.expiresAt() < now) {
+                continue;
+            }
+            if (location.length() > budget) {
+                break;
+            }
+            budget -= location.length();
+            kept.add(entry);
+        }
+        Map<String, Location> newIndex = new HashMap<>();
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = 0;
+            for (int i = kept.size() - 1; i >= 0; i--) {
+                Location location = kept.get(i).getValue();
+                ByteBuffer buffer = ByteBuffer.allocate(location.length());
+                readFully(channel, buffer, location.offset());
+                buffer.flip();
+                newIndex.put(kept.get(i).getKey(), new Location(position, location.length(), location.expiresAt()));
+                while (buffer.hasRemaining()) {
+                    position += target.write(buffer, position);
+                }
+            }
+            target.force(true);
+        }
+        channel.close();
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = open(file);
+        index.clear();
+        index.putAll(newIndex);
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static ByteBuffer encode(String key, CachedResponse value, long expiresAt) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] modelBytes = value.model() == null ? null : value.model().getBytes(StandardCharsets.UTF_8);
+        byte[] textBytes = value.text().getBytes(StandardCharsets.UTF_8);
+        int length = Integer.BYTES + keyBytes.length
+                + Long.BYTES
+                + Integer.BYTES + (modelBytes == null ? 0 : modelBytes.length)
+                + Integer.BYTES + textBytes.length;
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + length);
+        buffer.putInt(length);
+        buffer.putInt(keyBytes.length).put(keyBytes);
+        buffer.putLong(expiresAt);
+        if (modelBytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(modelBytes.length).put(modelBytes);
+        }
+        buffer.putInt(textBytes.length).put(textBytes);
+        return buffer.flip();
+    }
+
+    /**
+     * Reads the record at an offset, or returns {@code null} if it is incomplete or corrupt.
+     */
+    private static Record read(FileChannel channel, long offset) throws IOException {
+        long size = channel.size();
+        if (offset + Integer.BYTES > size) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        readFully(channel, header, offset);
+        int length = header.flip().getInt();
+        if (length <= 0 || offset + Integer.BYTES + length > size) {
+            return null;
+        }
+        ByteBuffer body = ByteBuffer.allocate(length);
+        readFully(channel, body, offset + Integer.BYTES);
+        body.flip();
+        try {
+            String key = string(body, body.getInt());
+            long expiresAt = body.getLong();
+            int modelLength = body.getInt();
+            String model = modelLength < 0 ? null : string(body, modelLength);
+            String text = string(body, body.getInt());
+            return new Record(key, new CachedResponse(text, model), expiresAt, length);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                break;
+            }
+        }
+    }
+
+    private static String string(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A stored response.
+     *
+     * @param value     the response
+     * @param expiresAt epoch millis after which it is no longer served
+     */
+    public record Entry(CachedResponse value, long expiresAt) {
+    }
+
+    private record Record(String key, CachedResponse value, long expiresAt, int length) {
+    }
+
+    /**
+     * Where the latest version of an entry is stored.
+     *
+     * @param offset    the offset of the record
+     * @param length    the length of the record, header included
+     * @param expiresAt when the entry expires
+     */
+    private record Location(long offset, int length, long expiresAt) {
+    }
+}
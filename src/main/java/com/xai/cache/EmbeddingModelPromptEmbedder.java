@@ -0,0 +1,30 @@
+package com.xai.cache;
+
+import org.springframework.ai.embedding.EmbeddingModel;
+
+/**
+ * {@link PromptEmbedder} delegating to a Spring AI {@link EmbeddingModel}, e.g. the
+ * auto-configured OpenAI embedding model. Captures paraphrases that share no words,
+ * at the cost of one embedding call per lookup.
+ */
+public class EmbeddingModelPromptEmbedder implements PromptEmbedder {
+
+    private final EmbeddingModel embeddingModel;
+
+    private final int dimensions;
+
+    public EmbeddingModelPromptEmbedder(EmbeddingModel embeddingModel) {
+        this.embeddingModel = embeddingModel;
+        this.dimensions = embeddingModel.dimensions();
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        return embeddingModel.embed(text);
+    }
+}
@@ -0,0 +1,84 @@
+package com.xai.cache;
+
+import java.util.Set;
+
+/**
+ * Deterministic, in-process {@link PromptEmbedder} based on feature hashing.
+ *
+ * <p>Each word (minus a few stop words) and each of its character trigrams is
+ * hashed into one of {@code dimensions} buckets with a hash-derived sign. Prompts
+ * that share vocabulary – including inflected forms, through the trigrams – get a
+ * high cosine similarity. It needs no model call, which makes it suitable for
+ * tests and as a cheap default; paraphrases using entirely different words are
+ * better served by an {@code EmbeddingModel}-backed embedder.</p>
+ */
+public class HashingPromptEmbedder implements PromptEmbedder {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "is", "are", "was", "were", "be", "of", "to", "in", "on", "for",
+            "and", "or", "me", "i", "you", "it", "this", "that", "what", "which", "who", "how",
+            "please", "tell", "about", "can", "do", "does", "with");
+
+    private static final float TRIGRAM_WEIGHT = 0.5f;
+
+    private final int dimensions;
+
+    public HashingPromptEmbedder(int dimensions) {
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("dimensions must be positive");
+        }
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean letterOrDigit = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                addWord(vector, text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return vector;
+    }
+
+    private void addWord(float[] vector, String word) {
+        if (STOP_WORDS.contains(word)) {
+            return;
+        }
+        add(vector, word.hashCode(), 1f);
+        String padded = '#' + word + '#';
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            add(vector, padded.substring(i, i + 3).hashCode() * 31 + 7, TRIGRAM_WEIGHT);
+        }
+    }
+
+    private void add(float[] vector, int hash, float weight) {
+        int mixed = mix(hash);
+        int bucket = Math.floorMod(mixed, dimensions);
+        vector[bucket] += (mixed & 0x4000_0000) == 0 ? weight : -weight;
+    }
+
+    /**
+     * Murmur3 finaliser; spreads {@link String#hashCode()} values, whose low bits are
+     * poorly distributed for short strings.
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85eb_ca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2_ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
@@ -0,0 +1,650 @@
+package com.xai.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process approximate-nearest-neighbour index (HNSW) over unit vectors.
+ *
+ * <p>Vectors, graph links and levels live in primitive arrays allocated in chunks of
+ * {@value #CHUNK_SIZE} nodes as the index fills, so memory grows with the number
+ * of entries and no vector component is ever boxed. Similarity is the dot product
+ * of L2-normalised vectors, i.e. cosine similarity.</p>
+ *
+ * <p>The index has a fixed capacity. Once full, each insert reuses the oldest slot
+ * (FIFO eviction): the slot's vector and payload are replaced and its outgoing links
+ * are rebuilt, keeping memory bounded. Links pointing to a reused slot from other
+ * nodes are kept; they act as long-range edges and do not affect correctness, only
+ * slightly the search quality. Deleted entries stay traversable but are never
+ * returned.</p>
+ *
+ * <p>Searches run concurrently under a read lock; inserts and deletes are exclusive.
+ * The capacity-sized visited set and heaps of a search are borrowed from a small pool
+ * and returned afterwards, not held per thread: requests run on virtual threads, which
+ * are never reused, so a thread-local buffer would be allocated for every lookup. The
+ * pool is bounded by the number of cores, and a search finding every buffer in use
+ * waits for one instead of allocating another: searches are CPU-bound, so more of them
+ * at once would not finish sooner.</p>
+ *
+ * @param <T> the payload stored with each vector
+ */
+public class HnswIndex<T> {
+
+    private static final int CHUNK_BITS = 10;
+
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final int MAX_LEVEL = 16;
+
+    private final int dimensions;
+
+    private final int capacity;
+
+    private final int m;
+
+    private final int maxLinks0;
+
+    private final int efConstruction;
+
+    private final int efSearch;
+
+    private final double levelMultiplier;
+
+    private final float[][] vectorChunks;
+
+    private final int[][] linkChunks;
+
+    private final Object[][] payloadChunks;
+
+    private final int[][] upperLinks;
+
+    private final byte[] levels;
+
+    private final BitSet deleted;
+
+    private final SplittableRandom random;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final int maxScratches = 2 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Idle search buffers; a search finding none allocates one while fewer than
+     * {@link #maxScratches} exist, and waits for one to be returned otherwise.
+     */
+    private final BlockingQueue<Scratch> scratchPool = new ArrayBlockingQueue<>(maxScratches);
+
+    private final AtomicInteger scratches = new AtomicInteger();
+
+    private long inserted;
+
+    private int entryPoint = -1;
+
+    private int maxLevel = -1;
+
+    /**
+     * @param dimensions     number of components of every vector
+     * @param capacity       maximum number of entries; older entries are evicted beyond it
+     * @param m              links per node on upper layers ({@code 2 * m} on layer 0)
+     * @param efConstruction candidate list size while inserting
+     * @param efSearch       candidate list size while searching
+     * @param seed           seed of the level generator, for reproducible graphs
+     */
+    public HnswIndex(int dimensions, int capacity, int m, int efConstruction, int efSearch, long seed) {
+        if (dimensions <= 0 || capacity <= 0 || m < 2) {
+            throw new IllegalArgumentException("dimensions and capacity must be positive and m at least 2");
+        }
+        this.dimensions = dimensions;
+        this.capacity = capacity;
+        this.m = m;
+        this.maxLinks0 = 2 * m;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.efSearch = efSearch;
+        this.levelMultiplier = 1 / Math.log(m);
+        int chunks = (capacity + CHUNK_SIZE - 1) >>> CHUNK_BITS;
+        this.vectorChunks = new float[chunks][];
+        this.linkChunks = new int[chunks][];
+        this.payloadChunks = new Object[chunks][];
+        this.upperLinks = new int[capacity][];
+        this.levels = new byte[capacity];
+        this.deleted = new BitSet(capacity);
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Inserts a vector, evicting the oldest entry if the index is full.
+     *
+     * @param vector  the vector; normalised internally
+     * @param payload the value returned by searches that match this vector
+     * @return the slot the entry was stored in
+     */
+    public int add(float[] vector, T payload) {
+        float[] query = normalize(vector);
+        lock.writeLock().lock();
+        try {
+            int slot = (int) (inserted % capacity);
+            boolean reuse = inserted >= capacity;
+            inserted++;
+            ensureChunk(slot);
+
+            int level;
+            if (reuse) {
+                level = levels[slot];
+            } else {
+                level = randomLevel();
+                levels[slot] = (byte) level;
+                upperLinks[slot] = level == 0 ? null : new int[level * (m + 1)];
+            }
+
+            if (entryPoint < 0 || (reuse && size() == 1)) {
+                store(slot, query, payload);
+                clearLinks(slot, level);
+                entryPoint = slot;
+                maxLevel = level;
+                return slot;
+            }
+
+            // Search the graph before touching the slot: when reusing, its old vector and
+            // links are still needed to route through it.
+            int[][] neighbours = new int[Math.min(level, maxLevel) + 1][];
+            int ep = entryPoint;
+            for (int l = maxLevel; l > level; l--) {
+                ep = greedyClosest(query, ep, l);
+            }
+            Scratch s = borrowScratch();
+            try {
+                for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                    searchLayer(query, ep, efConstruction, l, slot, s);
+                    int found = s.drainResults();
+                    neighbours[l] = selectNeighbours(s.ids, s.distances, found, l == 0 ? maxLinks0 : m);
+                    if (found > 0) {
+                        ep = s.ids[0];
+                    }
+                }
+            } finally {
+                scratchPool.offer(s);
+            }
+
+            store(slot, query, payload);
+            clearLinks(slot, level);
+            for (int l = neighbours.length - 1; l >= 0; l--) {
+                setLinks(slot, l, neighbours[l]);
+                for (int neighbour : neighbours[l]) {
+                    addLink(neighbour, slot, l);
+                }
+            }
+            if (level > maxLevel) {
+                entryPoint = slot;
+                maxLevel = level;
+            }
+            return slot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks an entry as deleted. Its slot is reclaimed when the FIFO cursor reaches it.
+     *
+     * @param slot the slot returned by {@link #add(float[], Object)}
+     */
+    public void delete(int slot) {
+        lock.writeLock().lock();
+        try {
+            deleted.set(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the entries most similar to a query.
+     *
+     * @param vector the query vector; normalised internally
+     * @param k      maximum number of matches
+     * @return up to {@code k} live matches, most similar first
+     */
+    public List<Match<T>> search(float[] vector, int k) {
+        float[] query = normalize(vector);
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return List.of();
+            }
+            int ep = entryPoint;
+            for (int l = maxLevel; l > 0; l--) {
+                ep = greedyClosest(query, ep, l);
+            }
+            Scratch s = borrowScratch();
+            try {
+                searchLayer(query, ep, Math.max(efSearch, k), 0, -1, s);
+                int found = s.drainResults();
+                List<Match<T>> matches = new ArrayList<>(Math.min(k, found));
+                for (int i = 0; i < found && matches.size() < k; i++) {
+                    int id = s.ids[i];
+                    if (!deleted.get(id)) {
+                        matches.add(new Match<>(id, payload(id), 1 - s.distances[i]));
+                    }
+                }
+                return matches;
+            } finally {
+                scratchPool.offer(s);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of occupied slots, including deleted ones not yet reused
+     */
+    public int size() {
+        return (int) Math.min(inserted, capacity);
+    }
+
+    /**
+     * @return the approximate heap footprint of vectors, links and bookkeeping in bytes
+     */
+    public long memoryBytes() {
+        long bytes = (long) levels.length + deleted.size() / 8 + (long) upperLinks.length * 8;
+        for (int chunk = 0; chunk < vectorChunks.length; chunk++) {
+            if (vectorChunks[chunk] != null) {
+                bytes += (long) vectorChunks[chunk].length * Float.BYTES
+                        + (long) linkChunks[chunk].length * Integer.BYTES
+                        + (long) payloadChunks[chunk].length * 8;
+            }
+        }
+        for (int[] links : upperLinks) {
+            if (links != null) {
+                bytes += (long) links.length * Integer.BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    private int randomLevel() {
+        double level = -Math.log(1 - random.nextDouble()) * levelMultiplier;
+        return (int) Math.min(level, MAX_LEVEL);
+    }
+
+    private void ensureChunk(int slot) {
+        int chunk = slot >>> CHUNK_BITS;
+        if (vectorChunks[chunk] == null) {
+            vectorChunks[chunk] = new float[CHUNK_SIZE * dimensions];
+            linkChunks[chunk] = new int[CHUNK_SIZE * (maxLinks0 + 1)];
+            payloadChunks[chunk] = new Object[CHUNK_SIZE];
+        }
+    }
+
+    private void store(int slot, float[] vector, T payload) {
+        System.arraycopy(vector, 0, vectorChunks[slot >>> CHUNK_BITS], (slot & CHUNK_MASK) * dimensions, dimensions);
+        payloadChunks[slot >>> CHUNK_BITS][slot & CHUNK_MASK] = payload;
+        deleted.clear(slot);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T payload(int slot) {
+        return (T) payloadChunks[slot >>> CHUNK_BITS][slot & CHUNK_MASK];
+    }
+
+    private int[] links(int node, int level) {
+        return level == 0 ? linkChunks[node >>> CHUNK_BITS] : upperLinks[node];
+    }
+
+    private int linkOffset(int node, int level) {
+        return level == 0 ? (node & CHUNK_MASK) * (maxLinks0 + 1) : (level - 1) * (m + 1);
+    }
+
+    private void clearLinks(int node, int level) {
+        for (int l = 0; l <= level; l++) {
+            links(node, l)[linkOffset(node, l)] = 0;
+        }
+    }
+
+    private void setLinks(int node, int level, int[] neighbours) {
+        int[] links = links(node, level);
+        int offset = linkOffset(node, level);
+        links[offset] = neighbours.length;
+        System.arraycopy(neighbours, 0, links, offset + 1, neighbours.length);
+    }
+
+    private void addLink(int node, int newNeighbour, int level) {
+        int[] links = links(node, level);
+        int offset = linkOffset(node, level);
+        int count = links[offset];
+        for (int i = 1; i <= count; i++) {
+            if (links[offset + i] == newNeighbour) {
+                return;
+            }
+        }
+        int maxLinks = level == 0 ? maxLinks0 : m;
+        if (count < maxLinks) {
+            links[offset + 1 + count] = newNeighbour;
+            links[offset] = count + 1;
+            return;
+        }
+
+        // Full: replace the farthest link if the new neighbour is closer. Cheaper than
+        // re-running the selection heuristic on every overflow, at a small recall cost.
+        float newDistance = distance(node, newNeighbour);
+        int farthest = -1;
+        float farthestDistance = newDistance;
+        for (int i = 1; i <= count; i++) {
+            float d = distance(node, links[offset + i]);
+            if (d > farthestDistance) {
+                farthestDistance = d;
+                farthest = i;
+            }
+        }
+        if (farthest > 0) {
+            links[offset + farthest] = newNeighbour;
+        }
+    }
+
+    /**
+     * HNSW neighbour-selection heuristic: keeps a candidate only if it is closer to
+     * the base node than to any neighbour already selected, which preserves links
+     * into distinct regions of the graph.
+     */
+    private int[] selectNeighbours(int[] ids, float[] distances, int count, int maxLinks) {
+        int[] selected = new int[Math.min(count, maxLinks)];
+        int size = 0;
+        for (int i = 0; i < count && size < selected.length; i++) {
+            boolean keep = true;
+            for (int j = 0; j < size; j++) {
+                if (distance(ids[i], selected[j]) < distances[i]) {
+                    keep = false;
+                    break;
+                }
+            }
+            if (keep) {
+                selected[size++] = ids[i];
+            }
+        }
+        return size == selected.length ? selected : Arrays.copyOf(selected, size);
+    }
+
+    private int greedyClosest(float[] query, int ep, int level) {
+        int current = ep;
+        float currentDistance = distance(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            if (levels[current] < level) {
+                break;
+            }
+            int[] links = links(current, level);
+            int offset = linkOffset(current, level);
+            for (int i = 1; i <= links[offset]; i++) {
+                int candidate = links[offset + i];
+                float d = distance(query, candidate);
+                if (d < currentDistance) {
+                    currentDistance = d;
+                    current = candidate;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Scratch borrowScratch() {
+        Scratch s = scratchPool.poll();
+        if (s != null) {
+            return s;
+        }
+        if (scratches.getAndUpdate(n -> n < maxScratches ? n + 1 : n) < maxScratches) {
+            return new Scratch(capacity);
+        }
+        // Buffers are held for a single search, so the wait is short; an interrupt is
+        // kept for the caller rather than failing the search.
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return scratchPool.take();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void searchLayer(float[] query, int ep, int ef, int level, int exclude, Scratch s) {
+        s.reset();
+        s.visit(ep);
+        float d = distance(query, ep);
+        s.candidates.push(ep, d);
+        if (ep != exclude) {
+            s.results.push(ep, d);
+        }
+        while (s.candidates.size() > 0) {
+            float candidateDistance = s.candidates.peekDistance();
+            if (s.results.size() >= ef && candidateDistance > s.results.peekDistance()) {
+                break;
+            }
+            int candidate = s.candidates.pop();
+            if (levels[candidate] < level) {
+                continue;
+            }
+            int[] links = links(candidate, level);
+            int offset = linkOffset(candidate, level);
+            for (int i = 1; i <= links[offset]; i++) {
+                int neighbour = links[offset + i];
+                if (!s.visit(neighbour)) {
+                    continue;
+                }
+                float nd = distance(query, neighbour);
+                if (s.results.size() < ef || nd < s.results.peekDistance()) {
+                    s.candidates.push(neighbour, nd);
+                    if (neighbour != exclude) {
+                        s.results.push(neighbour, nd);
+                        if (s.results.size() > ef) {
+                            s.results.pop();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private float distance(float[] query, int node) {
+        return 1 - dot(query, 0, vectorChunks[node >>> CHUNK_BITS], (node & CHUNK_MASK) * dimensions);
+    }
+
+    private float distance(int a, int b) {
+        return 1 - dot(vectorChunks[a >>> CHUNK_BITS], (a & CHUNK_MASK) * dimensions,
+                vectorChunks[b >>> CHUNK_BITS], (b & CHUNK_MASK) * dimensions);
+    }
+
+    /**
+     * Dot product with four independent accumulators, which lets the JIT pipeline
+     * the multiply-adds instead of serialising on a single sum.
+     */
+    private float dot(float[] a, int aOffset, float[] b, int bOffset) {
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < dimensions; i += 4) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+            s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < dimensions; i++) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private float[] normalize(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        float scale = norm == 0 ? 0 : (float) (1 / Math.sqrt(norm));
+        float[] normalized = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    /**
+     * A search hit.
+     *
+     * @param slot       the slot of the entry
+     * @param payload    the payload stored with the entry
+     * @param similarity cosine similarity to the query, in {@code [-1, 1]}
+     * @param <T>        the payload type
+     */
+    public record Match<T>(int slot, T payload, float similarity) {
+    }
+
+    /**
+     * Search state borrowed from the pool: a generation-stamped visited set and two
+     * heaps, reused across searches so a lookup allocates almost nothing.
+     */
+    private static final class Scratch {
+        private final int[] visitedAt;
+        private int generation;
+        private final NodeHeap candidates = new NodeHeap(false);
+        private final NodeHeap results = new NodeHeap(true);
+        private int[] ids = new int[64];
+        private float[] distances = new float[64];
+
+        private Scratch(int capacity) {
+            this.visitedAt = new int[capacity];
+        }
+
+        private void reset() {
+            candidates.clear();
+            results.clear();
+            if (++generation == 0) {
+                Arrays.fill(visitedAt, 0);
+                generation = 1;
+            }
+        }
+
+        private int drainResults() {
+            if (ids.length < results.size()) {
+                ids = new int[results.size()];
+                distances = new float[results.size()];
+            }
+            return results.drainAscending(ids, distances);
+        }
+
+        private boolean visit(int node) {
+            if (visitedAt[node] == generation) {
+                return false;
+            }
+            visitedAt[node] = generation;
+            return true;
+        }
+    }
+
+    /**
+     * Binary heap of (node, distance) pairs backed by primitive arrays.
+     */
+    private static final class NodeHeap {
+        private final boolean maxHeap;
+        private int[] nodes = new int[64];
+        private float[] keys = new float[64];
+        private int size;
+
+        private NodeHeap(boolean maxHeap) {
+            this.maxHeap = maxHeap;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void clear() {
+            size = 0;
+        }
+
+        private float peekDistance() {
+            return keys[0];
+        }
+
+        private void push(int node, float key) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(key, keys[parent])) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            keys[i] = key;
+        }
+
+        private int pop() {
+            int top = nodes[0];
+            int lastNode = nodes[--size];
+            float lastKey = keys[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && before(keys[child + 1], keys[child])) {
+                    child++;
+                }
+                if (!before(keys[child], lastKey)) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            keys[i] = lastKey;
+            return top;
+        }
+
+        private boolean before(float a, float b) {
+            return maxHeap ? a > b : a < b;
+        }
+
+        /**
+         * Empties a max-heap into {@code ids}/{@code distances} in ascending distance order.
+         *
+         * @return the number of entries written
+         */
+        private int drainAscending(int[] ids, float[] distances) {
+            int count = size;
+            for (int i = count - 1; i >= 0; i--) {
+                float key = keys[0];
+                int node = pop();
+                ids[i] = node;
+                distances[i] = key;
+            }
+            return count;
+        }
+    }
+}
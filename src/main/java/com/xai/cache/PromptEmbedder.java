@@ -0,0 +1,21 @@
+package com.xai.cache;
+
+/**
+ * Source of prompt embeddings for the {@link SemanticResponseCache}.
+ *
+ * <p>Implementations must be deterministic: the same text must always map to
+ * the same vector, otherwise cached entries become unreachable.</p>
+ */
+public interface PromptEmbedder {
+
+    /**
+     * @return the number of components of every vector returned by {@link #embed(String)}
+     */
+    int dimensions();
+
+    /**
+     * @param text the text to embed
+     * @return the embedding, not necessarily normalised
+     */
+    float[] embed(String text);
+}
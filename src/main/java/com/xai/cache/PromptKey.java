@@ -0,0 +1,86 @@
+package com.xai.cache;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * Derives a stable key for a fully-rendered {@link Prompt}.
+ *
+ * <p>The key is a SHA-256 hash over every message (type and text) and the
+ * generation options that change the output: model, temperature, max tokens,
+ * frequency and presence penalties, top-p, top-k and stop sequences. Two prompts
+ * share a key only if the model would receive the same request.</p>
+ */
+public final class PromptKey {
+
+    private static final byte SEPARATOR = 0;
+
+    private PromptKey() {
+    }
+
+    /**
+     * Computes the key of a prompt.
+     *
+     * @param prompt the rendered prompt
+     * @return the lower-case hex SHA-256 of the prompt and its options
+     */
+    public static String of(Prompt prompt) {
+        return hash(prompt, true);
+    }
+
+    /**
+     * Computes the key of everything in a prompt except its user messages: system
+     * and assistant messages plus options. Prompts with the same context key differ
+     * only in what the user asked.
+     *
+     * @param prompt the rendered prompt
+     * @return the lower-case hex SHA-256 of the prompt's context
+     */
+    public static String ofContext(Prompt prompt) {
+        return hash(prompt, false);
+    }
+
+    private static String hash(Prompt prompt, boolean includeUserMessages) {
+        MessageDigest digest = sha256();
+        for (Message message : prompt.getInstructions()) {
+            if (!includeUserMessages && message.getMessageType() == MessageType.USER) {
+                continue;
+            }
+            update(digest, message.getMessageType().getValue());
+            update(digest, message.getText());
+        }
+        ChatOptions options = prompt.getOptions();
+        if (options != null) {
+            update(digest, options.getModel());
+            update(digest, options.getTemperature());
+            update(digest, options.getMaxTokens());
+            update(digest, options.getFrequencyPenalty());
+            update(digest, options.getPresencePenalty());
+            update(digest, options.getTopP());
+            update(digest, options.getTopK());
+            update(digest, options.getStopSequences());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, Object value) {
+        digest.update(Objects.toString(value, "").getBytes(StandardCharsets.UTF_8));
+        digest.update(SEPARATOR);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.xai.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
+/**
+ * Response cache matching prompts by meaning rather than by exact text.
+ *
+ * <p>Prompts are embedded with a {@link PromptEmbedder} and stored in an
+ * {@link HnswIndex}. A lookup returns the answer of the most similar stored prompt
+ * if its cosine similarity reaches the threshold and it was asked in the same
+ * context – same endpoint, system messages and options, as captured by
+ * {@link PromptKey#ofContext}. Entries expire after the TTL; beyond
+ * {@code maxEntries} the oldest entries are evicted, which bounds memory.</p>
+ *
+ * <p>Publishes {@code ai.semantic-cache.entries} and {@code ai.semantic-cache.memory}
+ * (approximate bytes held by the index).</p>
+ */
+public class SemanticResponseCache {
+
+    /**
+     * Stored neighbours inspected per lookup, so that a close match from another
+     * context does not hide a slightly less close one from the right context.
+     */
+    private static final int CANDIDATES = 4;
+
+    private final PromptEmbedder embedder;
+
+    private final HnswIndex<Entry> index;
+
+    private final double similarityThreshold;
+
+    private final Duration ttl;
+
+    /**
+     * @param embedder            source of prompt embeddings
+     * @param index               the index holding the embeddings
+     * @param similarityThreshold minimum cosine similarity for a hit
+     * @param ttl                 time after which an entry is no longer served
+     * @param meterRegistry       registry for size gauges
+     */
+    public SemanticResponseCache(PromptEmbedder embedder, HnswIndex<Entry> index, double similarityThreshold,
+                                 Duration ttl, MeterRegistry meterRegistry) {
+        this.embedder = embedder;
+        this.index = index;
+        this.similarityThreshold = similarityThreshold;
+        this.ttl = ttl;
+        meterRegistry.gauge("ai.semantic-cache.entries", index, HnswIndex::size);
+        meterRegistry.gauge("ai.semantic-cache.memory", index, HnswIndex::memoryBytes);
+    }
+
+    /**
+     * @param text the prompt text to embed
+     * @return its embedding, to be passed to {@link #get} and {@link #put}
+     */
+    public float[] embed(String text) {
+        return embedder.embed(text);
+    }
+
+    /**
+     * @param contextKey the context the prompt was asked in
+     * @param embedding  the prompt embedding
+     * @return the answer to a similar prompt from the same context, or {@code null}
+     */
+    public CachedResponse get(String contextKey, float[] embedding) {
+        long now = System.currentTimeMillis();
+        for (HnswIndex.Match<Entry> match : index.search(embedding, CANDIDATES)) {
+            if (match.similarity() < similarityThreshold) {
+                break;
+            }
+            Entry entry = match.payload();
+            if (entry.expiresAt() < now) {
+                index.delete(match.slot());
+            } else if (entry.contextKey().equals(contextKey)) {
+                return entry.response();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param contextKey the context the prompt was asked in
+     * @param embedding  the prompt embedding
+     * @param response   the answer to store
+     */
+    public void put(String contextKey, float[] embedding, CachedResponse response) {
+        index.add(embedding, new Entry(contextKey, response, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    /**
+     * Payload of an index entry.
+     *
+     * @param contextKey the context the prompt was asked in
+     * @param response   the stored answer
+     * @param expiresAt  epoch millis after which the entry is no longer served
+     */
+    public record Entry(String contextKey, CachedResponse response, long expiresAt) {
+    }
+}
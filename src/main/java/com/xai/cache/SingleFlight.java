@@ -0,0 +1,119 @@
+package com.xai.cache;
+
+import com.xai.resilience.Deadline;
+import com.xai.resilience.DeadlineExceededException;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into a single execution.
+ *
+ * <p>The first caller for a key (the leader) runs the supplier; callers arriving
+ * while it is in flight (followers) block until it finishes and receive the same
+ * result or exception. Once the leader completes the key is released, so later
+ * calls run again – this is de-duplication of in-flight work, not a cache.</p>
+ *
+ * <p>A follower waits no longer than its own {@link Deadline}: the leader may have a
+ * later one, and the follower's caller should not be held past the time it asked
+ * for.</p>
+ *
+ * @param <K> the key type
+ * @param <V> the result type
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code supplier} unless a call for {@code key} is already in flight.
+     *
+     * @param key      identifies equivalent calls
+     * @param supplier the work to run if this caller becomes the leader
+     * @return the outcome, telling whether this caller shared another caller's result
+     */
+    public Result<V> execute(K key, Supplier<V> supplier) {
+        return execute(key, null, supplier);
+    }
+
+    /**
+     * Runs {@code supplier} unless a call for {@code key} is already in flight, waiting
+     * for that call at most until {@code deadline}.
+     *
+     * @param key      identifies equivalent calls
+     * @param deadline when a follower stops waiting for the leader, {@code null} to wait
+     *                 until it finishes
+     * @param supplier the work to run if this caller becomes the leader
+     * @return the outcome, telling whether this caller shared another caller's result
+     * @throws DeadlineExceededException if this caller is a follower and the deadline
+     *                                   passes before the leader finishes
+     */
+    public Result<V> execute(K key, Deadline deadline, Supplier<V> supplier) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            return new Result<>(await(existing, deadline), true);
+        }
+        try {
+            V value = supplier.get();
+            own.complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * @return the number of keys currently in flight
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * @param key identifies equivalent calls
+     * @return the number of followers waiting for the call in flight for {@code key}
+     */
+    int followers(K key) {
+        CompletableFuture<V> future = inFlight.get(key);
+        return future == null ? 0 : future.getNumberOfDependents();
+    }
+
+    private static <V> V await(CompletableFuture<V> future, Deadline deadline) {
+        try {
+            return deadline == null
+                    ? future.get()
+                    : future.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("Deadline passed while waiting for a coalesced call", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a coalesced call");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * @param value  the result of the call
+     * @param shared {@code true} if the value was produced by another caller's execution
+     * @param <V>    the result type
+     */
+    public record Result<V>(V value, boolean shared) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.xai.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Two-tier exact-match response cache.
+ *
+ * <p>The memory tier is a bounded Caffeine cache with size- and TTL-based eviction.
+ * The optional {@link DiskResponseCache} tier keeps entries across restarts; a hit
+ * there is promoted into memory for the time it had left on disk, so promotion never
+ * extends an entry's life. Writes go to both tiers.</p>
+ */
+public class TieredResponseCache implements Closeable {
+
+    private final Cache<String, CachedResponse> memory;
+
+    private final Policy.VarExpiration<String, CachedResponse> expiration;
+
+    private final DiskResponseCache disk;
+
+    private final Duration ttl;
+
+    private final Counter memoryHits;
+
+    private final Counter diskHits;
+
+    /**
+     * @param maxEntries    maximum number of entries kept in memory
+     * @param ttl           time after which an entry is no longer served
+     * @param disk          the disk tier, or {@code null} to keep the cache in memory only
+     * @param meterRegistry registry for the tier hit counters and Caffeine statistics
+     */
+    public TieredResponseCache(long maxEntries, Duration ttl, DiskResponseCache disk, MeterRegistry meterRegistry) {
+        this.memory = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(Expiry.<String, CachedResponse>writing((key, value) -> ttl))
+                .recordStats()
+                .build();
+        this.expiration = memory.policy().expireVariably().orElseThrow();
+        this.disk = disk;
+        this.ttl = ttl;
+        this.memoryHits = Counter.builder("ai.cache.tier.hits").tag("tier", "memory").register(meterRegistry);
+        this.diskHits = Counter.builder("ai.cache.tier.hits").tag("tier", "disk").register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, memory, "ai.response");
+    }
+
+    /**
+     * @param key the prompt key
+     * @return the cached response, or {@code null} on a miss in every tier
+     */
+    public CachedResponse get(String key) {
+        CachedResponse cached = memory.getIfPresent(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return cached;
+        }
+        if (disk != null) {
+            DiskResponseCache.Entry entry = disk.getEntry(key);
+            if (entry != null) {
+                diskHits.increment();
+                long remaining = entry.expiresAt() - System.currentTimeMillis();
+                if (remaining > 0) {
+                    expiration.put(key, entry.value(), Duration.ofMillis(remaining));
+                }
+                return entry.value();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param key   the prompt key
+     * @param value the response to cache
+     */
+    public void put(String key, CachedResponse value) {
+        memory.put(key, value);
+        if (disk != null) {
+            disk.put(key, value, System.currentTimeMillis() + ttl.toMillis());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (disk != null) {
+            disk.close();
+        }
+    }
+}
@@ -1,14 +1,24 @@
 package com.xai.controllers;
 
 import com.xai.entities.AiResponse;
+import com.xai.entities.BatchRequest;
+import com.xai.entities.BatchResult;
+import com.xai.entities.StreamChunk;
 import com.xai.services.AiService;
+import com.xai.services.BatchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
@@ -35,12 +45,25 @@ import java.util.List;
  * execution logic to {@link AiService}, keeping the REST layer lightweight and
  * focused on request/response handling.
  * </p>
+ *
+ * <h2>Streaming</h2>
+ * <p>
+ * The {@code /stream} endpoints return the reply token by token instead of waiting
+ * for the whole completion. They produce Server-Sent Events by default and NDJSON
+ * when the client sends {@code Accept: application/x-ndjson}. If the client
+ * disconnects, the subscription is cancelled and the upstream model stream with it.
+ * </p>
  */
 @RestController
 @RequestMapping("/api/v1/chat")
 @RequiredArgsConstructor
 public class AiController {
 
+    /**
+     * Header naming the conversation session of a chat request.
+     */
+    static final String SESSION_HEADER = "X-Session-Id";
+
     /**
      * ChatClient configured to communicate with OpenAI's chat models.
      * Injected through constructor-based dependency injection.
@@ -52,15 +75,26 @@ public class AiController {
      */
     private final AiService aiService;
 
+    /**
+     * Service executing batches of prompts with bounded parallelism.
+     */
+    private final BatchService batchService;
+
     /**
      * Sends a prompt to the OpenAI-backed {@link ChatClient}.
      *
-     * @param prompt the user-provided input text
+     * <p>With an {@code X-Session-Id} header the prompt continues that session's
+     * conversation: the server keeps the history, so the client only sends the new
+     * message.</p>
+     *
+     * @param prompt    the user-provided input text
+     * @param sessionId the conversation session, if any
      * @return the LLM-generated response wrapped in {@link ResponseEntity}
      */
     @GetMapping
-    public ResponseEntity<String> askOpenAi(@RequestParam String prompt) {
-        return ResponseEntity.ok(aiService.chat(prompt));
+    public ResponseEntity<String> askOpenAi(@RequestParam String prompt,
+                                            @RequestHeader(value = SESSION_HEADER, required = false) String sessionId) {
+        return ResponseEntity.ok(aiService.chat(prompt, sessionId));
     }
 
     /**
@@ -87,12 +121,23 @@ public class AiController {
     /**
      * Returns a list of AI responses generated for the given prompt.
      *
+     * <p>By default the whole list is generated and returned as one JSON array. A
+     * client that accepts {@code text/event-stream} or {@code application/x-ndjson}
+     * instead receives each {@link AiResponse} as an SSE event or NDJSON line as soon
+     * as the model has finished generating it; elements that cannot be parsed are
+     * skipped.</p>
+     *
      * @param prompt the text prompt to send to the AI model
-     * @return a list of {@link AiResponse} wrapped in a {@link ResponseEntity}
+     * @param accept the media types accepted by the client
+     * @return the {@link AiResponse} objects, collected into a JSON array or streamed
      */
     @GetMapping("/responses")
-    public ResponseEntity<List<AiResponse>> getResponseList(String prompt) {
-        return ResponseEntity.ok(aiService.getResponseList(prompt));
+    public Flux<AiResponse> getResponseList(String prompt,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.ALL_VALUE) String accept) {
+        if (acceptsStream(accept)) {
+            return aiService.streamResponseList(prompt);
+        }
+        return Flux.defer(() -> Flux.fromIterable(aiService.getResponseList(prompt)));
     }
 
     /**
@@ -163,4 +208,112 @@ public class AiController {
     public ResponseEntity<String> getResponseByFetchingPromptFromExternalFiles() {
         return ResponseEntity.ok(aiService.getResponseByFetchingPromptFromExternalFiles());
     }
+
+    /**
+     * Streams the response to a prompt as it is generated.
+     *
+     * <p>Example request:</p>
+     * <pre>
+     * GET /api/v1/chat/stream?prompt=Hello
+     * </pre>
+     *
+     * @param prompt    the user-provided input text
+     * @param sessionId the conversation session, if any (see {@link #askOpenAi})
+     * @return the response fragments as SSE events or NDJSON lines
+     */
+    @GetMapping(value = "/stream", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<StreamChunk> streamOpenAi(@RequestParam String prompt,
+                                          @RequestHeader(value = SESSION_HEADER, required = false) String sessionId) {
+        return chunks(aiService.streamChat(prompt, sessionId));
+    }
+
+    /**
+     * Streaming variant of {@link #getResponseUsingPromptTemplate()}.
+     *
+     * @return the response fragments as SSE events or NDJSON lines
+     */
+    @GetMapping(value = "/prompt/template/stream", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<StreamChunk> streamResponseUsingPromptTemplate() {
+        return chunks(aiService.streamResponseUsingPromptTemplate());
+    }
+
+    /**
+     * Streaming variant of {@link #getResponseUsingSystemAndUserPromptTemplate()}.
+     *
+     * @return the response fragments as SSE events or NDJSON lines
+     */
+    @GetMapping(value = "/prompt/template/system/user/stream", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<StreamChunk> streamResponseUsingSystemAndUserPromptTemplate() {
+        return chunks(aiService.streamResponseUsingSystemAndUserPromptTemplate());
+    }
+
+    /**
+     * Streaming variant of {@link #getResponseUsingFluentApi()}.
+     *
+     * @return the response fragments as SSE events or NDJSON lines
+     */
+    @GetMapping(value = "/fluent/stream", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<StreamChunk> streamResponseUsingFluentApi() {
+        return chunks(aiService.streamResponseUsingFluentApi());
+    }
+
+    /**
+     * Streaming variant of {@link #getResponseByFetchingPromptFromExternalFiles()}.
+     *
+     * @return the response fragments as SSE events or NDJSON lines
+     */
+    @GetMapping(value = "/response/external/stream", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<StreamChunk> streamResponseByFetchingPromptFromExternalFiles() {
+        return chunks(aiService.streamResponseByFetchingPromptFromExternalFiles());
+    }
+
+    /**
+     * Executes many prompts in one request and returns their results in request order.
+     *
+     * <p>Each item is either a free-text {@code prompt} or a {@code template} from
+     * {@code prompts/} with its {@code params}. Items run with up to
+     * {@code parallelism} concurrent model calls; a failing item reports its error
+     * without failing the batch.</p>
+     *
+     * <p>Example request:</p>
+     * <pre>
+     * POST /api/v1/chat/batch
+     * {"parallelism": 8, "items": [
+     *   {"prompt": "Who won the 2022 World Cup?"},
+     *   {"template": "user-message", "params": {"sportName": "Cricket", "countryName": "India", "year": "2030"}}
+     * ]}
+     * </pre>
+     *
+     * @param request the batch
+     * @return HTTP 200 OK with one {@link BatchResult} per item
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchResult>> batch(@RequestBody BatchRequest request) {
+        return ResponseEntity.ok(batchService.execute(request));
+    }
+
+    /**
+     * NDJSON variant of {@link #batch(BatchRequest)}: each result is written as soon as
+     * its item finishes, in completion order, with {@code index} identifying the item.
+     *
+     * @param request the batch
+     * @return the results as NDJSON lines
+     */
+    @PostMapping(value = "/batch/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchResult> streamBatch(@RequestBody BatchRequest request) {
+        return batchService.stream(request);
+    }
+
+    /**
+     * @return whether the client explicitly asked for SSE or NDJSON, rather than accepting anything
+     */
+    private static boolean acceptsStream(String accept) {
+        return MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(type -> type.equalsTypeAndSubtype(MediaType.TEXT_EVENT_STREAM)
+                        || type.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON));
+    }
+
+    private static Flux<StreamChunk> chunks(Flux<String> tokens) {
+        return tokens.map(StreamChunk::new);
+    }
 }
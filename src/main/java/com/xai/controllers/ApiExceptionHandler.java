@@ -0,0 +1,94 @@
+package com.xai.controllers;
+
+import com.xai.resilience.CapacityExceededException;
+import com.xai.resilience.DeadlineExceededException;
+import com.xai.resilience.RateLimitedException;
+import com.xai.services.InvalidRequestException;
+import com.xai.structured.MalformedOutputException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Translates exceptions raised on the model call path into HTTP responses: invalid
+ * requests into {@code 400}, load shedding into responses that tell clients when
+ * to come back, missed deadlines into {@code 504} and unusable model output into
+ * {@code 502}.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    /**
+     * Maps a shed request to {@code 503 Service Unavailable} with a {@code Retry-After} header.
+     *
+     * @param e the exception raised when no capacity was available
+     * @return the problem response
+     */
+    @ExceptionHandler(CapacityExceededException.class)
+    public ResponseEntity<ProblemDetail> handleCapacityExceeded(CapacityExceededException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        problem.setProperty("reason", e.getReason());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .body(problem);
+    }
+
+    /**
+     * Maps a request that ran out of provider quota to {@code 429 Too Many Requests}
+     * with a {@code Retry-After} header.
+     *
+     * @param e the exception raised by the rate limiter
+     * @return the problem response
+     */
+    @ExceptionHandler(RateLimitedException.class)
+    public ResponseEntity<ProblemDetail> handleRateLimited(RateLimitedException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        problem.setProperty("reason", e.getReason());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .body(problem);
+    }
+
+    /**
+     * Maps a request whose deadline passed before the model answered to
+     * {@code 504 Gateway Timeout}.
+     *
+     * @param e the exception raised by the deadline advisor
+     * @return the problem response
+     */
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ProblemDetail> handleDeadlineExceeded(DeadlineExceededException e) {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.GATEWAY_TIMEOUT, e.getMessage()));
+    }
+
+    /**
+     * Maps a structured reply that could not be bound, even after local repair, to
+     * {@code 502 Bad Gateway}: the request was fine, the upstream answer was not.
+     *
+     * @param e the exception raised by the structured-output binder
+     * @return the problem response
+     */
+    @ExceptionHandler(MalformedOutputException.class)
+    public ResponseEntity<ProblemDetail> handleMalformedOutput(MalformedOutputException e) {
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_GATEWAY, e.getMessage()));
+    }
+
+    /**
+     * Maps a request rejected by validation to {@code 400 Bad Request}. Other
+     * exceptions, including {@link IllegalArgumentException}s from the libraries on the
+     * call path, are server errors and left to Spring's default handling.
+     *
+     * @param e the validation error
+     * @return the problem response
+     */
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidRequest(InvalidRequestException e) {
+        return ResponseEntity.badRequest()
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+}
@@ -0,0 +1,40 @@
+package com.xai.controllers;
+
+import com.xai.memory.ConversationMemory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller managing the conversations kept by {@link ConversationMemory}.
+ */
+@RestController
+@RequestMapping("/api/v1/chat/sessions")
+@ConditionalOnProperty(prefix = "xai.memory", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ConversationController {
+
+    private final ConversationMemory conversationMemory;
+
+    /**
+     * Forgets the history of a session; its next request starts a new conversation.
+     *
+     * <p>Example request:</p>
+     * <pre>
+     * DELETE /api/v1/chat/sessions/3f2c9a
+     * </pre>
+     *
+     * @param sessionId the session id sent as {@code X-Session-Id}
+     * @return HTTP 204 No Content, or 404 if the session has no history
+     */
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Void> forget(@PathVariable String sessionId) {
+        return conversationMemory.forget(sessionId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.xai.controllers;
+
+import com.xai.appconfig.DeadlineProperties;
+import com.xai.resilience.Deadline;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Reads the client's timeout from the deadline header and exposes it as the
+ * {@link Deadline#current() current deadline} while the request is handled.
+ *
+ * <p>The deadline is taken when the request arrives, so time spent in the container
+ * counts against it. {@code AdvisorContext.endpoint(...)} picks it up when the service
+ * builds the model request; requests without the header get their endpoint's default
+ * deadline further down the chain. A malformed or non-positive timeout is rejected
+ * with {@code 400}.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "xai.deadline", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private final DeadlineProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(properties.getHeader());
+        if (header == null || header.isBlank()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Duration timeout;
+        try {
+            timeout = DurationStyle.detectAndParse(header.trim());
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + properties.getHeader() + ": " + header);
+            return;
+        }
+        if (timeout.isNegative() || timeout.isZero()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), properties.getHeader() + " must be positive");
+            return;
+        }
+        if (timeout.compareTo(properties.getMaxTimeout()) > 0) {
+            timeout = properties.getMaxTimeout();
+        }
+        Deadline.setCurrent(Deadline.after(timeout));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Deadline.setCurrent(null);
+        }
+    }
+}
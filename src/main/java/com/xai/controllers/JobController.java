@@ -0,0 +1,65 @@
+package com.xai.controllers;
+
+import com.xai.entities.JobRequest;
+import com.xai.entities.JobStatus;
+import com.xai.services.JobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * REST controller running {@code AiService} calls as asynchronous jobs, for
+ * generations that outlast the client's or the gateway's timeout.
+ *
+ * <p>A client submits a job, receives its id at once and polls for the result, or
+ * has the finished job posted to its callback URL. Queued jobs survive a restart.</p>
+ */
+@RestController
+@RequestMapping("/api/v1/chat/jobs")
+@ConditionalOnProperty(prefix = "xai.jobs", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JobController {
+
+    private final JobService jobService;
+
+    /**
+     * Submits a job.
+     *
+     * <p>Example request:</p>
+     * <pre>
+     * POST /api/v1/chat/jobs
+     * {"endpoint": "responses", "prompt": "List the last five Ballon d'Or winners",
+     *  "callbackUrl": "https://example.org/hooks/ai"}
+     * </pre>
+     *
+     * @param request the endpoint whose call to run, its prompt and an optional callback URL
+     * @return HTTP 202 Accepted with the queued job and its URL in {@code Location};
+     * 400 for an invalid submission, 503 if the queue is full
+     */
+    @PostMapping
+    public ResponseEntity<JobStatus> submit(@RequestBody JobRequest request) {
+        JobStatus job = jobService.submit(request);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(job.getId()).toUri())
+                .body(job);
+    }
+
+    /**
+     * Returns a job's state, and its result once it has succeeded.
+     *
+     * @param id the job id
+     * @return HTTP 200 OK with the job, or 404 if it is unknown or past its retention
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<JobStatus> get(@PathVariable String id) {
+        JobStatus job = jobService.get(id);
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job);
+    }
+}
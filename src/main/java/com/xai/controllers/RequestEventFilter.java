@@ -0,0 +1,53 @@
+package com.xai.controllers;
+
+import com.xai.jfr.RequestEvent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Records every API request as a {@link RequestEvent} for Java Flight Recorder.
+ *
+ * <p>Runs first in the filter chain, so the event encloses the stage events (template
+ * rendering, admission, the model call and its HTTP exchange, response conversion)
+ * recorded while the request is served; on the blocking endpoints they all run on the
+ * request's thread, which is how {@code PipelineRecordingAnalyzer} attributes them.
+ * For streaming endpoints the event ends when the response is handed over to the
+ * stream.</p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestEventFilter extends OncePerRequestFilter {
+
+    private static final String API_PATH = "/api/";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestEvent event = new RequestEvent();
+        event.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = request.getMethod();
+                event.path = request.getRequestURI();
+                event.status = response.getStatus();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.xai.controllers;
+
+import com.xai.entities.UsageSummary;
+import com.xai.services.AiEndpoint;
+import com.xai.services.UsageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * REST controller exposing the model usage recorded by {@link UsageService}.
+ */
+@RestController
+@RequestMapping("/api/v1/usage")
+@RequiredArgsConstructor
+public class UsageController {
+
+    private final UsageService usageService;
+
+    /**
+     * Returns the usage of every endpoint, keyed by endpoint key.
+     *
+     * @return HTTP 200 OK with the usage of all endpoints
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, UsageSummary>> getUsage() {
+        return ResponseEntity.ok(usageService.getUsage());
+    }
+
+    /**
+     * Returns the usage of a single endpoint.
+     *
+     * <p>Example request:</p>
+     * <pre>
+     * GET /api/v1/usage/chat
+     * </pre>
+     *
+     * @param endpoint the endpoint key, e.g. {@code chat} or {@code responses}
+     * @return HTTP 200 OK with the usage of the endpoint, or 404 if the key is unknown
+     */
+    @GetMapping("/{endpoint}")
+    public ResponseEntity<UsageSummary> getUsage(@PathVariable String endpoint) {
+        try {
+            return ResponseEntity.ok(usageService.getUsage(AiEndpoint.fromKey(endpoint)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.xai.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * One prompt of a batch: either a free-text {@code prompt}, or the name of a template
+ * under {@code prompts/} (e.g. {@code user-message}) with its {@code params}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItem {
+    private String prompt;
+    private String template;
+    private Map<String, Object> params;
+}
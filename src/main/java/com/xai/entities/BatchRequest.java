@@ -0,0 +1,21 @@
+package com.xai.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * A batch of prompts, executed with up to {@code parallelism} concurrent model calls.
+ * Without {@code parallelism}, the configured default is used.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequest {
+    private List<BatchItem> items;
+    private Integer parallelism;
+}
@@ -0,0 +1,20 @@
+package com.xai.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Outcome of one batch item: the generated {@code content}, or an {@code error}
+ * message if the item failed. {@code index} is the item's position in the request.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResult {
+    private int index;
+    private String content;
+    private String error;
+}
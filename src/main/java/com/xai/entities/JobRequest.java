@@ -0,0 +1,21 @@
+package com.xai.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Submission of an asynchronous job: the {@code endpoint} whose call to run (e.g.
+ * {@code responses}), its {@code prompt}, and optionally a {@code callbackUrl} the
+ * finished job is posted to; its host must be listed in {@code xai.jobs.callback-hosts}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobRequest {
+    private String endpoint;
+    private String prompt;
+    private String callbackUrl;
+}
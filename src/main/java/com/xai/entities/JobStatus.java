@@ -0,0 +1,31 @@
+package com.xai.entities;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * State of an asynchronous job as returned by the job API and posted to callbacks.
+ * {@code state} is one of {@code QUEUED}, {@code RUNNING}, {@code SUCCEEDED} and
+ * {@code FAILED}; {@code result} holds the endpoint's response once succeeded, and
+ * {@code error} the failure message once failed.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobStatus {
+    private String id;
+    private String endpoint;
+    private String state;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private int attempts;
+    private JsonNode result;
+    private String error;
+}
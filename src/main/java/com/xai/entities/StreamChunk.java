@@ -0,0 +1,17 @@
+package com.xai.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A fragment of a streamed model response, written as one SSE event or one NDJSON line.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamChunk {
+    private String text;
+}
@@ -0,0 +1,35 @@
+package com.xai.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * Aggregated model usage of a single endpoint since application start.
+ *
+ * <p>Token counts are cumulative. Model and rate-limit values reflect the most
+ * recent response returned by the provider. {@code calls} counts model calls only;
+ * responses served from a cache or shared by coalesced requests are counted in
+ * {@code reused}.</p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsageSummary {
+    private String endpoint;
+    private long calls;
+    private long reused;
+    private long promptTokens;
+    private long completionTokens;
+    private long totalTokens;
+    private String lastModel;
+    private Map<String, Long> finishReasons;
+    private Long requestsLimit;
+    private Long requestsRemaining;
+    private Long tokensLimit;
+    private Long tokensRemaining;
+}
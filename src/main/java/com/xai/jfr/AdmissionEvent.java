@@ -0,0 +1,34 @@
+package com.xai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Time a model call waited at a gate (rate limit, concurrency limit, bulkhead) before
+ * it was admitted or rejected.
+ */
+@Name(AdmissionEvent.NAME)
+@Label("Model Call Admission")
+@Description("Wait for quota or a permit before a model call")
+@Category({"XAI", "AI Pipeline"})
+@StackTrace(false)
+public class AdmissionEvent extends Event {
+
+    public static final String NAME = "com.xai.Admission";
+
+    @Label("Gate")
+    public String gate;
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Model")
+    public String model;
+
+    @Label("Admitted")
+    public boolean admitted;
+}
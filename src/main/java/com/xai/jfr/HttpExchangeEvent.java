@@ -0,0 +1,36 @@
+package com.xai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An HTTP call to a model provider, from sending the request (including waiting for a
+ * pooled connection and connecting) to receiving the response headers. Reading the
+ * body is part of the enclosing model call.
+ */
+@Name(HttpExchangeEvent.NAME)
+@Label("Model Provider HTTP Exchange")
+@Description("HTTP request to a model provider until its response headers arrive")
+@Category({"XAI", "AI Pipeline"})
+@StackTrace(false)
+public class HttpExchangeEvent extends Event {
+
+    public static final String NAME = "com.xai.HttpExchange";
+
+    @Label("Method")
+    public String method;
+
+    @Label("Host")
+    public String host;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Status")
+    @Description("HTTP status, or 0 if no response was received")
+    public int status;
+}
@@ -0,0 +1,64 @@
+package com.xai.jfr;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Records the HTTP calls of the {@code RestClient} (blocking) and {@code WebClient}
+ * (streaming) model clients as {@link HttpExchangeEvent}s.
+ *
+ * <p>The event ends when the response headers arrive: it contains waiting for a pooled
+ * connection, connecting and the provider's time to respond, but not reading the body.
+ * For a blocking completion the provider usually answers once generation is done; for
+ * a stream the headers come first and the tokens follow.</p>
+ */
+public class HttpExchangeRecorder implements ClientHttpRequestInterceptor, ExchangeFilterFunction {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        HttpExchangeEvent event = new HttpExchangeEvent();
+        event.begin();
+        int status = 0;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            status = response.getStatusCode().value();
+            return response;
+        } finally {
+            commit(event, request.getMethod().name(), request.getURI(), status);
+        }
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            HttpExchangeEvent event = new HttpExchangeEvent();
+            event.begin();
+            return next.exchange(request)
+                    .doOnSuccess(response -> commit(event, request.method().name(), request.url(),
+                            response == null ? 0 : response.statusCode().value()))
+                    .doOnError(e -> commit(event, request.method().name(), request.url(), 0));
+        });
+    }
+
+    private static void commit(HttpExchangeEvent event, String method, URI uri, int status) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = method;
+            event.host = uri.getHost();
+            event.path = uri.getPath();
+            event.status = status;
+            event.commit();
+        }
+    }
+}
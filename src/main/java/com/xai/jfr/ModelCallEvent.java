@@ -0,0 +1,51 @@
+package com.xai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A call to the chat model once every advisor admitted it: the HTTP exchange, the
+ * generation and reading the reply, including tool-calling round trips.
+ */
+@Name(ModelCallEvent.NAME)
+@Label("Model Call")
+@Description("Chat model call after admission, until the reply is complete")
+@Category({"XAI", "AI Pipeline"})
+@StackTrace(false)
+public class ModelCallEvent extends Event {
+
+    public static final String NAME = "com.xai.ModelCall";
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Model")
+    public String model;
+
+    @Label("Mode")
+    @Description("call or stream")
+    public String mode;
+
+    @Label("Prompt Tokens")
+    public int promptTokens;
+
+    @Label("Completion Tokens")
+    public int completionTokens;
+
+    @Label("Time to First Token")
+    @Description("For streams, the time until the first chunk with text")
+    @Timespan
+    public long timeToFirstToken;
+
+    @Label("Finish Reason")
+    public String finishReason;
+
+    @Label("Outcome")
+    @Description("success, error or cancelled")
+    public String outcome;
+}
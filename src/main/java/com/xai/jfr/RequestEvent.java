@@ -0,0 +1,31 @@
+package com.xai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An HTTP request to the API, from the servlet filter chain to the response; the
+ * envelope of the stage events recorded while it is served.
+ */
+@Name(RequestEvent.NAME)
+@Label("AI Request")
+@Description("An HTTP request to the AI API")
+@Category({"XAI", "AI Pipeline"})
+@StackTrace(false)
+public class RequestEvent extends Event {
+
+    public static final String NAME = "com.xai.Request";
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Status")
+    public int status;
+}
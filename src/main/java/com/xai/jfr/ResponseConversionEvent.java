@@ -0,0 +1,32 @@
+package com.xai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Binding of a model reply to an entity, including local repair of near-miss JSON.
+ */
+@Name(ResponseConversionEvent.NAME)
+@Label("Structured Output Conversion")
+@Description("Binding of a model reply to an entity")
+@Category({"XAI", "AI Pipeline"})
+@StackTrace(false)
+public class ResponseConversionEvent extends Event {
+
+    public static final String NAME = "com.xai.ResponseConversion";
+
+    @Label("Type")
+    public String type;
+
+    @Label("Reply Length")
+    @Description("Characters of the reply")
+    public int length;
+
+    @Label("Outcome")
+    @Description("parsed, repaired or failed")
+    public String outcome;
+}
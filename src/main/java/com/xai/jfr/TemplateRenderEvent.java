@@ -0,0 +1,28 @@
+package com.xai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Rendering of a prompt template.
+ */
+@Name(TemplateRenderEvent.NAME)
+@Label("Prompt Template Render")
+@Description("Rendering of a compiled prompt template")
+@Category({"XAI", "AI Pipeline"})
+@StackTrace(false)
+public class TemplateRenderEvent extends Event {
+
+    public static final String NAME = "com.xai.TemplateRender";
+
+    @Label("Template")
+    public String template;
+
+    @Label("Rendered Length")
+    @Description("Characters of the rendered text")
+    public int length;
+}
@@ -0,0 +1,122 @@
+package com.xai.jobs;
+
+import com.xai.services.InvalidRequestException;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which callback URLs finished jobs may be posted to.
+ *
+ * <p>A callback makes the server send a request to an address chosen by the client, so
+ * without a check any client could reach internal services, {@code localhost} or a
+ * cloud metadata endpoint through it. A callback URL must be an absolute
+ * {@code http(s)} URL whose host is on the allowlist ({@code xai.jobs.callback-hosts};
+ * an entry {@code *.example.com} allows the subdomains of {@code example.com}), and
+ * every address the host resolves to must be public: loopback, link-local,
+ * site-local, unique-local, shared (carrier-grade NAT), wildcard and multicast
+ * addresses are rejected. With an empty allowlist callbacks are disabled.</p>
+ *
+ * <p>The check runs at submission and again before each delivery, which catches a name
+ * re-pointed at an internal address in between. It cannot pin the address: the HTTP
+ * client resolves the host once more when it connects, so a host that changes its
+ * answer within that window is not caught. The allowlist, not the address check, is
+ * what limits callbacks to hosts the operator trusts.</p>
+ */
+public class CallbackPolicy {
+
+    private final Set<String> allowedHosts;
+
+    private final Resolver resolver;
+
+    /**
+     * @param allowedHosts host names callbacks may be sent to
+     */
+    public CallbackPolicy(Collection<String> allowedHosts) {
+        this(allowedHosts, InetAddress::getAllByName);
+    }
+
+    CallbackPolicy(Collection<String> allowedHosts, Resolver resolver) {
+        this.allowedHosts = allowedHosts.stream()
+                .map(host -> host.strip().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.resolver = resolver;
+    }
+
+    /**
+     * Checks a callback URL.
+     *
+     * @param callbackUrl the URL
+     * @throws InvalidRequestException if callbacks to the URL are not allowed
+     */
+    public void check(String callbackUrl) {
+        URI uri;
+        try {
+            uri = URI.create(callbackUrl);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid callback URL: " + callbackUrl);
+        }
+        if (!("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) || uri.getHost() == null) {
+            throw new InvalidRequestException("The callback URL must be an absolute http(s) URL");
+        }
+        if (uri.getUserInfo() != null) {
+            throw new InvalidRequestException("The callback URL must not carry credentials");
+        }
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        if (!allowed(host)) {
+            throw new InvalidRequestException("Callbacks to " + host + " are not allowed");
+        }
+        InetAddress[] addresses;
+        try {
+            addresses = resolver.resolve(host);
+        } catch (UnknownHostException e) {
+            throw new InvalidRequestException("The callback host " + host + " cannot be resolved");
+        }
+        for (InetAddress address : addresses) {
+            if (!isPublic(address)) {
+                throw new InvalidRequestException("The callback host " + host + " resolves to a private address");
+            }
+        }
+    }
+
+    private boolean allowed(String host) {
+        if (allowedHosts.contains(host)) {
+            return true;
+        }
+        for (int dot = host.indexOf('.'); dot >= 0; dot = host.indexOf('.', dot + 1)) {
+            if (allowedHosts.contains("*" + host.substring(dot))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet6Address) {
+            // fc00::/7, unique local addresses
+            return (bytes[0] & 0xfe) != 0xfc;
+        }
+        // 0.0.0.0/8, "this network"; 100.64.0.0/10, shared address space
+        return bytes[0] != 0 && !(bytes[0] == 100 && (bytes[1] & 0xc0) == 64);
+    }
+
+    /**
+     * Resolves a host name to its addresses.
+     */
+    interface Resolver {
+
+        InetAddress[] resolve(String host) throws UnknownHostException;
+    }
+}
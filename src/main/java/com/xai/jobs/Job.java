@@ -0,0 +1,57 @@
+package com.xai.jobs;
+
+import com.xai.services.AiEndpoint;
+
+/**
+ * State of an asynchronous job, as persisted in the {@link JobStore}.
+ *
+ * <p>Every state change is appended to the store as a new version of the record;
+ * times are epoch milliseconds, {@code 0} until reached. {@code result} holds the
+ * JSON of the {@code AiService} return value.</p>
+ *
+ * @param id          the job id
+ * @param endpoint    the {@code AiService} call the job runs
+ * @param prompt      the prompt passed to the call
+ * @param callbackUrl URL the finished job is posted to, or {@code null}
+ * @param state       the job's state
+ * @param submittedAt when the job was accepted
+ * @param startedAt   when the latest attempt started
+ * @param finishedAt  when the job succeeded or failed
+ * @param attempts    number of attempts started so far
+ * @param result      the result as JSON, once succeeded
+ * @param error       the error message, once failed
+ */
+public record Job(String id, AiEndpoint endpoint, String prompt, String callbackUrl, State state,
+                  long submittedAt, long startedAt, long finishedAt, int attempts, String result, String error) {
+
+    public enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED;
+
+        /**
+         * @return whether the job has finished
+         */
+        public boolean isFinal() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+
+    public static Job queued(String id, AiEndpoint endpoint, String prompt, String callbackUrl, long now) {
+        return new Job(id, endpoint, prompt, callbackUrl, State.QUEUED, now, 0, 0, 0, null, null);
+    }
+
+    public Job started(long now) {
+        return new Job(id, endpoint, prompt, callbackUrl, State.RUNNING, submittedAt, now, 0, attempts + 1, null, null);
+    }
+
+    public Job requeued() {
+        return new Job(id, endpoint, prompt, callbackUrl, State.QUEUED, submittedAt, startedAt, 0, attempts, null, null);
+    }
+
+    public Job succeeded(String result, long now) {
+        return new Job(id, endpoint, prompt, callbackUrl, State.SUCCEEDED, submittedAt, startedAt, now, attempts, result, null);
+    }
+
+    public Job failed(String error, long now) {
+        return new Job(id, endpoint, prompt, callbackUrl, State.FAILED, submittedAt, startedAt, now, attempts, null, error);
+    }
+}
@@ -0,0 +1,310 @@
+package com.xai.jobs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append-only, file-backed store of {@link Job}s that survives restarts.
+ *
+ * <p>Every version of a job is appended to a single log file as
+ * {@code int length | JSON}; an in-memory index maps each job id to the offset of
+ * its latest version. The index is rebuilt by scanning the log on startup, and a torn
+ * record at the end of the file (e.g. after a crash) is truncated. With
+ * {@code fsync}, every append is forced to disk before it returns, so an accepted job
+ * is never lost.</p>
+ *
+ * <p>When the log exceeds {@code compactBytes} and at least half of it is garbage
+ * (versions superseded by a later one), it is compacted: the latest version of every
+ * job that is unfinished or finished less than {@code retentionMillis} ago is copied
+ * into a new file, which then atomically replaces the old one. Requiring as much
+ * garbage as live data means a compaction rewrites at most as many bytes as were
+ * appended since the previous one, even when the jobs within their retention alone
+ * exceed {@code compactBytes}.</p>
+ *
+ * <p>A finished job is no longer returned once {@code retentionMillis} have passed
+ * since it finished, whether or not a compaction has dropped it yet.</p>
+ *
+ * <p>Reads and the index lookup preceding them run under a shared lock; appends and
+ * compaction, which moves every record, are exclusive.</p>
+ */
+public class JobStore implements Closeable {
+
+    private final Path file;
+
+    private final long compactBytes;
+
+    private final long retentionMillis;
+
+    private final boolean fsync;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Location> index = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel channel;
+
+    /**
+     * Bytes of the latest version of every indexed job; the rest of the log is garbage.
+     */
+    private long liveBytes;
+
+    private int compactions;
+
+    /**
+     * Opens (or creates) a job store.
+     *
+     * @param file            the log file
+     * @param compactBytes    the size at which the log is compacted
+     * @param retentionMillis how long finished jobs are kept
+     * @param fsync           whether appends are forced to disk
+     * @param objectMapper    serializes the job records
+     */
+    public JobStore(Path file, long compactBytes, long retentionMillis, boolean fsync, ObjectMapper objectMapper) {
+        this.file = file;
+        this.compactBytes = compactBytes;
+        this.retentionMillis = retentionMillis;
+        this.fsync = fsync;
+        this.objectMapper = objectMapper;
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.channel = open(file);
+            rebuildIndex();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open job store " + file, e);
+        }
+    }
+
+    /**
+     * @param id the job id
+     * @return the latest version of the job, or {@code null} if unknown or past its retention
+     */
+    public Job get(String id) {
+        lock.readLock().lock();
+        try {
+            Location location = index.get(id);
+            if (location == null) {
+                return null;
+            }
+            Job job = read(location.offset());
+            return job != null && job.id().equals(id) && !expired(job, System.currentTimeMillis()) ? job : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a new version of a job.
+     *
+     * @param job the job
+     */
+    public void put(Job job) {
+        ByteBuffer buffer = encode(job);
+        lock.writeLock().lock();
+        try {
+            long size = channel.size();
+            if (size + buffer.remaining() > compactBytes && size - liveBytes >= liveBytes) {
+                compact();
+            }
+            long offset = channel.size();
+            int length = buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, offset + buffer.position());
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+            index(job.id(), new Location(offset, length));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the jobs that have not finished, in submission order
+     */
+    public List<Job> unfinished() {
+        List<Job> unfinished = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (String id : index.keySet()) {
+                Job job = get(id);
+                if (job != null && !job.state().isFinal()) {
+                    unfinished.add(job);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        unfinished.sort(Comparator.comparingLong(Job::submittedAt));
+        return unfinished;
+    }
+
+    /**
+     * @return the number of indexed jobs, including finished ones not yet compacted away
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of compactions since the store was opened
+     */
+    int compactions() {
+        return compactions;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            channel.force(true);
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuildIndex() throws IOException {
+        long offset = 0;
+        long size = channel.size();
+        while (offset < size) {
+            int length = length(offset, size);
+            Job job = length < 0 ? null : read(offset);
+            if (job == null) {
+                // Torn write at the tail: drop it so the next append starts clean.
+                channel.truncate(offset);
+                break;
+            }
+            index(job.id(), new Location(offset, Integer.BYTES + length));
+            offset += Integer.BYTES + length;
+        }
+    }
+
+    private void compact() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        long now = System.currentTimeMillis();
+        Map<String, Location> newIndex = new HashMap<>();
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = 0;
+            for (Location location : index.values()) {
+                Job job = read(location.offset());
+                if (job == null || expired(job, now)) {
+                    continue;
+                }
+                ByteBuffer buffer = encode(job);
+                newIndex.put(job.id(), new Location(position, buffer.remaining()));
+                while (buffer.hasRemaining()) {
+                    position += target.write(buffer, position);
+                }
+            }
+            target.force(true);
+        }
+        channel.close();
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = open(file);
+        index.clear();
+        index.putAll(newIndex);
+        liveBytes = channel.size();
+        compactions++;
+    }
+
+    private boolean expired(Job job, long now) {
+        return job.state().isFinal() && job.finishedAt() < now - retentionMillis;
+    }
+
+    private void index(String id, Location location) {
+        Location previous = index.put(id, location);
+        liveBytes += location.length() - (previous == null ? 0 : previous.length());
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private ByteBuffer encode(Job job) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(job);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot serialize job " + job.id(), e);
+        }
+        return ByteBuffer.allocate(Integer.BYTES + json.length).putInt(json.length).put(json).flip();
+    }
+
+    /**
+     * @return the length of the record at an offset, or {@code -1} if it is incomplete
+     */
+    private int length(long offset, long size) throws IOException {
+        if (offset + Integer.BYTES > size) {
+            return -1;
+        }
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        readFully(header, offset);
+        int length = header.flip().getInt();
+        return length <= 0 || offset + Integer.BYTES + length > size ? -1 : length;
+    }
+
+    /**
+     * Reads the job at an offset, or returns {@code null} if it is incomplete or corrupt.
+     */
+    private Job read(long offset) throws IOException {
+        int length = length(offset, channel.size());
+        if (length < 0) {
+            return null;
+        }
+        ByteBuffer body = ByteBuffer.allocate(length);
+        readFully(body, offset + Integer.BYTES);
+        try {
+            return objectMapper.readValue(body.array(), Job.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Where the latest version of a job is stored.
+     *
+     * @param offset the offset of the record
+     * @param length the length of the record, header included
+     */
+    private record Location(long offset, int length) {
+    }
+}
@@ -0,0 +1,182 @@
+package com.xai.memory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The stored history of one session: its turns, oldest first, and optionally a
+ * summary of turns that were folded away.
+ *
+ * <p>Token counts and footprint are maintained incrementally, so fitting the history
+ * to a budget and weighing the conversation for eviction never walk every turn's
+ * text. All methods are thread-safe.</p>
+ */
+public class Conversation {
+
+    private final ArrayDeque<Turn> turns = new ArrayDeque<>();
+
+    private Turn summary;
+
+    private int tokens;
+
+    private long heapBytes;
+
+    private long offHeapBytes;
+
+    private boolean summarizing;
+
+    /**
+     * Appends turns at the end of the history.
+     *
+     * @param added the turns, oldest first
+     */
+    public synchronized void append(List<Turn> added) {
+        for (Turn turn : added) {
+            turns.addLast(turn);
+            tokens += turn.tokens();
+            account(turn, 1);
+        }
+    }
+
+    /**
+     * Returns the newest turns that fit a token budget, preceded by the summary if
+     * it fits as well. The summary takes precedence over turns.
+     *
+     * @param budget the maximum number of tokens of the returned turns
+     * @return the turns, oldest first
+     */
+    public synchronized List<Turn> window(int budget) {
+        int used = summary != null && summary.tokens() <= budget ? summary.tokens() : 0;
+        List<Turn> window = new ArrayList<>();
+        for (Iterator<Turn> newestFirst = turns.descendingIterator(); newestFirst.hasNext(); ) {
+            Turn turn = newestFirst.next();
+            if (used + turn.tokens() > budget) {
+                break;
+            }
+            used += turn.tokens();
+            window.add(turn);
+        }
+        if (summary != null && summary.tokens() <= budget) {
+            window.add(summary);
+        }
+        Collections.reverse(window);
+        return window;
+    }
+
+    /**
+     * Drops the oldest turns until the history holds at most {@code budget} tokens.
+     *
+     * @param budget the maximum number of tokens to keep
+     * @return the number of dropped turns
+     */
+    public synchronized int trimTo(int budget) {
+        int dropped = 0;
+        while (tokens > budget && !turns.isEmpty()) {
+            remove(turns.pollFirst());
+            dropped++;
+        }
+        return dropped;
+    }
+
+    /**
+     * Starts folding the oldest turns into the summary, keeping the newest turns of
+     * at most {@code keep} tokens. Only one fold runs at a time; the turns stay in the
+     * history until {@link #completeSummary} replaces them.
+     *
+     * @param keep the number of tokens of recent turns to keep verbatim
+     * @return the turns to fold, oldest first; empty if there is nothing to fold or a
+     * fold is already running
+     */
+    public synchronized List<Turn> beginSummary(int keep) {
+        if (summarizing || tokens <= keep) {
+            return List.of();
+        }
+        List<Turn> fold = new ArrayList<>();
+        int remaining = tokens;
+        for (Turn turn : turns) {
+            if (remaining <= keep) {
+                break;
+            }
+            fold.add(turn);
+            remaining -= turn.tokens();
+        }
+        summarizing = true;
+        return fold;
+    }
+
+    /**
+     * Replaces the folded turns with a new summary.
+     *
+     * @param newSummary the summary covering the previous summary and {@code folded}
+     * @param folded     the turns returned by {@link #beginSummary}
+     */
+    public synchronized void completeSummary(Turn newSummary, List<Turn> folded) {
+        // Folded turns may have been trimmed meanwhile; the rest are still at the head.
+        for (Turn turn : folded) {
+            if (turns.peekFirst() == turn) {
+                remove(turns.pollFirst());
+            }
+        }
+        if (summary != null) {
+            account(summary, -1);
+        }
+        summary = newSummary;
+        account(summary, 1);
+        summarizing = false;
+    }
+
+    /**
+     * Ends a fold that failed; its turns stay in the history.
+     */
+    public synchronized void abortSummary() {
+        summarizing = false;
+    }
+
+    /**
+     * @return the current summary, or {@code null}
+     */
+    public synchronized Turn summary() {
+        return summary;
+    }
+
+    /**
+     * @return the number of tokens of the turns, excluding the summary
+     */
+    public synchronized int tokens() {
+        return tokens;
+    }
+
+    /**
+     * @return the number of stored turns, excluding the summary
+     */
+    public synchronized int size() {
+        return turns.size();
+    }
+
+    /**
+     * @return the approximate heap bytes retained by the conversation
+     */
+    public synchronized long heapBytes() {
+        return heapBytes;
+    }
+
+    /**
+     * @return the native bytes retained by the conversation
+     */
+    public synchronized long offHeapBytes() {
+        return offHeapBytes;
+    }
+
+    private void remove(Turn turn) {
+        tokens -= turn.tokens();
+        account(turn, -1);
+    }
+
+    private void account(Turn turn, int sign) {
+        heapBytes += sign * turn.heapBytes();
+        offHeapBytes += sign * turn.offHeapBytes();
+    }
+}
@@ -0,0 +1,220 @@
+package com.xai.memory;
+
+import com.xai.advisors.AdvisorContext;
+import com.xai.appconfig.ConversationMemoryProperties;
+import com.xai.resilience.RequestPriority;
+import com.xai.services.AiEndpoint;
+import com.xai.services.UsageService;
+import com.xai.tokens.TokenEstimator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Conversation history of sessions, fitted to a token budget.
+ *
+ * <p>Each exchange is stored as a user and an assistant {@link Turn} with its token
+ * count. What a request gets back is the newest history that fits
+ * {@code xai.memory.history-budget}. How older history is handled depends on the
+ * strategy:</p>
+ * <ul>
+ *     <li>{@code WINDOW} – turns that no longer fit the budget are dropped as soon as
+ *     a new exchange is recorded, so a session never retains more than it can send.</li>
+ *     <li>{@code SUMMARIZE} – once the history exceeds the budget, the oldest turns
+ *     are folded, together with the previous summary, into a new summary written by
+ *     the model on a background thread, keeping half of the budget verbatim. Until the
+ *     summary is ready, windowing keeps requests within the budget; should the model
+ *     fall behind, history beyond twice the budget is dropped.</li>
+ * </ul>
+ *
+ * <p>Summaries are requested through the application's {@link ChatClient}, tagged
+ * {@link AiEndpoint#MEMORY_SUMMARY} at {@link RequestPriority#BATCH}, so they pass the
+ * same rate limit, concurrency limit, bulkheads and deadline as any other call and
+ * their tokens are recorded as usage. At most {@code xai.memory.summary-concurrency}
+ * are written at a time; a session whose history exceeds the budget meanwhile is
+ * windowed and summarized after a later exchange.</p>
+ *
+ * <p>Meters: {@code ai.memory.trimmed} (dropped turns) and {@code ai.memory.summaries}
+ * by {@code outcome} ({@code success}, {@code failure}, {@code deferred}), in addition to those of the {@link ConversationStore}.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "xai.memory", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ConversationMemory {
+
+    private static final String SUMMARY_INSTRUCTIONS = """
+            Summarize the conversation between a user and an assistant below, continuing the earlier \
+            summary if there is one. Keep names, numbers, facts, decisions and open questions; leave out \
+            pleasantries. Write in the third person and be brief.""";
+
+    private final ConversationMemoryProperties properties;
+
+    private final TokenEstimator tokenEstimator;
+
+    private final ObjectProvider<ChatClient> chatClient;
+
+    private final UsageService usageService;
+
+    private final ConversationStore store;
+
+    private final TurnEncoder encoder;
+
+    private final Counter trimmed;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService summarizer = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Semaphore summarizing;
+
+    /**
+     * @param chatClient the application's client; looked up when a summary is written,
+     *                   since its advisor chain includes this memory
+     */
+    public ConversationMemory(ConversationMemoryProperties properties, TokenEstimator tokenEstimator,
+                              ObjectProvider<ChatClient> chatClient, UsageService usageService,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.tokenEstimator = tokenEstimator;
+        this.chatClient = chatClient;
+        this.usageService = usageService;
+        this.meterRegistry = meterRegistry;
+        this.summarizing = new Semaphore(Math.max(1, properties.getSummaryConcurrency()));
+        this.store = new ConversationStore(properties.getMaxBytes(), properties.getIdleTimeout(), meterRegistry);
+        ConversationMemoryProperties.Storage storage = properties.getStorage();
+        this.encoder = new TurnEncoder(storage != ConversationMemoryProperties.Storage.HEAP,
+                storage == ConversationMemoryProperties.Storage.OFF_HEAP, properties.getCompressionThreshold());
+        this.trimmed = Counter.builder("ai.memory.trimmed").register(meterRegistry);
+    }
+
+    /**
+     * @param sessionId the session
+     * @return the session's history that fits the budget, oldest first; a summary,
+     * if any, comes first
+     */
+    public List<Turn> history(String sessionId) {
+        Conversation conversation = store.get(sessionId);
+        return conversation == null ? List.of() : conversation.window(properties.getHistoryBudget());
+    }
+
+    /**
+     * Records an exchange and reduces the session's history to the budget.
+     *
+     * @param sessionId     the session
+     * @param userText      the user's message
+     * @param assistantText the model's reply
+     */
+    public void record(String sessionId, String userText, String assistantText) {
+        Conversation conversation = store.getOrCreate(sessionId);
+        conversation.append(List.of(
+                encoder.encode(Turn.Role.USER, userText, tokenEstimator.estimate(userText)),
+                encoder.encode(Turn.Role.ASSISTANT, assistantText, tokenEstimator.estimate(assistantText))));
+        int budget = properties.getHistoryBudget();
+        switch (properties.getStrategy()) {
+            case WINDOW -> trimmed.increment(conversation.trimTo(budget));
+            case SUMMARIZE -> {
+                trimmed.increment(conversation.trimTo(2 * budget));
+                if (conversation.tokens() > budget) {
+                    summarize(sessionId, conversation, budget / 2);
+                }
+            }
+        }
+        store.save(sessionId, conversation);
+    }
+
+    /**
+     * @param sessionId the session
+     * @return whether the session had a history
+     */
+    public boolean forget(String sessionId) {
+        return store.remove(sessionId);
+    }
+
+    private void summarize(String sessionId, Conversation conversation, int keep) {
+        if (!summarizing.tryAcquire()) {
+            summaries("deferred");
+            return;
+        }
+        List<Turn> fold = conversation.beginSummary(keep);
+        if (fold.isEmpty()) {
+            summarizing.release();
+            return;
+        }
+        Turn previous = conversation.summary();
+        summarizer.execute(() -> {
+            RequestPriority.setCurrent(RequestPriority.BATCH);
+            try {
+                // Plain ChatOptions, not tool-calling ones, so the default tools are not offered.
+                ChatResponse response = chatClient.getObject().prompt()
+                        .system(SUMMARY_INSTRUCTIONS)
+                        .user(transcript(previous, fold))
+                        .options(ChatOptions.builder()
+                                .model(properties.getSummaryModel())
+                                .maxTokens(properties.getSummaryMaxTokens())
+                                .temperature(0.0)
+                                .build())
+                        .advisors(AdvisorContext.endpoint(AiEndpoint.MEMORY_SUMMARY))
+                        .call()
+                        .chatResponse();
+                usageService.record(AiEndpoint.MEMORY_SUMMARY, response);
+                String summary = text(response);
+                if (summary == null || summary.isBlank()) {
+                    throw new IllegalStateException("The model returned an empty summary");
+                }
+                conversation.completeSummary(
+                        encoder.encode(Turn.Role.SUMMARY, summary, tokenEstimator.estimate(summary)), fold);
+                store.save(sessionId, conversation);
+                summaries("success");
+            } catch (RuntimeException e) {
+                conversation.abortSummary();
+                summaries("failure");
+                log.warn("Cannot summarize the history of session {}: {}", sessionId, e.toString());
+            } finally {
+                RequestPriority.setCurrent(null);
+                summarizing.release();
+            }
+        });
+    }
+
+    private static String transcript(Turn previous, List<Turn> turns) {
+        StringBuilder transcript = new StringBuilder();
+        if (previous != null) {
+            transcript.append("Earlier summary:\n").append(previous.text()).append("\n\n");
+        }
+        transcript.append("Conversation:\n");
+        for (Turn turn : turns) {
+            transcript.append(turn.role() == Turn.Role.USER ? "User: " : "Assistant: ")
+                    .append(turn.text())
+                    .append('\n');
+        }
+        return transcript.toString();
+    }
+
+    private static String text(ChatResponse response) {
+        return response == null || response.getResult() == null ? null : response.getResult().getOutput().getText();
+    }
+
+    private void summaries(String outcome) {
+        Counter.builder("ai.memory.summaries")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        summarizer.shutdownNow();
+    }
+}
@@ -0,0 +1,109 @@
+package com.xai.memory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+
+/**
+ * Conversations of all active sessions, bounded by the bytes they retain.
+ *
+ * <p>Each conversation is weighed by its heap and off-heap footprint; once the total
+ * exceeds {@code maxBytes}, the least recently used sessions are evicted (Caffeine's
+ * size-based policy), and sessions idle for longer than {@code idleTimeout} expire.
+ * A conversation is re-weighed each time it is {@link #save saved}.</p>
+ *
+ * <p>Meters: Caffeine statistics under {@code ai.memory}, and {@code ai.memory.bytes}
+ * with the total weight of the stored conversations.</p>
+ */
+public class ConversationStore {
+
+    /**
+     * Approximate heap cost of a session entry apart from its turns.
+     */
+    private static final int ENTRY_OVERHEAD = 160;
+
+    private final Cache<String, Conversation> sessions;
+
+    /**
+     * @param maxBytes      maximum bytes retained by all conversations together
+     * @param idleTimeout   time after the last access at which a session expires
+     * @param meterRegistry registry for the store's metrics, or {@code null}
+     */
+    public ConversationStore(long maxBytes, Duration idleTimeout, MeterRegistry meterRegistry) {
+        this.sessions = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String id, Conversation conversation) -> (int) Math.min(Integer.MAX_VALUE,
+                        ENTRY_OVERHEAD + 2L * id.length() + conversation.heapBytes() + conversation.offHeapBytes()))
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, sessions, "ai.memory");
+            Gauge.builder("ai.memory.bytes", this, ConversationStore::weightedBytes)
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * @param sessionId the session
+     * @return the session's conversation, or {@code null} if it has none or it was evicted
+     */
+    public Conversation get(String sessionId) {
+        return sessions.getIfPresent(sessionId);
+    }
+
+    /**
+     * @param sessionId the session
+     * @return the session's conversation, created empty if needed
+     */
+    public Conversation getOrCreate(String sessionId) {
+        return sessions.get(sessionId, id -> new Conversation());
+    }
+
+    /**
+     * Re-weighs a conversation after it changed, so its new footprint counts towards
+     * eviction. A conversation that was evicted or removed meanwhile is not restored.
+     *
+     * @param sessionId    the session
+     * @param conversation the conversation
+     */
+    public void save(String sessionId, Conversation conversation) {
+        sessions.asMap().replace(sessionId, conversation, conversation);
+    }
+
+    /**
+     * @param sessionId the session
+     * @return whether the session had a conversation
+     */
+    public boolean remove(String sessionId) {
+        return sessions.asMap().remove(sessionId) != null;
+    }
+
+    /**
+     * @return the approximate number of stored sessions
+     */
+    public long size() {
+        return sessions.estimatedSize();
+    }
+
+    /**
+     * @return the total weight, in bytes, of the stored conversations
+     */
+    public long weightedBytes() {
+        return sessions.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    /**
+     * Runs pending evictions and expirations.
+     */
+    public void cleanUp() {
+        sessions.cleanUp();
+    }
+}
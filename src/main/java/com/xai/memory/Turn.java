@@ -0,0 +1,119 @@
+package com.xai.memory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * One stored message of a {@link Conversation}, kept as encoded UTF-8 bytes with its
+ * token count, so windowing never re-tokenizes the history.
+ *
+ * <p>The payload is a {@code byte[]} or, for off-heap storage, a direct
+ * {@link ByteBuffer}; either may be deflate-compressed. Instances are created by a
+ * {@link TurnEncoder} and are immutable.</p>
+ */
+public final class Turn {
+
+    public enum Role {
+        USER, ASSISTANT, SUMMARY
+    }
+
+    /**
+     * Approximate heap cost of the object itself: header, fields and payload reference.
+     */
+    private static final int OBJECT_OVERHEAD = 32;
+
+    private static final int ARRAY_OVERHEAD = 16;
+
+    /**
+     * Approximate heap cost of a direct buffer: the buffer object and its cleaner.
+     */
+    private static final int DIRECT_BUFFER_OVERHEAD = 112;
+
+    private final Role role;
+
+    private final int tokens;
+
+    /**
+     * Length of the UTF-8 text, or {@code -1} if the payload is not compressed.
+     */
+    private final int inflatedLength;
+
+    private final Object payload;
+
+    Turn(Role role, int tokens, int inflatedLength, Object payload) {
+        this.role = role;
+        this.tokens = tokens;
+        this.inflatedLength = inflatedLength;
+        this.payload = payload;
+    }
+
+    public Role role() {
+        return role;
+    }
+
+    /**
+     * @return the number of tokens of the text
+     */
+    public int tokens() {
+        return tokens;
+    }
+
+    /**
+     * Decodes the text.
+     *
+     * @return the message text
+     */
+    public String text() {
+        byte[] bytes;
+        if (payload instanceof ByteBuffer buffer) {
+            bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+        } else {
+            bytes = (byte[]) payload;
+        }
+        if (inflatedLength >= 0) {
+            bytes = inflate(bytes, inflatedLength);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the approximate number of heap bytes retained by this turn
+     */
+    public long heapBytes() {
+        return OBJECT_OVERHEAD + (payload instanceof byte[] bytes ? ARRAY_OVERHEAD + bytes.length : DIRECT_BUFFER_OVERHEAD);
+    }
+
+    /**
+     * @return the number of native bytes retained by this turn
+     */
+    public long offHeapBytes() {
+        return payload instanceof ByteBuffer buffer ? buffer.capacity() : 0;
+    }
+
+    private static byte[] inflate(byte[] compressed, int length) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            byte[] bytes = new byte[length];
+            int offset = 0;
+            while (offset < length && !inflater.finished()) {
+                int read = inflater.inflate(bytes, offset, length - offset);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += read;
+            }
+            if (offset != length) {
+                throw new IllegalStateException("Corrupt turn: inflated " + offset + " of " + length + " bytes");
+            }
+            return bytes;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt turn", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.xai.memory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+/**
+ * Encodes message texts into {@link Turn}s.
+ *
+ * <p>Texts are stored as UTF-8 bytes rather than {@code String}s, which saves the
+ * string object and, for text outside Latin-1, up to half of the payload. With compression, texts of at least
+ * {@code compressionThreshold} bytes are deflated when that makes them smaller;
+ * shorter texts rarely shrink. Off-heap storage moves the payload into a direct
+ * buffer, out of the heap the collector has to trace, at the cost of a small per-turn
+ * buffer object.</p>
+ */
+public class TurnEncoder {
+
+    private final boolean compress;
+
+    private final boolean offHeap;
+
+    private final int compressionThreshold;
+
+    /**
+     * @param compress             whether long texts are deflate-compressed
+     * @param offHeap              whether payloads are kept in direct buffers
+     * @param compressionThreshold minimum UTF-8 length, in bytes, of a text to compress
+     */
+    public TurnEncoder(boolean compress, boolean offHeap, int compressionThreshold) {
+        this.compress = compress;
+        this.offHeap = offHeap;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * @param role   the author of the message
+     * @param text   the message text
+     * @param tokens the number of tokens of the text
+     * @return the encoded turn
+     */
+    public Turn encode(Turn.Role role, String text, int tokens) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        int inflatedLength = -1;
+        if (compress && bytes.length >= compressionThreshold) {
+            byte[] deflated = deflate(bytes);
+            if (deflated.length < bytes.length) {
+                inflatedLength = bytes.length;
+                bytes = deflated;
+            }
+        }
+        if (offHeap) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes).flip();
+            return new Turn(role, tokens, inflatedLength, buffer.asReadOnlyBuffer());
+        }
+        return new Turn(role, tokens, inflatedLength, bytes);
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 16);
+            byte[] chunk = new byte[Math.min(bytes.length + 64, 8192)];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
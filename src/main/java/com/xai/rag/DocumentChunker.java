@@ -0,0 +1,96 @@
+package com.xai.rag;
+
+import com.xai.tokens.TokenEstimator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Splits documents into passages of bounded token length for retrieval.
+ *
+ * <p>Passages follow sentence boundaries: sentences are added to a passage until the
+ * next one would exceed {@code maxTokens}, and the last sentence of a passage is
+ * repeated at the start of the next, so a fact spanning the boundary is retrievable
+ * from either side. Passages never span paragraphs. A Markdown heading line
+ * ({@code # …}) is not a sentence; it prefixes every passage of its section, which
+ * gives short passages the context they need to match a query. Single-line HTML
+ * comments are skipped. A single sentence longer than {@code maxTokens} is truncated.</p>
+ */
+public class DocumentChunker {
+
+    private static final Pattern PARAGRAPHS = Pattern.compile("\\n\\s*\\n");
+
+    private static final Pattern SENTENCES = Pattern.compile("(?<=[.!?])\\s+");
+
+    private final TokenEstimator tokenEstimator;
+
+    private final int maxTokens;
+
+    /**
+     * @param tokenEstimator measures passages
+     * @param maxTokens      the maximum tokens of a passage, heading included
+     */
+    public DocumentChunker(TokenEstimator tokenEstimator, int maxTokens) {
+        this.tokenEstimator = tokenEstimator;
+        this.maxTokens = maxTokens;
+    }
+
+    /**
+     * @param source the document name, recorded on every passage
+     * @param text   the document
+     * @return the passages, in document order
+     */
+    public List<Passage> chunk(String source, String text) {
+        List<Passage> passages = new ArrayList<>();
+        String heading = "";
+        for (String paragraph : PARAGRAPHS.split(text.strip())) {
+            StringBuilder body = new StringBuilder();
+            for (String line : paragraph.strip().split("\\n")) {
+                if (line.startsWith("<!--") && line.strip().endsWith("-->")) {
+                    continue;
+                }
+                if (line.startsWith("#")) {
+                    flush(source, heading, body.toString(), passages);
+                    body.setLength(0);
+                    heading = line.replaceFirst("^#+\\s*", "").strip();
+                } else {
+                    body.append(line.strip()).append(' ');
+                }
+            }
+            flush(source, heading, body.toString(), passages);
+        }
+        return passages;
+    }
+
+    private void flush(String source, String heading, String paragraph, List<Passage> passages) {
+        if (paragraph.isBlank()) {
+            return;
+        }
+        String prefix = heading.isEmpty() ? "" : heading + ": ";
+        int budget = maxTokens - tokenEstimator.estimate(prefix);
+        List<String> current = new ArrayList<>();
+        int currentTokens = 0;
+        for (String sentence : SENTENCES.split(paragraph.strip())) {
+            int tokens = tokenEstimator.estimate(sentence) + 1;
+            if (tokens > budget) {
+                sentence = tokenEstimator.truncate(sentence, Math.max(1, budget - 1), false, null);
+                tokens = budget;
+            }
+            if (!current.isEmpty() && currentTokens + tokens > budget) {
+                passages.add(new Passage(source, prefix + String.join(" ", current)));
+                String overlap = current.get(current.size() - 1);
+                int overlapTokens = tokenEstimator.estimate(overlap) + 1;
+                current.clear();
+                currentTokens = 0;
+                if (overlapTokens + tokens <= budget) {
+                    current.add(overlap);
+                    currentTokens = overlapTokens;
+                }
+            }
+            current.add(sentence);
+            currentTokens += tokens;
+        }
+        passages.add(new Passage(source, prefix + String.join(" ", current)));
+    }
+}
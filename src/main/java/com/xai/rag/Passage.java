@@ -0,0 +1,10 @@
+package com.xai.rag;
+
+/**
+ * A chunk of a corpus document, the unit of retrieval.
+ *
+ * @param source the document the passage was taken from, e.g. {@code pickleball.md}
+ * @param text   the text of the passage, prefixed by its section heading if any
+ */
+public record Passage(String source, String text) {
+}
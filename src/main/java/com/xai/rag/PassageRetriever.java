@@ -0,0 +1,82 @@
+package com.xai.rag;
+
+import com.xai.cache.PromptEmbedder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Retrieves the corpus passages most similar to a query.
+ *
+ * <p>Passages are embedded once, when the retriever is built, into a
+ * {@link VectorIndex} whose ids are positions in the passage list. A query is embedded
+ * with the same {@link PromptEmbedder} and searched exactly, or through the IVF when
+ * one was built. The retriever is read-only and thread-safe once built.</p>
+ */
+public class PassageRetriever {
+
+    private final List<Passage> passages;
+
+    private final VectorIndex index;
+
+    private final PromptEmbedder embedder;
+
+    private final int probes;
+
+    private PassageRetriever(List<Passage> passages, VectorIndex index, PromptEmbedder embedder, int probes) {
+        this.passages = passages;
+        this.index = index;
+        this.embedder = embedder;
+        this.probes = probes;
+    }
+
+    /**
+     * Embeds and indexes passages.
+     *
+     * @param passages the passages
+     * @param embedder embeds passages and, later, queries
+     * @param ivfLists the number of IVF partitions, or {@code 0} for exact search only
+     * @param probes   the partitions scanned per query when an IVF is built
+     * @return the retriever
+     */
+    public static PassageRetriever build(List<Passage> passages, PromptEmbedder embedder, int ivfLists, int probes) {
+        VectorIndex index = new VectorIndex(embedder.dimensions(), passages.size());
+        for (Passage passage : passages) {
+            index.add(embedder.embed(passage.text()));
+        }
+        if (ivfLists > 0) {
+            index.buildIvf(ivfLists, 10, 42L);
+        }
+        return new PassageRetriever(List.copyOf(passages), index, embedder, probes);
+    }
+
+    /**
+     * @param query    the query text
+     * @param k        the maximum number of passages
+     * @param minScore the minimum cosine similarity of a returned passage
+     * @return the most similar passages, most similar first
+     */
+    public List<ScoredPassage> search(String query, int k, double minScore) {
+        List<ScoredPassage> results = new ArrayList<>(k);
+        for (VectorIndex.Match match : index.search(embedder.embed(query), k, probes)) {
+            if (match.score() >= minScore) {
+                results.add(new ScoredPassage(passages.get(match.id()), match.score()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return the number of indexed passages
+     */
+    public int size() {
+        return passages.size();
+    }
+
+    /**
+     * @return the bytes held by the vector index
+     */
+    public long memoryBytes() {
+        return index.memoryBytes();
+    }
+}
@@ -0,0 +1,10 @@
+package com.xai.rag;
+
+/**
+ * A passage retrieved for a query.
+ *
+ * @param passage the passage
+ * @param score   its cosine similarity to the query
+ */
+public record ScoredPassage(Passage passage, float score) {
+}
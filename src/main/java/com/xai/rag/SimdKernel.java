@@ -0,0 +1,41 @@
+package com.xai.rag;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link VectorMath.Kernel} on the Java Vector API: fused multiply-adds over the widest
+ * float vectors the CPU supports (8 lanes with AVX2, 16 with AVX-512), with two
+ * accumulators to hide the FMA latency.
+ *
+ * <p>Only loaded when {@code jdk.incubator.vector} is present; see {@link VectorMath}.</p>
+ */
+final class SimdKernel implements VectorMath.Kernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private static final int LANES = SPECIES.length();
+
+    @Override
+    public float dot(float[] a, int aStart, float[] b, int bStart, int length) {
+        FloatVector acc0 = FloatVector.zero(SPECIES);
+        FloatVector acc1 = FloatVector.zero(SPECIES);
+        int i = 0;
+        for (; i + 2 * LANES <= length; i += 2 * LANES) {
+            acc0 = FloatVector.fromArray(SPECIES, a, aStart + i)
+                    .fma(FloatVector.fromArray(SPECIES, b, bStart + i), acc0);
+            acc1 = FloatVector.fromArray(SPECIES, a, aStart + i + LANES)
+                    .fma(FloatVector.fromArray(SPECIES, b, bStart + i + LANES), acc1);
+        }
+        for (; i + LANES <= length; i += LANES) {
+            acc0 = FloatVector.fromArray(SPECIES, a, aStart + i)
+                    .fma(FloatVector.fromArray(SPECIES, b, bStart + i), acc0);
+        }
+        float sum = acc0.add(acc1).reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += a[aStart + i] * b[bStart + i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,361 @@
+package com.xai.rag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory vector index for cosine-similarity search, with exact (flat) and inverted
+ * file (IVF) search.
+ *
+ * <p>Vectors are normalized on insertion and stored row after row in one contiguous
+ * {@code float[]}, so a scan streams through memory and every row is scored by the
+ * SIMD dot product of {@link VectorMath}; there is no per-vector object. A search keeps
+ * the best {@code k} rows in a bounded heap of primitive arrays.</p>
+ *
+ * <p>{@link #buildIvf} clusters the vectors with spherical k-means into {@code lists}
+ * partitions and reorders the storage so that each partition is contiguous. A search
+ * with {@code probes > 0} then scores the centroids and scans only the {@code probes}
+ * closest partitions: with {@code lists ≈ √n} and a few probes that is a small
+ * fraction of the rows, at the cost of occasionally missing a neighbour that fell into
+ * another partition. Without an IVF, or with {@code probes <= 0}, the search is exact.</p>
+ *
+ * <p>Vectors are added while the index is built; after {@link #buildIvf} the index is
+ * read-only. Searches are thread-safe once building is complete.</p>
+ */
+public final class VectorIndex {
+
+    /**
+     * The largest array the JVM reliably allocates.
+     */
+    private static final long MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private static final int SAMPLE_PER_LIST = 64;
+
+    private final int dimensions;
+
+    private float[] vectors;
+
+    /**
+     * Id of the vector stored in each row; rows are reordered by {@link #buildIvf}.
+     */
+    private int[] ids;
+
+    private int size;
+
+    private float[] centroids;
+
+    /**
+     * Row range of each partition: {@code [listStarts[l], listStarts[l + 1])}.
+     */
+    private int[] listStarts;
+
+    /**
+     * @param dimensions      the number of components of every vector
+     * @param initialCapacity the number of vectors to allocate room for
+     */
+    public VectorIndex(int dimensions, int initialCapacity) {
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("dimensions must be positive");
+        }
+        this.dimensions = dimensions;
+        this.vectors = new float[Math.toIntExact(checkedLength(Math.max(1, initialCapacity)))];
+        this.ids = new int[Math.max(1, initialCapacity)];
+    }
+
+    /**
+     * Adds a vector.
+     *
+     * @param vector the vector; copied and normalized
+     * @return its id, assigned from {@code 0} in insertion order
+     * @throws IllegalStateException if the IVF was already built
+     */
+    public int add(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        if (centroids != null) {
+            throw new IllegalStateException("The index is read-only once the IVF is built");
+        }
+        if (size == ids.length) {
+            int capacity = (int) Math.min(MAX_ARRAY_LENGTH / dimensions, 2L * size);
+            if (capacity == size) {
+                throw new IllegalStateException("Vector index is full at " + size + " vectors");
+            }
+            vectors = Arrays.copyOf(vectors, capacity * dimensions);
+            ids = Arrays.copyOf(ids, capacity);
+        }
+        int offset = size * dimensions;
+        System.arraycopy(vector, 0, vectors, offset, dimensions);
+        normalizeRow(offset);
+        ids[size] = size;
+        return size++;
+    }
+
+    /**
+     * Partitions the vectors for approximate search and releases unused capacity.
+     *
+     * @param lists      the number of partitions, typically around {@code √size}
+     * @param iterations the k-means iterations
+     * @param seed       the seed of the centroid initialization, for reproducible builds
+     */
+    public void buildIvf(int lists, int iterations, long seed) {
+        if (centroids != null) {
+            throw new IllegalStateException("The IVF is already built");
+        }
+        if (size == 0) {
+            return;
+        }
+        lists = Math.max(1, Math.min(lists, size));
+        float[] trained = train(lists, iterations, new SplittableRandom(seed));
+        int[] assignment = new int[size];
+        int[] counts = new int[lists + 1];
+        for (int row = 0; row < size; row++) {
+            assignment[row] = nearest(trained, lists, vectors, row * dimensions);
+            counts[assignment[row] + 1]++;
+        }
+        int[] starts = new int[lists + 1];
+        for (int l = 0; l < lists; l++) {
+            starts[l + 1] = starts[l] + counts[l + 1];
+        }
+        int[] next = Arrays.copyOf(starts, lists);
+        float[] reordered = new float[size * dimensions];
+        int[] reorderedIds = new int[size];
+        for (int row = 0; row < size; row++) {
+            int target = next[assignment[row]]++;
+            System.arraycopy(vectors, row * dimensions, reordered, target * dimensions, dimensions);
+            reorderedIds[target] = ids[row];
+        }
+        vectors = reordered;
+        ids = reorderedIds;
+        listStarts = starts;
+        centroids = trained;
+    }
+
+    /**
+     * Finds the vectors most similar to a query.
+     *
+     * @param query  the query vector; not modified
+     * @param k      the number of results
+     * @param probes the number of IVF partitions to scan; {@code <= 0} for an exact search
+     * @return up to {@code k} matches, most similar first
+     */
+    public List<Match> search(float[] query, int k, int probes) {
+        if (query.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + query.length);
+        }
+        if (k <= 0 || size == 0) {
+            return List.of();
+        }
+        float[] q = VectorMath.normalize(query.clone());
+        TopK top = new TopK(Math.min(k, size));
+        if (centroids == null || probes <= 0 || probes >= centroids.length / dimensions) {
+            scan(q, 0, size, top);
+        } else {
+            int lists = centroids.length / dimensions;
+            TopK closest = new TopK(probes);
+            for (int l = 0; l < lists; l++) {
+                closest.offer(l, VectorMath.dot(q, 0, centroids, l * dimensions, dimensions));
+            }
+            for (int i = 0; i < closest.size; i++) {
+                int list = closest.ids[i];
+                scan(q, listStarts[list], listStarts[list + 1], top);
+            }
+        }
+        return top.toMatches();
+    }
+
+    /**
+     * @return whether searches use the Java Vector API, i.e. the JVM was started with
+     * {@code --add-modules jdk.incubator.vector}
+     */
+    public static boolean simd() {
+        return VectorMath.simd();
+    }
+
+    /**
+     * @return the number of vectors
+     */
+    public int size() {
+        return size;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * @return the bytes held by the vector storage, ids and IVF structures
+     */
+    public long memoryBytes() {
+        long bytes = 4L * vectors.length + 4L * ids.length;
+        if (centroids != null) {
+            bytes += 4L * centroids.length + 4L * listStarts.length;
+        }
+        return bytes;
+    }
+
+    private void scan(float[] q, int fromRow, int toRow, TopK top) {
+        for (int row = fromRow; row < toRow; row++) {
+            top.offer(ids[row], VectorMath.dot(q, 0, vectors, row * dimensions, dimensions));
+        }
+    }
+
+    /**
+     * Spherical k-means on a sample: centroids start at random sample vectors and are
+     * re-normalized means of their members; an empty cluster is re-seeded.
+     */
+    private float[] train(int lists, int iterations, SplittableRandom random) {
+        int sampleSize = (int) Math.min(size, (long) lists * SAMPLE_PER_LIST);
+        int[] sample = sampleSize == size
+                ? IntStream.range(0, size).toArray()
+                : random.ints(0, size).distinct().limit(sampleSize).toArray();
+        float[] trained = new float[lists * dimensions];
+        for (int l = 0; l < lists; l++) {
+            System.arraycopy(vectors, sample[l] * dimensions, trained, l * dimensions, dimensions);
+        }
+        int[] members = new int[lists];
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            float[] sums = new float[lists * dimensions];
+            Arrays.fill(members, 0);
+            for (int row : sample) {
+                int l = nearest(trained, lists, vectors, row * dimensions);
+                members[l]++;
+                for (int d = 0; d < dimensions; d++) {
+                    sums[l * dimensions + d] += vectors[row * dimensions + d];
+                }
+            }
+            for (int l = 0; l < lists; l++) {
+                int offset = l * dimensions;
+                if (members[l] == 0) {
+                    System.arraycopy(vectors, sample[random.nextInt(sampleSize)] * dimensions, trained, offset,
+                            dimensions);
+                    continue;
+                }
+                float norm = (float) Math.sqrt(VectorMath.dot(sums, offset, sums, offset, dimensions));
+                for (int d = 0; d < dimensions; d++) {
+                    trained[offset + d] = norm > 0 ? sums[offset + d] / norm : 0;
+                }
+            }
+        }
+        return trained;
+    }
+
+    private int nearest(float[] trained, int lists, float[] data, int offset) {
+        int best = 0;
+        float bestScore = Float.NEGATIVE_INFINITY;
+        for (int l = 0; l < lists; l++) {
+            float score = VectorMath.dot(data, offset, trained, l * dimensions, dimensions);
+            if (score > bestScore) {
+                bestScore = score;
+                best = l;
+            }
+        }
+        return best;
+    }
+
+    private void normalizeRow(int offset) {
+        float norm = (float) Math.sqrt(VectorMath.dot(vectors, offset, vectors, offset, dimensions));
+        if (norm > 0) {
+            for (int d = 0; d < dimensions; d++) {
+                vectors[offset + d] /= norm;
+            }
+        }
+    }
+
+    private long checkedLength(long capacity) {
+        if (capacity * dimensions > MAX_ARRAY_LENGTH) {
+            throw new IllegalArgumentException("Capacity of " + capacity + " vectors of " + dimensions
+                    + " dimensions exceeds a single array");
+        }
+        return capacity * dimensions;
+    }
+
+    /**
+     * A search result.
+     *
+     * @param id    the id returned by {@link #add}
+     * @param score the cosine similarity to the query
+     */
+    public record Match(int id, float score) {
+    }
+
+    /**
+     * Bounded min-heap of the best scores seen, over primitive arrays.
+     */
+    private static final class TopK {
+
+        private final int[] ids;
+
+        private final float[] scores;
+
+        private int size;
+
+        private TopK(int k) {
+            this.ids = new int[k];
+            this.scores = new float[k];
+        }
+
+        private void offer(int id, float score) {
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (ids.length > 0 && score > scores[0]) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (scores[parent] <= scores[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int smallest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && scores[left] < scores[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && scores[right] < scores[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == i) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+
+        private List<Match> toMatches() {
+            List<Match> matches = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                matches.add(new Match(ids[i], scores[i]));
+            }
+            matches.sort((a, b) -> Float.compare(b.score(), a.score()));
+            return matches;
+        }
+    }
+}
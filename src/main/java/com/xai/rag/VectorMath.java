@@ -0,0 +1,86 @@
+package com.xai.rag;
+
+/**
+ * Dot products over rows of a contiguous {@code float[]}, the inner loop of every
+ * vector search.
+ *
+ * <p>Uses the Java Vector API ({@code jdk.incubator.vector}) when the JVM was started
+ * with {@code --add-modules jdk.incubator.vector}, which the build configures for the
+ * application, tests and benchmarks; a JVM without the module falls back to an
+ * unrolled scalar loop with the same results up to float rounding.</p>
+ */
+final class VectorMath {
+
+    private static final Kernel KERNEL = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            ? new SimdKernel()
+            : new ScalarKernel();
+
+    private VectorMath() {
+    }
+
+    /**
+     * @return whether the SIMD kernel is in use
+     */
+    static boolean simd() {
+        return KERNEL instanceof SimdKernel;
+    }
+
+    /**
+     * @param a      the first array
+     * @param aStart the offset of the first vector in {@code a}
+     * @param b      the second array
+     * @param bStart the offset of the second vector in {@code b}
+     * @param length the number of components
+     * @return the dot product of the two vectors
+     */
+    static float dot(float[] a, int aStart, float[] b, int bStart, int length) {
+        return KERNEL.dot(a, aStart, b, bStart, length);
+    }
+
+    /**
+     * Scales a vector to unit length in place; a zero vector is left as is.
+     *
+     * @param vector the vector
+     * @return {@code vector}
+     */
+    static float[] normalize(float[] vector) {
+        float norm = (float) Math.sqrt(dot(vector, 0, vector, 0, vector.length));
+        if (norm > 0) {
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] /= norm;
+            }
+        }
+        return vector;
+    }
+
+    interface Kernel {
+
+        float dot(float[] a, int aStart, float[] b, int bStart, int length);
+    }
+
+    /**
+     * Four independent accumulators, so the loop is not bound by the latency of one
+     * floating-point add chain.
+     */
+    static final class ScalarKernel implements Kernel {
+
+        @Override
+        public float dot(float[] a, int aStart, float[] b, int bStart, int length) {
+            float s0 = 0;
+            float s1 = 0;
+            float s2 = 0;
+            float s3 = 0;
+            int i = 0;
+            for (; i + 4 <= length; i += 4) {
+                s0 += a[aStart + i] * b[bStart + i];
+                s1 += a[aStart + i + 1] * b[bStart + i + 1];
+                s2 += a[aStart + i + 2] * b[bStart + i + 2];
+                s3 += a[aStart + i + 3] * b[bStart + i + 3];
+            }
+            for (; i < length; i++) {
+                s0 += a[aStart + i] * b[bStart + i];
+            }
+            return (s0 + s1) + (s2 + s3);
+        }
+    }
+}
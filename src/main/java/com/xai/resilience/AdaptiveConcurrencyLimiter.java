@@ -0,0 +1,153 @@
+package com.xai.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to the latency of the upstream, after the gradient
+ * algorithm of Netflix's concurrency-limits library.
+ *
+ * <p>Two moving averages of the round-trip time are kept: a short one following the
+ * current latency and a long one approximating the latency without queueing. Their
+ * ratio, the gradient, tells whether requests are queueing upstream:</p>
+ * <pre>
+ * gradient = clamp(0.5, 1.0, tolerance * longRtt / shortRtt)
+ * limit    = smooth(limit * gradient + sqrt(limit))
+ * </pre>
+ * <p>While latency is stable the {@code sqrt(limit)} headroom lets the limit grow;
+ * when the upstream slows down the gradient drops below one and the limit shrinks
+ * until latency recovers. A failed call shrinks the limit directly. The limit does not
+ * grow while less than half of it is used, so a quiet period cannot inflate it.</p>
+ *
+ * <p>{@link #tryAcquire()} never blocks: work beyond the limit is meant to be shed,
+ * not queued.</p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double smoothing;
+
+    private final double tolerance;
+
+    private final double shortAlpha;
+
+    private final double longAlpha;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    private double shortRttNanos = Double.NaN;
+
+    private double longRttNanos = Double.NaN;
+
+    /**
+     * @param initialLimit the limit before any latency was observed
+     * @param minLimit     the lowest the limit can go
+     * @param maxLimit     the highest the limit can go
+     * @param smoothing    how fast the limit moves towards its new value, between 0 and 1
+     * @param tolerance    how much latency increase is tolerated before the limit shrinks, e.g. 1.5
+     * @param shortWindow  number of samples the short average spans
+     * @param longWindow   number of samples the long average spans
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance,
+                                      int shortWindow, int longWindow) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.shortAlpha = 2.0 / (shortWindow + 1);
+        this.longAlpha = 2.0 / (longWindow + 1);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Takes a slot if the limit allows it.
+     *
+     * @return whether a slot was taken; if so, {@link #onSuccess} or {@link #onFailure} must follow
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot after a successful call and feeds its latency into the limit.
+     *
+     * @param rttNanos the latency of the call
+     */
+    public void onSuccess(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        update(rttNanos, inFlightBefore);
+    }
+
+    /**
+     * Releases a slot after a failed call (e.g. a timeout or a throttled request) and backs off.
+     */
+    public synchronized void onFailure() {
+        inFlight.decrementAndGet();
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+    }
+
+    /**
+     * Releases a slot without feeding the limit, e.g. when the client cancelled.
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightBefore) {
+        shortRttNanos = Double.isNaN(shortRttNanos) ? rttNanos : shortRttNanos + shortAlpha * (rttNanos - shortRttNanos);
+        longRttNanos = Double.isNaN(longRttNanos) ? rttNanos : longRttNanos + longAlpha * (shortRttNanos - longRttNanos);
+        // After a long slowdown the long average is inflated; let it converge back quickly.
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        if (inFlightBefore < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + target * smoothing));
+    }
+
+    /**
+     * @return the current concurrency limit
+     */
+    public int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return the number of slots in use
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return the short-term average latency, zero before the first sample
+     */
+    public synchronized Duration shortRtt() {
+        return Double.isNaN(shortRttNanos) ? Duration.ZERO : Duration.ofNanos((long) shortRttNanos);
+    }
+
+    /**
+     * @return the long-term average latency, zero before the first sample
+     */
+    public synchronized Duration longRtt() {
+        return Double.isNaN(longRttNanos) ? Duration.ZERO : Duration.ofNanos((long) longRttNanos);
+    }
+}
@@ -0,0 +1,106 @@
+package com.xai.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency bulkhead: at most {@code maxConcurrent} callers hold a permit, at most
+ * {@code maxQueue} wait for one, and nobody waits longer than {@code maxWait}.
+ *
+ * <p>Waiting parks the calling thread, which is cheap on virtual threads. Permits are
+ * handed out in FIFO order: the semaphore is fair, and even the fast path does not
+ * take a free permit while others are waiting for one.</p>
+ */
+public class Bulkhead {
+
+    private final String name;
+
+    private final int maxConcurrent;
+
+    private final int maxQueue;
+
+    private final Duration maxWait;
+
+    private final Semaphore permits;
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueue, Duration maxWait) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Acquires a permit, waiting up to {@code maxWait}.
+     *
+     * @return the time spent waiting, in nanoseconds
+     * @throws CapacityExceededException if the queue is full or the wait timed out
+     */
+    public long acquire() {
+        long start = System.nanoTime();
+        if (tryAcquire()) {
+            return 0;
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            throw new CapacityExceededException("Bulkhead '" + name + "' queue is full", "queue_full", maxWait);
+        }
+        try {
+            if (!permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new CapacityExceededException("No capacity for '" + name + "' within " + maxWait, "timeout", maxWait);
+            }
+            return System.nanoTime() - start;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CapacityExceededException("Interrupted while waiting for '" + name + "'", "interrupted", maxWait);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * Acquires a permit only if one is free and nobody is waiting for it.
+     *
+     * @return whether a permit was acquired
+     */
+    public boolean tryAcquire() {
+        try {
+            // Unlike tryAcquire(), the timed variant honours fairness instead of barging.
+            return permits.tryAcquire(0, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * @return the number of callers currently holding a permit
+     */
+    public int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * @return the number of callers currently waiting for a permit
+     */
+    public int queued() {
+        return queued.get();
+    }
+}
@@ -0,0 +1,118 @@
+package com.xai.resilience;
+
+import com.xai.appconfig.BulkheadProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Holds one {@link Bulkhead} per model and publishes its metrics.
+ *
+ * <p>Meters, all tagged by {@code model}:</p>
+ * <ul>
+ *     <li>{@code ai.bulkhead.active} / {@code ai.bulkhead.limit} – permits in use and configured maximum</li>
+ *     <li>{@code ai.bulkhead.saturation} – {@code active / limit}</li>
+ *     <li>{@code ai.bulkhead.queued} – callers waiting for a permit</li>
+ *     <li>{@code ai.bulkhead.wait} – time spent waiting for a permit</li>
+ *     <li>{@code ai.bulkhead.rejected} – calls shed, by {@code reason}</li>
+ * </ul>
+ */
+@Component
+public class BulkheadRegistry {
+
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    private final BulkheadProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    public BulkheadRegistry(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs a call inside the bulkhead of a model.
+     *
+     * @param model the model the call goes to
+     * @param call  the blocking call
+     * @param <T>   the result type
+     * @return the result of the call
+     * @throws CapacityExceededException if no permit could be obtained
+     */
+    public <T> T execute(String model, Supplier<T> call) {
+        Bulkhead bulkhead = acquire(model);
+        try {
+            return call.get();
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Acquires a permit of a model's bulkhead; the caller must release it.
+     *
+     * @param model the model the call goes to
+     * @return the bulkhead holding the permit
+     * @throws CapacityExceededException if no permit could be obtained
+     */
+    public Bulkhead acquire(String model) {
+        Bulkhead bulkhead = bulkhead(model);
+        try {
+            long waited = bulkhead.acquire();
+            Timer.builder("ai.bulkhead.wait")
+                    .tag("model", bulkhead.name())
+                    .register(meterRegistry)
+                    .record(waited, TimeUnit.NANOSECONDS);
+            return bulkhead;
+        } catch (CapacityExceededException e) {
+            Counter.builder("ai.bulkhead.rejected")
+                    .tag("model", bulkhead.name())
+                    .tag("reason", e.getReason())
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Acquires a free permit of a model's bulkhead without waiting; the caller must
+     * release it. A miss is counted as rejected with reason {@code busy}.
+     *
+     * @param model the model the call goes to
+     * @return the bulkhead holding the permit, or {@code null} if none was free
+     */
+    public Bulkhead tryAcquire(String model) {
+        Bulkhead bulkhead = bulkhead(model);
+        if (bulkhead.tryAcquire()) {
+            return bulkhead;
+        }
+        Counter.builder("ai.bulkhead.rejected")
+                .tag("model", bulkhead.name())
+                .tag("reason", "busy")
+                .register(meterRegistry)
+                .increment();
+        return null;
+    }
+
+    private Bulkhead bulkhead(String model) {
+        return bulkheads.computeIfAbsent(model == null ? "default" : model, name -> {
+            BulkheadProperties.Limits limits = properties.forModel(name);
+            Bulkhead bulkhead = new Bulkhead(name, limits.getMaxConcurrent(), limits.getMaxQueue(), limits.getMaxWait());
+            Gauge.builder("ai.bulkhead.active", bulkhead, Bulkhead::active).tag("model", name).register(meterRegistry);
+            Gauge.builder("ai.bulkhead.limit", bulkhead, Bulkhead::maxConcurrent).tag("model", name).register(meterRegistry);
+            Gauge.builder("ai.bulkhead.queued", bulkhead, Bulkhead::queued).tag("model", name).register(meterRegistry);
+            Gauge.builder("ai.bulkhead.saturation", bulkhead, b -> b.active() / (double) b.maxConcurrent())
+                    .tag("model", name)
+                    .register(meterRegistry);
+            return bulkhead;
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package com.xai.resilience;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is shed because the instance has no capacity left for it.
+ * Mapped to HTTP 503 with a {@code Retry-After} header.
+ */
+@Getter
+public class CapacityExceededException extends RuntimeException {
+
+    /**
+     * Short, metric-friendly reason, e.g. {@code queue_full} or {@code timeout}.
+     */
+    private final String reason;
+
+    /**
+     * Suggested delay before the client retries.
+     */
+    private final Duration retryAfter;
+
+    public CapacityExceededException(String message, String reason, Duration retryAfter) {
+        super(message);
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,67 @@
+package com.xai.resilience;
+
+import java.time.Duration;
+
+/**
+ * Point in time by which a request must be answered, on the {@link System#nanoTime()} clock.
+ *
+ * <p>The deadline of the HTTP request being served is held in a thread-local, set by
+ * the web layer from the {@code X-Request-Timeout} header and read when the request to
+ * the model is built.</p>
+ *
+ * @param nanoTime the deadline as a {@link System#nanoTime()} value
+ */
+public record Deadline(long nanoTime) {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    /**
+     * @param timeout the time allowed from now
+     * @return the deadline {@code timeout} from now
+     */
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * @return the time left, negative once the deadline has passed
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(nanoTime - System.nanoTime());
+    }
+
+    /**
+     * @return whether the deadline has passed
+     */
+    public boolean isExpired() {
+        return nanoTime - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @param other another deadline, may be {@code null}
+     * @return the earlier of both deadlines
+     */
+    public Deadline min(Deadline other) {
+        return other == null || nanoTime - other.nanoTime <= 0 ? this : other;
+    }
+
+    /**
+     * @return the deadline of the request served by the current thread, or {@code null}
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Sets the deadline of the request served by the current thread.
+     *
+     * @param deadline the deadline, or {@code null} to clear it
+     */
+    public static void setCurrent(Deadline deadline) {
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.xai.resilience;
+
+/**
+ * Thrown when a request's {@link Deadline} passes before the model answered, or is too
+ * close to produce a useful reply. Mapped to HTTP 504.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,80 @@
+package com.xai.resilience;
+
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Classifies errors returned by the model provider.
+ */
+public final class ProviderErrors {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private ProviderErrors() {
+    }
+
+    /**
+     * Tells whether an error, or one of its causes, is the provider answering
+     * {@code 429 Too Many Requests}.
+     *
+     * <p>Spring AI wraps HTTP errors of blocking calls into {@link NonTransientAiException}
+     * or {@link TransientAiException} whose message starts with the status code;
+     * streaming calls surface the {@link WebClientResponseException} itself.</p>
+     *
+     * @param error the error
+     * @return whether the provider throttled the call
+     */
+    public static boolean isThrottled(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof RestClientResponseException e && e.getStatusCode().value() == TOO_MANY_REQUESTS) {
+                return true;
+            }
+            if (t instanceof WebClientResponseException e && e.getStatusCode().value() == TOO_MANY_REQUESTS) {
+                return true;
+            }
+            if ((t instanceof NonTransientAiException || t instanceof TransientAiException)
+                    && t.getMessage() != null && t.getMessage().startsWith(String.valueOf(TOO_MANY_REQUESTS))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells whether an error is worth retrying elsewhere: a throttled call, a server
+     * error ({@code 5xx}) or an I/O failure, as opposed to a request the provider
+     * rejected ({@code 4xx}) or a call cancelled by its caller.
+     *
+     * <p>An error caused by an interruption or a cancellation is never transient, even
+     * if the client library reported it as an I/O failure.</p>
+     *
+     * @param error the error
+     * @return whether another attempt may succeed
+     */
+    public static boolean isTransient(Throwable error) {
+        boolean isTransient = isThrottled(error);
+        for (Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof InterruptedException || t instanceof CancellationException) {
+                return false;
+            }
+            if (t instanceof TransientAiException
+                    || t instanceof RestClientResponseException rest && rest.getStatusCode().is5xxServerError()
+                    || t instanceof WebClientResponseException web && web.getStatusCode().is5xxServerError()
+                    || t instanceof ResourceAccessException
+                    || t instanceof WebClientRequestException
+                    || t instanceof IOException
+                    || t instanceof TimeoutException) {
+                isTransient = true;
+            }
+        }
+        return isTransient;
+    }
+}
@@ -0,0 +1,244 @@
+package com.xai.resilience;
+
+import com.xai.appconfig.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.RateLimit;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits model calls against the provider's request and token quotas, serving
+ * {@link RequestPriority#INTERACTIVE interactive} calls before {@link RequestPriority#BATCH batch} ones.
+ *
+ * <p>Two {@link TokenBucket}s, refilled per minute, mirror the provider's
+ * requests-per-minute and tokens-per-minute limits. A call is charged one request
+ * and its estimated token count up front; when the response arrives the estimate is
+ * replaced by the reported usage and the buckets are aligned with the remaining
+ * quota from the response's {@link RateLimit}. Calls therefore wait here instead of
+ * being throttled by the provider and retried.</p>
+ *
+ * <p>Waiting calls are queued by priority, then arrival. Only the head of the queue
+ * may take quota, so a stream of batch calls cannot starve an interactive one, and
+ * a large request is not overtaken indefinitely by small ones of the same priority.
+ * The lock is a {@link ReentrantLock} rather than a monitor so waiting virtual threads
+ * do not pin their carrier.</p>
+ *
+ * <p>Meters:</p>
+ * <ul>
+ *     <li>{@code ai.ratelimit.available} – tokens left in a bucket, by {@code bucket}</li>
+ *     <li>{@code ai.ratelimit.queued} – calls waiting for quota, by {@code priority}</li>
+ *     <li>{@code ai.ratelimit.wait} – time spent waiting for quota, by {@code priority}</li>
+ *     <li>{@code ai.ratelimit.rejected} – calls rejected after their wait budget, by {@code priority}</li>
+ *     <li>{@code ai.ratelimit.throttled} – {@code 429} responses received from the provider</li>
+ * </ul>
+ */
+@Component
+public class RateLimitScheduler {
+
+    private static final Duration PERIOD = Duration.ofMinutes(1);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition changed = lock.newCondition();
+
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+            Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence));
+
+    private final int[] queuedByPriority = new int[RequestPriority.values().length];
+
+    private final TokenBucket requests;
+
+    private final TokenBucket tokens;
+
+    private final RateLimitProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private long sequence;
+
+    public RateLimitScheduler(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        long now = System.nanoTime();
+        this.requests = new TokenBucket(properties.getRequestsPerMinute(), PERIOD, now);
+        this.tokens = new TokenBucket(properties.getTokensPerMinute(), PERIOD, now);
+
+        Gauge.builder("ai.ratelimit.available", this, s -> s.available(s.requests))
+                .tag("bucket", "requests")
+                .register(meterRegistry);
+        Gauge.builder("ai.ratelimit.available", this, s -> s.available(s.tokens))
+                .tag("bucket", "tokens")
+                .register(meterRegistry);
+        for (RequestPriority priority : RequestPriority.values()) {
+            Gauge.builder("ai.ratelimit.queued", this, s -> s.queued(priority))
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Blocks until a call of the given priority and size may be sent.
+     *
+     * @param priority        the scheduling class of the call
+     * @param estimatedTokens prompt plus maximum completion tokens of the call
+     * @return the estimate charged, to be passed to {@link #complete}
+     * @throws RateLimitedException if the quota does not allow the call within the priority's wait budget
+     */
+    public int acquire(RequestPriority priority, int estimatedTokens) {
+        long start = System.nanoTime();
+        long deadline = start + maxWait(priority).toNanos();
+        lock.lock();
+        try {
+            Waiter waiter = new Waiter(priority, sequence++);
+            queue.add(waiter);
+            queuedByPriority[priority.ordinal()]++;
+            try {
+                while (true) {
+                    long now = System.nanoTime();
+                    long wait = Long.MAX_VALUE;
+                    if (queue.peek() == waiter) {
+                        wait = Math.max(requests.nanosUntil(1, now), tokens.nanosUntil(estimatedTokens, now));
+                        if (wait == 0) {
+                            requests.consume(1, now);
+                            tokens.consume(estimatedTokens, now);
+                            record(priority, now - start);
+                            return estimatedTokens;
+                        }
+                    }
+                    if (now >= deadline || (wait != Long.MAX_VALUE && now + wait > deadline)) {
+                        throw rejected(priority, wait == Long.MAX_VALUE ? deadline - start : wait);
+                    }
+                    changed.awaitNanos(Math.min(wait, deadline - now));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw rejected(priority, 0);
+            } finally {
+                queue.remove(waiter);
+                queuedByPriority[priority.ordinal()]--;
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Settles a completed call: replaces its token estimate by the reported usage and
+     * aligns the buckets with the provider's remaining quota.
+     *
+     * @param estimatedTokens the value returned by {@link #acquire}
+     * @param response        the model response, may be {@code null}
+     */
+    public void complete(int estimatedTokens, ChatResponse response) {
+        ChatResponseMetadata metadata = response == null ? null : response.getMetadata();
+        if (metadata == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            Usage usage = metadata.getUsage();
+            if (usage != null && usage.getTotalTokens() != null && usage.getTotalTokens() > 0) {
+                tokens.adjust(usage.getTotalTokens() - estimatedTokens);
+            }
+            RateLimit rateLimit = metadata.getRateLimit();
+            if (rateLimit != null) {
+                requests.sync(orZero(rateLimit.getRequestsLimit()), orMinusOne(rateLimit.getRequestsRemaining()), now);
+                tokens.sync(orZero(rateLimit.getTokensLimit()), orMinusOne(rateLimit.getTokensRemaining()), now);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that the provider throttled a call: the buckets are drained and stay
+     * empty for the configured back-off, so queued calls wait instead of piling on.
+     */
+    public void throttled() {
+        Counter.builder("ai.ratelimit.throttled").register(meterRegistry).increment();
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            double backoffRequests = properties.getRequestsPerMinute() * fractionOfPeriod(properties.getBackoffAfterThrottle());
+            double backoffTokens = properties.getTokensPerMinute() * fractionOfPeriod(properties.getBackoffAfterThrottle());
+            requests.drain(now);
+            requests.adjust(backoffRequests);
+            tokens.drain(now);
+            tokens.adjust(backoffTokens);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param priority the scheduling class
+     * @return the number of calls of that class waiting for quota
+     */
+    public int queued(RequestPriority priority) {
+        lock.lock();
+        try {
+            return queuedByPriority[priority.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double available(TokenBucket bucket) {
+        lock.lock();
+        try {
+            return bucket.available(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Duration maxWait(RequestPriority priority) {
+        return priority == RequestPriority.BATCH ? properties.getBatchMaxWait() : properties.getInteractiveMaxWait();
+    }
+
+    private void record(RequestPriority priority, long waitedNanos) {
+        Timer.builder("ai.ratelimit.wait")
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry)
+                .record(waitedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private RateLimitedException rejected(RequestPriority priority, long retryAfterNanos) {
+        Counter.builder("ai.ratelimit.rejected")
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+        return new RateLimitedException("Provider rate limit reached, no quota available for " + priority.name().toLowerCase() + " call",
+                "rate_limited", Duration.ofNanos(Math.max(retryAfterNanos, 0)));
+    }
+
+    private static double fractionOfPeriod(Duration duration) {
+        return duration.toNanos() / (double) PERIOD.toNanos();
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    private static long orMinusOne(Long value) {
+        return value == null ? -1 : value;
+    }
+
+    private record Waiter(RequestPriority priority, long sequence) {
+    }
+}
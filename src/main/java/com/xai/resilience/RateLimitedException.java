@@ -0,0 +1,14 @@
+package com.xai.resilience;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request cannot be admitted within its wait budget because the
+ * provider quota is exhausted. Mapped to HTTP 429 with a {@code Retry-After} header.
+ */
+public class RateLimitedException extends CapacityExceededException {
+
+    public RateLimitedException(String message, String reason, Duration retryAfter) {
+        super(message, reason, retryAfter);
+    }
+}
@@ -0,0 +1,44 @@
+package com.xai.resilience;
+
+/**
+ * Scheduling class of a model call. Lower ordinals are served first.
+ *
+ * <p>Work that runs in the background, like the asynchronous jobs, sets its priority
+ * on the worker thread; {@code AdvisorContext.endpoint(…)} captures it with the
+ * request, as it does the {@link Deadline}.</p>
+ */
+public enum RequestPriority {
+
+    /**
+     * A user is waiting on the response.
+     */
+    INTERACTIVE,
+
+    /**
+     * Offline or bulk work that can tolerate queueing.
+     */
+    BATCH;
+
+    private static final ThreadLocal<RequestPriority> CURRENT = new ThreadLocal<>();
+
+    /**
+     * @return the priority of the work done by the current thread, or {@code null} if it
+     * has not been set
+     */
+    public static RequestPriority current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Sets the priority of the work done by the current thread.
+     *
+     * @param priority the priority, or {@code null} to clear it
+     */
+    public static void setCurrent(RequestPriority priority) {
+        if (priority == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(priority);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.xai.resilience;
+
+import java.time.Duration;
+
+/**
+ * Token bucket refilled continuously at {@code capacity / period}.
+ *
+ * <p>A request larger than the capacity is admitted once the bucket is full and
+ * drives it negative, so oversized requests are delayed rather than starved.
+ * Not thread-safe; callers synchronise externally.</p>
+ */
+class TokenBucket {
+
+    private final double periodNanos;
+
+    private double capacity;
+
+    private double available;
+
+    private double refillPerNano;
+
+    private long lastRefill;
+
+    TokenBucket(long capacity, Duration period, long now) {
+        this.periodNanos = period.toNanos();
+        this.capacity = capacity;
+        this.available = capacity;
+        this.refillPerNano = capacity / periodNanos;
+        this.lastRefill = now;
+    }
+
+    /**
+     * @return nanoseconds until {@code amount} can be consumed, {@code 0} if it can be now
+     */
+    long nanosUntil(double amount, long now) {
+        refill(now);
+        double missing = Math.min(amount, capacity) - available;
+        return missing <= 0 ? 0 : (long) Math.ceil(missing / refillPerNano);
+    }
+
+    void consume(double amount, long now) {
+        refill(now);
+        available -= amount;
+    }
+
+    /**
+     * Returns ({@code amount < 0}) or charges ({@code amount > 0}) the difference
+     * between an estimate and the actual cost of a request.
+     */
+    void adjust(double amount) {
+        available = Math.min(capacity, available - amount);
+    }
+
+    /**
+     * Aligns the bucket with the limits reported by the provider.
+     *
+     * @param limit     the provider's limit per period; if not positive the provider
+     *                  reported nothing and the call is a no-op
+     * @param remaining what the provider says is left, ignored if negative
+     */
+    void sync(long limit, long remaining, long now) {
+        if (limit <= 0) {
+            return;
+        }
+        refill(now);
+        if (limit != capacity) {
+            capacity = limit;
+            refillPerNano = capacity / periodNanos;
+        }
+        if (remaining >= 0) {
+            available = Math.min(available, remaining);
+        }
+    }
+
+    /**
+     * Empties the bucket, e.g. after the provider answered 429.
+     */
+    void drain(long now) {
+        refill(now);
+        available = Math.min(available, 0);
+    }
+
+    double available(long now) {
+        refill(now);
+        return available;
+    }
+
+    private void refill(long now) {
+        if (now > lastRefill) {
+            available = Math.min(capacity, available + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.xai.routing;
+
+import org.springframework.ai.chat.model.ChatModel;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A routing target: a provider's {@link ChatModel} and the model to request from it,
+ * with its observed behaviour.
+ *
+ * <p>Blocking calls and streams are profiled separately, since one measures the
+ * whole reply and the other the time to its first token.</p>
+ */
+public class Backend {
+
+    private final String name;
+
+    private final ChatModel chatModel;
+
+    private final String model;
+
+    private final boolean rateLimited;
+
+    private final LatencyProfile calls;
+
+    private final LatencyProfile streams;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * @param name       the name used in metrics and logs
+     * @param chatModel  the provider's chat model
+     * @param model       the model to request, or {@code null} to keep the requested one
+     * @param rateLimited whether calls count against the provider quota of {@code xai.rate-limit}
+     * @param smoothing   weight of a new sample in the moving averages
+     * @param windowSize  number of recent latencies kept for quantiles
+     */
+    public Backend(String name, ChatModel chatModel, String model, boolean rateLimited, double smoothing,
+                   int windowSize) {
+        this.name = name;
+        this.chatModel = chatModel;
+        this.model = model;
+        this.rateLimited = rateLimited;
+        this.calls = new LatencyProfile(smoothing, windowSize);
+        this.streams = new LatencyProfile(smoothing, windowSize);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public ChatModel chatModel() {
+        return chatModel;
+    }
+
+    public String model() {
+        return model;
+    }
+
+    public boolean rateLimited() {
+        return rateLimited;
+    }
+
+    /**
+     * @param streaming whether the profile of streams or of blocking calls is wanted
+     * @return the latency profile
+     */
+    public LatencyProfile profile(boolean streaming) {
+        return streaming ? streams : calls;
+    }
+
+    public AtomicInteger inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Routing cost of the backend; lower is better.
+     *
+     * <p>The expected latency is scaled by the calls already in flight, so load spreads
+     * over backends of similar speed, and divided by the success rate, so a failing
+     * backend loses traffic. A backend without samples costs nothing, so every backend
+     * is tried early.</p>
+     *
+     * @param streaming whether the request is a stream
+     * @return the cost
+     */
+    double cost(boolean streaming) {
+        LatencyProfile profile = profile(streaming);
+        double latency = profile.latencyNanos();
+        if (Double.isNaN(latency)) {
+            return 0;
+        }
+        return latency * (1 + inFlight.get()) / Math.max(0.05, 1 - profile.errorRate());
+    }
+}
@@ -0,0 +1,98 @@
+package com.xai.routing;
+
+import java.util.Arrays;
+
+/**
+ * Moving latency and error profile of one backend.
+ *
+ * <p>Latency and error rate are exponentially weighted moving averages, so the
+ * profile follows a provider that slows down or starts failing within a few dozen
+ * calls. Recent latencies are also kept in a ring buffer, from which quantiles such
+ * as the p95 used as hedging delay are computed; the sorted copy is refreshed at most
+ * every {@value #QUANTILE_REFRESH} samples.</p>
+ */
+public class LatencyProfile {
+
+    private static final int QUANTILE_REFRESH = 16;
+
+    private final double smoothing;
+
+    private final long[] window;
+
+    private final long[] sorted;
+
+    private int next;
+
+    private int size;
+
+    private int samplesSinceSort;
+
+    private int sortedSize;
+
+    private double latencyNanos = Double.NaN;
+
+    private double errorRate;
+
+    /**
+     * @param smoothing  weight of a new sample in the moving averages, between 0 and 1
+     * @param windowSize number of recent latencies kept for quantiles
+     */
+    public LatencyProfile(double smoothing, int windowSize) {
+        this.smoothing = smoothing;
+        this.window = new long[windowSize];
+        this.sorted = new long[windowSize];
+    }
+
+    /**
+     * Records a successful call.
+     *
+     * @param nanos the latency of the call
+     */
+    public synchronized void success(long nanos) {
+        latencyNanos = Double.isNaN(latencyNanos) ? nanos : latencyNanos + smoothing * (nanos - latencyNanos);
+        errorRate -= smoothing * errorRate;
+        window[next] = nanos;
+        next = (next + 1) % window.length;
+        size = Math.min(size + 1, window.length);
+        samplesSinceSort++;
+    }
+
+    /**
+     * Records a failed call.
+     */
+    public synchronized void failure() {
+        errorRate += smoothing * (1 - errorRate);
+    }
+
+    /**
+     * @return the moving average latency in nanoseconds, {@code NaN} before the first success
+     */
+    public synchronized double latencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * @return the moving share of failed calls, between 0 and 1
+     */
+    public synchronized double errorRate() {
+        return errorRate;
+    }
+
+    /**
+     * @param quantile the quantile, e.g. {@code 0.95}
+     * @return the latency quantile over the recent window in nanoseconds, {@code -1} without samples
+     */
+    public synchronized long quantile(double quantile) {
+        if (size == 0) {
+            return -1;
+        }
+        if (sortedSize == 0 || samplesSinceSort >= QUANTILE_REFRESH) {
+            System.arraycopy(window, 0, sorted, 0, size);
+            Arrays.sort(sorted, 0, size);
+            sortedSize = size;
+            samplesSinceSort = 0;
+        }
+        int index = (int) Math.ceil(quantile * sortedSize) - 1;
+        return sorted[Math.max(0, Math.min(sortedSize - 1, index))];
+    }
+}
@@ -0,0 +1,486 @@
+package com.xai.routing;
+
+import com.xai.advisors.PromptOptions;
+import com.xai.appconfig.RoutingProperties;
+import com.xai.resilience.Bulkhead;
+import com.xai.resilience.BulkheadRegistry;
+import com.xai.resilience.CapacityExceededException;
+import com.xai.resilience.ProviderErrors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * {@link ChatModel} routing each request to the best of several backends.
+ *
+ * <p>Every backend keeps a moving latency and error profile. A request goes to the
+ * backend with the lowest {@link Backend#cost cost}, except for a small exploration
+ * share that goes to a random one. If the chosen backend fails before answering with
+ * a {@linkplain ProviderErrors#isTransient transient} error (throttling, {@code 5xx},
+ * I/O), the request fails over to the next one. A rejected request ({@code 4xx}) or a
+ * cancelled call, e.g. interrupted at its deadline, is not retried elsewhere. When
+ * every attempt fails, the first backend's error is thrown, with the later ones
+ * {@linkplain Throwable#getSuppressed() suppressed}.</p>
+ *
+ * <p>With hedging enabled, a request not answered within the primary backend's p95
+ * latency (bounded by {@code min-delay} and {@code max-delay}) is sent to the
+ * second-best backend as well. The first successful answer wins and the other call is
+ * cancelled: blocking calls by interrupting their thread, which aborts the HTTP
+ * exchange, and streams by cancelling their subscription. Streams are hedged on their
+ * first token. The hedge also starts at once if the primary fails transiently before
+ * the delay, while any other error of the primary fails the request.</p>
+ *
+ * <p>The router sits below the {@code ChatClient}, but the gates of the advisor chain
+ * (prompt budget, rate limiter, bulkhead) are per model and quota. The
+ * {@code RoutingAdvisor} therefore {@linkplain #select selects} the backend above them
+ * and points the prompt at its model, so every gate admits the call for the backend
+ * that serves it, and {@linkplain #callOn pins} that backend as the router's first
+ * choice. A failover or hedge to another backend was not admitted by the gates: it
+ * takes a free permit of that backend's bulkhead without queueing, or is skipped, and
+ * never goes from a backend outside the {@code xai.rate-limit} quota to one inside
+ * it.</p>
+ *
+ * <p>Meters, tagged by {@code backend}: {@code ai.routing.latency} (moving average,
+ * seconds), {@code ai.routing.error.rate}, {@code ai.routing.in.flight},
+ * {@code ai.routing.requests} by {@code outcome}, and {@code ai.routing.hedges} by
+ * {@code outcome} ({@code won} when the hedge answered first, {@code lost} otherwise).</p>
+ */
+@Slf4j
+public class RoutingChatModel implements ChatModel, AutoCloseable {
+
+    /**
+     * Backend pinned for the blocking call made by the current thread.
+     */
+    private static final ThreadLocal<Backend> PINNED = new ThreadLocal<>();
+
+    /**
+     * Reactor context key of the backend pinned for a stream.
+     */
+    private static final String PINNED_KEY = "xai.routing.backend";
+
+    private final List<Backend> backends;
+
+    private final RoutingProperties properties;
+
+    private final BulkheadRegistry bulkheads;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public RoutingChatModel(List<Backend> backends, RoutingProperties properties, BulkheadRegistry bulkheads,
+                            MeterRegistry meterRegistry) {
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("At least one routing backend is required");
+        }
+        this.backends = List.copyOf(backends);
+        this.properties = properties;
+        this.bulkheads = bulkheads;
+        this.meterRegistry = meterRegistry;
+        for (Backend backend : backends) {
+            Gauge.builder("ai.routing.latency", backend, b -> b.profile(false).latencyNanos() / 1e9)
+                    .tag("backend", backend.name())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("ai.routing.error.rate", backend, b -> b.profile(false).errorRate())
+                    .tag("backend", backend.name())
+                    .register(meterRegistry);
+            Gauge.builder("ai.routing.in.flight", backend, b -> b.inFlight().get())
+                    .tag("backend", backend.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Chooses the backend a request should go to first.
+     *
+     * @param streaming whether the request is a stream
+     * @return the backend with the lowest cost, or a random one for exploration
+     */
+    public Backend select(boolean streaming) {
+        return rank(streaming, null).getFirst();
+    }
+
+    /**
+     * Runs a blocking call with a backend pinned as the router's first choice.
+     *
+     * @param backend the backend chosen by {@link #select}
+     * @param call    the call, which reaches the router on the current thread
+     * @param <T>     the result type
+     * @return the result of the call
+     */
+    public <T> T callOn(Backend backend, Supplier<T> call) {
+        Backend previous = PINNED.get();
+        PINNED.set(backend);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                PINNED.remove();
+            } else {
+                PINNED.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Pins a backend as the router's first choice for a stream.
+     *
+     * @param backend the backend chosen by {@link #select}
+     * @param stream  the stream, which subscribes to the router
+     * @param <T>     the element type
+     * @return the stream with the backend pinned in its Reactor context
+     */
+    public <T> Flux<T> streamOn(Backend backend, Flux<T> stream) {
+        return stream.contextWrite(context -> context.put(PINNED_KEY, backend));
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        List<Backend> ranked = rank(false, PINNED.get());
+        if (!properties.getHedging().isEnabled() || ranked.size() < 2) {
+            return callWithFailover(ranked, 0, prompt, null);
+        }
+        return hedgedCall(ranked, prompt);
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.deferContextual(context -> {
+            List<Backend> ranked = rank(true, context.getOrDefault(PINNED_KEY, null));
+            if (!properties.getHedging().isEnabled() || ranked.size() < 2) {
+                return streamWithFailover(ranked, 0, prompt);
+            }
+            // The hedge starts after the delay, or at once if the primary fails before its first token.
+            Sinks.Empty<Void> primaryFailed = Sinks.empty();
+            AtomicBoolean hedged = new AtomicBoolean();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Flux<ChatResponse> primary = stream(ranked.get(0), false, prompt)
+                    .doOnError(e -> {
+                        firstFailure(failure, e);
+                        if (ProviderErrors.isTransient(e)) {
+                            primaryFailed.tryEmitEmpty();
+                        } else {
+                            primaryFailed.tryEmitError(e);
+                        }
+                    })
+                    .switchOnFirst((signal, flux) -> {
+                        if (signal.hasValue() && hedged.get()) {
+                            hedgeOutcome("lost");
+                        }
+                        return flux;
+                    });
+            Flux<ChatResponse> hedge = Mono.firstWithSignal(
+                            Mono.delay(hedgeDelay(ranked.get(0), true)).then(), primaryFailed.asMono())
+                    .doOnSuccess(ignored -> hedged.set(true))
+                    .thenMany(stream(ranked.get(1), true, prompt).doOnError(e -> firstFailure(failure, e)))
+                    .switchOnFirst((signal, flux) -> {
+                        if (signal.hasValue()) {
+                            hedgeOutcome("won");
+                        }
+                        return flux;
+                    });
+            // Without a winner, report the first backend error rather than Reactor's summary.
+            return Flux.firstWithValue(primary, hedge)
+                    .onErrorMap(NoSuchElementException.class, e -> failure.get() != null ? failure.get() : e);
+        });
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return backends.get(0).chatModel().getDefaultOptions();
+    }
+
+    /**
+     * Orders the backends by cost, or puts a random one first for exploration.
+     *
+     * @param pinned the backend the request was admitted for, which goes first, or
+     *               {@code null}; backends inside the quota are then dropped if it is not
+     */
+    private List<Backend> rank(boolean streaming, Backend pinned) {
+        List<Backend> ranked = new ArrayList<>(backends);
+        if (ranked.size() < 2) {
+            return ranked;
+        }
+        ranked.sort(Comparator.comparingDouble(backend -> backend.cost(streaming)));
+        if (pinned != null) {
+            ranked.removeIf(backend -> backend == pinned || backend.rateLimited() && !pinned.rateLimited());
+            ranked.addFirst(pinned);
+        } else if (ThreadLocalRandom.current().nextDouble() < properties.getExplorationRate()) {
+            ranked.addFirst(ranked.remove(ThreadLocalRandom.current().nextInt(ranked.size())));
+        }
+        return ranked;
+    }
+
+    /**
+     * Calls the backends from {@code index} on until one answers or fails for good.
+     *
+     * @param failure the error of an earlier attempt, or {@code null}; it is thrown in
+     *                place of later ones
+     */
+    private ChatResponse callWithFailover(List<Backend> ranked, int index, Prompt prompt, RuntimeException failure) {
+        for (int i = index; ; i++) {
+            try {
+                return call(ranked.get(i), i > 0, prompt);
+            } catch (RuntimeException e) {
+                failure = firstFailure(failure, e);
+                if (i + 1 >= ranked.size() || !failsOver(e)) {
+                    throw failure;
+                }
+                log.warn("Backend {} failed, failing over to {}: {}", ranked.get(i).name(),
+                        ranked.get(i + 1).name(), e.toString());
+            }
+        }
+    }
+
+    private ChatResponse hedgedCall(List<Backend> ranked, Prompt prompt) {
+        ExecutorCompletionService<ChatResponse> completion = new ExecutorCompletionService<>(executor);
+        List<Future<ChatResponse>> attempts = new ArrayList<>(2);
+        attempts.add(completion.submit(() -> call(ranked.get(0), false, prompt)));
+        try {
+            Future<ChatResponse> done = completion.poll(hedgeDelay(ranked.get(0), false).toNanos(), TimeUnit.NANOSECONDS);
+            if (done != null) {
+                return resultOrFailover(done, ranked, prompt);
+            }
+            attempts.add(completion.submit(() -> call(ranked.get(1), true, prompt)));
+            RuntimeException failure = null;
+            for (int pending = 2; pending > 0; pending--) {
+                done = completion.take();
+                try {
+                    ChatResponse response = done.get();
+                    hedgeOutcome(done == attempts.get(1) ? "won" : "lost");
+                    return response;
+                } catch (ExecutionException e) {
+                    RuntimeException error = unwrap(e);
+                    failure = firstFailure(failure, error);
+                    if (!retryable(error)) {
+                        // The other attempt is cancelled on the way out.
+                        throw failure;
+                    }
+                }
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a model response");
+        } finally {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    /**
+     * Returns the primary's result, failing over to the remaining backends if it failed.
+     */
+    private ChatResponse resultOrFailover(Future<ChatResponse> done, List<Backend> ranked, Prompt prompt)
+            throws InterruptedException {
+        try {
+            return done.get();
+        } catch (ExecutionException e) {
+            RuntimeException failure = unwrap(e);
+            if (!failsOver(failure)) {
+                throw failure;
+            }
+            log.warn("Backend {} failed, failing over: {}", ranked.get(0).name(), failure.toString());
+            return callWithFailover(ranked, 1, prompt, failure);
+        }
+    }
+
+    /**
+     * Tells whether a failed blocking call may be retried on another backend: only
+     * transient errors are, and nothing is once the calling thread was interrupted,
+     * e.g. at the request's deadline.
+     */
+    private static boolean failsOver(RuntimeException error) {
+        return !Thread.currentThread().isInterrupted() && retryable(error);
+    }
+
+    /**
+     * Tells whether another backend may succeed where an attempt failed: after a
+     * transient error, or when the attempt was skipped for lack of a bulkhead permit.
+     */
+    private static boolean retryable(Throwable error) {
+        return error instanceof CapacityExceededException || ProviderErrors.isTransient(error);
+    }
+
+    /**
+     * @param alternate whether the backend is a failover or hedge, not admitted by the
+     *                  advisor chain
+     */
+    private ChatResponse call(Backend backend, boolean alternate, Prompt prompt) {
+        Bulkhead bulkhead = alternate ? admitAlternate(backend, prompt) : null;
+        LatencyProfile profile = backend.profile(false);
+        backend.inFlight().incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            ChatResponse response = backend.chatModel().call(forBackend(backend, prompt));
+            profile.success(System.nanoTime() - start);
+            outcome(backend, "success");
+            return response;
+        } catch (RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                outcome(backend, "cancelled");
+            } else {
+                profile.failure();
+                outcome(backend, "error");
+            }
+            throw e;
+        } finally {
+            backend.inFlight().decrementAndGet();
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    private Flux<ChatResponse> streamWithFailover(List<Backend> ranked, int index, Prompt prompt) {
+        if (index + 1 >= ranked.size()) {
+            return stream(ranked.get(index), index > 0, prompt);
+        }
+        AtomicBoolean emitted = new AtomicBoolean();
+        return stream(ranked.get(index), index > 0, prompt)
+                .doOnNext(chunk -> emitted.set(true))
+                .onErrorResume(e -> !emitted.get() && retryable(e), e -> {
+                    log.warn("Backend {} failed, failing over to {}: {}", ranked.get(index).name(),
+                            ranked.get(index + 1).name(), e.toString());
+                    return streamWithFailover(ranked, index + 1, prompt)
+                            .onErrorMap(next -> firstFailure(e, next));
+                });
+    }
+
+    private Flux<ChatResponse> stream(Backend backend, boolean alternate, Prompt prompt) {
+        return Flux.defer(() -> {
+            Bulkhead bulkhead = alternate ? admitAlternate(backend, prompt) : null;
+            LatencyProfile profile = backend.profile(true);
+            long start = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            backend.inFlight().incrementAndGet();
+            return backend.chatModel().stream(forBackend(backend, prompt))
+                    .doOnNext(chunk -> {
+                        if (first.compareAndSet(true, false)) {
+                            profile.success(System.nanoTime() - start);
+                        }
+                    })
+                    .doOnComplete(() -> outcome(backend, "success"))
+                    .doOnError(e -> {
+                        profile.failure();
+                        outcome(backend, "error");
+                    })
+                    .doOnCancel(() -> outcome(backend, "cancelled"))
+                    .doFinally(signal -> {
+                        backend.inFlight().decrementAndGet();
+                        if (bulkhead != null) {
+                            bulkhead.release();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Takes a free permit of the bulkhead of the model an alternate backend serves.
+     *
+     * @throws CapacityExceededException if none is free; alternates do not queue
+     */
+    private Bulkhead admitAlternate(Backend backend, Prompt prompt) {
+        String model = backend.model() != null ? backend.model()
+                : prompt.getOptions() != null ? prompt.getOptions().getModel() : null;
+        Bulkhead bulkhead = bulkheads.tryAcquire(model);
+        if (bulkhead == null) {
+            throw new CapacityExceededException("No free permit to fail over or hedge to backend '"
+                    + backend.name() + "'", "busy", Duration.ZERO);
+        }
+        return bulkhead;
+    }
+
+    private Duration hedgeDelay(Backend primary, boolean streaming) {
+        RoutingProperties.Hedging hedging = properties.getHedging();
+        long quantile = primary.profile(streaming).quantile(hedging.getQuantile());
+        if (quantile < 0) {
+            return hedging.getMaxDelay();
+        }
+        long bounded = Math.max(hedging.getMinDelay().toNanos(), Math.min(hedging.getMaxDelay().toNanos(), quantile));
+        return Duration.ofNanos(bounded);
+    }
+
+    /**
+     * Points the prompt at the backend's model, keeping all other options.
+     *
+     * @param backend the backend the prompt goes to
+     * @param prompt  the prompt
+     * @return the prompt for the backend's model, or the prompt itself if it keeps the requested one
+     */
+    public static Prompt forBackend(Backend backend, Prompt prompt) {
+        ChatOptions options = prompt.getOptions();
+        if (backend.model() == null || (options != null && backend.model().equals(options.getModel()))) {
+            return prompt;
+        }
+        return PromptOptions.withModel(prompt, backend.model());
+    }
+
+    private void outcome(Backend backend, String outcome) {
+        Counter.builder("ai.routing.requests")
+                .tag("backend", backend.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void hedgeOutcome(String outcome) {
+        Counter.builder("ai.routing.hedges")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Keeps the first error of a request, recording a later one as suppressed.
+     */
+    private static <T extends Throwable> T firstFailure(T first, T next) {
+        if (first == null) {
+            return next;
+        }
+        if (next != first) {
+            first.addSuppressed(next);
+        }
+        return first;
+    }
+
+    private static void firstFailure(AtomicReference<Throwable> first, Throwable next) {
+        if (!first.compareAndSet(null, next)) {
+            firstFailure(first.get(), next);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        return e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
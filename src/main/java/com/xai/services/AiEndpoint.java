@@ -0,0 +1,53 @@
+package com.xai.services;
+
+/**
+ * Logical endpoints served by {@link AiService}.
+ *
+ * <p>Each constant maps one {@link AiService} method (and therefore one REST
+ * endpoint) to a stable key. The key is used to attribute model usage, and is
+ * the name under which per-endpoint settings are configured in
+ * {@code application.yaml}. {@link #MEMORY_SUMMARY} tags the summaries the
+ * conversation memory has the model write in the background.</p>
+ */
+public enum AiEndpoint {
+
+    CHAT("chat"),
+    RESPONSE("response"),
+    RESPONSES("responses"),
+    PROMPT_DEFAULTS("prompt-defaults"),
+    PROMPT_TEMPLATE("prompt-template"),
+    PROMPT_TEMPLATE_SYSTEM_USER("prompt-template-system-user"),
+    FLUENT("fluent"),
+    RESPONSE_EXTERNAL("response-external"),
+    BATCH("batch"),
+    MEMORY_SUMMARY("memory-summary");
+
+    private final String key;
+
+    AiEndpoint(String key) {
+        this.key = key;
+    }
+
+    /**
+     * @return the stable, lower-case key of this endpoint
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Resolves an endpoint from its key.
+     *
+     * @param key the endpoint key, e.g. {@code "chat"}
+     * @return the matching endpoint
+     * @throws IllegalArgumentException if no endpoint has the given key
+     */
+    public static AiEndpoint fromKey(String key) {
+        for (AiEndpoint endpoint : values()) {
+            if (endpoint.key.equals(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint: " + key);
+    }
+}
@@ -2,12 +2,16 @@ package com.xai.services;
 
 import com.xai.entities.AiResponse;
 
+import reactor.core.publisher.Flux;
+
 import java.util.List;
 
 public interface AiService {
 
     String chat(String prompt);
 
+    String chat(String prompt, String sessionId);
+
     AiResponse getResponse(String prompt);
 
     List<AiResponse> getResponseList(String prompt);
@@ -21,4 +25,18 @@ public interface AiService {
     String getResponseUsingFluentApi();
 
     String getResponseByFetchingPromptFromExternalFiles();
+
+    Flux<String> streamChat(String prompt);
+
+    Flux<String> streamChat(String prompt, String sessionId);
+
+    Flux<AiResponse> streamResponseList(String prompt);
+
+    Flux<String> streamResponseUsingPromptTemplate();
+
+    Flux<String> streamResponseUsingSystemAndUserPromptTemplate();
+
+    Flux<String> streamResponseUsingFluentApi();
+
+    Flux<String> streamResponseByFetchingPromptFromExternalFiles();
 }
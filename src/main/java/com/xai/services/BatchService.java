@@ -0,0 +1,14 @@
+package com.xai.services;
+
+import com.xai.entities.BatchRequest;
+import com.xai.entities.BatchResult;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+public interface BatchService {
+
+    List<BatchResult> execute(BatchRequest request);
+
+    Flux<BatchResult> stream(BatchRequest request);
+}
@@ -0,0 +1,42 @@
+package com.xai.services;
+
+import com.xai.resilience.CapacityExceededException;
+import com.xai.resilience.DeadlineExceededException;
+
+/**
+ * Turns the failure of a unit of work that is reported in a response body, such as a
+ * batch item or a background job, into a message fit for the client.
+ *
+ * <p>Only errors the client can act on keep their message: an invalid request, shed
+ * load and a missed deadline, the ones the API also reports with their own status
+ * codes. Anything else, e.g. a provider error or a bug, may carry upstream details or
+ * internals and is reported generically; the caller logs the original.</p>
+ */
+public final class ClientErrors {
+
+    /**
+     * Message reported for failures the client cannot act on.
+     */
+    public static final String GENERIC_MESSAGE = "The model call failed";
+
+    private ClientErrors() {
+    }
+
+    /**
+     * @param error the failure
+     * @return the message to show the client
+     */
+    public static String message(Throwable error) {
+        return isExpected(error) ? error.getMessage() : GENERIC_MESSAGE;
+    }
+
+    /**
+     * @param error the failure
+     * @return whether the client can act on it; other failures deserve an error log
+     */
+    public static boolean isExpected(Throwable error) {
+        return error instanceof InvalidRequestException
+                || error instanceof CapacityExceededException
+                || error instanceof DeadlineExceededException;
+    }
+}
@@ -0,0 +1,13 @@
+package com.xai.services;
+
+/**
+ * Thrown when a request is rejected by validation: a malformed parameter, a prompt
+ * over the model's limit, an unsupported job. Mapped to HTTP 400 with the message as
+ * detail, so the message must describe the client's input, not the server's state.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.xai.services;
+
+import com.xai.entities.JobRequest;
+import com.xai.entities.JobStatus;
+
+public interface JobService {
+
+    JobStatus submit(JobRequest request);
+
+    JobStatus get(String id);
+}
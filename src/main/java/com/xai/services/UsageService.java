@@ -0,0 +1,21 @@
+package com.xai.services;
+
+import com.xai.entities.UsageSummary;
+import org.springframework.ai.chat.model.ChatResponse;
+
+import java.util.Map;
+
+/**
+ * Accounts for the model usage of every {@link AiService} call.
+ *
+ * <p>Callers hand over the {@link ChatResponse} they already received, so
+ * recording usage never costs an extra round-trip to the model.</p>
+ */
+public interface UsageService {
+
+    void record(AiEndpoint endpoint, ChatResponse chatResponse);
+
+    UsageSummary getUsage(AiEndpoint endpoint);
+
+    Map<String, UsageSummary> getUsage();
+}
@@ -1,20 +1,30 @@
 package com.xai.services.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xai.advisors.AdvisorContext;
 import com.xai.entities.AiResponse;
+import com.xai.services.AiEndpoint;
 import com.xai.services.AiService;
+import com.xai.services.UsageService;
+import com.xai.structured.StreamingJsonArrayParser;
+import com.xai.structured.StructuredOutput;
+import com.xai.structured.StructuredOutputRegistry;
+import com.xai.templates.CompiledTemplate;
+import com.xai.templates.PromptTemplateRegistry;
+import com.xai.tokens.StreamUsage;
+import com.xai.tokens.TokenEstimator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.Message;
-import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.PromptTemplate;
-import org.springframework.ai.chat.prompt.SystemPromptTemplate;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.Map;
@@ -24,26 +34,63 @@ import java.util.Map;
 @Slf4j
 public class AiServiceImpl implements AiService {
 
+    private static final String SPORT_PLAYER_TEMPLATE = "sport-player";
+
+    private static final String FOOTBALL_EXPERT_TEMPLATE = "football-expert";
+
+    private static final String SYSTEM_MESSAGE_TEMPLATE = "system-message";
+
+    private static final String USER_MESSAGE_TEMPLATE = "user-message";
+
     private final ChatClient chatClient;
 
     /**
-     * Resource representing the system prompt template loaded from the
-     * classpath. This file defines the system-level instructions used by
-     * the AI model.
+     * Shared usage accounting, fed from the same {@link ChatResponse} each call returns.
+     */
+    private final UsageService usageService;
+
+    /**
+     * Time-to-first-token and concurrency metrics of the streaming endpoints.
+     */
+    private final StreamingMetrics streamingMetrics;
+
+    /**
+     * Prompt templates under {@code classpath:/prompts/}, compiled once at startup.
+     * {@code system-message.st} holds the system-level instructions and
+     * {@code user-message.st} the user-level prompt with its parameters.
+     */
+    private final PromptTemplateRegistry promptTemplates;
+
+    /**
+     * Binds the elements of streamed structured responses.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Format instructions and binders of the structured-output entity types, built once.
      */
-    @Value("classpath:/prompts/system-message.st")
-    private Resource systemMessage;
+    private final StructuredOutputRegistry structuredOutputs;
 
     /**
-     * Resource representing the user prompt template loaded from the
-     * classpath. This file contains the user-level prompt with parameters
-     * that can be dynamically injected before sending to the AI model.
+     * Estimates the usage of streams whose provider does not report it.
      */
-    @Value("classpath:/prompts/user-message.st")
-    private Resource userMessage;
+    private final TokenEstimator tokenEstimator;
 
     @Override
     public String chat(String prompt) {
+        return chat(prompt, null);
+    }
+
+    /**
+     * Sends a free-text prompt, optionally as the next message of a conversation.
+     *
+     * @param prompt    the user-provided input text
+     * @param sessionId the conversation session, or {@code null} for a stateless request;
+     *                  the session's earlier messages are added by the memory advisor
+     * @return the text of the reply
+     */
+    @Override
+    public String chat(String prompt, String sessionId) {
 
         /**
          * Sends a prompt to the chat client and retrieves the content response.
@@ -93,23 +140,12 @@ public class AiServiceImpl implements AiService {
                 .content();  // Retrieves the content from the response.
 */
 
-//        Get Metadata of the OpenAI API call
-        ChatResponseMetadata metadata = chatClient
-                .prompt(prompt)
-                .call()
-                .chatResponse()
-                .getMetadata();
-        log.info("metadata: {}", metadata);
-
-//        Another way to get the Response.
-        var response = chatClient.prompt(prompt)
+//        Single round-trip: the text and its metadata come from the same ChatResponse.
+        ChatResponse chatResponse = chatRequest(prompt, sessionId)
                 .call()
-                .chatResponse()
-                .getResult()
-                .getOutput()
-                .getText();
+                .chatResponse();
 
-        return response;
+        return content(AiEndpoint.CHAT, chatResponse);
     }
 
     /**
@@ -127,10 +163,7 @@ public class AiServiceImpl implements AiService {
      */
     @Override
     public AiResponse getResponse(String prompt) {
-        return chatClient
-                .prompt(prompt)
-                .call()
-                .entity(AiResponse.class);
+        return structuredResponse(AiEndpoint.RESPONSE, prompt, structuredOutputs.get(AiResponse.class));
     }
 
     /**
@@ -156,7 +189,10 @@ public class AiServiceImpl implements AiService {
      * <p>Providing a {@code new ParameterizedTypeReference<List<AiResponse>>() {}}}
      * captures the full generic type (including the parameter {@code AiResponse}) and
      * makes it available to the deserializer. This ensures that the framework can
-     * correctly convert a JSON array into a strongly typed {@code List<AiResponse>}.</p>
+     * correctly convert a JSON array into a strongly typed {@code List<AiResponse>}.
+     * The one used here is {@link StructuredOutputRegistry#AI_RESPONSE_LIST}, whose
+     * generic signature the native image keeps through the application's runtime
+     * hints.</p>
      *
      * <p>In summary, {@code ParameterizedTypeReference} is required whenever you need to
      * deserialize parameterized types (e.g., lists, maps, nested generics) so the runtime
@@ -167,10 +203,55 @@ public class AiServiceImpl implements AiService {
      */
     @Override
     public List<AiResponse> getResponseList(String prompt) {
-        return chatClient
-                .prompt(prompt)
+        return structuredResponse(AiEndpoint.RESPONSES, prompt,
+                structuredOutputs.get(StructuredOutputRegistry.AI_RESPONSE_LIST));
+    }
+
+    /**
+     * Sends a prompt with the format instructions of an entity type and binds the reply.
+     *
+     * <p>This is what {@code responseEntity(…)} does, but with the instructions and
+     * binder of the type built once by the {@link StructuredOutputRegistry}. A reply
+     * that is almost valid JSON (fenced, with trailing commas, or an array cut off by
+     * the token limit) is repaired locally instead of failing the request.</p>
+     *
+     * @param endpoint the endpoint the response is generated for
+     * @param prompt   the user-provided input text
+     * @param output   the structured output of the entity type
+     * @return the bound entity
+     * @throws com.xai.structured.MalformedOutputException if the reply cannot be bound
+     */
+    private <T> T structuredResponse(AiEndpoint endpoint, String prompt, StructuredOutput<T> output) {
+        UserMessage userMessage = new UserMessage(prompt + System.lineSeparator() + output.format());
+        ChatResponse chatResponse = chatClient.prompt(new Prompt(userMessage))
+                .advisors(AdvisorContext.endpoint(endpoint))
                 .call()
-                .entity(new ParameterizedTypeReference<List<AiResponse>>() {
+                .chatResponse();
+        return output.convert(content(endpoint, chatResponse));
+    }
+
+    /**
+     * Streaming variant of {@link #getResponseList(String)}.
+     *
+     * <p>The prompt carries the same JSON format instructions the blocking call adds,
+     * but the reply is parsed while it is generated: each {@link AiResponse} is
+     * emitted as soon as its object closes. Elements that cannot be parsed, including
+     * one cut off by the token limit, are logged, counted and skipped.</p>
+     *
+     * @param prompt the text prompt to send to the AI model
+     * @return the responses in the order the model generates them
+     */
+    @Override
+    public Flux<AiResponse> streamResponseList(String prompt) {
+        UserMessage userMessage = new UserMessage(prompt + System.lineSeparator()
+                + structuredOutputs.get(StructuredOutputRegistry.AI_RESPONSE_LIST).format());
+        return new StreamingJsonArrayParser<>(objectMapper, AiResponse.class).parse(
+                stream(AiEndpoint.RESPONSES, chatClient.prompt(new Prompt(userMessage))
+                        .advisors(AdvisorContext.endpoint(AiEndpoint.RESPONSES))),
+                malformed -> {
+                    streamingMetrics.malformedElement(AiEndpoint.RESPONSES);
+                    log.warn("Skipping malformed element {} of streamed response list: {}",
+                            malformed.index(), malformed.error());
                 });
     }
 
@@ -203,7 +284,10 @@ public class AiServiceImpl implements AiService {
                         .build())
                 .content(message)
                 .build();
-        return chatClient.prompt(prompt).call().content();
+        return content(AiEndpoint.PROMPT_DEFAULTS, chatClient.prompt(prompt)
+                .advisors(AdvisorContext.endpoint(AiEndpoint.PROMPT_DEFAULTS))
+                .call()
+                .chatResponse());
     }
 
     /**
@@ -211,7 +295,7 @@ public class AiServiceImpl implements AiService {
      * <p>
      * This method performs the following steps:
      * <ol>
-     *   <li>Creates a prompt template containing placeholders.</li>
+     *   <li>Fetches the precompiled prompt template containing placeholders.</li>
      *   <li>Renders the template by injecting actual values for the placeholders.</li>
      *   <li>Constructs a prompt with the rendered text.</li>
      *   <li>Calls the LLM using the chat client and returns its response.</li>
@@ -221,10 +305,18 @@ public class AiServiceImpl implements AiService {
      */
     @Override
     public String getResponseUsingPromptTemplate() {
-//          Step 1: Create a Prompt Template
-        PromptTemplate promptTemplate = PromptTemplate.builder()
-                .template("Explain briefly about {sport} in 100 words, and also provide a short summary of {playerName}.")
-                .build();
+//        Steps 1-3 build the prompt, step 4: Call the LLM using chatClient
+        return content(AiEndpoint.PROMPT_TEMPLATE, promptTemplateRequest().call().chatResponse());
+    }
+
+    /**
+     * Builds the request sent by the prompt-template endpoints.
+     *
+     * @return the request spec, ready to be called or streamed
+     */
+    private ChatClient.ChatClientRequestSpec promptTemplateRequest() {
+//          Step 1: Fetch the precompiled Prompt Template
+        CompiledTemplate promptTemplate = promptTemplates.get(SPORT_PLAYER_TEMPLATE);
 
 //          Step 2: Render the template with actual values
         String renderedMessage = promptTemplate.render(Map.of(
@@ -234,9 +326,9 @@ public class AiServiceImpl implements AiService {
 
 //         Step 3: Create the final Prompt using the rendered message
         Prompt prompt = new Prompt(renderedMessage);
-
-//        Step 4: Call the LLM using chatClient
-        return chatClient.prompt(prompt).call().content();
+        return chatClient.prompt(prompt)
+                .advisors(AdvisorContext.endpoint(AiEndpoint.PROMPT_TEMPLATE))
+                .advisors(AdvisorContext.template(SPORT_PLAYER_TEMPLATE));
     }
 
     /**
@@ -254,23 +346,27 @@ public class AiServiceImpl implements AiService {
      */
     @Override
     public String getResponseUsingSystemAndUserPromptTemplate() {
-        SystemPromptTemplate systemPromptTemplate = SystemPromptTemplate.builder()
-                .template("You are a world-class football expert who provides clear, accurate, and insightful facts.")
-                .build();
-
-        Message systemMessage = systemPromptTemplate.createMessage();
+        return content(AiEndpoint.PROMPT_TEMPLATE_SYSTEM_USER,
+                systemAndUserPromptTemplateRequest().call().chatResponse());
+    }
 
-        PromptTemplate userPromptTemplate = PromptTemplate.builder()
-                .template("Explain briefly about {sport} in 100 words, and also provide a short summary of {playerName}.")
-                .build();
+    /**
+     * Builds the request sent by the system-and-user prompt-template endpoints.
+     *
+     * @return the request spec, ready to be called or streamed
+     */
+    private ChatClient.ChatClientRequestSpec systemAndUserPromptTemplateRequest() {
+        Message systemMessage = new SystemMessage(promptTemplates.render(FOOTBALL_EXPERT_TEMPLATE, Map.of()));
 
-        Message userMessage = userPromptTemplate.createMessage(Map.of(
+        Message userMessage = new UserMessage(promptTemplates.render(SPORT_PLAYER_TEMPLATE, Map.of(
                 "sport", "football",
                 "playerName", "Wayne Roney"
-        ));
+        )));
 
         Prompt prompt = new Prompt(systemMessage, userMessage);
-        return chatClient.prompt(prompt).call().content();
+        return chatClient.prompt(prompt)
+                .advisors(AdvisorContext.endpoint(AiEndpoint.PROMPT_TEMPLATE_SYSTEM_USER))
+                .advisors(AdvisorContext.template(SPORT_PLAYER_TEMPLATE));
     }
 
     /**
@@ -284,18 +380,24 @@ public class AiServiceImpl implements AiService {
      */
     @Override
     public String getResponseUsingFluentApi() {
+        return content(AiEndpoint.FLUENT, fluentApiRequest().call().chatResponse());
+    }
+
+    /**
+     * Builds the request sent by the fluent-API endpoints.
+     *
+     * @return the request spec, ready to be called or streamed
+     */
+    private ChatClient.ChatClientRequestSpec fluentApiRequest() {
         return chatClient.prompt()
                 .system(promptSystemSpec -> promptSystemSpec.text(
-                        SystemPromptTemplate.builder()
-                                .template("You are a world-class football expert who provides clear, accurate, and insightful facts.")
-                                .build()
-                                .toString()))
+                        promptTemplates.render(FOOTBALL_EXPERT_TEMPLATE, Map.of())))
                 .user(promptUserSpec -> promptUserSpec.text(
-                                "Explain briefly about {sport} in 100 words, and also provide a short summary of {playerName}.")
-                        .param("sport", "Basketball")
-                        .param("playerName", "Michael Jordan"))
-                .call()
-                .content();
+                        promptTemplates.render(SPORT_PLAYER_TEMPLATE, Map.of(
+                                "sport", "Basketball",
+                                "playerName", "Michael Jordan"))))
+                .advisors(AdvisorContext.endpoint(AiEndpoint.FLUENT))
+                .advisors(AdvisorContext.template(SPORT_PLAYER_TEMPLATE));
     }
 
     /**
@@ -310,18 +412,154 @@ public class AiServiceImpl implements AiService {
      * </ul>
      * These parameters can be referenced inside the external prompt templates.
      * </p>
+     * <p>
+     * With {@code response-external} in {@code xai.rag.endpoints}, the retrieval advisor
+     * adds the corpus passages most relevant to the rendered question to the user message.
+     * </p>
      *
      * @return The generated response content from the chat model.
      */
     @Override
     public String getResponseByFetchingPromptFromExternalFiles() {
+        return content(AiEndpoint.RESPONSE_EXTERNAL, externalFilesRequest().call().chatResponse());
+    }
+
+    /**
+     * Builds the request sent by the external-file prompt endpoints.
+     *
+     * @return the request spec, ready to be called or streamed
+     */
+    private ChatClient.ChatClientRequestSpec externalFilesRequest() {
         return chatClient.prompt()
-                .system(system -> system.text(systemMessage))
-                .user(user -> user.text(userMessage)
-                        .param("sportName", "Pickleball")
-                        .param("countryName", "India")
-                        .param("year", "2030"))
-                .call()
-                .content();
+                .system(system -> system.text(promptTemplates.render(SYSTEM_MESSAGE_TEMPLATE, Map.of())))
+                .user(user -> user.text(promptTemplates.render(USER_MESSAGE_TEMPLATE, Map.of(
+                        "sportName", "Pickleball",
+                        "countryName", "India",
+                        "year", "2030"))))
+                .advisors(AdvisorContext.endpoint(AiEndpoint.RESPONSE_EXTERNAL))
+                .advisors(AdvisorContext.template(USER_MESSAGE_TEMPLATE));
+    }
+
+    /**
+     * Streams the response to a free-text prompt token by token.
+     *
+     * @param prompt the user-provided input text
+     * @return a {@link Flux} emitting the generated text fragments as they arrive
+     */
+    @Override
+    public Flux<String> streamChat(String prompt) {
+        return streamChat(prompt, null);
+    }
+
+    /**
+     * Streams the response to a free-text prompt, optionally as the next message of a
+     * conversation. The exchange is added to the session's history once the stream completes.
+     *
+     * @param prompt    the user-provided input text
+     * @param sessionId the conversation session, or {@code null} for a stateless request
+     * @return a {@link Flux} emitting the generated text fragments as they arrive
+     */
+    @Override
+    public Flux<String> streamChat(String prompt, String sessionId) {
+        return stream(AiEndpoint.CHAT, chatRequest(prompt, sessionId));
+    }
+
+    /**
+     * @param prompt    the user-provided input text
+     * @param sessionId the conversation session, or {@code null}
+     * @return the request spec of the chat endpoint, ready to be called or streamed
+     */
+    private ChatClient.ChatClientRequestSpec chatRequest(String prompt, String sessionId) {
+        ChatClient.ChatClientRequestSpec request = chatClient.prompt(prompt)
+                .advisors(AdvisorContext.endpoint(AiEndpoint.CHAT));
+        if (sessionId != null) {
+            request.advisors(AdvisorContext.session(sessionId));
+        }
+        return request;
+    }
+
+    /**
+     * Streaming variant of {@link #getResponseUsingPromptTemplate()}.
+     *
+     * @return a {@link Flux} emitting the generated text fragments as they arrive
+     */
+    @Override
+    public Flux<String> streamResponseUsingPromptTemplate() {
+        return stream(AiEndpoint.PROMPT_TEMPLATE, promptTemplateRequest());
+    }
+
+    /**
+     * Streaming variant of {@link #getResponseUsingSystemAndUserPromptTemplate()}.
+     *
+     * @return a {@link Flux} emitting the generated text fragments as they arrive
+     */
+    @Override
+    public Flux<String> streamResponseUsingSystemAndUserPromptTemplate() {
+        return stream(AiEndpoint.PROMPT_TEMPLATE_SYSTEM_USER, systemAndUserPromptTemplateRequest());
+    }
+
+    /**
+     * Streaming variant of {@link #getResponseUsingFluentApi()}.
+     *
+     * @return a {@link Flux} emitting the generated text fragments as they arrive
+     */
+    @Override
+    public Flux<String> streamResponseUsingFluentApi() {
+        return stream(AiEndpoint.FLUENT, fluentApiRequest());
+    }
+
+    /**
+     * Streaming variant of {@link #getResponseByFetchingPromptFromExternalFiles()}.
+     *
+     * @return a {@link Flux} emitting the generated text fragments as they arrive
+     */
+    @Override
+    public Flux<String> streamResponseByFetchingPromptFromExternalFiles() {
+        return stream(AiEndpoint.RESPONSE_EXTERNAL, externalFilesRequest());
+    }
+
+    /**
+     * Streams a request through {@link ChatClient#prompt()}'s {@code stream()} path.
+     * <p>
+     * The returned {@link Flux} is cold: the upstream call only starts once the web
+     * layer subscribes, and cancelling the subscription (e.g. when the HTTP client
+     * disconnects) cancels the upstream model stream as well. Usage is recorded from
+     * the last chunk, which is where the provider reports token counts, and estimated
+     * by {@link StreamUsage} if it reports none. It is recorded however the stream
+     * ends, since a failed or cancelled stream was still billed for what it generated.
+     * </p>
+     *
+     * @param endpoint the endpoint the stream is served for
+     * @param request  the request to stream
+     * @return the text fragments of the response
+     */
+    private Flux<String> stream(AiEndpoint endpoint, ChatClient.ChatClientRequestSpec request) {
+        return streamingMetrics.instrument(endpoint, Flux.defer(() -> {
+            StreamUsage usage = new StreamUsage(tokenEstimator);
+            return request.stream()
+                    .chatClientResponse()
+                    .doOnNext(response -> usage.add(response.chatResponse(), AdvisorContext.promptTokens(response)))
+                    .doFinally(signal -> usageService.record(endpoint, usage.response()))
+                    .mapNotNull(response -> text(response.chatResponse()));
+        }));
+    }
+
+    private static String text(ChatResponse chunk) {
+        return chunk == null || chunk.getResult() == null ? null : chunk.getResult().getOutput().getText();
+    }
+
+    /**
+     * Records the usage of a response and extracts its text.
+     *
+     * @param endpoint     the endpoint the response was generated for
+     * @param chatResponse the response returned by the chat client
+     * @return the text of the first generation, or {@code null} if the model returned none
+     */
+    private String content(AiEndpoint endpoint, ChatResponse chatResponse) {
+        usageService.record(endpoint, chatResponse);
+        if (chatResponse == null || chatResponse.getResult() == null) {
+            return null;
+        }
+        return chatResponse.getResult().getOutput().getText();
     }
 }
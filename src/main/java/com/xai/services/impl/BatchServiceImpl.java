@@ -0,0 +1,150 @@
+package com.xai.services.impl;
+
+import com.xai.advisors.AdvisorContext;
+import com.xai.appconfig.BatchProperties;
+import com.xai.entities.BatchItem;
+import com.xai.entities.BatchRequest;
+import com.xai.entities.BatchResult;
+import com.xai.resilience.Deadline;
+import com.xai.services.AiEndpoint;
+import com.xai.services.BatchService;
+import com.xai.services.ClientErrors;
+import com.xai.services.InvalidRequestException;
+import com.xai.services.UsageService;
+import com.xai.templates.PromptTemplateRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Executes batches of prompts with bounded parallel fan-out to the {@link ChatClient}.
+ *
+ * <p>Each item runs its blocking model call on its own virtual thread; at most
+ * {@code parallelism} items of a batch are in flight at once. A failing item yields
+ * a {@link BatchResult} carrying the error and does not affect the others; the error
+ * is described as {@link ClientErrors} allows, so provider details stay in the log.</p>
+ *
+ * <p>The {@link Deadline} of the HTTP request, if the client sent one, applies to every
+ * item; it is handed over explicitly because items run on other threads.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchServiceImpl implements BatchService {
+
+    private final ChatClient chatClient;
+
+    private final PromptTemplateRegistry promptTemplates;
+
+    private final UsageService usageService;
+
+    private final BatchProperties properties;
+
+    private final Scheduler scheduler = Schedulers.fromExecutorService(
+            Executors.newVirtualThreadPerTaskExecutor(), "batch");
+
+    /**
+     * Executes a batch and returns the results in request order.
+     *
+     * @param request the batch
+     * @return one result per item, in the order of the items
+     */
+    @Override
+    public List<BatchResult> execute(BatchRequest request) {
+        List<BatchItem> items = validate(request);
+        Deadline deadline = Deadline.current();
+        return Flux.range(0, items.size())
+                .flatMapSequential(index -> execute(index, items.get(index), deadline), parallelism(request))
+                .collectList()
+                .block();
+    }
+
+    /**
+     * Executes a batch and emits each result as soon as its item finishes,
+     * so one slow item does not hold back the others.
+     *
+     * @param request the batch
+     * @return the results in completion order; {@link BatchResult#getIndex()} identifies the item
+     */
+    @Override
+    public Flux<BatchResult> stream(BatchRequest request) {
+        List<BatchItem> items = validate(request);
+        Deadline deadline = Deadline.current();
+        return Flux.range(0, items.size())
+                .flatMap(index -> execute(index, items.get(index), deadline), parallelism(request));
+    }
+
+    private Mono<BatchResult> execute(int index, BatchItem item, Deadline deadline) {
+        return Mono.fromCallable(() -> new BatchResult(index, call(item, deadline), null))
+                .subscribeOn(scheduler)
+                .onErrorResume(e -> {
+                    if (ClientErrors.isExpected(e)) {
+                        log.debug("Batch item {} failed", index, e);
+                    } else {
+                        log.warn("Batch item {} failed", index, e);
+                    }
+                    return Mono.just(new BatchResult(index, null, ClientErrors.message(e)));
+                });
+    }
+
+    private String call(BatchItem item, Deadline deadline) {
+        String prompt;
+        try {
+            prompt = item.getTemplate() != null
+                    ? promptTemplates.render(item.getTemplate(), item.getParams() == null ? Map.of() : item.getParams())
+                    : item.getPrompt();
+        } catch (IllegalArgumentException e) {
+            // An unknown template or a missing parameter is the client's to fix.
+            throw new InvalidRequestException(e.getMessage());
+        }
+        if (prompt == null || prompt.isBlank()) {
+            throw new InvalidRequestException("Item has neither a prompt nor a template");
+        }
+        ChatClient.ChatClientRequestSpec request = chatClient.prompt()
+                .user(prompt)
+                .advisors(AdvisorContext.endpoint(AiEndpoint.BATCH));
+        if (item.getTemplate() != null) {
+            request.advisors(AdvisorContext.template(item.getTemplate()));
+        }
+        if (deadline != null) {
+            request.advisors(AdvisorContext.deadline(deadline));
+        }
+        ChatResponse chatResponse = request.call().chatResponse();
+        usageService.record(AiEndpoint.BATCH, chatResponse);
+        return chatResponse == null || chatResponse.getResult() == null
+                ? null
+                : chatResponse.getResult().getOutput().getText();
+    }
+
+    private List<BatchItem> validate(BatchRequest request) {
+        List<BatchItem> items = request.getItems();
+        if (items == null || items.isEmpty()) {
+            throw new InvalidRequestException("A batch needs at least one item");
+        }
+        if (items.size() > properties.getMaxItems()) {
+            throw new InvalidRequestException("A batch may contain at most " + properties.getMaxItems() + " items");
+        }
+        return items;
+    }
+
+    private int parallelism(BatchRequest request) {
+        int requested = request.getParallelism() == null ? properties.getDefaultParallelism() : request.getParallelism();
+        return Math.max(1, Math.min(requested, properties.getMaxParallelism()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.dispose();
+    }
+}
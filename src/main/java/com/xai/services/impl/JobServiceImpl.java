@@ -0,0 +1,401 @@
+package com.xai.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xai.appconfig.JobProperties;
+import com.xai.entities.JobRequest;
+import com.xai.entities.JobStatus;
+import com.xai.jobs.CallbackPolicy;
+import com.xai.jobs.Job;
+import com.xai.jobs.JobStore;
+import com.xai.resilience.CapacityExceededException;
+import com.xai.resilience.Deadline;
+import com.xai.resilience.RequestPriority;
+import com.xai.services.AiEndpoint;
+import com.xai.services.AiService;
+import com.xai.services.ClientErrors;
+import com.xai.services.InvalidRequestException;
+import com.xai.services.JobService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs {@link AiService} calls as asynchronous jobs, for generations that take longer
+ * than clients or gateways are willing to wait on one HTTP request.
+ *
+ * <p>A submitted job is appended to the {@link JobStore} before it is acknowledged,
+ * then queued for one of {@code xai.jobs.workers} worker threads. Each state change is
+ * appended to the store as well, so on startup jobs that were queued or running are
+ * queued again; a job interrupted by {@code max-attempts} restarts is failed instead.
+ * A job's model call gets {@code xai.jobs.timeout} as its deadline and
+ * {@link RequestPriority#BATCH batch} priority, so it yields to interactive traffic at
+ * the rate limiter. A failed job reports its error as {@link ClientErrors} allows.
+ * Finished jobs are
+ * retrievable for {@code xai.jobs.retention} and, if the submission named a callback
+ * URL, posted there as a {@link JobStatus} with retries. Callback URLs are checked by
+ * the {@link CallbackPolicy}: only hosts in {@code xai.jobs.callback-hosts} that resolve
+ * to public addresses are accepted, at submission and again before each delivery.</p>
+ *
+ * <p>Meters: {@code ai.jobs.submitted} and {@code ai.jobs.completed} (by
+ * {@code endpoint}, and {@code state}) for throughput; {@code ai.jobs.queue.lag}
+ * (time from submission to start), {@code ai.jobs.duration} by {@code endpoint},
+ * {@code ai.jobs.queued}, {@code ai.jobs.running}, {@code ai.jobs.oldest.age} (age of
+ * the oldest queued job) and {@code ai.jobs.callbacks} by {@code outcome}.</p>
+ */
+@Service
+@ConditionalOnProperty(prefix = "xai.jobs", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class JobServiceImpl implements JobService {
+
+    /**
+     * Endpoints whose call takes a prompt and can therefore run as a job.
+     */
+    private static final Set<AiEndpoint> SUPPORTED =
+            EnumSet.of(AiEndpoint.CHAT, AiEndpoint.RESPONSE, AiEndpoint.RESPONSES, AiEndpoint.PROMPT_DEFAULTS);
+
+    private final AiService aiService;
+
+    private final ObjectMapper objectMapper;
+
+    private final JobProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final JobStore store;
+
+    /**
+     * Bounded by {@code max-queued}, or by the jobs recovered on startup if more.
+     */
+    private final BlockingQueue<Queued> queue;
+
+    /**
+     * Makes queueing and storing a submitted job one step for the workers, which must
+     * not take a job from the queue before it is in the store.
+     */
+    private final Lock submission = new ReentrantLock();
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final ExecutorService callbacks = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final RestClient callbackClient;
+
+    private final CallbackPolicy callbackPolicy;
+
+    private final Timer queueLag;
+
+    public JobServiceImpl(AiService aiService, ObjectMapper objectMapper, JobProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.aiService = aiService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.store = new JobStore(properties.getPath(), properties.getCompactBytes(),
+                properties.getRetention().toMillis(), properties.isFsync(), objectMapper);
+        List<Job> unfinished = store.unfinished();
+        this.queue = new LinkedBlockingQueue<>(Math.max(properties.getMaxQueued(), unfinished.size()));
+        // A client of its own: callbacks must not use the pooled OpenAI connections.
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                .connectTimeout(properties.getCallbackTimeout())
+                .build());
+        requestFactory.setReadTimeout(properties.getCallbackTimeout());
+        this.callbackClient = RestClient.builder().requestFactory(requestFactory).build();
+        this.callbackPolicy = new CallbackPolicy(properties.getCallbackHosts());
+        this.queueLag = Timer.builder("ai.jobs.queue.lag").register(meterRegistry);
+        Gauge.builder("ai.jobs.queued", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("ai.jobs.running", running, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("ai.jobs.oldest.age", queue, JobServiceImpl::oldestAge)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        recover(unfinished);
+    }
+
+    /**
+     * Accepts a job and queues it.
+     *
+     * @param request the submission
+     * @return the queued job
+     * @throws InvalidRequestException   if the endpoint, prompt or callback URL is invalid
+     * @throws CapacityExceededException if the queue is full
+     */
+    @Override
+    public JobStatus submit(JobRequest request) {
+        AiEndpoint endpoint;
+        try {
+            endpoint = AiEndpoint.fromKey(request.getEndpoint());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown endpoint: " + request.getEndpoint());
+        }
+        if (!SUPPORTED.contains(endpoint)) {
+            throw new InvalidRequestException("Endpoint " + endpoint.key() + " cannot run as a job");
+        }
+        if (request.getPrompt() == null || request.getPrompt().isBlank()) {
+            throw new InvalidRequestException("A job needs a prompt");
+        }
+        if (request.getCallbackUrl() != null) {
+            callbackPolicy.check(request.getCallbackUrl());
+        }
+        Job job = Job.queued(UUID.randomUUID().toString(), endpoint, request.getPrompt(), request.getCallbackUrl(),
+                System.currentTimeMillis());
+        Queued queued = new Queued(job.id(), job.submittedAt());
+        submission.lock();
+        try {
+            // The slot is taken first, so a rejected job is never stored.
+            if (!queue.offer(queued)) {
+                throw new CapacityExceededException("The job queue is full", "job_queue_full", Duration.ofSeconds(30));
+            }
+            try {
+                store.put(job);
+            } catch (RuntimeException e) {
+                queue.remove(queued);
+                throw e;
+            }
+        } finally {
+            submission.unlock();
+        }
+        Counter.builder("ai.jobs.submitted")
+                .tag("endpoint", endpoint.key())
+                .register(meterRegistry)
+                .increment();
+        return status(job);
+    }
+
+    /**
+     * @param id the job id
+     * @return the job, or {@code null} if it is unknown or past its retention
+     */
+    @Override
+    public JobStatus get(String id) {
+        Job job = store.get(id);
+        return job == null ? null : status(job);
+    }
+
+    /**
+     * Starts the workers once the application is ready to serve model calls.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void startWorkers() {
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            workers.add(Thread.ofVirtual().name("job-worker-" + i).start(this::work));
+        }
+        log.info("Started {} job workers, {} jobs queued", properties.getWorkers(), queue.size());
+    }
+
+    private void recover(List<Job> unfinished) {
+        long now = System.currentTimeMillis();
+        for (Job job : unfinished) {
+            if (job.state() == Job.State.RUNNING && job.attempts() >= properties.getMaxAttempts()) {
+                finish(job.failed("Interrupted by " + job.attempts() + " restarts", now), 0);
+                continue;
+            }
+            if (job.state() == Job.State.RUNNING) {
+                job = job.requeued();
+                store.put(job);
+            }
+            queue.add(new Queued(job.id(), job.submittedAt()));
+        }
+        if (!queue.isEmpty()) {
+            log.info("Recovered {} unfinished jobs from {}", queue.size(), properties.getPath());
+        }
+    }
+
+    private void work() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Queued queued = queue.take();
+                // Waits for the submission of the job to be stored.
+                submission.lock();
+                submission.unlock();
+                try {
+                    run(queued);
+                } catch (RuntimeException e) {
+                    log.error("Job {} could not be processed", queued.id(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Shutting down; running jobs are queued again on the next start.
+        }
+    }
+
+    private void run(Queued queued) {
+        Job job = store.get(queued.id());
+        if (job == null || job.state() != Job.State.QUEUED) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        queueLag.record(now - job.submittedAt(), TimeUnit.MILLISECONDS);
+        job = job.started(now);
+        store.put(job);
+        running.incrementAndGet();
+        long start = System.nanoTime();
+        Deadline.setCurrent(Deadline.after(properties.getTimeout()));
+        RequestPriority.setCurrent(RequestPriority.BATCH);
+        Job finished;
+        try {
+            finished = job.succeeded(objectMapper.writeValueAsString(execute(job)), System.currentTimeMillis());
+        } catch (JsonProcessingException | RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Shutting down: leave the job running, so it is queued again on restart.
+                return;
+            }
+            if (ClientErrors.isExpected(e)) {
+                log.debug("Job {} failed", job.id(), e);
+            } else {
+                log.warn("Job {} failed", job.id(), e);
+            }
+            finished = job.failed(ClientErrors.message(e), System.currentTimeMillis());
+        } finally {
+            Deadline.setCurrent(null);
+            RequestPriority.setCurrent(null);
+            running.decrementAndGet();
+        }
+        finish(finished, System.nanoTime() - start);
+    }
+
+    private Object execute(Job job) {
+        return switch (job.endpoint()) {
+            case CHAT -> aiService.chat(job.prompt());
+            case RESPONSE -> aiService.getResponse(job.prompt());
+            case RESPONSES -> aiService.getResponseList(job.prompt());
+            case PROMPT_DEFAULTS -> aiService.getResponseUsingPromptDefaults(job.prompt());
+            default -> throw new IllegalArgumentException("Endpoint " + job.endpoint().key() + " cannot run as a job");
+        };
+    }
+
+    private void finish(Job job, long durationNanos) {
+        store.put(job);
+        Counter.builder("ai.jobs.completed")
+                .tag("endpoint", job.endpoint().key())
+                .tag("state", job.state().name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+        if (durationNanos > 0) {
+            Timer.builder("ai.jobs.duration")
+                    .tag("endpoint", job.endpoint().key())
+                    .register(meterRegistry)
+                    .record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+        if (job.callbackUrl() != null) {
+            callbacks.execute(() -> deliver(job));
+        }
+    }
+
+    private void deliver(Job job) {
+        try {
+            callbackPolicy.check(job.callbackUrl());
+        } catch (InvalidRequestException e) {
+            callback("rejected");
+            log.warn("Not delivering job {}: {}", job.id(), e.getMessage());
+            return;
+        }
+        JobStatus status = status(job);
+        for (int attempt = 1; attempt <= properties.getCallbackAttempts(); attempt++) {
+            try {
+                callbackClient.post()
+                        .uri(job.callbackUrl())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(status)
+                        .retrieve()
+                        .toBodilessEntity();
+                callback("delivered");
+                return;
+            } catch (RestClientException e) {
+                log.debug("Callback of job {} failed (attempt {}): {}", job.id(), attempt, e.toString());
+                if (attempt < properties.getCallbackAttempts()) {
+                    try {
+                        Thread.sleep(Duration.ofSeconds(1L << (attempt - 1)));
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+        }
+        callback("failed");
+        log.warn("Cannot deliver job {} to {}", job.id(), job.callbackUrl());
+    }
+
+    private void callback(String outcome) {
+        Counter.builder("ai.jobs.callbacks")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private JobStatus status(Job job) {
+        JobStatus status = new JobStatus();
+        status.setId(job.id());
+        status.setEndpoint(job.endpoint().key());
+        status.setState(job.state().name());
+        status.setSubmittedAt(instant(job.submittedAt()));
+        status.setStartedAt(instant(job.startedAt()));
+        status.setFinishedAt(instant(job.finishedAt()));
+        status.setAttempts(job.attempts());
+        status.setError(job.error());
+        if (job.result() != null) {
+            try {
+                status.setResult(objectMapper.readTree(job.result()));
+            } catch (IOException e) {
+                throw new IllegalStateException("Stored result of job " + job.id() + " is not JSON", e);
+            }
+        }
+        return status;
+    }
+
+    private static Instant instant(long epochMillis) {
+        return epochMillis == 0 ? null : Instant.ofEpochMilli(epochMillis);
+    }
+
+    private static double oldestAge(BlockingQueue<Queued> queue) {
+        Queued oldest = queue.peek();
+        return oldest == null ? 0 : (System.currentTimeMillis() - oldest.submittedAt()) / 1000.0;
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException, InterruptedException {
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            worker.join(Duration.ofSeconds(5));
+        }
+        callbacks.shutdownNow();
+        store.close();
+    }
+
+    /**
+     * A queued job; the submission time is kept for the queue age gauge.
+     */
+    private record Queued(String id, long submittedAt) {
+    }
+}
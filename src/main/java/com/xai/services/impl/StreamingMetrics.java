@@ -0,0 +1,101 @@
+package com.xai.services.impl;
+
+import com.xai.services.AiEndpoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micrometer instrumentation for streamed model responses.
+ *
+ * <p>Publishes the following meters:</p>
+ * <ul>
+ *     <li>{@code ai.stream.active} – gauge of streams currently open on this instance,
+ *     i.e. the number of concurrently served streaming users.</li>
+ *     <li>{@code ai.stream.ttft} – time from subscription to the first token, per endpoint.</li>
+ *     <li>{@code ai.stream.duration} – total stream duration, per endpoint.</li>
+ *     <li>{@code ai.stream.completed} – streams by endpoint and outcome
+ *     ({@code complete}, {@code error} or {@code cancel}); {@code cancel} counts
+ *     clients that disconnected before the reply was finished.</li>
+ *     <li>{@code ai.stream.malformed} – elements of a streamed structured response that
+ *     were skipped because they could not be parsed, per endpoint.</li>
+ * </ul>
+ */
+@Component
+public class StreamingMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger activeStreams = new AtomicInteger();
+
+    public StreamingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("ai.stream.active", activeStreams);
+    }
+
+    /**
+     * Wraps a stream so that each subscription is measured.
+     *
+     * @param endpoint the endpoint the stream is served for
+     * @param stream   the stream to instrument
+     * @param <T>      the element type
+     * @return the instrumented stream
+     */
+    public <T> Flux<T> instrument(AiEndpoint endpoint, Flux<T> stream) {
+        Timer ttft = Timer.builder("ai.stream.ttft")
+                .tag("endpoint", endpoint.key())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Timer duration = Timer.builder("ai.stream.duration")
+                .tag("endpoint", endpoint.key())
+                .register(meterRegistry);
+
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean firstToken = new AtomicBoolean(true);
+            return stream
+                    .doOnSubscribe(subscription -> activeStreams.incrementAndGet())
+                    .doOnNext(element -> {
+                        if (firstToken.compareAndSet(true, false)) {
+                            ttft.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doFinally(signal -> {
+                        activeStreams.decrementAndGet();
+                        duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        Counter.builder("ai.stream.completed")
+                                .tag("endpoint", endpoint.key())
+                                .tag("outcome", outcome(signal))
+                                .register(meterRegistry)
+                                .increment();
+                    });
+        });
+    }
+
+    /**
+     * Counts an element of a streamed structured response that was skipped.
+     *
+     * @param endpoint the endpoint the stream is served for
+     */
+    public void malformedElement(AiEndpoint endpoint) {
+        Counter.builder("ai.stream.malformed")
+                .tag("endpoint", endpoint.key())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String outcome(SignalType signal) {
+        return switch (signal) {
+            case ON_COMPLETE -> "complete";
+            case ON_ERROR -> "error";
+            default -> "cancel";
+        };
+    }
+}
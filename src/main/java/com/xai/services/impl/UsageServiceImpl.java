@@ -0,0 +1,141 @@
+package com.xai.services.impl;
+
+import com.xai.advisors.RequestCoalescingAdvisor;
+import com.xai.cache.CachedResponse;
+import com.xai.entities.UsageSummary;
+import com.xai.services.AiEndpoint;
+import com.xai.services.UsageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.RateLimit;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory {@link UsageService} keeping one set of counters per {@link AiEndpoint}.
+ *
+ * <p>Counters are {@link LongAdder}s so that concurrent requests on the same
+ * endpoint do not contend on a single memory location.</p>
+ *
+ * <p>Responses served from a response cache or shared by a coalesced request made no
+ * model call of their own: they are only counted as reused, so calls, tokens and
+ * finish reasons reflect what was asked of the provider.</p>
+ */
+@Service
+@Slf4j
+public class UsageServiceImpl implements UsageService {
+
+    private final Map<AiEndpoint, EndpointUsage> usage = new EnumMap<>(AiEndpoint.class);
+
+    public UsageServiceImpl() {
+        for (AiEndpoint endpoint : AiEndpoint.values()) {
+            usage.put(endpoint, new EndpointUsage());
+        }
+    }
+
+    /**
+     * Records the metadata of a response that has already been received.
+     *
+     * @param endpoint     the endpoint the call was made for
+     * @param chatResponse the response returned by the model; ignored if {@code null}
+     */
+    @Override
+    public void record(AiEndpoint endpoint, ChatResponse chatResponse) {
+        if (chatResponse == null) {
+            return;
+        }
+        EndpointUsage endpointUsage = usage.get(endpoint);
+        ChatResponseMetadata metadata = chatResponse.getMetadata();
+        log.debug("endpoint: {}, metadata: {}", endpoint.key(), metadata);
+        if (reused(metadata)) {
+            endpointUsage.reused.increment();
+            return;
+        }
+        endpointUsage.calls.increment();
+
+        Usage tokens = metadata.getUsage();
+        if (tokens != null) {
+            endpointUsage.promptTokens.add(valueOf(tokens.getPromptTokens()));
+            endpointUsage.completionTokens.add(valueOf(tokens.getCompletionTokens()));
+            endpointUsage.totalTokens.add(valueOf(tokens.getTotalTokens()));
+        }
+        if (metadata.getModel() != null && !metadata.getModel().isEmpty()) {
+            endpointUsage.lastModel = metadata.getModel();
+        }
+        // Providers that report no limits leave an empty one, which must not hide the last real one.
+        RateLimit rateLimit = metadata.getRateLimit();
+        if (rateLimit != null && rateLimit.getRequestsLimit() != null && rateLimit.getRequestsLimit() > 0) {
+            endpointUsage.lastRateLimit = rateLimit;
+        }
+
+        Generation generation = chatResponse.getResult();
+        if (generation != null && generation.getMetadata() != null) {
+            String finishReason = generation.getMetadata().getFinishReason();
+            endpointUsage.finishReasons
+                    .computeIfAbsent(finishReason == null ? "UNKNOWN" : finishReason, reason -> new LongAdder())
+                    .increment();
+        }
+    }
+
+    @Override
+    public UsageSummary getUsage(AiEndpoint endpoint) {
+        return usage.get(endpoint).toSummary(endpoint);
+    }
+
+    @Override
+    public Map<String, UsageSummary> getUsage() {
+        Map<String, UsageSummary> summaries = new LinkedHashMap<>();
+        usage.forEach((endpoint, endpointUsage) -> summaries.put(endpoint.key(), endpointUsage.toSummary(endpoint)));
+        return summaries;
+    }
+
+    private static boolean reused(ChatResponseMetadata metadata) {
+        return Boolean.TRUE.equals(metadata.get(CachedResponse.CACHE_HIT))
+                || Boolean.TRUE.equals(metadata.get(RequestCoalescingAdvisor.COALESCED));
+    }
+
+    private static long valueOf(Integer tokens) {
+        return tokens == null ? 0L : tokens;
+    }
+
+    /**
+     * Mutable, thread-safe counters of a single endpoint.
+     */
+    private static final class EndpointUsage {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder reused = new LongAdder();
+        private final LongAdder promptTokens = new LongAdder();
+        private final LongAdder completionTokens = new LongAdder();
+        private final LongAdder totalTokens = new LongAdder();
+        private final Map<String, LongAdder> finishReasons = new ConcurrentHashMap<>();
+        private volatile String lastModel;
+        private volatile RateLimit lastRateLimit;
+
+        private UsageSummary toSummary(AiEndpoint endpoint) {
+            Map<String, Long> reasons = new LinkedHashMap<>();
+            finishReasons.forEach((reason, count) -> reasons.put(reason, count.sum()));
+            RateLimit rateLimit = lastRateLimit;
+            return new UsageSummary(
+                    endpoint.key(),
+                    calls.sum(),
+                    reused.sum(),
+                    promptTokens.sum(),
+                    completionTokens.sum(),
+                    totalTokens.sum(),
+                    lastModel,
+                    reasons,
+                    rateLimit == null ? null : rateLimit.getRequestsLimit(),
+                    rateLimit == null ? null : rateLimit.getRequestsRemaining(),
+                    rateLimit == null ? null : rateLimit.getTokensLimit(),
+                    rateLimit == null ? null : rateLimit.getTokensRemaining());
+        }
+    }
+}
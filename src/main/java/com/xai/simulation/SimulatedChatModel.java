@@ -0,0 +1,169 @@
+package com.xai.simulation;
+
+import com.xai.appconfig.SimulationProperties;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link ChatModel} simulating an LLM provider locally, for load tests and for running
+ * the application without an OpenAI key.
+ *
+ * <p>Replies take {@code timeToFirstToken} plus one token every
+ * {@code 1 / tokensPerSecond}, with random jitter; streamed replies emit their tokens
+ * at that pace. Text replies are {@code completionTokens} words long and cut at the
+ * request's {@code maxTokens} with finish reason {@code LENGTH}, as the real API does.
+ * Requests carrying structured-output instructions get the canned {@code AiResponse}
+ * JSON instead.</p>
+ *
+ * <p>A configurable share of calls fails with a server error or is throttled with
+ * {@code 429}; the exceptions have the same types and messages as Spring AI's for
+ * real HTTP errors, so retry, rate-limit and error metrics react as in production.</p>
+ */
+public class SimulatedChatModel implements ChatModel {
+
+    private static final String[] WORDS = ("Football is a team sport played between two teams of eleven players "
+            + "who try to score by moving the ball into the opposing goal without using their hands or arms ")
+            .split(" ");
+
+    private static final String DEFAULT_MODEL = "simulated";
+
+    private final SimulationProperties properties;
+
+    public SimulatedChatModel(SimulationProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        Reply reply = reply(prompt);
+        injectFault();
+        sleep(jittered(properties.getTimeToFirstToken()).plus(jittered(perToken().multipliedBy(reply.tokens().size()))));
+        return response(prompt, String.join("", reply.tokens()), reply, true);
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> {
+            Reply reply = reply(prompt);
+            injectFault();
+            List<ChatResponse> chunks = new ArrayList<>(reply.tokens().size());
+            for (int i = 0; i < reply.tokens().size(); i++) {
+                chunks.add(response(prompt, reply.tokens().get(i), reply, i == reply.tokens().size() - 1));
+            }
+            return Mono.delay(jittered(properties.getTimeToFirstToken()))
+                    .thenMany(Flux.fromIterable(chunks)
+                            .delayUntil(chunk -> Mono.delay(jittered(perToken()))));
+        });
+    }
+
+    private Reply reply(Prompt prompt) {
+        int promptTokens = 0;
+        for (Message message : prompt.getInstructions()) {
+            promptTokens += message.getText() == null ? 0 : message.getText().length() / 4;
+        }
+        UserMessage userMessage = prompt.getUserMessage();
+        String userText = userMessage == null || userMessage.getText() == null ? "" : userMessage.getText();
+        if (userText.contains("$schema")) {
+            String json = userText.contains("\"type\" : \"array\"") ? properties.getArrayJson() : properties.getObjectJson();
+            return new Reply(split(json), promptTokens, "STOP");
+        }
+        ChatOptions options = prompt.getOptions();
+        Integer maxTokens = options == null ? null : options.getMaxTokens();
+        int length = properties.getCompletionTokens();
+        boolean truncated = maxTokens != null && maxTokens < length;
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < (truncated ? maxTokens : length); i++) {
+            tokens.add(WORDS[i % WORDS.length] + " ");
+        }
+        return new Reply(tokens, promptTokens, truncated ? "LENGTH" : "STOP");
+    }
+
+    /**
+     * Splits JSON into token-sized pieces of four characters.
+     */
+    private static List<String> split(String json) {
+        List<String> tokens = new ArrayList<>(json.length() / 4 + 1);
+        for (int i = 0; i < json.length(); i += 4) {
+            tokens.add(json.substring(i, Math.min(json.length(), i + 4)));
+        }
+        return tokens;
+    }
+
+    /**
+     * @param last whether this is the whole reply or its final chunk, which carries
+     *             the finish reason and usage
+     */
+    private static ChatResponse response(Prompt prompt, String text, Reply reply, boolean last) {
+        if (!last) {
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+        }
+        String model = prompt.getOptions() == null || prompt.getOptions().getModel() == null
+                ? DEFAULT_MODEL
+                : prompt.getOptions().getModel();
+        return new ChatResponse(
+                List.of(new Generation(new AssistantMessage(text),
+                        ChatGenerationMetadata.builder().finishReason(reply.finishReason()).build())),
+                ChatResponseMetadata.builder()
+                        .model(model)
+                        .usage(new DefaultUsage(reply.promptTokens(), reply.tokens().size()))
+                        .build());
+    }
+
+    private void injectFault() {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < properties.getThrottleRate()) {
+            throw new NonTransientAiException("429 - Simulated rate limit exceeded");
+        }
+        if (roll < properties.getThrottleRate() + properties.getErrorRate()) {
+            throw new TransientAiException("500 - Simulated upstream error");
+        }
+    }
+
+    private Duration perToken() {
+        return Duration.ofNanos((long) (1_000_000_000L / properties.getTokensPerSecond()));
+    }
+
+    private Duration jittered(Duration duration) {
+        double jitter = properties.getJitter();
+        if (jitter <= 0) {
+            return duration;
+        }
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        return Duration.ofNanos((long) (duration.toNanos() * factor));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransientAiException("Simulated call interrupted");
+        }
+    }
+
+    /**
+     * @param tokens       the reply, one element per token
+     * @param promptTokens the estimated size of the prompt
+     * @param finishReason why generation stopped
+     */
+    private record Reply(List<String> tokens, int promptTokens, String finishReason) {
+    }
+}
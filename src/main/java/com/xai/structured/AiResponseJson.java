@@ -0,0 +1,113 @@
+package com.xai.structured;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.xai.entities.AiResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written binder for {@link AiResponse}, the entity of the structured-output
+ * endpoints.
+ *
+ * <p>Reads the three fields straight off the streaming {@link JsonParser}, without
+ * the bean introspection, property lookup and type coercion layers of data binding.
+ * It accepts what the mapper accepts for these fields: unknown properties are
+ * skipped, numbers and booleans are read as text and {@code null} leaves a field
+ * unset. {@code null} elements of a list are dropped.</p>
+ *
+ * <p>The field names must follow {@link AiResponse}; {@code AiResponseJsonTest}
+ * checks them against the mapper.</p>
+ */
+final class AiResponseJson {
+
+    private final JsonFactory jsonFactory;
+
+    /**
+     * @param jsonFactory the factory of the application's {@code ObjectMapper}, so parser
+     *                    features configured there apply here as well
+     */
+    AiResponseJson(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Binds a JSON object.
+     *
+     * @param json the JSON text; anything after the object is ignored
+     * @return the bound response, or {@code null} for a JSON {@code null}
+     * @throws IOException if the text is not an {@code AiResponse} object
+     */
+    AiResponse read(String json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            parser.nextToken();
+            return readObject(parser);
+        }
+    }
+
+    /**
+     * Binds a JSON array.
+     *
+     * @param json the JSON text; anything after the array is ignored
+     * @return the bound responses, or {@code null} for a JSON {@code null}
+     * @throws IOException if the text is not an array of {@code AiResponse} objects
+     */
+    List<AiResponse> readList(String json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected an array of AiResponse objects");
+            }
+            List<AiResponse> responses = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                AiResponse response = readObject(parser);
+                if (response != null) {
+                    responses.add(response);
+                }
+            }
+            return responses;
+        }
+    }
+
+    private static AiResponse readObject(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected an AiResponse object");
+        }
+        AiResponse response = new AiResponse();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (name) {
+                case "title" -> response.setTitle(text(parser));
+                case "data" -> response.setData(text(parser));
+                case "createdAt" -> response.setCreatedAt(text(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw new JsonParseException(parser, "Unterminated AiResponse object");
+        }
+        return response;
+    }
+
+    private static String text(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            throw new JsonParseException(parser, "Expected a string for AiResponse." + parser.currentName());
+        }
+        return parser.getValueAsString();
+    }
+}
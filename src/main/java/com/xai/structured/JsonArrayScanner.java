@@ -0,0 +1,131 @@
+package com.xai.structured;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental scanner splitting a JSON array, received in arbitrary fragments, into
+ * the source text of its top-level elements.
+ *
+ * <p>The scanner only tracks what it needs to find element boundaries: string
+ * literals with their escapes and the nesting depth of brackets. It does not validate
+ * the elements; that is left to the binder, so a malformed element can be skipped
+ * without losing the ones after it. Text before the opening {@code [} (prose or a
+ * markdown fence) and after the closing {@code ]} is ignored.</p>
+ *
+ * <p>Not thread-safe; one instance scans one response.</p>
+ */
+class JsonArrayScanner {
+
+    private final StringBuilder element = new StringBuilder();
+
+    private boolean arrayOpened;
+
+    private boolean arrayClosed;
+
+    /**
+     * Nesting depth inside the current element; {@code 0} between elements.
+     */
+    private int depth;
+
+    private boolean inString;
+
+    private boolean escaped;
+
+    private int index;
+
+    /**
+     * Consumes the next fragment of the response.
+     *
+     * @param fragment the fragment
+     * @return the elements completed by this fragment, in order
+     */
+    List<Element> feed(CharSequence fragment) {
+        List<Element> completed = new ArrayList<>(1);
+        for (int i = 0; i < fragment.length() && !arrayClosed; i++) {
+            char c = fragment.charAt(i);
+            if (!arrayOpened) {
+                arrayOpened = c == '[';
+                continue;
+            }
+            if (inString) {
+                element.append(c);
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            if (depth == 0 && (c == ',' || c == ']')) {
+                complete(completed);
+                arrayClosed = c == ']';
+                continue;
+            }
+            if (depth == 0 && element.isEmpty() && Character.isWhitespace(c)) {
+                continue;
+            }
+            element.append(c);
+            switch (c) {
+                case '"' -> inString = true;
+                case '{', '[' -> depth++;
+                case '}', ']' -> {
+                    depth = Math.max(0, depth - 1);
+                    if (depth == 0) {
+                        complete(completed);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Signals the end of the response.
+     *
+     * @return the text of an element that was still open, i.e. truncated, or {@code null}
+     */
+    String finish() {
+        if (arrayClosed || element.isEmpty()) {
+            return null;
+        }
+        String truncated = element.toString();
+        element.setLength(0);
+        return truncated;
+    }
+
+    /**
+     * @return whether the opening bracket of the array has been seen
+     */
+    boolean arrayOpened() {
+        return arrayOpened;
+    }
+
+    /**
+     * @return the number of elements completed so far
+     */
+    int elements() {
+        return index;
+    }
+
+    private void complete(List<Element> completed) {
+        String text = element.toString().strip();
+        element.setLength(0);
+        if (!text.isEmpty()) {
+            completed.add(new Element(index++, text));
+        }
+    }
+
+    /**
+     * A top-level element of the array.
+     *
+     * @param index the position of the element in the array
+     * @param text  the source text of the element
+     */
+    record Element(int index, String text) {
+    }
+}
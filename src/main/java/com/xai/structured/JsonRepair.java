@@ -0,0 +1,124 @@
+package com.xai.structured;
+
+/**
+ * Local repair of the near-miss JSON models commonly return, so a reply that is almost
+ * right does not cost a whole new generation.
+ *
+ * <p>Three defects are repaired:</p>
+ * <ul>
+ *     <li><b>Surrounding text</b> – markdown fences ({@code ```json … ```}) and prose
+ *     before the first {@code {}/{@code [} or after the matching closing bracket are
+ *     dropped.</li>
+ *     <li><b>Trailing commas</b> – a comma directly before {@code }} or {@code ]}
+ *     is removed.</li>
+ *     <li><b>Truncated arrays</b> – when the reply ends inside a top-level array (the
+ *     model hit {@code maxTokens}), the element that was cut off is dropped and the
+ *     array is closed, keeping every element that was complete.</li>
+ * </ul>
+ *
+ * <p>A truncated top-level <em>object</em> is not repaired: closing it would bind a
+ * value cut off mid-sentence as if the model had meant it. The scanner only tracks
+ * string literals and bracket nesting; whatever else is wrong is left for the binder
+ * to report.</p>
+ */
+final class JsonRepair {
+
+    private JsonRepair() {
+    }
+
+    /**
+     * Repairs a model reply.
+     *
+     * @param text the reply
+     * @return the repaired JSON, or {@code null} if the reply contains no JSON value or
+     * is a truncated object
+     */
+    static String repair(String text) {
+        int start = start(text);
+        if (start < 0) {
+            return null;
+        }
+        boolean rootIsArray = text.charAt(start) == '[';
+        StringBuilder out = new StringBuilder(text.length() - start + 1);
+        StringBuilder open = new StringBuilder();
+        // Length of out after the last complete element of the top-level array.
+        int lastComplete = -1;
+        boolean inString = false;
+        boolean escaped = false;
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (inString) {
+                out.append(c);
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    out.append(c);
+                }
+                case '{', '[' -> {
+                    open.append(c);
+                    out.append(c);
+                }
+                case '}', ']' -> {
+                    stripTrailingComma(out);
+                    out.append(c);
+                    open.setLength(open.length() - 1);
+                    if (open.isEmpty()) {
+                        return out.toString();
+                    }
+                    if (rootIsArray && open.length() == 1) {
+                        lastComplete = out.length();
+                    }
+                }
+                case ',' -> {
+                    if (rootIsArray && open.length() == 1) {
+                        lastComplete = out.length();
+                    }
+                    out.append(c);
+                }
+                default -> out.append(c);
+            }
+        }
+        if (!rootIsArray) {
+            return null;
+        }
+        out.setLength(lastComplete < 0 ? 1 : lastComplete);
+        stripTrailingComma(out);
+        return out.append(']').toString();
+    }
+
+    /**
+     * @return the index of the first {@code {} or {@code [}, or {@code -1}
+     */
+    private static int start(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '{' || c == '[') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void stripTrailingComma(StringBuilder out) {
+        int end = out.length();
+        while (end > 0 && Character.isWhitespace(out.charAt(end - 1))) {
+            end--;
+        }
+        if (end > 0 && out.charAt(end - 1) == ',') {
+            end--;
+            while (end > 0 && Character.isWhitespace(out.charAt(end - 1))) {
+                end--;
+            }
+            out.setLength(end);
+        }
+    }
+}
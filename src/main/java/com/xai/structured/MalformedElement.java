@@ -0,0 +1,11 @@
+package com.xai.structured;
+
+/**
+ * An array element that could not be bound and was skipped.
+ *
+ * @param index the position of the element in the array, or {@code -1} if no array was found
+ * @param text  the source text of the element
+ * @param error why the element was rejected
+ */
+public record MalformedElement(int index, String text, String error) {
+}
@@ -0,0 +1,16 @@
+package com.xai.structured;
+
+/**
+ * Thrown when a structured reply cannot be bound to its entity type, even after local
+ * repair. Mapped to HTTP 502.
+ */
+public class MalformedOutputException extends RuntimeException {
+
+    public MalformedOutputException(String message) {
+        super(message);
+    }
+
+    public MalformedOutputException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,80 @@
+package com.xai.structured;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import reactor.core.publisher.Flux;
+
+import java.util.function.Consumer;
+
+/**
+ * Parses a JSON array streamed by a model into its elements as they complete.
+ *
+ * <p>The blocking structured-output path waits for the whole completion before it
+ * binds the array. This parser feeds each text fragment to a {@link JsonArrayScanner}
+ * and binds every top-level element as soon as its closing bracket arrives, so the
+ * first element can be sent to the client while the model is still generating the
+ * rest.</p>
+ *
+ * <p>An element that fails to bind, and an element left open when the stream ends
+ * (e.g. because the model hit {@code maxTokens}), is reported to the
+ * {@code onMalformed} callback and skipped; the stream continues with the next
+ * element.</p>
+ *
+ * @param <T> the element type
+ */
+public class StreamingJsonArrayParser<T> {
+
+    private final ObjectReader reader;
+
+    /**
+     * @param objectMapper the mapper to bind elements with
+     * @param elementType  the element type
+     */
+    public StreamingJsonArrayParser(ObjectMapper objectMapper, Class<T> elementType) {
+        this(objectMapper, objectMapper.constructType(elementType));
+    }
+
+    /**
+     * @param objectMapper the mapper to bind elements with
+     * @param elementType  the element type, for generic elements
+     */
+    public StreamingJsonArrayParser(ObjectMapper objectMapper, JavaType elementType) {
+        this.reader = objectMapper.readerFor(elementType);
+    }
+
+    /**
+     * Parses a stream of text fragments.
+     *
+     * @param fragments   the text of the response, in the order generated
+     * @param onMalformed receives every element that was skipped
+     * @return the bound elements; cold, with fresh parser state per subscription
+     */
+    public Flux<T> parse(Flux<String> fragments, Consumer<MalformedElement> onMalformed) {
+        return Flux.defer(() -> {
+            JsonArrayScanner scanner = new JsonArrayScanner();
+            return fragments
+                    .concatMapIterable(scanner::feed)
+                    .concatWith(Flux.defer(() -> {
+                        String truncated = scanner.finish();
+                        if (!scanner.arrayOpened()) {
+                            onMalformed.accept(new MalformedElement(-1, "", "Response contains no JSON array"));
+                        } else if (truncated != null) {
+                            onMalformed.accept(new MalformedElement(scanner.elements(), truncated, "Element truncated at end of response"));
+                        }
+                        return Flux.<JsonArrayScanner.Element>empty();
+                    }))
+                    .<T>handle((element, sink) -> {
+                        try {
+                            T value = reader.readValue(element.text());
+                            if (value != null) {
+                                sink.next(value);
+                            }
+                        } catch (JsonProcessingException e) {
+                            onMalformed.accept(new MalformedElement(element.index(), element.text(), e.getOriginalMessage()));
+                        }
+                    });
+        });
+    }
+}
@@ -0,0 +1,138 @@
+package com.xai.structured;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.xai.jfr.ResponseConversionEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+
+/**
+ * Pre-built structured-output support for one entity type: the format instructions
+ * appended to the prompt, the JSON schema they contain and the binder for the reply.
+ *
+ * <p>Instances are created once per type by {@link StructuredOutputRegistry}, so the
+ * schema is generated and the binder set up only once rather than on every request.</p>
+ *
+ * <p>{@link #convert(String)} binds the reply as is and, if that fails, runs it through
+ * {@link JsonRepair} and tries again before giving up. Each conversion is counted as
+ * {@code ai.structured.output{type, outcome=parsed|repaired|failed}} and recorded as a
+ * {@code com.xai.ResponseConversion} flight recorder event.</p>
+ *
+ * @param <T> the entity type
+ */
+public final class StructuredOutput<T> {
+
+    private final String name;
+
+    private final String format;
+
+    private final String jsonSchema;
+
+    private final Binder<T> binder;
+
+    private final Counter parsed;
+
+    private final Counter repaired;
+
+    private final Counter failed;
+
+    StructuredOutput(String name, String format, String jsonSchema, Binder<T> binder, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.format = format;
+        this.jsonSchema = jsonSchema;
+        this.binder = binder;
+        this.parsed = counter(meterRegistry, name, "parsed");
+        this.repaired = counter(meterRegistry, name, "repaired");
+        this.failed = counter(meterRegistry, name, "failed");
+    }
+
+    /**
+     * @return the type name, e.g. {@code List<AiResponse>}
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the format instructions to append to the user message
+     */
+    public String format() {
+        return format;
+    }
+
+    /**
+     * @return the JSON schema of the type
+     */
+    public String jsonSchema() {
+        return jsonSchema;
+    }
+
+    /**
+     * Binds a model reply, repairing it locally if it is not valid JSON as returned.
+     *
+     * @param text the text of the reply
+     * @return the bound entity
+     * @throws MalformedOutputException if the reply cannot be bound even after repair
+     */
+    public T convert(String text) {
+        ResponseConversionEvent event = new ResponseConversionEvent();
+        event.begin();
+        String outcome = "failed";
+        try {
+            if (text == null || text.isBlank()) {
+                failed.increment();
+                throw new MalformedOutputException("Model returned no " + name);
+            }
+            IOException error;
+            try {
+                T value = binder.bind(text);
+                parsed.increment();
+                outcome = "parsed";
+                return value;
+            } catch (IOException e) {
+                error = e;
+            }
+            String repairedText = JsonRepair.repair(text);
+            if (repairedText != null && !repairedText.equals(text)) {
+                try {
+                    T value = binder.bind(repairedText);
+                    repaired.increment();
+                    outcome = "repaired";
+                    return value;
+                } catch (IOException e) {
+                    error = e;
+                }
+            }
+            failed.increment();
+            String detail = error instanceof JsonProcessingException json ? json.getOriginalMessage() : error.getMessage();
+            throw new MalformedOutputException("Model output is not a valid " + name + ": " + detail, error);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.type = name;
+                event.length = text == null ? 0 : text.length();
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String type, String outcome) {
+        return Counter.builder("ai.structured.output")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Binds JSON text to an entity.
+     *
+     * @param <T> the entity type
+     */
+    @FunctionalInterface
+    interface Binder<T> {
+
+        T bind(String json) throws IOException;
+    }
+}
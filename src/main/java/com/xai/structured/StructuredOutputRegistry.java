@@ -0,0 +1,110 @@
+package com.xai.structured;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.xai.entities.AiResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.converter.BeanOutputConverter;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the {@link StructuredOutput}s of the application's entity types.
+ *
+ * <p>{@code ChatClient}'s {@code entity(…)}/{@code responseEntity(…)} build a new
+ * {@link BeanOutputConverter} on every call: that creates an {@code ObjectMapper},
+ * generates the JSON schema of the type with reflection and formats the instructions,
+ * all before the request is sent, and binds the reply with default settings. This
+ * registry does that work once per type and keeps the result.</p>
+ *
+ * <p>{@link AiResponse} and {@code List<AiResponse>}, the entities of the
+ * structured-output endpoints, are registered at startup and bound by
+ * {@link AiResponseJson}. Any other type is registered on first use and bound by a
+ * pre-built {@link ObjectReader} of the application's mapper.</p>
+ */
+@Component
+@Slf4j
+public class StructuredOutputRegistry {
+
+    /**
+     * The {@code List<AiResponse>} entity type. A single instance, so there is one
+     * anonymous subclass for the native image to keep the generic signature of.
+     */
+    public static final ParameterizedTypeReference<List<AiResponse>> AI_RESPONSE_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Type, StructuredOutput<?>> outputs = new ConcurrentHashMap<>();
+
+    public StructuredOutputRegistry(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        AiResponseJson aiResponseJson = new AiResponseJson(objectMapper.getFactory());
+        register(AiResponse.class, aiResponseJson::read);
+        register(AI_RESPONSE_LIST.getType(), aiResponseJson::readList);
+        log.info("Registered structured outputs: {}", outputs.values().stream().map(StructuredOutput::name).toList());
+    }
+
+    /**
+     * Returns the structured output of a type, creating it on first use.
+     *
+     * @param type the entity type
+     * @param <T>  the entity type
+     * @return the structured output
+     */
+    public <T> StructuredOutput<T> get(Class<T> type) {
+        return lookup(type);
+    }
+
+    /**
+     * Returns the structured output of a generic type, creating it on first use.
+     *
+     * @param type the entity type, e.g. {@code new ParameterizedTypeReference<List<AiResponse>>() {}}
+     * @param <T>  the entity type
+     * @return the structured output
+     */
+    public <T> StructuredOutput<T> get(ParameterizedTypeReference<T> type) {
+        return lookup(type.getType());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> StructuredOutput<T> lookup(Type type) {
+        StructuredOutput<?> output = outputs.get(type);
+        if (output == null) {
+            output = outputs.computeIfAbsent(type, t -> create(t, databind(t)));
+        }
+        return (StructuredOutput<T>) output;
+    }
+
+    private <T> void register(Type type, StructuredOutput.Binder<T> binder) {
+        outputs.put(type, create(type, binder));
+    }
+
+    private <T> StructuredOutput<T> create(Type type, StructuredOutput.Binder<T> binder) {
+        BeanOutputConverter<T> converter = new BeanOutputConverter<>(ParameterizedTypeReference.forType(type));
+        return new StructuredOutput<>(name(type), converter.getFormat(), converter.getJsonSchema(), binder,
+                meterRegistry);
+    }
+
+    private <T> StructuredOutput.Binder<T> databind(Type type) {
+        ObjectReader reader = objectMapper.readerFor(objectMapper.constructType(type));
+        return reader::readValue;
+    }
+
+    /**
+     * @return the type name without packages, e.g. {@code List<AiResponse>}
+     */
+    private static String name(Type type) {
+        return type.getTypeName().replaceAll("\\b[a-z][\\w]*\\.", "");
+    }
+}
@@ -0,0 +1,152 @@
+package com.xai.templates;
+
+import com.xai.jfr.TemplateRenderEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A prompt template parsed once into literal segments and placeholder names.
+ *
+ * <p>Uses the same {@code {name}} placeholder syntax as Spring AI's
+ * {@code PromptTemplate}, but without the StringTemplate machinery: rendering is a
+ * single pass over pre-split segments into a pre-sized {@link StringBuilder}, so
+ * each render allocates only the builder and the resulting {@link String}.
+ * A backslash escapes a literal brace ({@code \{}, {@code \}}). Renders are recorded
+ * as {@code com.xai.TemplateRender} flight recorder events.</p>
+ *
+ * <p>Instances are immutable and safe to share between threads.</p>
+ */
+public final class CompiledTemplate {
+
+    private final String name;
+
+    private final String[] literals;
+
+    private final String[] variables;
+
+    private final int literalLength;
+
+    private final Set<String> placeholders;
+
+    private CompiledTemplate(String name, List<String> literals, List<String> variables) {
+        this.name = name;
+        this.literals = literals.toArray(String[]::new);
+        this.variables = variables.toArray(String[]::new);
+        int length = 0;
+        for (String literal : this.literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+        this.placeholders = Collections.unmodifiableSet(new LinkedHashSet<>(variables));
+    }
+
+    /**
+     * Parses a template.
+     *
+     * @param name   the template name, used in error messages
+     * @param source the template text
+     * @return the compiled template
+     * @throws IllegalArgumentException if a brace is unbalanced or a placeholder is not an identifier
+     */
+    public static CompiledTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        StringBuilder literal = new StringBuilder(source.length());
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\' && i + 1 < source.length() && (source.charAt(i + 1) == '{' || source.charAt(i + 1) == '}')) {
+                literal.append(source.charAt(i + 1));
+                i += 2;
+            } else if (c == '{') {
+                int end = source.indexOf('}', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unclosed '{' at offset " + i + " in template '" + name + "'");
+                }
+                String variable = source.substring(i + 1, end).trim();
+                if (!isIdentifier(variable)) {
+                    throw new IllegalArgumentException("Invalid placeholder '{" + variable + "}' at offset " + i
+                            + " in template '" + name + "'");
+                }
+                literals.add(literal.toString());
+                literal.setLength(0);
+                variables.add(variable);
+                i = end + 1;
+            } else if (c == '}') {
+                throw new IllegalArgumentException("Unmatched '}' at offset " + i + " in template '" + name + "'");
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+        return new CompiledTemplate(name, literals, variables);
+    }
+
+    /**
+     * Renders the template.
+     *
+     * @param values a value for every placeholder; extra entries are ignored
+     * @return the rendered text
+     * @throws IllegalArgumentException if a placeholder has no value
+     */
+    public String render(Map<String, ?> values) {
+        TemplateRenderEvent event = new TemplateRenderEvent();
+        event.begin();
+        String rendered = renderText(values);
+        event.end();
+        if (event.shouldCommit()) {
+            event.template = name;
+            event.length = rendered.length();
+            event.commit();
+        }
+        return rendered;
+    }
+
+    private String renderText(Map<String, ?> values) {
+        if (variables.length == 0) {
+            return literals[0];
+        }
+        StringBuilder rendered = new StringBuilder(literalLength + 16 * variables.length);
+        for (int i = 0; i < variables.length; i++) {
+            rendered.append(literals[i]);
+            Object value = values.get(variables[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing value for '" + variables[i] + "' in template '" + name + "'");
+            }
+            rendered.append(value);
+        }
+        return rendered.append(literals[variables.length]).toString();
+    }
+
+    /**
+     * @return the template name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the distinct placeholder names, in order of first appearance
+     */
+    public Set<String> placeholders() {
+        return placeholders;
+    }
+
+    private static boolean isIdentifier(String text) {
+        if (text.isEmpty() || !Character.isJavaIdentifierStart(text.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < text.length(); i++) {
+            if (!Character.isJavaIdentifierPart(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,182 @@
+package com.xai.templates;
+
+import com.xai.appconfig.PromptTemplateProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of the application's prompt templates, compiled once at startup.
+ *
+ * <p>Every {@code *.st} file under {@code xai.prompts.location} is read and compiled
+ * into a {@link CompiledTemplate}, keyed by its file name without extension
+ * (e.g. {@code system-message}). A template with invalid placeholder syntax fails
+ * the startup instead of the first request that uses it.</p>
+ *
+ * <p>When the location is a filesystem directory and hot reload is enabled, a
+ * background thread watches it and recompiles the templates on change. The new set
+ * replaces the old one in a single volatile write, so readers never block and never
+ * see a partially reloaded set. A file that fails to compile during a reload keeps
+ * its previous version.</p>
+ */
+@Component
+@Slf4j
+public class PromptTemplateRegistry {
+
+    private static final String EXTENSION = ".st";
+
+    private final ResourcePatternResolver resourcePatternResolver;
+
+    private final PromptTemplateProperties properties;
+
+    private volatile Map<String, CompiledTemplate> templates;
+
+    private WatchService watchService;
+
+    public PromptTemplateRegistry(ResourcePatternResolver resourcePatternResolver, PromptTemplateProperties properties) {
+        this.resourcePatternResolver = resourcePatternResolver;
+        this.properties = properties;
+        this.templates = load(Map.of(), true);
+        log.info("Compiled prompt templates: {}", describe(templates));
+        if (properties.isHotReload()) {
+            startWatching();
+        }
+    }
+
+    /**
+     * Returns a compiled template.
+     *
+     * @param name the template name, i.e. its file name without {@code .st}
+     * @return the compiled template
+     * @throws IllegalArgumentException if no template has that name
+     */
+    public CompiledTemplate get(String name) {
+        CompiledTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown prompt template: " + name);
+        }
+        return template;
+    }
+
+    /**
+     * Renders a template.
+     *
+     * @param name   the template name
+     * @param values a value for every placeholder of the template
+     * @return the rendered text
+     */
+    public String render(String name, Map<String, ?> values) {
+        return get(name).render(values);
+    }
+
+    /**
+     * @return the names of all registered templates
+     */
+    public Set<String> names() {
+        return templates.keySet();
+    }
+
+    /**
+     * Reads and compiles all templates.
+     *
+     * @param previous the currently registered templates, kept for files that fail to compile
+     * @param failFast whether a compilation error aborts the load
+     */
+    private Map<String, CompiledTemplate> load(Map<String, CompiledTemplate> previous, boolean failFast) {
+        Map<String, CompiledTemplate> loaded = new HashMap<>();
+        Resource[] resources;
+        try {
+            resources = resourcePatternResolver.getResources(properties.getLocation() + "*" + EXTENSION);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list prompt templates in " + properties.getLocation(), e);
+        }
+        for (Resource resource : resources) {
+            String fileName = resource.getFilename();
+            if (fileName == null || !fileName.endsWith(EXTENSION)) {
+                continue;
+            }
+            String name = fileName.substring(0, fileName.length() - EXTENSION.length());
+            try {
+                loaded.put(name, CompiledTemplate.compile(name, resource.getContentAsString(StandardCharsets.UTF_8)));
+            } catch (IOException | IllegalArgumentException e) {
+                if (failFast) {
+                    throw new IllegalStateException("Cannot compile prompt template " + fileName, e);
+                }
+                log.error("Keeping previous version of prompt template {}: {}", fileName, e.getMessage());
+                if (previous.containsKey(name)) {
+                    loaded.put(name, previous.get(name));
+                }
+            }
+        }
+        return Map.copyOf(loaded);
+    }
+
+    private void startWatching() {
+        Path directory;
+        try {
+            Resource location = resourcePatternResolver.getResource(properties.getLocation());
+            if (!location.isFile()) {
+                log.debug("Prompt location {} is not a directory, hot reload disabled", properties.getLocation());
+                return;
+            }
+            directory = location.getFile().toPath();
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            log.warn("Cannot watch prompt templates in {}, hot reload disabled", properties.getLocation(), e);
+            return;
+        }
+        Thread watcher = new Thread(this::watch, "prompt-template-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching {} for prompt template changes", directory);
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean templateChanged = key.pollEvents().stream()
+                        .anyMatch(event -> event.context() instanceof Path path && path.toString().endsWith(EXTENSION));
+                key.reset();
+                if (templateChanged) {
+                    templates = load(templates, false);
+                    log.info("Reloaded prompt templates: {}", describe(templates));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Shutting down.
+        }
+    }
+
+    @PreDestroy
+    void stopWatching() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private static Map<String, Set<String>> describe(Map<String, CompiledTemplate> templates) {
+        Map<String, Set<String>> placeholders = new HashMap<>();
+        templates.forEach((name, template) -> placeholders.put(name, template.placeholders()));
+        return placeholders;
+    }
+}
@@ -0,0 +1,82 @@
+package com.xai.tokens;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingRegistry;
+import com.knuddels.jtokkit.api.EncodingResult;
+import com.knuddels.jtokkit.api.EncodingType;
+import com.knuddels.jtokkit.api.IntArrayList;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link TokenEstimator} counting tokens exactly with the byte-pair encoding of the
+ * target model, using the tiktoken vocabularies bundled with JTokkit.
+ *
+ * <p>The encoding is looked up by model name ({@code gpt-4o} and newer use
+ * {@code o200k_base}, {@code gpt-4} and {@code gpt-3.5} use {@code cl100k_base});
+ * models JTokkit does not know, such as local Ollama models, use the default
+ * encoding, which then is a close approximation. Encodings are resolved once per
+ * model and are thread-safe.</p>
+ *
+ * <p>Counting uses JTokkit's counting path, which does not build the token list, and
+ * treats special-token markers in the text as ordinary text, as the provider does
+ * for message content.</p>
+ */
+public class BpeTokenEstimator implements TokenEstimator {
+
+    private final EncodingRegistry registry = Encodings.newLazyEncodingRegistry();
+
+    private final Encoding defaultEncoding;
+
+    private final Map<String, Encoding> byModel = new ConcurrentHashMap<>();
+
+    /**
+     * @param defaultEncoding name of the encoding used for unknown models, e.g. {@code o200k_base}
+     * @throws IllegalArgumentException if no encoding has that name
+     */
+    public BpeTokenEstimator(String defaultEncoding) {
+        this.defaultEncoding = registry.getEncoding(EncodingType.fromName(defaultEncoding)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown token encoding: " + defaultEncoding)));
+    }
+
+    @Override
+    public int estimate(String text) {
+        return text == null || text.isEmpty() ? 0 : defaultEncoding.countTokensOrdinary(text);
+    }
+
+    @Override
+    public int estimate(String text, String model) {
+        return text == null || text.isEmpty() ? 0 : encoding(model).countTokensOrdinary(text);
+    }
+
+    @Override
+    public String truncate(String text, int maxTokens, boolean keepEnd, String model) {
+        Encoding encoding = encoding(model);
+        if (!keepEnd) {
+            EncodingResult head = encoding.encodeOrdinary(text, maxTokens);
+            return head.isTruncated() ? encoding.decode(head.getTokens()) : text;
+        }
+        IntArrayList tokens = encoding.encodeOrdinary(text);
+        if (tokens.size() <= maxTokens) {
+            return text;
+        }
+        IntArrayList tail = new IntArrayList(maxTokens);
+        for (int i = tokens.size() - maxTokens; i < tokens.size(); i++) {
+            tail.add(tokens.get(i));
+        }
+        return encoding.decode(tail);
+    }
+
+    /**
+     * @param model the model name, may be {@code null}
+     * @return the model's encoding, or the default encoding for unknown models
+     */
+    public Encoding encoding(String model) {
+        if (model == null) {
+            return defaultEncoding;
+        }
+        return byModel.computeIfAbsent(model, name -> registry.getEncodingForModel(name).orElse(defaultEncoding));
+    }
+}
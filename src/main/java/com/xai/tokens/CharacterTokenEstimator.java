@@ -0,0 +1,24 @@
+package com.xai.tokens;
+
+/**
+ * {@link TokenEstimator} using the common rule of thumb of four characters of
+ * English text per token. Cheap and allocation-free, but only approximate.
+ */
+public class CharacterTokenEstimator implements TokenEstimator {
+
+    private static final int CHARACTERS_PER_TOKEN = 4;
+
+    @Override
+    public int estimate(String text) {
+        return text == null ? 0 : (text.length() + CHARACTERS_PER_TOKEN - 1) / CHARACTERS_PER_TOKEN;
+    }
+
+    @Override
+    public String truncate(String text, int maxTokens, boolean keepEnd, String model) {
+        int maxLength = Math.max(0, maxTokens) * CHARACTERS_PER_TOKEN;
+        if (text.length() <= maxLength) {
+            return text;
+        }
+        return keepEnd ? text.substring(text.length() - maxLength) : text.substring(0, maxLength);
+    }
+}
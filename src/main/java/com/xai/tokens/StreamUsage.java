@@ -0,0 +1,79 @@
+package com.xai.tokens;
+
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+
+/**
+ * Collects the chunks of a streamed response to account for its token usage.
+ *
+ * <p>Providers report the usage of a stream on its last chunk, and some only when asked
+ * to ({@code spring.ai.openai.chat.options.stream-usage}). If the last chunk carries no
+ * usage, it is estimated: the completion tokens from the text of all chunks, the prompt
+ * tokens as counted by the prompt budget ({@code 0} if they were not counted).
+ * Thread-safe, since a cancelled stream may be accounted for while a chunk is still
+ * being added.</p>
+ */
+public class StreamUsage {
+
+    private final TokenEstimator tokenEstimator;
+
+    private final StringBuilder text = new StringBuilder();
+
+    private ChatResponse last;
+
+    private int promptTokens = -1;
+
+    public StreamUsage(TokenEstimator tokenEstimator) {
+        this.tokenEstimator = tokenEstimator;
+    }
+
+    /**
+     * @param chunk        a chunk of the stream
+     * @param promptTokens the counted prompt tokens of the request, or {@code -1} if unknown
+     */
+    public synchronized void add(ChatResponse chunk, int promptTokens) {
+        if (chunk == null) {
+            return;
+        }
+        last = chunk;
+        if (promptTokens >= 0) {
+            this.promptTokens = promptTokens;
+        }
+        for (Generation generation : chunk.getResults()) {
+            if (generation.getOutput() != null && generation.getOutput().getText() != null) {
+                text.append(generation.getOutput().getText());
+            }
+        }
+    }
+
+    /**
+     * @return the last chunk, with estimated usage if it reported none; {@code null} if
+     * the stream had no chunks
+     */
+    public synchronized ChatResponse response() {
+        if (last == null || reported(last.getMetadata().getUsage())) {
+            return last;
+        }
+        ChatResponseMetadata metadata = last.getMetadata();
+        String model = metadata.getModel() == null || metadata.getModel().isEmpty() ? null : metadata.getModel();
+        ChatResponseMetadata.Builder estimated = ChatResponseMetadata.builder()
+                .id(metadata.getId())
+                .model(metadata.getModel())
+                .rateLimit(metadata.getRateLimit())
+                .promptMetadata(metadata.getPromptMetadata())
+                .usage(new DefaultUsage(Math.max(0, promptTokens), tokenEstimator.estimate(text.toString(), model)));
+        // Keeps flags such as cache hits, which tell reused replies apart from model calls.
+        metadata.entrySet().forEach(entry -> estimated.keyValue(entry.getKey(), entry.getValue()));
+        return ChatResponse.builder()
+                .generations(last.getResults())
+                .metadata(estimated.build())
+                .build();
+    }
+
+    private static boolean reported(Usage usage) {
+        return usage != null && usage.getTotalTokens() != null && usage.getTotalTokens() > 0;
+    }
+}
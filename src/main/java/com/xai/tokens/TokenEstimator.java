@@ -0,0 +1,33 @@
+package com.xai.tokens;
+
+/**
+ * Estimates how many model tokens a piece of text occupies.
+ */
+public interface TokenEstimator {
+
+    /**
+     * @param text the text, may be {@code null}
+     * @return the estimated number of tokens, {@code 0} for {@code null}
+     */
+    int estimate(String text);
+
+    /**
+     * @param text  the text, may be {@code null}
+     * @param model the model the text is sent to, may be {@code null} for the default
+     * @return the estimated number of tokens of the text for that model
+     */
+    default int estimate(String text, String model) {
+        return estimate(text);
+    }
+
+    /**
+     * Shortens a text to at most {@code maxTokens} tokens.
+     *
+     * @param text      the text
+     * @param maxTokens the number of tokens to keep
+     * @param keepEnd   whether the end of the text is kept (and its start cut) instead of its start
+     * @param model     the model the text is sent to, may be {@code null} for the default
+     * @return the text itself if it fits, otherwise its first or last {@code maxTokens} tokens
+     */
+    String truncate(String text, int maxTokens, boolean keepEnd, String model);
+}
@@ -0,0 +1,54 @@
+package com.xai.tools;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * {@link ToolCallback} answering from a {@link ToolResultCache} before it runs the tool.
+ *
+ * <p>Wraps only side-effect-free tools, which is also what marks a call as safe for
+ * {@link ParallelToolCallingManager} to pre-execute. The tool context does not take
+ * part in the key. Meter: {@code ai.tools.execution{tool}}, the time of the executions
+ * that were not answered from the cache.</p>
+ */
+public class CachingToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+
+    private final ToolResultCache cache;
+
+    private final Timer execution;
+
+    public CachingToolCallback(ToolCallback delegate, ToolResultCache cache, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.execution = Timer.builder("ai.tools.execution")
+                .tag("tool", delegate.getToolDefinition().name())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        return cache.get(getToolDefinition().name(), toolInput,
+                () -> execution.record(() -> delegate.call(toolInput, toolContext)));
+    }
+}
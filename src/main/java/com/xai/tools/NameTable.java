@@ -0,0 +1,109 @@
+package com.xai.tools;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Dictionary assigning dense {@code int} ids to names, so the statistics index can key
+ * its arrays by id.
+ *
+ * <p>Names are matched case-, accent- and whitespace-insensitively ({@code "bayern  münchen"}
+ * finds {@code "Bayern München"}). Open addressing over parallel arrays: a lookup
+ * hashes the normalized name and probes without allocating entries or boxing ids.</p>
+ *
+ * <p>Filled once while the index loads, read-only afterwards.</p>
+ */
+final class NameTable {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private String[] keys = new String[16];
+
+    private int[] ids = new int[16];
+
+    private String[] names = new String[8];
+
+    private int size;
+
+    /**
+     * Returns the id of a name, adding it if it is new.
+     *
+     * @param name the name
+     * @return its id; ids are assigned from {@code 0} in insertion order
+     */
+    int add(String name) {
+        String key = normalize(name);
+        int slot = slot(key);
+        if (keys[slot] != null) {
+            return ids[slot];
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        names[size] = name.strip();
+        keys[slot] = key;
+        ids[slot] = size;
+        size++;
+        if (size * 2 > keys.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    /**
+     * @param name the name, in any case and spacing
+     * @return its id, or {@code -1} if the table does not contain it
+     */
+    int find(String name) {
+        if (name == null) {
+            return -1;
+        }
+        int slot = slot(normalize(name));
+        return keys[slot] == null ? -1 : ids[slot];
+    }
+
+    /**
+     * @param id an id returned by {@link #add}
+     * @return the name as first added
+     */
+    String name(int id) {
+        return names[id];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(String key) {
+        int mask = keys.length - 1;
+        int hash = key.hashCode() * 0x9E3779B9;
+        int slot = (hash ^ hash >>> 16) & mask;
+        while (keys[slot] != null && !keys[slot].equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        String[] oldKeys = keys;
+        int[] oldIds = ids;
+        keys = new String[oldKeys.length * 2];
+        ids = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                ids[slot] = oldIds[i];
+            }
+        }
+    }
+
+    static String normalize(String name) {
+        String stripped = MARKS.matcher(Normalizer.normalize(name.strip(), Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(stripped).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,199 @@
+package com.xai.tools;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.DefaultToolCallingManager;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.resolution.ToolCallbackResolver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link ToolCallingManager} that runs the tool calls of one model turn in parallel.
+ *
+ * <p>Spring AI's {@link DefaultToolCallingManager} executes the calls of a turn one
+ * after the other. When the model asks for several lookups at once ("compare Kane and
+ * Haaland"), this manager first runs every call whose tool is a
+ * {@link CachingToolCallback} concurrently on virtual threads, which leaves the results
+ * in the {@link ToolResultCache}, and then lets the default manager build the tool
+ * response messages as usual; its calls are answered from the cache. Everything else
+ * (tool resolution, {@code returnDirect}, error handling, the conversation history)
+ * stays the default behaviour. Calls to tools that are not cached are not
+ * pre-executed, since they would run twice.</p>
+ *
+ * <p>A failed or slow pre-execution is not an error: the sequential pass repeats the
+ * call and reports its outcome to the model the usual way.</p>
+ *
+ * <p>Every turn with tool calls also increments the {@link AtomicInteger} found under
+ * {@link #ROUND_TRIPS} in the tool context, if any; the round-trip advisor uses it to
+ * count the model calls a request needed.</p>
+ *
+ * <p>Meters: {@code ai.tools.turn.calls}, the number of tool calls per turn, and
+ * {@code ai.tools.calls{mode=parallel|sequential}}.</p>
+ */
+@Slf4j
+public class ParallelToolCallingManager implements ToolCallingManager, AutoCloseable {
+
+    /**
+     * Tool context key of the per-request counter of tool-calling turns.
+     */
+    public static final String ROUND_TRIPS = "xai.tool-round-trips";
+
+    private final ToolCallingManager delegate;
+
+    private final ToolCallbackResolver toolCallbackResolver;
+
+    private final int maxParallelCalls;
+
+    private final Duration timeout;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final DistributionSummary turnCalls;
+
+    private final Counter parallelCalls;
+
+    private final Counter sequentialCalls;
+
+    /**
+     * @param delegate             builds the tool response messages, normally a {@link DefaultToolCallingManager}
+     * @param toolCallbackResolver resolves tools named in the options but not passed as callbacks
+     * @param maxParallelCalls     maximum number of calls of one turn run concurrently
+     * @param timeout              how long to wait for the parallel calls before handing over
+     * @param meterRegistry        registry for the manager's metrics
+     */
+    public ParallelToolCallingManager(ToolCallingManager delegate, ToolCallbackResolver toolCallbackResolver,
+                                      int maxParallelCalls, Duration timeout, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.toolCallbackResolver = toolCallbackResolver;
+        this.maxParallelCalls = maxParallelCalls;
+        this.timeout = timeout;
+        this.turnCalls = DistributionSummary.builder("ai.tools.turn.calls")
+                .register(meterRegistry);
+        this.parallelCalls = Counter.builder("ai.tools.calls")
+                .tag("mode", "parallel")
+                .register(meterRegistry);
+        this.sequentialCalls = Counter.builder("ai.tools.calls")
+                .tag("mode", "sequential")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<ToolDefinition> resolveToolDefinitions(ToolCallingChatOptions chatOptions) {
+        return delegate.resolveToolDefinitions(chatOptions);
+    }
+
+    @Override
+    public ToolExecutionResult executeToolCalls(Prompt prompt, ChatResponse chatResponse) {
+        ToolCallingChatOptions options = prompt.getOptions() instanceof ToolCallingChatOptions toolCalling
+                ? toolCalling
+                : null;
+        if (options != null && options.getToolContext() != null
+                && options.getToolContext().get(ROUND_TRIPS) instanceof AtomicInteger roundTrips) {
+            roundTrips.incrementAndGet();
+        }
+        List<AssistantMessage.ToolCall> toolCalls = toolCalls(chatResponse);
+        turnCalls.record(toolCalls.size());
+        if (toolCalls.size() > 1) {
+            preExecute(toolCalls, options);
+        } else {
+            sequentialCalls.increment(toolCalls.size());
+        }
+        return delegate.executeToolCalls(prompt, chatResponse);
+    }
+
+    /**
+     * Runs the cacheable calls of a turn concurrently, at most {@code maxParallelCalls} at a time.
+     */
+    private void preExecute(List<AssistantMessage.ToolCall> toolCalls, ToolCallingChatOptions options) {
+        List<CompletableFuture<?>> running = new ArrayList<>();
+        List<CompletableFuture<?>> all = new ArrayList<>();
+        for (AssistantMessage.ToolCall toolCall : toolCalls) {
+            if (!(resolve(toolCall.name(), options) instanceof CachingToolCallback callback)) {
+                sequentialCalls.increment();
+                continue;
+            }
+            if (running.size() == maxParallelCalls) {
+                await(running);
+                running.clear();
+            }
+            CompletableFuture<?> call = CompletableFuture.runAsync(() -> callback.call(toolCall.arguments()), executor);
+            running.add(call);
+            all.add(call);
+            parallelCalls.increment();
+        }
+        await(all);
+    }
+
+    private void await(List<CompletableFuture<?>> calls) {
+        try {
+            CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("Parallel tool execution incomplete, continuing sequentially", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ToolCallback resolve(String name, ToolCallingChatOptions options) {
+        if (options != null && options.getToolCallbacks() != null) {
+            for (ToolCallback callback : options.getToolCallbacks()) {
+                if (callback.getToolDefinition().name().equals(name)) {
+                    return callback;
+                }
+            }
+        }
+        return toolCallbackResolver.resolve(name);
+    }
+
+    private static List<AssistantMessage.ToolCall> toolCalls(ChatResponse chatResponse) {
+        if (chatResponse == null) {
+            return List.of();
+        }
+        for (Generation generation : chatResponse.getResults()) {
+            if (generation.getOutput().hasToolCalls()) {
+                return generation.getOutput().getToolCalls();
+            }
+        }
+        return List.of();
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    /**
+     * Creates the per-request tool context entry counted by this manager.
+     *
+     * @param toolContext the request's tool context
+     * @param roundTrips  the counter
+     * @return a copy of the context with the counter added
+     */
+    public static Map<String, Object> withRoundTrips(Map<String, Object> toolContext, AtomicInteger roundTrips) {
+        Map<String, Object> context = toolContext == null ? new HashMap<>() : new HashMap<>(toolContext);
+        context.put(ROUND_TRIPS, roundTrips);
+        return context;
+    }
+}
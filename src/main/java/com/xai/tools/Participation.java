@@ -0,0 +1,12 @@
+package com.xai.tools;
+
+/**
+ * How many people play a sport in a country.
+ *
+ * @param sport        the sport
+ * @param country      the country
+ * @param year         the survey year
+ * @param participants the number of people playing
+ */
+public record Participation(String sport, String country, int year, long participants) {
+}
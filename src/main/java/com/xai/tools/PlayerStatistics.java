@@ -0,0 +1,19 @@
+package com.xai.tools;
+
+/**
+ * A player's league statistics for a season.
+ *
+ * @param player      the player
+ * @param team        the player's team
+ * @param league      the team's league
+ * @param sport       the sport
+ * @param position    the playing position
+ * @param country     the country the player represents
+ * @param season      the season, e.g. {@code 2023-24}
+ * @param appearances league appearances
+ * @param goals       league goals
+ * @param assists     league assists
+ */
+public record PlayerStatistics(String player, String team, String league, String sport, String position,
+                               String country, String season, int appearances, int goals, int assists) {
+}
@@ -0,0 +1,350 @@
+package com.xai.tools;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * In-process index of the sports statistics the chat tools look up: league tables,
+ * player statistics and participation by country.
+ *
+ * <p>Loaded once from three CSV files ({@code teams.csv}, {@code players.csv},
+ * {@code participation.csv}; see {@code src/main/resources/statistics/}) and read-only
+ * afterwards, so lookups need no locking. Names are mapped to dense {@code int} ids by
+ * {@link NameTable}s, and every attribute is stored in a primitive array indexed by id
+ * (struct of arrays). League tables and top-scorer lists are sorted at load time;
+ * participation is a flat {@code long[]} keyed by {@code sport * countries + country}.
+ * A lookup is a hash probe and a few array reads; only the returned record is
+ * allocated.</p>
+ *
+ * <p>The index holds one snapshot: one row per team and per player. The CSV dialect is
+ * minimal: comma-separated, no quoting, {@code #} comment lines and a header row naming
+ * the columns.</p>
+ */
+public final class SportsStatisticsIndex {
+
+    private static final int NONE = -1;
+
+    private final NameTable teams = new NameTable();
+
+    private final NameTable players = new NameTable();
+
+    private final NameTable leagues = new NameTable();
+
+    private final NameTable sports = new NameTable();
+
+    private final NameTable countries = new NameTable();
+
+    private final NameTable seasons = new NameTable();
+
+    private final NameTable positions = new NameTable();
+
+    // Teams, indexed by team id.
+    private final int[] teamLeague;
+
+    private final int[] teamSeason;
+
+    private final int[] played;
+
+    private final int[] won;
+
+    private final int[] drawn;
+
+    private final int[] lost;
+
+    private final int[] goalsFor;
+
+    private final int[] goalsAgainst;
+
+    private final int[] points;
+
+    private final int[] tablePosition;
+
+    // Players, indexed by player id.
+    private final int[] playerTeam;
+
+    private final int[] playerSport;
+
+    private final int[] playerPosition;
+
+    private final int[] playerCountry;
+
+    private final int[] playerSeason;
+
+    private final int[] appearances;
+
+    private final int[] goals;
+
+    private final int[] assists;
+
+    // By league id: team ids in table order, player ids by goals.
+    private final int[][] leagueTables;
+
+    private final int[][] leagueScorers;
+
+    // Participation, indexed by sport * countries + country; NONE if unknown.
+    private final int participationCountries;
+
+    private final long[] participants;
+
+    private final int[] participationYear;
+
+    private SportsStatisticsIndex(List<String[]> teamRows, List<String[]> playerRows, List<String[]> participationRows) {
+        int teamCount = teamRows.size();
+        teamLeague = new int[teamCount];
+        teamSeason = new int[teamCount];
+        played = new int[teamCount];
+        won = new int[teamCount];
+        drawn = new int[teamCount];
+        lost = new int[teamCount];
+        goalsFor = new int[teamCount];
+        goalsAgainst = new int[teamCount];
+        points = new int[teamCount];
+        tablePosition = new int[teamCount];
+        for (String[] row : teamRows) {
+            int id = teams.size();
+            if (teams.add(row[0]) != id) {
+                throw new IllegalArgumentException("Duplicate team: " + row[0]);
+            }
+            sports.add(row[1]);
+            teamLeague[id] = leagues.add(row[2]);
+            countries.add(row[3]);
+            teamSeason[id] = seasons.add(row[4]);
+            played[id] = parseInt(row, 5);
+            won[id] = parseInt(row, 6);
+            drawn[id] = parseInt(row, 7);
+            lost[id] = parseInt(row, 8);
+            goalsFor[id] = parseInt(row, 9);
+            goalsAgainst[id] = parseInt(row, 10);
+            points[id] = parseInt(row, 11);
+        }
+
+        int playerCount = playerRows.size();
+        playerTeam = new int[playerCount];
+        playerSport = new int[playerCount];
+        playerPosition = new int[playerCount];
+        playerCountry = new int[playerCount];
+        playerSeason = new int[playerCount];
+        appearances = new int[playerCount];
+        goals = new int[playerCount];
+        assists = new int[playerCount];
+        for (String[] row : playerRows) {
+            int id = players.size();
+            if (players.add(row[0]) != id) {
+                throw new IllegalArgumentException("Duplicate player: " + row[0]);
+            }
+            playerTeam[id] = teams.find(row[1]);
+            if (playerTeam[id] == NONE) {
+                throw new IllegalArgumentException("Unknown team " + row[1] + " of player " + row[0]);
+            }
+            playerSport[id] = sports.add(row[2]);
+            playerPosition[id] = positions.add(row[3]);
+            playerCountry[id] = countries.add(row[4]);
+            playerSeason[id] = seasons.add(row[5]);
+            appearances[id] = parseInt(row, 6);
+            goals[id] = parseInt(row, 7);
+            assists[id] = parseInt(row, 8);
+        }
+
+        leagueTables = new int[leagues.size()][];
+        leagueScorers = new int[leagues.size()][];
+        for (int league = 0; league < leagues.size(); league++) {
+            int l = league;
+            leagueTables[league] = sorted(IntStream.range(0, teamCount).filter(t -> teamLeague[t] == l),
+                    Comparator.<Integer>comparingInt(t -> -points[t])
+                            .thenComparingInt(t -> goalsAgainst[t] - goalsFor[t])
+                            .thenComparingInt(t -> -goalsFor[t])
+                            .thenComparing(teams::name));
+            for (int position = 0; position < leagueTables[league].length; position++) {
+                tablePosition[leagueTables[league][position]] = position + 1;
+            }
+            leagueScorers[league] = sorted(IntStream.range(0, playerCount).filter(p -> teamLeague[playerTeam[p]] == l),
+                    Comparator.<Integer>comparingInt(p -> -goals[p])
+                            .thenComparingInt(p -> -assists[p])
+                            .thenComparing(players::name));
+        }
+
+        for (String[] row : participationRows) {
+            sports.add(row[0]);
+            countries.add(row[1]);
+        }
+        participationCountries = countries.size();
+        participants = new long[sports.size() * participationCountries];
+        participationYear = new int[participants.length];
+        Arrays.fill(participants, NONE);
+        for (String[] row : participationRows) {
+            int key = sports.find(row[0]) * participationCountries + countries.find(row[1]);
+            int year = parseInt(row, 2);
+            if (year >= participationYear[key]) {
+                participationYear[key] = year;
+                participants[key] = Long.parseLong(row[3]);
+            }
+        }
+    }
+
+    /**
+     * Loads an index from its three CSV files.
+     *
+     * @param teams         {@code team,sport,league,country,season,played,won,drawn,lost,goals_for,goals_against,points}
+     * @param players       {@code player,team,sport,position,country,season,appearances,goals,assists}
+     * @param participation {@code sport,country,year,participants}
+     * @return the index
+     * @throws IOException              if a file cannot be read
+     * @throws IllegalArgumentException if a file is malformed or a player's team is unknown
+     */
+    public static SportsStatisticsIndex load(Reader teams, Reader players, Reader participation) throws IOException {
+        return new SportsStatisticsIndex(
+                read(teams, "team", "sport", "league", "country", "season", "played", "won", "drawn", "lost",
+                        "goals_for", "goals_against", "points"),
+                read(players, "player", "team", "sport", "position", "country", "season", "appearances",
+                        "goals", "assists"),
+                read(participation, "sport", "country", "year", "participants"));
+    }
+
+    /**
+     * @param team the team name
+     * @return the team's line in its league table, or {@code null} if the team is unknown
+     */
+    public TeamStanding team(String team) {
+        int id = teams.find(team);
+        return id == NONE ? null : standing(id);
+    }
+
+    /**
+     * @param league the league name
+     * @param limit  the maximum number of teams returned
+     * @return the top of the league table, or {@code null} if the league is unknown
+     */
+    public List<TeamStanding> leagueTable(String league, int limit) {
+        int id = leagues.find(league);
+        if (id == NONE) {
+            return null;
+        }
+        int[] table = leagueTables[id];
+        List<TeamStanding> standings = new ArrayList<>(Math.min(limit, table.length));
+        for (int i = 0; i < table.length && i < limit; i++) {
+            standings.add(standing(table[i]));
+        }
+        return standings;
+    }
+
+    /**
+     * @param player the player name
+     * @return the player's statistics, or {@code null} if the player is unknown
+     */
+    public PlayerStatistics player(String player) {
+        int id = players.find(player);
+        return id == NONE ? null : statistics(id);
+    }
+
+    /**
+     * @param league the league name
+     * @param limit  the maximum number of players returned
+     * @return the league's top scorers, or {@code null} if the league is unknown
+     */
+    public List<PlayerStatistics> topScorers(String league, int limit) {
+        int id = leagues.find(league);
+        if (id == NONE) {
+            return null;
+        }
+        int[] scorers = leagueScorers[id];
+        List<PlayerStatistics> statistics = new ArrayList<>(Math.min(limit, scorers.length));
+        for (int i = 0; i < scorers.length && i < limit; i++) {
+            statistics.add(statistics(scorers[i]));
+        }
+        return statistics;
+    }
+
+    /**
+     * @param sport   the sport
+     * @param country the country
+     * @return the latest participation figure, or {@code null} if there is none
+     */
+    public Participation participation(String sport, String country) {
+        int sportId = sports.find(sport);
+        int countryId = countries.find(country);
+        if (sportId == NONE || countryId == NONE) {
+            return null;
+        }
+        int key = sportId * participationCountries + countryId;
+        return participants[key] == NONE
+                ? null
+                : new Participation(sports.name(sportId), countries.name(countryId), participationYear[key],
+                participants[key]);
+    }
+
+    /**
+     * @return the names of all leagues
+     */
+    public List<String> leagues() {
+        return IntStream.range(0, leagues.size()).mapToObj(leagues::name).toList();
+    }
+
+    public int teamCount() {
+        return teams.size();
+    }
+
+    public int playerCount() {
+        return players.size();
+    }
+
+    private TeamStanding standing(int team) {
+        return new TeamStanding(teams.name(team), leagues.name(teamLeague[team]), seasons.name(teamSeason[team]),
+                tablePosition[team], played[team], won[team], drawn[team], lost[team], goalsFor[team],
+                goalsAgainst[team], points[team]);
+    }
+
+    private PlayerStatistics statistics(int player) {
+        int team = playerTeam[player];
+        return new PlayerStatistics(players.name(player), teams.name(team), leagues.name(teamLeague[team]),
+                sports.name(playerSport[player]), positions.name(playerPosition[player]),
+                countries.name(playerCountry[player]), seasons.name(playerSeason[player]), appearances[player],
+                goals[player], assists[player]);
+    }
+
+    private static int[] sorted(IntStream ids, Comparator<Integer> order) {
+        return ids.boxed().sorted(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int parseInt(String[] row, int column) {
+        try {
+            return Integer.parseInt(row[column]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number in column " + (column + 1) + ": " + String.join(",", row));
+        }
+    }
+
+    /**
+     * Reads a CSV file, checking its header and the number of columns of every row.
+     */
+    private static List<String[]> read(Reader reader, String... columns) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+        boolean header = true;
+        for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] row = line.split(",", -1);
+            for (int i = 0; i < row.length; i++) {
+                row[i] = row[i].strip();
+            }
+            if (header) {
+                if (!Arrays.equals(row, columns)) {
+                    throw new IllegalArgumentException("Expected columns " + String.join(",", columns) + " but found " + line);
+                }
+                header = false;
+            } else if (row.length != columns.length) {
+                throw new IllegalArgumentException("Expected " + columns.length + " columns: " + line);
+            } else {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,82 @@
+package com.xai.tools;
+
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+
+import java.util.List;
+
+/**
+ * Tools the model can call to look up sports statistics instead of guessing them.
+ *
+ * <p>Every method is a read of the {@link SportsStatisticsIndex}: pure, fast and safe to
+ * run concurrently, which is what lets the tool calls of one turn run in parallel and
+ * their results be cached. An unknown name raises {@link IllegalArgumentException},
+ * whose message is returned to the model so it can correct the call.</p>
+ */
+public class SportsStatisticsTools {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private static final int MAX_LIMIT = 50;
+
+    private final SportsStatisticsIndex index;
+
+    public SportsStatisticsTools(SportsStatisticsIndex index) {
+        this.index = index;
+    }
+
+    @Tool(name = "team_standing", description = "Get a team's position, record and points in its league table")
+    public TeamStanding teamStanding(@ToolParam(description = "Team name, e.g. Bayern Munich") String team) {
+        TeamStanding standing = index.team(team);
+        if (standing == null) {
+            throw new IllegalArgumentException("Unknown team: " + team);
+        }
+        return standing;
+    }
+
+    @Tool(name = "league_table", description = "Get the top of a league table, ordered by position")
+    public List<TeamStanding> leagueTable(
+            @ToolParam(description = "League name, e.g. Premier League") String league,
+            @ToolParam(description = "Number of teams, default 10", required = false) Integer limit) {
+        List<TeamStanding> table = index.leagueTable(league, limit(limit));
+        if (table == null) {
+            throw new IllegalArgumentException("Unknown league: " + league + "; known leagues: " + index.leagues());
+        }
+        return table;
+    }
+
+    @Tool(name = "player_statistics", description = "Get a player's league appearances, goals and assists")
+    public PlayerStatistics playerStatistics(@ToolParam(description = "Full player name, e.g. Harry Kane") String player) {
+        PlayerStatistics statistics = index.player(player);
+        if (statistics == null) {
+            throw new IllegalArgumentException("Unknown player: " + player);
+        }
+        return statistics;
+    }
+
+    @Tool(name = "top_scorers", description = "Get a league's top scorers, ordered by goals")
+    public List<PlayerStatistics> topScorers(
+            @ToolParam(description = "League name, e.g. Bundesliga") String league,
+            @ToolParam(description = "Number of players, default 10", required = false) Integer limit) {
+        List<PlayerStatistics> scorers = index.topScorers(league, limit(limit));
+        if (scorers == null) {
+            throw new IllegalArgumentException("Unknown league: " + league + "; known leagues: " + index.leagues());
+        }
+        return scorers;
+    }
+
+    @Tool(name = "sport_participation", description = "Get how many people play a sport in a country")
+    public Participation sportParticipation(
+            @ToolParam(description = "Sport, e.g. Pickleball") String sport,
+            @ToolParam(description = "Country, e.g. India") String country) {
+        Participation participation = index.participation(sport, country);
+        if (participation == null) {
+            throw new IllegalArgumentException("No participation figure for " + sport + " in " + country);
+        }
+        return participation;
+    }
+
+    private static int limit(Integer limit) {
+        return limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+    }
+}
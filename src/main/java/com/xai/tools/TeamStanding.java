@@ -0,0 +1,20 @@
+package com.xai.tools;
+
+/**
+ * A team's line in its league table.
+ *
+ * @param team         the team
+ * @param league       the league
+ * @param season       the season of the table, e.g. {@code 2023-24}
+ * @param position     the team's position, from {@code 1}
+ * @param played       matches played
+ * @param won          matches won
+ * @param drawn        matches drawn
+ * @param lost         matches lost
+ * @param goalsFor     goals scored
+ * @param goalsAgainst goals conceded
+ * @param points       league points, after any deduction
+ */
+public record TeamStanding(String team, String league, String season, int position, int played, int won,
+                           int drawn, int lost, int goalsFor, int goalsAgainst, int points) {
+}
@@ -0,0 +1,94 @@
+package com.xai.tools;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Results of tool calls, keyed by tool and arguments.
+ *
+ * <p>Models repeat the same lookups across turns and requests ("Premier League table"),
+ * and a parallel pre-execution must hand its results to the sequential pass that
+ * follows; both read through this cache. Arguments are keyed by their top-level
+ * properties in sorted order, so {@code {"a":1,"b":2}} and {@code {"b":2, "a":1}}
+ * share an entry. Concurrent calls with the same key run the tool once; failures are
+ * not cached.</p>
+ *
+ * <p>Only tools without side effects may be cached. Meters: Caffeine statistics under
+ * {@code ai.tools.cache}.</p>
+ */
+public class ToolResultCache {
+
+    private static final SortedObject SORTED_OBJECT = new SortedObject();
+
+    private final Cache<Key, String> results;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param maxEntries    maximum number of cached results
+     * @param ttl           time after which a result is recomputed
+     * @param objectMapper  reads the arguments to normalize them
+     * @param meterRegistry registry for the cache metrics, or {@code null}
+     */
+    public ToolResultCache(long maxEntries, Duration ttl, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.objectMapper = objectMapper;
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, results, "ai.tools.cache");
+        }
+    }
+
+    /**
+     * Returns the cached result of a call, running it on a miss.
+     *
+     * @param tool      the tool name
+     * @param arguments the JSON arguments of the call
+     * @param call      runs the tool
+     * @return the result
+     */
+    public String get(String tool, String arguments, Supplier<String> call) {
+        return results.get(new Key(tool, canonical(arguments)), key -> call.get());
+    }
+
+    public long size() {
+        return results.estimatedSize();
+    }
+
+    private String canonical(String arguments) {
+        if (arguments == null || arguments.isBlank()) {
+            return "{}";
+        }
+        try {
+            return objectMapper.writeValueAsString(objectMapper.readValue(arguments, SORTED_OBJECT));
+        } catch (JsonProcessingException e) {
+            return arguments.strip();
+        }
+    }
+
+    private record Key(String tool, String arguments) {
+    }
+
+    /**
+     * The {@code TreeMap<String, Object>} the arguments are read into. A named subclass,
+     * so {@code ApplicationRuntimeHints} can keep its generic signature in the native
+     * image by class literal.
+     */
+    public static final class SortedObject extends TypeReference<TreeMap<String, Object>> {
+
+        private SortedObject() {
+        }
+    }
+}
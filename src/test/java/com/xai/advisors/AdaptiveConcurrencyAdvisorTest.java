@@ -0,0 +1,102 @@
+package com.xai.advisors;
+
+import com.xai.appconfig.ConcurrencyLimitProperties;
+import com.xai.resilience.CapacityExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyAdvisorTest {
+
+    private static final ChatClientRequest REQUEST = ChatClientRequest.builder()
+            .prompt(new Prompt("hello"))
+            .context(Map.of())
+            .build();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AdaptiveConcurrencyAdvisor advisor;
+
+    AdaptiveConcurrencyAdvisorTest() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        properties.setMaxLimit(1);
+        advisor = new AdaptiveConcurrencyAdvisor(properties, meterRegistry);
+    }
+
+    @Test
+    void aStreamThatFailsToStartReleasesItsSlot() {
+        // Regression: a chain throwing from nextStream itself left the slot taken for good.
+        StreamAdvisorChain failing = chain(() -> {
+            throw new IllegalStateException("No stream");
+        });
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> advisor.adviseStream(REQUEST, failing).blockLast(Duration.ofSeconds(5)))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void aStreamShedFurtherDownReleasesItsSlot() {
+        StreamAdvisorChain shedding = chain(() -> {
+            throw new CapacityExceededException("Shed", "queue_full", Duration.ofSeconds(1));
+        });
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> advisor.adviseStream(REQUEST, shedding).blockLast(Duration.ofSeconds(5)))
+                    .isInstanceOfSatisfying(CapacityExceededException.class,
+                            e -> assertThat(e.getReason()).isEqualTo("queue_full"));
+        }
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void aStreamHoldsItsSlotUntilItEnds() {
+        Flux<ChatClientResponse> first = advisor.adviseStream(REQUEST, chain(Flux::never));
+        Disposable subscription = first.subscribe();
+
+        assertThatThrownBy(() -> advisor.adviseStream(REQUEST, chain(Flux::empty)).blockLast(Duration.ofSeconds(5)))
+                .isInstanceOfSatisfying(CapacityExceededException.class,
+                        e -> assertThat(e.getReason()).isEqualTo("concurrency_limit"));
+
+        subscription.dispose();
+        assertThat(inFlight()).isZero();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("ai.concurrency.in.flight").gauge().value();
+    }
+
+    private static StreamAdvisorChain chain(Supplier<Flux<ChatClientResponse>> stream) {
+        return new StreamAdvisorChain() {
+
+            @Override
+            public Flux<ChatClientResponse> nextStream(ChatClientRequest chatClientRequest) {
+                return stream.get();
+            }
+
+            @Override
+            public List<StreamAdvisor> getStreamAdvisors() {
+                return List.of();
+            }
+        };
+    }
+}
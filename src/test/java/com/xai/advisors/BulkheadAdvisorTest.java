@@ -0,0 +1,122 @@
+package com.xai.advisors;
+
+import com.xai.appconfig.BulkheadProperties;
+import com.xai.resilience.Bulkhead;
+import com.xai.resilience.BulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadAdvisorTest {
+
+    private static final String MODEL = "model";
+
+    private final BulkheadRegistry bulkheads;
+
+    private final BulkheadAdvisor advisor;
+
+    private final ChatClient chatClient;
+
+    BulkheadAdvisorTest() {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.getDefaults().setMaxConcurrent(1);
+        bulkheads = new BulkheadRegistry(properties, new SimpleMeterRegistry());
+        advisor = new BulkheadAdvisor(bulkheads);
+        chatClient = ChatClient.builder(new EchoChatModel()).defaultAdvisors(advisor).build();
+    }
+
+    @AfterEach
+    void shutdown() {
+        advisor.shutdown();
+    }
+
+    @Test
+    void aCompletedStreamReturnsItsPermit() {
+        Bulkhead bulkhead = bulkhead();
+
+        List<String> replies = stream().map(response -> response.getResult().getOutput().getText())
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(replies).containsExactly("hello");
+        assertThat(bulkhead.active()).isZero();
+    }
+
+    @Test
+    void aStreamCancelledWhileWaitingLeavesThePermitFree() throws InterruptedException {
+        Bulkhead held = bulkheads.acquire(MODEL);
+        Disposable subscription = stream().subscribe();
+        await(() -> held.queued() == 1);
+
+        subscription.dispose();
+        held.release();
+
+        await(() -> held.active() == 0 && held.queued() == 0);
+    }
+
+    @Test
+    void streamsCancelledDuringAcquisitionDoNotLeakPermits() throws InterruptedException {
+        // Regression: a cancel racing the acquisition left the acquired permit unreleased.
+        Bulkhead bulkhead = bulkhead();
+        for (int i = 0; i < 200; i++) {
+            stream().subscribe().dispose();
+        }
+
+        await(() -> bulkhead.active() == 0 && bulkhead.queued() == 0);
+        assertThat(stream().blockLast(Duration.ofSeconds(5))).isNotNull();
+    }
+
+    private Flux<ChatResponse> stream() {
+        return chatClient.prompt()
+                .options(ChatOptions.builder().model(MODEL).build())
+                .user("hello")
+                .stream()
+                .chatResponse();
+    }
+
+    private Bulkhead bulkhead() {
+        Bulkhead bulkhead = bulkheads.acquire(MODEL);
+        bulkhead.release();
+        return bulkhead;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    /**
+     * Answers with the prompt, in a single chunk when streaming.
+     */
+    private static final class EchoChatModel implements ChatModel {
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(prompt.getUserMessage().getText()))));
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return Flux.defer(() -> Flux.just(call(prompt)));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.xai.advisors;
+
+import com.xai.appconfig.DeadlineProperties;
+import com.xai.resilience.Deadline;
+import com.xai.resilience.DeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineAdvisorTest {
+
+    private final SlowChatModel model = new SlowChatModel();
+
+    private final DeadlineAdvisor advisor;
+
+    private final ChatClient chatClient;
+
+    DeadlineAdvisorTest() {
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setFirstTokenAllowance(Duration.ZERO);
+        properties.setMinTokens(1);
+        advisor = new DeadlineAdvisor(properties, new SimpleMeterRegistry());
+        chatClient = ChatClient.builder(model).defaultAdvisors(advisor).build();
+    }
+
+    @AfterEach
+    void shutdown() {
+        advisor.shutdown();
+        Thread.interrupted();
+    }
+
+    @Test
+    void aCallRunningPastTheDeadlineIsCancelled() throws InterruptedException {
+        long start = System.nanoTime();
+
+        assertThatThrownBy(() -> call("slow", Duration.ofMillis(200)))
+                .isInstanceOf(DeadlineExceededException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(model.interrupted).isTrue();
+        // The interrupt does not leak into the rest of the request.
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+        Thread.sleep(100);
+        assertThat(model.calls).hasValue(1);
+    }
+
+    @Test
+    void aCallAnsweredInTimeLeavesTheThreadAlone() throws InterruptedException {
+        assertThat(call("fast", Duration.ofMillis(200))).isEqualTo("fast");
+
+        Thread.sleep(400);
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void anExpiredDeadlineIsRejectedWithoutCallingTheModel() {
+        assertThatThrownBy(() -> call("fast", Duration.ZERO))
+                .isInstanceOf(DeadlineExceededException.class)
+                .hasMessageContaining("before the model call");
+
+        assertThat(model.calls).hasValue(0);
+    }
+
+    @Test
+    void maxTokensIsCappedToWhatFitsBeforeTheDeadline() {
+        call("fast", Duration.ofSeconds(2));
+
+        // 40 tokens per second for at most two seconds.
+        assertThat(model.maxTokens.get()).isBetween(1, 80);
+    }
+
+    @Test
+    void aStreamRunningPastTheDeadlineIsCancelledUpstream() {
+        Flux<ChatResponse> stream = chatClient.prompt()
+                .advisors(AdvisorContext.deadline(Deadline.after(Duration.ofMillis(200))))
+                .user("slow")
+                .stream()
+                .chatResponse();
+
+        assertThatThrownBy(() -> stream.blockLast(Duration.ofSeconds(5)))
+                .isInstanceOf(DeadlineExceededException.class);
+        assertThat(model.cancelled).isTrue();
+        assertThat(model.calls).hasValue(1);
+    }
+
+    private String call(String text, Duration timeout) {
+        return chatClient.prompt()
+                .advisors(AdvisorContext.deadline(Deadline.after(timeout)))
+                .user(text)
+                .call()
+                .content();
+    }
+
+    /**
+     * Answers {@code fast} prompts at once; {@code slow} ones block until interrupted,
+     * as a blocking HTTP client does, or stream nothing until cancelled.
+     */
+    private static final class SlowChatModel implements ChatModel {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private final AtomicReference<Integer> maxTokens = new AtomicReference<>();
+
+        private volatile boolean interrupted;
+
+        private volatile boolean cancelled;
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            calls.incrementAndGet();
+            maxTokens.set(prompt.getOptions().getMaxTokens());
+            String text = prompt.getUserMessage().getText();
+            if (text.equals("slow")) {
+                try {
+                    Thread.sleep(Duration.ofSeconds(30));
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Upstream call interrupted", e);
+                }
+            }
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            calls.incrementAndGet();
+            return Flux.<ChatResponse>never().doOnCancel(() -> cancelled = true);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.xai.advisors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PromptOptionsTest {
+
+    @Test
+    void keepsTheOtherOptions() {
+        Prompt prompt = new Prompt("hello", ToolCallingChatOptions.builder()
+                .model("small")
+                .temperature(0.2)
+                .toolNames("lookup")
+                .toolContext(Map.of("tenant", "a"))
+                .build());
+
+        Prompt modified = PromptOptions.withMaxTokens(PromptOptions.withModel(prompt, "large"), 100);
+
+        ToolCallingChatOptions options = (ToolCallingChatOptions) modified.getOptions();
+        assertThat(options.getModel()).isEqualTo("large");
+        assertThat(options.getMaxTokens()).isEqualTo(100);
+        assertThat(options.getTemperature()).isEqualTo(0.2);
+        assertThat(options.getToolNames()).containsExactly("lookup");
+        assertThat(options.getToolContext()).containsEntry("tenant", "a");
+        assertThat(prompt.getOptions().getModel()).isEqualTo("small");
+    }
+
+    @Test
+    void addsOptionsToAPromptWithout() {
+        Prompt modified = PromptOptions.withModel(new Prompt("hello"), "large");
+
+        assertThat(modified.getOptions().getModel()).isEqualTo("large");
+        assertThat(modified.getUserMessage().getText()).isEqualTo("hello");
+    }
+
+    @Test
+    void rejectsOptionsItCannotCopyFaithfully() {
+        Prompt prompt = new Prompt("hello", new ProviderOptions());
+
+        assertThatThrownBy(() -> PromptOptions.withMaxTokens(prompt, 100))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(ProviderOptions.class.getName());
+    }
+
+    /**
+     * Stands in for a provider's own option type.
+     */
+    private static final class ProviderOptions implements ChatOptions {
+
+        @Override
+        public String getModel() {
+            return "provider-model";
+        }
+
+        @Override
+        public Double getFrequencyPenalty() {
+            return null;
+        }
+
+        @Override
+        public Integer getMaxTokens() {
+            return null;
+        }
+
+        @Override
+        public Double getPresencePenalty() {
+            return null;
+        }
+
+        @Override
+        public List<String> getStopSequences() {
+            return null;
+        }
+
+        @Override
+        public Double getTemperature() {
+            return null;
+        }
+
+        @Override
+        public Integer getTopK() {
+            return null;
+        }
+
+        @Override
+        public Double getTopP() {
+            return null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends ChatOptions> T copy() {
+            return (T) new ProviderOptions();
+        }
+    }
+}
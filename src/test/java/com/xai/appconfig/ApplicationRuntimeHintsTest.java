@@ -0,0 +1,47 @@
+package com.xai.appconfig;
+
+import com.xai.entities.AiResponse;
+import com.xai.jobs.Job;
+import com.xai.structured.StructuredOutputRegistry;
+import com.xai.tools.SportsStatisticsTools;
+import com.xai.tools.TeamStanding;
+import com.xai.tools.ToolResultCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApplicationRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    ApplicationRuntimeHintsTest() {
+        new ApplicationRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersJsonBindingOfEntitiesJobsAndToolResults() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(AiResponse.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethodInvocation(AiResponse.class, "getTitle")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(Job.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(Job.State.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(TeamStanding.class)).accepts(hints);
+    }
+
+    @Test
+    void keepsTheGenericSignaturesOfTypeReferences() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(StructuredOutputRegistry.AI_RESPONSE_LIST.getClass()))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(ToolResultCache.SortedObject.class)).accepts(hints);
+    }
+
+    @Test
+    void registersToolMethodsAndClasspathResources() {
+        assertThat(RuntimeHintsPredicates.reflection().onMethodInvocation(SportsStatisticsTools.class, "teamStanding"))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("prompts/system-message.st")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("statistics/teams.csv")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("corpus/football.md")).accepts(hints);
+    }
+}
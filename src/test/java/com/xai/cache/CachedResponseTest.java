@@ -0,0 +1,38 @@
+package com.xai.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedResponseTest {
+
+    @Test
+    void capturesACompleteReply() {
+        assertThat(CachedResponse.of(reply("hello", "STOP"))).isEqualTo(new CachedResponse("hello", "gpt-4o"));
+        assertThat(CachedResponse.of(reply("hello", null))).isEqualTo(new CachedResponse("hello", "gpt-4o"));
+    }
+
+    @Test
+    void skipsTruncatedAndEmptyReplies() {
+        assertThat(CachedResponse.of(reply("hel", "LENGTH"))).isNull();
+        assertThat(CachedResponse.of(reply("hel", "length"))).isNull();
+        assertThat(CachedResponse.of(reply(null, "STOP"))).isNull();
+        assertThat(CachedResponse.of(null)).isNull();
+    }
+
+    private static ChatResponse reply(String text, String finishReason) {
+        Generation generation = new Generation(new AssistantMessage(text),
+                ChatGenerationMetadata.builder().finishReason(finishReason).build());
+        return ChatResponse.builder()
+                .generations(List.of(generation))
+                .metadata(ChatResponseMetadata.builder().model("gpt-4o").build())
+                .build();
+    }
+}
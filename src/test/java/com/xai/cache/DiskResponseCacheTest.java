@@ -0,0 +1,73 @@
+package com.xai.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskResponseCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void entriesSurviveReopenAndTornTailIsDropped() throws Exception {
+        Path file = directory.resolve("cache.log");
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        try (DiskResponseCache cache = new DiskResponseCache(file, 1024 * 1024)) {
+            cache.put("a", new CachedResponse("first", "gpt-4o"), expiresAt);
+            cache.put("a", new CachedResponse("second", "gpt-4o"), expiresAt);
+            cache.put("b", new CachedResponse("other", null), expiresAt);
+        }
+        Files.write(file, new byte[]{0, 0, 0, 64, 1}, StandardOpenOption.APPEND);
+
+        try (DiskResponseCache cache = new DiskResponseCache(file, 1024 * 1024)) {
+            assertThat(cache.get("a").text()).isEqualTo("second");
+            assertThat(cache.get("b").model()).isNull();
+            assertThat(cache.get("c")).isNull();
+        }
+    }
+
+    @Test
+    void compactionKeepsOnlyLatestLiveEntries() {
+        Path file = directory.resolve("cache.log");
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        try (DiskResponseCache cache = new DiskResponseCache(file, 2048)) {
+            for (int i = 0; i < 200; i++) {
+                cache.put("key-" + (i % 5), new CachedResponse("value-" + i, null), expiresAt);
+            }
+            cache.put("expired", new CachedResponse("gone", null), System.currentTimeMillis() - 1);
+
+            assertThat(cache.get("key-4").text()).isEqualTo("value-199");
+            assertThat(cache.get("expired")).isNull();
+            assertThat(Files.size(file)).isLessThanOrEqualTo(2048);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    void evictsOldestEntriesToStayWithinMaxBytes() throws Exception {
+        Path file = directory.resolve("cache.log");
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        try (DiskResponseCache cache = new DiskResponseCache(file, 2048)) {
+            for (int i = 0; i < 200; i++) {
+                cache.put("key-" + i, new CachedResponse("value-" + i, null), expiresAt);
+                assertThat(Files.size(file)).isLessThanOrEqualTo(2048);
+            }
+            cache.put("huge", new CachedResponse("x".repeat(2048), null), expiresAt);
+
+            assertThat(cache.get("key-199").text()).isEqualTo("value-199");
+            assertThat(cache.get("key-0")).isNull();
+            assertThat(cache.get("huge")).isNull();
+            assertThat(cache.size()).isLessThan(200);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.xai.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+
+    @Test
+    void findsTrueNearestNeighbourForMostQueries() {
+        Random random = new Random(7);
+        float[][] vectors = randomVectors(random, 5_000);
+        HnswIndex<Integer> index = new HnswIndex<>(DIMENSIONS, vectors.length, 16, 100, 64, 42);
+        for (int i = 0; i < vectors.length; i++) {
+            index.add(vectors[i], i);
+        }
+
+        int hits = 0;
+        int queries = 200;
+        for (float[] query : randomVectors(random, queries)) {
+            List<HnswIndex.Match<Integer>> matches = index.search(query, 1);
+            if (!matches.isEmpty() && matches.get(0).payload() == bruteForceNearest(vectors, query)) {
+                hits++;
+            }
+        }
+        assertThat(hits / (double) queries).isGreaterThan(0.9);
+    }
+
+    @Test
+    void evictsOldestEntriesOnceFull() {
+        Random random = new Random(11);
+        float[][] vectors = randomVectors(random, 300);
+        HnswIndex<Integer> index = new HnswIndex<>(DIMENSIONS, 100, 8, 50, 32, 42);
+        for (int i = 0; i < vectors.length; i++) {
+            index.add(vectors[i], i);
+        }
+
+        assertThat(index.size()).isEqualTo(100);
+        assertThat(index.search(vectors[299], 1).get(0).payload()).isEqualTo(299);
+        assertThat(index.search(vectors[0], 1).get(0).payload()).isGreaterThanOrEqualTo(200);
+    }
+
+    @Test
+    void deletedEntriesAreNotReturned() {
+        HnswIndex<String> index = new HnswIndex<>(DIMENSIONS, 10, 4, 10, 10, 42);
+        float[][] vectors = randomVectors(new Random(3), 2);
+        int slot = index.add(vectors[0], "first");
+        index.add(vectors[1], "second");
+
+        index.delete(slot);
+
+        assertThat(index.search(vectors[0], 2)).extracting(HnswIndex.Match::payload).containsExactly("second");
+    }
+
+    @Test
+    void searchesBeyondTheBufferPoolWaitForABuffer() throws Exception {
+        float[][] vectors = randomVectors(new Random(5), 1_000);
+        HnswIndex<Integer> index = new HnswIndex<>(DIMENSIONS, vectors.length, 8, 50, 32, 42);
+        for (int i = 0; i < vectors.length; i++) {
+            index.add(vectors[i], i);
+        }
+
+        List<Future<Integer>> found = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 500; i++) {
+                float[] query = vectors[i];
+                found.add(executor.submit(() -> index.search(query, 1).get(0).payload()));
+            }
+        }
+
+        for (int i = 0; i < found.size(); i++) {
+            assertThat(found.get(i).get()).isEqualTo(index.search(vectors[i], 1).get(0).payload());
+        }
+    }
+
+    @Test
+    void hashingEmbedderPlacesParaphrasesCloserThanUnrelatedPrompts() {
+        HashingPromptEmbedder embedder = new HashingPromptEmbedder(256);
+        HnswIndex<String> index = new HnswIndex<>(256, 10, 4, 10, 10, 42);
+        index.add(embedder.embed("Who won the football world cup in 2022?"), "football");
+        index.add(embedder.embed("Explain the rules of cricket"), "cricket");
+
+        HnswIndex.Match<String> match = index.search(embedder.embed("Which team won the 2022 football World Cup"), 1).get(0);
+
+        assertThat(match.payload()).isEqualTo("football");
+        assertThat(match.similarity()).isGreaterThan(0.7f);
+    }
+
+    private static float[][] randomVectors(Random random, int count) {
+        float[][] vectors = new float[count][DIMENSIONS];
+        for (float[] vector : vectors) {
+            for (int i = 0; i < DIMENSIONS; i++) {
+                vector[i] = (float) random.nextGaussian();
+            }
+        }
+        return vectors;
+    }
+
+    private static int bruteForceNearest(float[][] vectors, float[] query) {
+        int best = -1;
+        double bestSimilarity = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < vectors.length; i++) {
+            double dot = 0;
+            double norm = 0;
+            for (int j = 0; j < DIMENSIONS; j++) {
+                dot += vectors[i][j] * query[j];
+                norm += vectors[i][j] * vectors[i][j];
+            }
+            double similarity = dot / Math.sqrt(norm);
+            if (similarity > bestSimilarity) {
+                bestSimilarity = similarity;
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,94 @@
+package com.xai.cache;
+
+import com.xai.resilience.Deadline;
+import com.xai.resilience.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallsForSameKeyShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            List<Future<SingleFlight.Result<String>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("prompt", () -> {
+                    executions.incrementAndGet();
+                    leaderStarted.countDown();
+                    await(release);
+                    return "answer";
+                })));
+            }
+            leaderStarted.await();
+            while (singleFlight.followers("prompt") < callers - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            long shared = 0;
+            for (Future<SingleFlight.Result<String>> result : results) {
+                assertThat(result.get().value()).isEqualTo("answer");
+                shared += result.get().shared() ? 1 : 0;
+            }
+            assertThat(executions.get()).isEqualTo(1);
+            assertThat(shared).isEqualTo(callers - 1);
+        }
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void failureIsReleasedSoNextCallRunsAgain() {
+        assertThatThrownBy(() -> singleFlight.execute("prompt", () -> {
+            throw new IllegalStateException("429");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.execute("prompt", () -> "retried").value()).isEqualTo("retried");
+    }
+
+    @Test
+    void followerStopsWaitingAtItsDeadline() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<SingleFlight.Result<String>> leader = executor.submit(() -> singleFlight.execute("prompt", () -> {
+                leaderStarted.countDown();
+                await(release);
+                return "answer";
+            }));
+            leaderStarted.await();
+
+            assertThatThrownBy(() -> singleFlight.execute("prompt", Deadline.after(Duration.ofMillis(20)), () -> "own"))
+                    .isInstanceOf(DeadlineExceededException.class);
+
+            release.countDown();
+            assertThat(leader.get().value()).isEqualTo("answer");
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
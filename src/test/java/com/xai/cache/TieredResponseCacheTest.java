@@ -0,0 +1,43 @@
+package com.xai.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TieredResponseCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void aPromotedEntryKeepsItsDiskExpiry() throws Exception {
+        DiskResponseCache disk = new DiskResponseCache(directory.resolve("cache.log"), 1024 * 1024);
+        try (TieredResponseCache cache = new TieredResponseCache(100, Duration.ofHours(1), disk, new SimpleMeterRegistry())) {
+            disk.put("a", new CachedResponse("stored", "gpt-4o"), System.currentTimeMillis() + 200);
+
+            assertThat(cache.get("a")).isEqualTo(new CachedResponse("stored", "gpt-4o"));
+            Thread.sleep(400);
+
+            assertThat(cache.get("a")).isNull();
+        }
+    }
+
+    @Test
+    void writesAreServedFromMemoryForTheTtl() throws Exception {
+        DiskResponseCache disk = new DiskResponseCache(directory.resolve("cache.log"), 1024 * 1024);
+        try (TieredResponseCache cache = new TieredResponseCache(100, Duration.ofMillis(200), disk, new SimpleMeterRegistry())) {
+            cache.put("a", new CachedResponse("fresh", null));
+
+            assertThat(cache.get("a")).isEqualTo(new CachedResponse("fresh", null));
+            assertThat(disk.getEntry("a").expiresAt()).isGreaterThan(System.currentTimeMillis());
+            Thread.sleep(400);
+
+            assertThat(cache.get("a")).isNull();
+        }
+    }
+}
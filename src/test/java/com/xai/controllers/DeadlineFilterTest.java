@@ -0,0 +1,120 @@
+package com.xai.controllers;
+
+import com.xai.advisors.AdvisorContext;
+import com.xai.advisors.DeadlineAdvisor;
+import com.xai.appconfig.DeadlineProperties;
+import com.xai.resilience.Deadline;
+import com.xai.services.AiEndpoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DeadlineFilterTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final MockMvc mockMvc;
+
+    DeadlineFilterTest() {
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setFirstTokenAllowance(Duration.ZERO);
+        properties.setMinTokens(1);
+        properties.setMaxTimeout(Duration.ofSeconds(10));
+        ChatClient chatClient = ChatClient.builder(new SlowChatModel())
+                .defaultAdvisors(new DeadlineAdvisor(properties, new SimpleMeterRegistry()))
+                .build();
+        mockMvc = MockMvcBuilders.standaloneSetup(new ChatController(chatClient))
+                .addFilters(new DeadlineFilter(properties))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void aCallPastTheClientsTimeoutIsAnsweredWithGatewayTimeout() throws Exception {
+        long start = System.nanoTime();
+
+        mockMvc.perform(get("/chat").param("prompt", "slow").header("X-Request-Timeout", "300ms"))
+                .andExpect(status().isGatewayTimeout());
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(calls).hasValue(1);
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+        assertThat(Deadline.current()).isNull();
+    }
+
+    @Test
+    void aCallWithinTheClientsTimeoutIsAnswered() throws Exception {
+        mockMvc.perform(get("/chat").param("prompt", "fast").header("X-Request-Timeout", "2s"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("fast"));
+    }
+
+    @Test
+    void aMalformedOrNonPositiveTimeoutIsRejected() throws Exception {
+        mockMvc.perform(get("/chat").param("prompt", "fast").header("X-Request-Timeout", "soon"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/chat").param("prompt", "fast").header("X-Request-Timeout", "0s"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(calls).hasValue(0);
+    }
+
+    @RestController
+    static class ChatController {
+
+        private final ChatClient chatClient;
+
+        ChatController(ChatClient chatClient) {
+            this.chatClient = chatClient;
+        }
+
+        @GetMapping("/chat")
+        String chat(@RequestParam String prompt) {
+            return chatClient.prompt()
+                    .advisors(AdvisorContext.endpoint(AiEndpoint.CHAT))
+                    .user(prompt)
+                    .call()
+                    .content();
+        }
+    }
+
+    /**
+     * Answers {@code fast} prompts at once; {@code slow} ones block until interrupted.
+     */
+    private final class SlowChatModel implements ChatModel {
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            calls.incrementAndGet();
+            String text = prompt.getUserMessage().getText();
+            if (text.equals("slow")) {
+                try {
+                    Thread.sleep(Duration.ofSeconds(30));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Upstream call interrupted", e);
+                }
+            }
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.xai.jobs;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CallbackPolicyTest {
+
+    private static final Map<String, String> DNS = Map.of(
+            "hooks.example.com", "93.184.216.34",
+            "a.partner.example", "203.0.113.10",
+            "rebound.partner.example", "169.254.169.254",
+            "intranet.partner.example", "10.1.2.3");
+
+    private final CallbackPolicy policy = new CallbackPolicy(List.of("hooks.example.com", "*.partner.example",
+            "localhost", "127.0.0.1"), CallbackPolicyTest::resolve);
+
+    @Test
+    void acceptsAllowedHostsResolvingToPublicAddresses() {
+        assertThatCode(() -> policy.check("https://hooks.example.com/ai")).doesNotThrowAnyException();
+        assertThatCode(() -> policy.check("http://A.Partner.example:8443/x")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejectsHostsOffTheAllowlist() {
+        assertThatThrownBy(() -> policy.check("https://evil.example.org/")).hasMessageContaining("not allowed");
+        assertThatThrownBy(() -> policy.check("https://partner.example/")).hasMessageContaining("not allowed");
+        assertThatThrownBy(() -> policy.check("ftp://hooks.example.com/")).hasMessageContaining("http(s)");
+        assertThatThrownBy(() -> policy.check("https://user:pw@hooks.example.com/"))
+                .hasMessageContaining("credentials");
+    }
+
+    @Test
+    void rejectsAllowedHostsResolvingToPrivateAddresses() {
+        assertThatThrownBy(() -> policy.check("http://localhost/")).hasMessageContaining("private address");
+        assertThatThrownBy(() -> policy.check("http://127.0.0.1/")).hasMessageContaining("private address");
+        assertThatThrownBy(() -> policy.check("http://rebound.partner.example/"))
+                .hasMessageContaining("private address");
+        assertThatThrownBy(() -> policy.check("http://intranet.partner.example/"))
+                .hasMessageContaining("private address");
+        assertThatThrownBy(() -> policy.check("http://gone.partner.example/")).hasMessageContaining("resolved");
+    }
+
+    @Test
+    void classifiesAddresses() throws UnknownHostException {
+        for (String address : List.of("127.0.0.1", "10.0.0.1", "172.16.0.1", "192.168.1.1", "169.254.169.254",
+                "100.64.0.1", "0.0.0.0", "224.0.0.1", "::1", "fe80::1", "fd00::1", "::ffff:127.0.0.1")) {
+            assertThat(CallbackPolicy.isPublic(InetAddress.getByName(address))).as(address).isFalse();
+        }
+        assertThat(CallbackPolicy.isPublic(InetAddress.getByName("93.184.216.34"))).isTrue();
+        assertThat(CallbackPolicy.isPublic(InetAddress.getByName("2606:4700::1111"))).isTrue();
+    }
+
+    private static InetAddress[] resolve(String host) throws UnknownHostException {
+        String address = "localhost".equals(host) ? "127.0.0.1" : host.equals("127.0.0.1") ? host : DNS.get(host);
+        if (address == null) {
+            throw new UnknownHostException(host);
+        }
+        return new InetAddress[]{InetAddress.getByName(address)};
+    }
+}
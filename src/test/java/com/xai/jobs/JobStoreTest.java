@@ -0,0 +1,110 @@
+package com.xai.jobs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xai.services.AiEndpoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void latestVersionsSurviveReopenAndTornTailIsDropped() throws Exception {
+        Path file = directory.resolve("jobs.log");
+        long now = System.currentTimeMillis();
+
+        try (JobStore store = new JobStore(file, 1024 * 1024, 60_000, false, objectMapper)) {
+            Job done = Job.queued("done", AiEndpoint.RESPONSES, "prompt", null, now);
+            store.put(done);
+            store.put(done.started(now));
+            store.put(done.started(now).succeeded("[{\"answer\":42}]", now));
+            store.put(Job.queued("running", AiEndpoint.CHAT, "prompt", null, now + 1).started(now + 2));
+            store.put(Job.queued("queued", AiEndpoint.CHAT, "prompt", "http://localhost/hook", now + 3));
+        }
+        Files.write(file, new byte[]{0, 0, 0, 64, '{'}, StandardOpenOption.APPEND);
+
+        try (JobStore store = new JobStore(file, 1024 * 1024, 60_000, false, objectMapper)) {
+            assertThat(store.get("done").state()).isEqualTo(Job.State.SUCCEEDED);
+            assertThat(store.get("done").result()).isEqualTo("[{\"answer\":42}]");
+            assertThat(store.get("queued").callbackUrl()).isEqualTo("http://localhost/hook");
+            assertThat(store.get("unknown")).isNull();
+            assertThat(store.unfinished()).extracting(Job::id).containsExactly("running", "queued");
+        }
+    }
+
+    @Test
+    void compactionDropsExpiredFinishedJobs() throws Exception {
+        Path file = directory.resolve("jobs.log");
+        long now = System.currentTimeMillis();
+
+        try (JobStore store = new JobStore(file, 4096, 60_000, false, objectMapper)) {
+            store.put(Job.queued("old", AiEndpoint.CHAT, "prompt", null, now - 120_000)
+                    .started(now - 120_000)
+                    .failed("boom", now - 120_000));
+            store.put(Job.queued("pending", AiEndpoint.CHAT, "prompt", null, now));
+            for (int i = 0; i < 100; i++) {
+                Job job = Job.queued("job-" + (i % 3), AiEndpoint.CHAT, "prompt " + i, null, now);
+                store.put(job.started(now).succeeded("\"reply " + i + "\"", now));
+            }
+
+            assertThat(store.get("old")).isNull();
+            assertThat(store.get("pending").state()).isEqualTo(Job.State.QUEUED);
+            assertThat(store.get("job-0").result()).isEqualTo("\"reply 99\"");
+            assertThat(Files.size(file)).isLessThanOrEqualTo(4096);
+        }
+    }
+
+    @Test
+    void finishedJobsPastTheirRetentionAreNotReturned() throws Exception {
+        Path file = directory.resolve("jobs.log");
+        long now = System.currentTimeMillis();
+
+        try (JobStore store = new JobStore(file, 1024 * 1024, 60_000, false, objectMapper)) {
+            store.put(Job.queued("expired", AiEndpoint.CHAT, "prompt", null, now - 120_000)
+                    .started(now - 120_000)
+                    .succeeded("\"reply\"", now - 90_000));
+            store.put(Job.queued("recent", AiEndpoint.CHAT, "prompt", null, now - 120_000)
+                    .started(now - 120_000)
+                    .succeeded("\"reply\"", now - 30_000));
+            store.put(Job.queued("waiting", AiEndpoint.CHAT, "prompt", null, now - 120_000));
+
+            assertThat(store.compactions()).isZero();
+            assertThat(store.get("expired")).isNull();
+            assertThat(store.get("recent")).isNotNull();
+            assertThat(store.get("waiting")).isNotNull();
+        }
+    }
+
+    @Test
+    void liveDataBeyondTheThresholdDoesNotCompactOnEveryPut() throws Exception {
+        Path file = directory.resolve("jobs.log");
+        long now = System.currentTimeMillis();
+
+        try (JobStore store = new JobStore(file, 1024, 60_000, false, objectMapper)) {
+            for (int i = 0; i < 50; i++) {
+                store.put(Job.queued("job-" + i, AiEndpoint.CHAT, "prompt " + i, null, now));
+            }
+            assertThat(Files.size(file)).isGreaterThan(1024);
+            assertThat(store.compactions()).isZero();
+
+            for (int i = 0; i < 50; i++) {
+                Job running = Job.queued("job-" + i, AiEndpoint.CHAT, "prompt " + i, null, now).started(now);
+                store.put(running);
+                store.put(running.succeeded("\"reply " + i + "\"", now));
+            }
+            assertThat(store.compactions()).isOne();
+            assertThat(store.size()).isEqualTo(50);
+            assertThat(store.get("job-0").state()).isEqualTo(Job.State.SUCCEEDED);
+        }
+    }
+}
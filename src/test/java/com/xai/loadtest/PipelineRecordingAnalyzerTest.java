@@ -0,0 +1,101 @@
+package com.xai.loadtest;
+
+import com.xai.jfr.AdmissionEvent;
+import com.xai.jfr.HttpExchangeEvent;
+import com.xai.jfr.ModelCallEvent;
+import com.xai.jfr.RequestEvent;
+import com.xai.jfr.ResponseConversionEvent;
+import com.xai.jfr.TemplateRenderEvent;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PipelineRecordingAnalyzerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void attributesStagesToTheEnclosingRequestAndComputesStatistics() throws Exception {
+        Path file = directory.resolve("pipeline.jfr");
+        try (Recording recording = new Recording()) {
+            for (Class<? extends Event> type : List.of(RequestEvent.class, TemplateRenderEvent.class,
+                    AdmissionEvent.class, ModelCallEvent.class, HttpExchangeEvent.class,
+                    ResponseConversionEvent.class)) {
+                recording.enable(type).withoutThreshold();
+            }
+            recording.start();
+            for (int i = 0; i < 3; i++) {
+                request();
+            }
+            Thread.sleep(5);
+            ModelCallEvent outside = new ModelCallEvent();
+            outside.begin();
+            outside.endpoint = "chat";
+            outside.commit();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        PipelineRecordingAnalyzer analyzer = PipelineRecordingAnalyzer.read(file);
+
+        Map<String, PipelineRecordingAnalyzer.StageStatistics> stages = analyzer.stages();
+        assertThat(stages).containsOnlyKeys("request", "template-render", "admission:bulkhead", "model-call:chat",
+                "http-exchange", "response-conversion");
+        assertThat(stages.get("request").count()).isEqualTo(3);
+        assertThat(stages.get("model-call:chat").count()).isEqualTo(4);
+        assertThat(stages.get("model-call:chat").meanPromptTokens()).isEqualTo(90.0);
+        assertThat(stages.get("request").p99Nanos()).isEqualTo(stages.get("request").maxNanos());
+
+        PipelineRecordingAnalyzer.RequestBreakdown breakdown = analyzer.breakdowns().get("/api/v1/chat");
+        assertThat(breakdown.requests()).isEqualTo(3);
+        assertThat(breakdown.modelNanos()).isGreaterThanOrEqualTo(4_000_000L);
+        assertThat(breakdown.httpNanos()).isBetween(2_000_000L, breakdown.modelNanos());
+        assertThat(breakdown.totalNanos()).isGreaterThanOrEqualTo(breakdown.admissionNanos() + breakdown.modelNanos());
+    }
+
+    private static void request() throws InterruptedException {
+        RequestEvent request = new RequestEvent();
+        request.begin();
+
+        TemplateRenderEvent template = new TemplateRenderEvent();
+        template.begin();
+        template.template = "user-message";
+        template.commit();
+
+        AdmissionEvent admission = new AdmissionEvent();
+        admission.begin();
+        Thread.sleep(1);
+        admission.gate = "bulkhead";
+        admission.admitted = true;
+        admission.commit();
+
+        ModelCallEvent model = new ModelCallEvent();
+        model.begin();
+        HttpExchangeEvent http = new HttpExchangeEvent();
+        http.begin();
+        Thread.sleep(2);
+        http.commit();
+        Thread.sleep(2);
+        model.endpoint = "chat";
+        model.promptTokens = 120;
+        model.completionTokens = 40;
+        model.commit();
+
+        ResponseConversionEvent conversion = new ResponseConversionEvent();
+        conversion.begin();
+        conversion.commit();
+
+        request.method = "GET";
+        request.path = "/api/v1/chat";
+        request.status = 200;
+        request.commit();
+    }
+}
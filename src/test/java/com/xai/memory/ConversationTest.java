@@ -0,0 +1,76 @@
+package com.xai.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConversationTest {
+
+    private final TurnEncoder encoder = new TurnEncoder(false, false, 256);
+
+    private final Conversation conversation = new Conversation();
+
+    @Test
+    void windowKeepsNewestTurnsWithinBudget() {
+        conversation.append(List.of(turn(Turn.Role.USER, "one", 40), turn(Turn.Role.ASSISTANT, "two", 40),
+                turn(Turn.Role.USER, "three", 40)));
+
+        assertThat(conversation.window(100)).extracting(Turn::text).containsExactly("two", "three");
+        assertThat(conversation.tokens()).isEqualTo(120);
+    }
+
+    @Test
+    void trimDropsOldestTurns() {
+        conversation.append(List.of(turn(Turn.Role.USER, "one", 40), turn(Turn.Role.ASSISTANT, "two", 40),
+                turn(Turn.Role.USER, "three", 40)));
+
+        assertThat(conversation.trimTo(50)).isEqualTo(2);
+        assertThat(conversation.window(1000)).extracting(Turn::text).containsExactly("three");
+    }
+
+    @Test
+    void summaryReplacesFoldedTurnsAndLeadsTheWindow() {
+        conversation.append(List.of(turn(Turn.Role.USER, "one", 40), turn(Turn.Role.ASSISTANT, "two", 40),
+                turn(Turn.Role.USER, "three", 40)));
+
+        List<Turn> fold = conversation.beginSummary(40);
+        assertThat(fold).extracting(Turn::text).containsExactly("one", "two");
+        assertThat(conversation.beginSummary(40)).isEmpty();
+
+        conversation.completeSummary(turn(Turn.Role.SUMMARY, "summary", 10), fold);
+
+        assertThat(conversation.size()).isEqualTo(1);
+        assertThat(conversation.window(100)).extracting(Turn::text).containsExactly("summary", "three");
+        assertThat(conversation.window(30)).extracting(Turn::text).containsExactly("summary");
+    }
+
+    @Test
+    void footprintFollowsTheStoredTurns() {
+        conversation.append(List.of(turn(Turn.Role.USER, "one", 40)));
+        long heapBytes = conversation.heapBytes();
+
+        conversation.trimTo(0);
+
+        assertThat(heapBytes).isPositive();
+        assertThat(conversation.heapBytes()).isZero();
+    }
+
+    @Test
+    void compressedAndOffHeapTurnsRoundTrip() {
+        String text = "The striker scored twice in the final. ".repeat(20) + "Ünïcödé ✓";
+
+        Turn compressed = new TurnEncoder(true, false, 256).encode(Turn.Role.ASSISTANT, text, 200);
+        Turn offHeap = new TurnEncoder(true, true, 256).encode(Turn.Role.ASSISTANT, text, 200);
+
+        assertThat(compressed.text()).isEqualTo(text);
+        assertThat(compressed.heapBytes()).isLessThan(text.length() / 2);
+        assertThat(offHeap.text()).isEqualTo(text);
+        assertThat(offHeap.offHeapBytes()).isPositive().isLessThan(text.length() / 2);
+    }
+
+    private Turn turn(Turn.Role role, String text, int tokens) {
+        return encoder.encode(role, text, tokens);
+    }
+}
@@ -0,0 +1,58 @@
+package com.xai.rag;
+
+import com.xai.tokens.CharacterTokenEstimator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentChunkerTest {
+
+    private final CharacterTokenEstimator tokenEstimator = new CharacterTokenEstimator();
+
+    @Test
+    void prefixesHeadingsAndSkipsComments() {
+        DocumentChunker chunker = new DocumentChunker(tokenEstimator, 200);
+
+        List<Passage> passages = chunker.chunk("doc.md", """
+                <!-- sample -->
+                # Pickleball
+
+                Pickleball is a paddle sport.
+                It is played with a plastic ball.
+
+                # Pickleball in India
+                About 500,000 people played in 2023.
+                """);
+
+        assertThat(passages).containsExactly(
+                new Passage("doc.md", "Pickleball: Pickleball is a paddle sport. It is played with a plastic ball."),
+                new Passage("doc.md", "Pickleball in India: About 500,000 people played in 2023."));
+    }
+
+    @Test
+    void splitsLongParagraphsAtSentencesWithOneSentenceOverlap() {
+        DocumentChunker chunker = new DocumentChunker(tokenEstimator, 16);
+
+        List<Passage> passages = chunker.chunk("doc.md",
+                "The first sentence is here. The second sentence is here. The third sentence is here.");
+
+        assertThat(passages).extracting(Passage::text).containsExactly(
+                "The first sentence is here. The second sentence is here.",
+                "The second sentence is here. The third sentence is here.");
+        for (Passage passage : passages) {
+            assertThat(tokenEstimator.estimate(passage.text())).isLessThanOrEqualTo(16);
+        }
+    }
+
+    @Test
+    void truncatesSentencesLongerThanAPassage() {
+        DocumentChunker chunker = new DocumentChunker(tokenEstimator, 5);
+
+        List<Passage> passages = chunker.chunk("doc.md", "x".repeat(100) + ".");
+
+        assertThat(passages).hasSize(1);
+        assertThat(tokenEstimator.estimate(passages.get(0).text())).isLessThanOrEqualTo(5);
+    }
+}
@@ -0,0 +1,128 @@
+package com.xai.rag;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class VectorIndexTest {
+
+    private static final int DIMENSIONS = 67;
+
+    @Test
+    void kernelsAgreeWithNaiveDotProduct() {
+        Random random = new Random(5);
+        float[] a = randomVector(random);
+        float[] b = randomVector(random);
+        double expected = 0;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            expected += a[d] * b[d];
+        }
+
+        assertThat(VectorMath.dot(a, 0, b, 0, DIMENSIONS)).isCloseTo((float) expected, within(1e-3f));
+        assertThat(new VectorMath.ScalarKernel().dot(a, 0, b, 0, DIMENSIONS)).isCloseTo((float) expected, within(1e-3f));
+    }
+
+    @Test
+    void flatSearchReturnsExactNeighboursBestFirst() {
+        Random random = new Random(7);
+        float[][] vectors = randomVectors(random, 2_000);
+        VectorIndex index = new VectorIndex(DIMENSIONS, 16);
+        for (float[] vector : vectors) {
+            index.add(vector);
+        }
+
+        for (float[] query : randomVectors(random, 50)) {
+            List<VectorIndex.Match> matches = index.search(query, 5, 0);
+            assertThat(matches).hasSize(5);
+            assertThat(matches.get(0).id()).isEqualTo(bruteForceNearest(vectors, query));
+            for (int i = 1; i < matches.size(); i++) {
+                assertThat(matches.get(i).score()).isLessThanOrEqualTo(matches.get(i - 1).score());
+            }
+        }
+        assertThat(index.search(vectors[42], 1, 0).get(0).score()).isCloseTo(1f, within(1e-4f));
+    }
+
+    @Test
+    void ivfSearchFindsMostNeighboursAndKeepsIds() {
+        Random random = new Random(11);
+        float[][] centres = randomVectors(random, 20);
+        float[][] vectors = new float[4_000][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = around(random, centres[i % centres.length]);
+        }
+        VectorIndex index = new VectorIndex(DIMENSIONS, vectors.length);
+        for (float[] vector : vectors) {
+            index.add(vector);
+        }
+        index.buildIvf(64, 10, 42L);
+
+        int hits = 0;
+        int queries = 200;
+        for (int q = 0; q < queries; q++) {
+            float[] query = around(random, centres[q % centres.length]);
+            List<VectorIndex.Match> matches = index.search(query, 1, 8);
+            if (matches.get(0).id() == bruteForceNearest(vectors, query)) {
+                hits++;
+            }
+        }
+        assertThat(hits / (double) queries).isGreaterThan(0.9);
+        assertThat(index.search(vectors[123], 1, 64).get(0).id()).isEqualTo(123);
+    }
+
+    @Test
+    void emptyIndexAndZeroKReturnNothing() {
+        VectorIndex index = new VectorIndex(DIMENSIONS, 0);
+        float[] query = randomVector(new Random(3));
+
+        assertThat(index.search(query, 3, 0)).isEmpty();
+        index.add(query);
+        assertThat(index.search(query, 0, 0)).isEmpty();
+    }
+
+    private static int bruteForceNearest(float[][] vectors, float[] query) {
+        int best = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < vectors.length; i++) {
+            double dot = 0;
+            double norm = 0;
+            for (int d = 0; d < DIMENSIONS; d++) {
+                dot += vectors[i][d] * query[d];
+                norm += vectors[i][d] * vectors[i][d];
+            }
+            double score = dot / Math.sqrt(norm);
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static float[] around(Random random, float[] centre) {
+        float[] vector = new float[DIMENSIONS];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] = centre[d] + (float) random.nextGaussian() * 0.3f;
+        }
+        return vector;
+    }
+
+    private static float[][] randomVectors(Random random, int count) {
+        float[][] vectors = new float[count][];
+        for (int i = 0; i < count; i++) {
+            vectors[i] = randomVector(random);
+        }
+        return vectors;
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
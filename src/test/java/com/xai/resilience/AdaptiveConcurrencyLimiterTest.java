@@ -0,0 +1,67 @@
+package com.xai.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = 100_000_000L;
+
+    private static final long SLOW = 1_000_000_000L;
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 0.2, 1.5, 10, 600);
+
+    @Test
+    void growsWhileLatencyIsStable() {
+        runAtLimit(50, FAST);
+
+        assertThat(limiter.limit()).isGreaterThan(100);
+    }
+
+    @Test
+    void shrinksWhenUpstreamSlowsDown() {
+        runAtLimit(200, FAST);
+        int before = limiter.limit();
+
+        runAtLimit(1, SLOW);
+
+        assertThat(limiter.limit()).isLessThan(before / 4);
+    }
+
+    @Test
+    void doesNotGrowWhileMostlyIdle() {
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.onSuccess(FAST);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(20);
+    }
+
+    @Test
+    void rejectsBeyondTheLimitAndBacksOffOnFailure() {
+        AdaptiveConcurrencyLimiter small = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.2, 1.5, 10, 600);
+
+        assertThat(small.tryAcquire()).isTrue();
+        assertThat(small.tryAcquire()).isTrue();
+        assertThat(small.tryAcquire()).isFalse();
+
+        small.onFailure();
+        assertThat(small.limit()).isEqualTo(1);
+        assertThat(small.inFlight()).isEqualTo(1);
+        assertThat(small.tryAcquire()).isFalse();
+    }
+
+    private void runAtLimit(int rounds, long rttNanos) {
+        for (int round = 0; round < rounds; round++) {
+            int slots = limiter.limit();
+            for (int i = 0; i < slots; i++) {
+                limiter.tryAcquire();
+            }
+            for (int i = 0; i < slots; i++) {
+                limiter.onSuccess(rttNanos);
+            }
+        }
+    }
+}
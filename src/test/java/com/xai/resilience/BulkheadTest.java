@@ -0,0 +1,71 @@
+package com.xai.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadTest {
+
+    @Test
+    void aFreedPermitGoesToTheCallerWaitingForIt() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("model", 1, 10, Duration.ofSeconds(5));
+        bulkhead.acquire();
+        AtomicLong waited = new AtomicLong(-1);
+        Thread waiter = new Thread(() -> waited.set(bulkhead.acquire()));
+        waiter.start();
+        awaitQueued(bulkhead, 1);
+        awaitParked(waiter);
+
+        bulkhead.release();
+
+        // A newcomer does not barge ahead of the waiter, even between release and hand-over.
+        assertThat(bulkhead.tryAcquire()).isFalse();
+        waiter.join(5_000);
+        assertThat(waited.get()).isPositive();
+        assertThat(bulkhead.active()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsWhenTheQueueIsFull() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("model", 1, 1, Duration.ofSeconds(5));
+        bulkhead.acquire();
+        Thread.ofVirtual().start(bulkhead::acquire);
+        awaitQueued(bulkhead, 1);
+
+        assertThatThrownBy(bulkhead::acquire)
+                .isInstanceOfSatisfying(CapacityExceededException.class,
+                        e -> assertThat(e.getReason()).isEqualTo("queue_full"));
+    }
+
+    @Test
+    void rejectsAfterWaitingTooLong() {
+        Bulkhead bulkhead = new Bulkhead("model", 1, 1, Duration.ofMillis(50));
+        bulkhead.acquire();
+
+        assertThatThrownBy(bulkhead::acquire)
+                .isInstanceOfSatisfying(CapacityExceededException.class,
+                        e -> assertThat(e.getReason()).isEqualTo("timeout"));
+        assertThat(bulkhead.queued()).isZero();
+    }
+
+    private static void awaitQueued(Bulkhead bulkhead, int queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.queued() < queued && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(bulkhead.queued()).isEqualTo(queued);
+    }
+
+    private static void awaitParked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(thread.getState()).isEqualTo(Thread.State.TIMED_WAITING);
+    }
+}
@@ -0,0 +1,52 @@
+package com.xai.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineTest {
+
+    @AfterEach
+    void clear() {
+        Deadline.setCurrent(null);
+    }
+
+    @Test
+    void countsDownToExpiry() {
+        Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+
+        assertThat(deadline.isExpired()).isFalse();
+        assertThat(deadline.remaining()).isPositive().isLessThanOrEqualTo(Duration.ofMinutes(1));
+        assertThat(new Deadline(System.nanoTime()).isExpired()).isTrue();
+        assertThat(Deadline.after(Duration.ofSeconds(-1)).remaining()).isNegative();
+    }
+
+    @Test
+    void minPicksTheEarlierDeadline() {
+        Deadline early = new Deadline(100);
+        Deadline late = new Deadline(200);
+
+        assertThat(early.min(late)).isSameAs(early);
+        assertThat(late.min(early)).isSameAs(early);
+        assertThat(late.min(null)).isSameAs(late);
+        // Compared by difference, so the order survives a wrap of the nanoTime clock.
+        assertThat(new Deadline(Long.MAX_VALUE).min(new Deadline(Long.MIN_VALUE))).isEqualTo(new Deadline(Long.MAX_VALUE));
+    }
+
+    @Test
+    void currentIsHeldPerThread() throws InterruptedException {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(5));
+        Deadline.setCurrent(deadline);
+        Deadline[] seen = new Deadline[1];
+        Thread other = Thread.ofVirtual().start(() -> seen[0] = Deadline.current());
+        other.join();
+
+        assertThat(Deadline.current()).isSameAs(deadline);
+        assertThat(seen[0]).isNull();
+        Deadline.setCurrent(null);
+        assertThat(Deadline.current()).isNull();
+    }
+}
@@ -0,0 +1,64 @@
+package com.xai.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TokenBucketTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void refillsContinuouslyOverThePeriod() {
+        TokenBucket bucket = new TokenBucket(60, Duration.ofMinutes(1), 0);
+        bucket.consume(60, 0);
+
+        assertThat(bucket.nanosUntil(1, 0)).isEqualTo(SECOND);
+        assertThat(bucket.nanosUntil(1, SECOND)).isZero();
+        assertThat(bucket.available(30 * SECOND)).isCloseTo(30.0, within(1e-6));
+        assertThat(bucket.available(120 * SECOND)).isCloseTo(60.0, within(1e-6));
+    }
+
+    @Test
+    void oversizedRequestWaitsForFullBucketAndGoesNegative() {
+        TokenBucket bucket = new TokenBucket(60, Duration.ofMinutes(1), 0);
+        bucket.consume(10, 0);
+
+        assertThat(bucket.nanosUntil(100, 0)).isEqualTo(10 * SECOND);
+        bucket.consume(100, 10 * SECOND);
+        assertThat(bucket.available(10 * SECOND)).isCloseTo(-40.0, within(1e-6));
+    }
+
+    @Test
+    void syncAdoptsProviderLimitAndRemaining() {
+        TokenBucket bucket = new TokenBucket(60, Duration.ofMinutes(1), 0);
+
+        bucket.sync(120, 30, 0);
+
+        assertThat(bucket.available(0)).isCloseTo(30.0, within(1e-6));
+        assertThat(bucket.nanosUntil(32, 0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void syncIgnoresMissingProviderLimits() {
+        TokenBucket bucket = new TokenBucket(60, Duration.ofMinutes(1), 0);
+
+        bucket.sync(0, 0, 0);
+
+        assertThat(bucket.available(0)).isCloseTo(60.0, within(1e-6));
+    }
+
+    @Test
+    void adjustRefundsOverestimatesUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(60, Duration.ofMinutes(1), 0);
+        bucket.consume(50, 0);
+
+        bucket.adjust(-20);
+        assertThat(bucket.available(0)).isCloseTo(30.0, within(1e-6));
+        bucket.adjust(-100);
+        assertThat(bucket.available(0)).isCloseTo(60.0, within(1e-6));
+    }
+}
@@ -0,0 +1,54 @@
+package com.xai.routing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyProfileTest {
+
+    @Test
+    void movingAverageFollowsASlowdown() {
+        LatencyProfile profile = new LatencyProfile(0.2, 128);
+        for (int i = 0; i < 50; i++) {
+            profile.success(100);
+        }
+        assertThat(profile.latencyNanos()).isCloseTo(100, within(1e-6));
+
+        for (int i = 0; i < 20; i++) {
+            profile.success(1_000);
+        }
+        assertThat(profile.latencyNanos()).isGreaterThan(980);
+    }
+
+    @Test
+    void errorRateRisesOnFailuresAndDecaysOnSuccesses() {
+        LatencyProfile profile = new LatencyProfile(0.2, 128);
+        for (int i = 0; i < 10; i++) {
+            profile.failure();
+        }
+        assertThat(profile.errorRate()).isGreaterThan(0.85);
+
+        for (int i = 0; i < 20; i++) {
+            profile.success(100);
+        }
+        assertThat(profile.errorRate()).isLessThan(0.02);
+    }
+
+    @Test
+    void quantilesComeFromTheRecentWindow() {
+        LatencyProfile profile = new LatencyProfile(0.2, 100);
+        assertThat(profile.quantile(0.95)).isEqualTo(-1);
+
+        for (int i = 1; i <= 100; i++) {
+            profile.success(i);
+        }
+        assertThat(profile.quantile(0.5)).isEqualTo(50);
+        assertThat(profile.quantile(0.95)).isEqualTo(95);
+
+        for (int i = 0; i < 100; i++) {
+            profile.success(1_000);
+        }
+        assertThat(profile.quantile(0.5)).isEqualTo(1_000);
+    }
+}
@@ -0,0 +1,338 @@
+package com.xai.routing;
+
+import com.xai.appconfig.BulkheadProperties;
+import com.xai.appconfig.RoutingProperties;
+import com.xai.resilience.BulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoutingChatModelTest {
+
+    private static final Prompt PROMPT = new Prompt("Hi");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RoutingProperties properties = new RoutingProperties();
+
+    private final BulkheadProperties bulkheadProperties = new BulkheadProperties();
+
+    private final BulkheadRegistry bulkheads = new BulkheadRegistry(bulkheadProperties, meterRegistry);
+
+    private RoutingChatModel router;
+
+    RoutingChatModelTest() {
+        properties.setExplorationRate(0);
+    }
+
+    @AfterEach
+    void close() {
+        if (router != null) {
+            router.close();
+        }
+        Thread.interrupted();
+    }
+
+    @Test
+    void failsOverOnATransientError() {
+        FakeChatModel primary = new FakeChatModel(() -> {
+            throw new TransientAiException("503 - Service unavailable");
+        });
+        FakeChatModel secondary = new FakeChatModel(() -> response("secondary"));
+        router = router(primary, secondary);
+
+        assertThat(text(router.call(PROMPT))).isEqualTo("secondary");
+        assertThat(primary.calls.get()).isEqualTo(1);
+        assertThat(secondary.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotFailOverARejectedRequest() {
+        FakeChatModel primary = new FakeChatModel(() -> {
+            throw new NonTransientAiException("400 - Invalid request");
+        });
+        FakeChatModel secondary = new FakeChatModel(() -> response("secondary"));
+        router = router(primary, secondary);
+
+        assertThatThrownBy(() -> router.call(PROMPT))
+                .isInstanceOf(NonTransientAiException.class)
+                .hasMessageStartingWith("400");
+        assertThat(secondary.calls.get()).isZero();
+    }
+
+    @Test
+    void doesNotFailOverAnInterruptedCall() {
+        FakeChatModel primary = new FakeChatModel(() -> {
+            // What a client does when the deadline interrupts it mid-call.
+            Thread.currentThread().interrupt();
+            throw new TransientAiException("Call interrupted");
+        });
+        FakeChatModel secondary = new FakeChatModel(() -> response("secondary"));
+        router = router(primary, secondary);
+
+        assertThatThrownBy(() -> router.call(PROMPT)).hasMessage("Call interrupted");
+        assertThat(secondary.calls.get()).isZero();
+    }
+
+    @Test
+    void throwsTheFirstErrorWhenEveryBackendFails() {
+        FakeChatModel primary = new FakeChatModel(() -> {
+            throw new TransientAiException("500 - primary");
+        });
+        FakeChatModel secondary = new FakeChatModel(() -> {
+            throw new NonTransientAiException("404 - secondary");
+        });
+        router = router(primary, secondary);
+
+        assertThatThrownBy(() -> router.call(PROMPT))
+                .hasMessage("500 - primary")
+                .satisfies(e -> assertThat(e.getSuppressed()).extracting(Throwable::getMessage)
+                        .containsExactly("404 - secondary"));
+    }
+
+    @Test
+    void hedgeAnswersForASlowPrimary() {
+        enableHedging();
+        CountDownLatch primaryCancelled = new CountDownLatch(1);
+        FakeChatModel primary = new FakeChatModel(() -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                primaryCancelled.countDown();
+                Thread.currentThread().interrupt();
+                throw new TransientAiException("Call interrupted");
+            }
+            return response("primary");
+        });
+        FakeChatModel secondary = new FakeChatModel(() -> response("hedge"));
+        router = router(primary, secondary);
+
+        assertThat(text(router.call(PROMPT))).isEqualTo("hedge");
+        assertThat(meterRegistry.counter("ai.routing.hedges", "outcome", "won").count()).isEqualTo(1);
+        assertThat(await(primaryCancelled)).isTrue();
+    }
+
+    @Test
+    void hedgingKeepsAFastPrimaryAlone() {
+        enableHedging();
+        FakeChatModel primary = new FakeChatModel(() -> response("primary"));
+        FakeChatModel secondary = new FakeChatModel(() -> response("hedge"));
+        router = router(primary, secondary);
+
+        assertThat(text(router.call(PROMPT))).isEqualTo("primary");
+        assertThat(secondary.calls.get()).isZero();
+    }
+
+    @Test
+    void hedgedCallFailsAtOnceOnARejectedRequest() {
+        enableHedging();
+        FakeChatModel primary = new FakeChatModel(() -> {
+            sleep(Duration.ofMillis(100));
+            throw new NonTransientAiException("400 - Invalid request");
+        });
+        FakeChatModel secondary = new FakeChatModel(() -> {
+            sleep(Duration.ofSeconds(10));
+            return response("hedge");
+        });
+        router = router(primary, secondary);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> router.call(PROMPT)).hasMessageStartingWith("400");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void streamFailsOverOnlyBeforeItsFirstChunkAndOnTransientErrors() {
+        FakeChatModel failing = new FakeChatModel(Flux.error(new TransientAiException("503 - Service unavailable")));
+        FakeChatModel rejecting = new FakeChatModel(Flux.error(new NonTransientAiException("400 - Invalid request")));
+        FakeChatModel answering = new FakeChatModel(Flux.just(response("a"), response("b")));
+
+        router = router(failing, answering);
+        assertThat(router.stream(PROMPT).map(RoutingChatModelTest::text).collectList().block(Duration.ofSeconds(5)))
+                .containsExactly("a", "b");
+        router.close();
+
+        router = router(rejecting, answering);
+        assertThatThrownBy(() -> router.stream(PROMPT).blockLast(Duration.ofSeconds(5)))
+                .hasMessageStartingWith("400");
+        assertThat(answering.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void hedgedStreamReportsThePrimaryRejection() {
+        enableHedging();
+        FakeChatModel primary = new FakeChatModel(Flux.error(new NonTransientAiException("400 - Invalid request")));
+        FakeChatModel secondary = new FakeChatModel(Flux.just(response("hedge")));
+        router = router(primary, secondary);
+
+        assertThatThrownBy(() -> router.stream(PROMPT).blockLast(Duration.ofSeconds(5)))
+                .isInstanceOf(NonTransientAiException.class)
+                .hasMessageStartingWith("400");
+        assertThat(secondary.calls.get()).isZero();
+    }
+
+    @Test
+    void hedgedStreamStartsTheHedgeWhenThePrimaryFailsTransiently() {
+        enableHedging();
+        properties.getHedging().setMinDelay(Duration.ofSeconds(10));
+        properties.getHedging().setMaxDelay(Duration.ofSeconds(10));
+        FakeChatModel primary = new FakeChatModel(Flux.error(new TransientAiException("503 - Service unavailable")));
+        FakeChatModel secondary = new FakeChatModel(Flux.just(response("hedge")));
+        router = router(primary, secondary);
+
+        assertThat(router.stream(PROMPT).map(RoutingChatModelTest::text).collectList().block(Duration.ofSeconds(5)))
+                .containsExactly("hedge");
+    }
+
+    @Test
+    void pinnedBackendIsTriedFirst() {
+        FakeChatModel cheapest = new FakeChatModel(() -> response("cheapest"));
+        FakeChatModel selected = new FakeChatModel(() -> response("selected"));
+        Backend pinned = backend("selected", selected, true);
+        router = new RoutingChatModel(List.of(backend("cheapest", cheapest, true), pinned), properties, bulkheads,
+                meterRegistry);
+
+        assertThat(text(router.callOn(pinned, () -> router.call(PROMPT)))).isEqualTo("selected");
+        assertThat(router.streamOn(pinned, router.stream(PROMPT)).map(RoutingChatModelTest::text)
+                .collectList().block(Duration.ofSeconds(5))).containsExactly("selected");
+        assertThat(cheapest.calls.get()).isZero();
+    }
+
+    @Test
+    void failoverSkipsAnAlternateWithoutAFreeBulkheadPermit() {
+        bulkheadProperties.getDefaults().setMaxConcurrent(1);
+        FakeChatModel primary = new FakeChatModel(() -> {
+            throw new TransientAiException("503 - Service unavailable");
+        });
+        FakeChatModel busy = new FakeChatModel(() -> response("busy"));
+        FakeChatModel free = new FakeChatModel(() -> response("free"));
+        router = new RoutingChatModel(List.of(backend("primary", primary, true), backend("busy", busy, "busy-model", true),
+                backend("free", free, "free-model", true)), properties, bulkheads, meterRegistry);
+        bulkheads.tryAcquire("busy-model");
+
+        assertThat(text(router.call(PROMPT))).isEqualTo("free");
+        assertThat(busy.calls.get()).isZero();
+        assertThat(meterRegistry.counter("ai.bulkhead.rejected", "model", "busy-model", "reason", "busy").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void backendOutsideTheQuotaDoesNotFailOverIntoIt() {
+        FakeChatModel local = new FakeChatModel(() -> {
+            throw new TransientAiException("503 - Service unavailable");
+        });
+        FakeChatModel metered = new FakeChatModel(() -> response("metered"));
+        Backend pinned = backend("local", local, false);
+        router = new RoutingChatModel(List.of(backend("metered", metered, true), pinned), properties, bulkheads,
+                meterRegistry);
+
+        assertThatThrownBy(() -> router.callOn(pinned, () -> router.call(PROMPT))).hasMessageStartingWith("503");
+        assertThat(metered.calls.get()).isZero();
+    }
+
+    private void enableHedging() {
+        properties.getHedging().setEnabled(true);
+        properties.getHedging().setMinDelay(Duration.ofMillis(50));
+        properties.getHedging().setMaxDelay(Duration.ofMillis(50));
+    }
+
+    private RoutingChatModel router(ChatModel... chatModels) {
+        List<Backend> backends = new ArrayList<>();
+        for (int i = 0; i < chatModels.length; i++) {
+            backends.add(backend("backend-" + i, chatModels[i], true));
+        }
+        return new RoutingChatModel(backends, properties, bulkheads, meterRegistry);
+    }
+
+    private Backend backend(String name, ChatModel chatModel, boolean rateLimited) {
+        return backend(name, chatModel, null, rateLimited);
+    }
+
+    private Backend backend(String name, ChatModel chatModel, String model, boolean rateLimited) {
+        return new Backend(name, chatModel, model, rateLimited, properties.getSmoothing(), properties.getWindow());
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    private static String text(ChatResponse response) {
+        return response.getResult().getOutput().getText();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransientAiException("Call interrupted");
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * A provider answering every call the same way and counting its calls; a provider
+     * built from a blocking answer streams it as a single chunk.
+     */
+    private static final class FakeChatModel implements ChatModel {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private final Supplier<ChatResponse> call;
+
+        private final Flux<ChatResponse> stream;
+
+        FakeChatModel(Supplier<ChatResponse> call) {
+            this.call = call;
+            this.stream = Flux.defer(() -> Flux.just(call.get()));
+        }
+
+        FakeChatModel(Flux<ChatResponse> stream) {
+            this.call = () -> {
+                throw new UnsupportedOperationException();
+            };
+            this.stream = stream;
+        }
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            calls.incrementAndGet();
+            return call.get();
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return Flux.defer(() -> {
+                calls.incrementAndGet();
+                return stream;
+            });
+        }
+    }
+}
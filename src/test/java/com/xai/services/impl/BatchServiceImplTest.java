@@ -0,0 +1,141 @@
+package com.xai.services.impl;
+
+import com.xai.appconfig.BatchProperties;
+import com.xai.appconfig.PromptTemplateProperties;
+import com.xai.entities.BatchItem;
+import com.xai.entities.BatchRequest;
+import com.xai.entities.BatchResult;
+import com.xai.resilience.CapacityExceededException;
+import com.xai.services.ClientErrors;
+import com.xai.templates.PromptTemplateRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchServiceImplTest {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private final BatchServiceImpl batchService;
+
+    BatchServiceImplTest() {
+        PromptTemplateProperties templateProperties = new PromptTemplateProperties();
+        templateProperties.setHotReload(false);
+        batchService = new BatchServiceImpl(ChatClient.builder(new EchoChatModel()).build(),
+                new PromptTemplateRegistry(new PathMatchingResourcePatternResolver(), templateProperties),
+                new UsageServiceImpl(), new BatchProperties());
+    }
+
+    @AfterEach
+    void shutdown() {
+        batchService.shutdown();
+    }
+
+    @Test
+    void executeReturnsResultsInRequestOrder() {
+        List<BatchResult> results = batchService.execute(request(3, "slow-200 a", "b", "slow-100 c"));
+
+        assertThat(results).extracting(BatchResult::getIndex).containsExactly(0, 1, 2);
+        assertThat(results).extracting(BatchResult::getContent)
+                .containsExactly("slow-200 a", "b", "slow-100 c");
+    }
+
+    @Test
+    void streamEmitsResultsInCompletionOrder() {
+        List<BatchResult> results = batchService.stream(request(2, "slow-300 a", "b"))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(results).extracting(BatchResult::getIndex).containsExactly(1, 0);
+    }
+
+    @Test
+    void parallelismBoundsTheItemsInFlight() {
+        String[] prompts = new String[12];
+        Arrays.fill(prompts, "slow-50 item");
+
+        List<BatchResult> results = batchService.execute(request(3, prompts));
+
+        assertThat(results).hasSize(12).allSatisfy(result -> assertThat(result.getError()).isNull());
+        assertThat(maxInFlight.get()).isBetween(2, 3);
+    }
+
+    @Test
+    void aFailingItemReportsItsOwnErrorOnly() {
+        BatchRequest request = request(4, "ok", "fail", " ", "shed");
+        BatchItem unknownTemplate = new BatchItem();
+        unknownTemplate.setTemplate("no-such-template");
+        unknownTemplate.setParams(Map.of());
+        request.getItems().add(unknownTemplate);
+
+        List<BatchResult> results = batchService.execute(request);
+
+        assertThat(results.get(0).getContent()).isEqualTo("ok");
+        assertThat(results.get(0).getError()).isNull();
+        // Provider details are not passed on to the client.
+        assertThat(results.get(1).getError()).isEqualTo(ClientErrors.GENERIC_MESSAGE);
+        assertThat(results.get(2).getError()).isEqualTo("Item has neither a prompt nor a template");
+        assertThat(results.get(3).getError()).isEqualTo("Shed");
+        assertThat(results.get(4).getError()).isEqualTo("Unknown prompt template: no-such-template");
+    }
+
+    private static BatchRequest request(int parallelism, String... prompts) {
+        BatchRequest request = new BatchRequest();
+        request.setParallelism(parallelism);
+        request.setItems(new ArrayList<>());
+        for (String prompt : prompts) {
+            BatchItem item = new BatchItem();
+            item.setPrompt(prompt);
+            request.getItems().add(item);
+        }
+        return request;
+    }
+
+    /**
+     * Answers with the prompt; {@code slow-<millis>} prompts take that long, {@code fail}
+     * and {@code shed} prompts fail like a provider error and a shed call.
+     */
+    private final class EchoChatModel implements ChatModel {
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            String text = prompt.getUserMessage().getText();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                if (text.startsWith("slow-")) {
+                    Thread.sleep(Long.parseLong(text.substring(5, text.indexOf(' '))));
+                }
+                if (text.equals("fail")) {
+                    throw new TransientAiException("500 - upstream said something internal");
+                }
+                if (text.equals("shed")) {
+                    throw new CapacityExceededException("Shed", "queue_full", Duration.ofSeconds(1));
+                }
+                return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
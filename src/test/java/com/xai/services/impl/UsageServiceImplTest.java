@@ -0,0 +1,116 @@
+package com.xai.services.impl;
+
+import com.xai.advisors.RequestCoalescingAdvisor;
+import com.xai.cache.CachedResponse;
+import com.xai.entities.UsageSummary;
+import com.xai.services.AiEndpoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.metadata.EmptyRateLimit;
+import org.springframework.ai.chat.metadata.RateLimit;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UsageServiceImplTest {
+
+    private final UsageServiceImpl usageService = new UsageServiceImpl();
+
+    @Test
+    void recordsCallsTokensAndFinishReasons() {
+        usageService.record(AiEndpoint.CHAT, response(metadata().usage(new DefaultUsage(10, 5)).model("gpt-4o"), "STOP"));
+        usageService.record(AiEndpoint.CHAT, response(metadata().usage(new DefaultUsage(20, 7)), "LENGTH"));
+
+        UsageSummary summary = usageService.getUsage(AiEndpoint.CHAT);
+        assertThat(summary.getCalls()).isEqualTo(2);
+        assertThat(summary.getPromptTokens()).isEqualTo(30);
+        assertThat(summary.getCompletionTokens()).isEqualTo(12);
+        assertThat(summary.getTotalTokens()).isEqualTo(42);
+        assertThat(summary.getLastModel()).isEqualTo("gpt-4o");
+        assertThat(summary.getFinishReasons()).containsEntry("STOP", 1L).containsEntry("LENGTH", 1L);
+    }
+
+    @Test
+    void anEmptyRateLimitKeepsTheLastReportedOne() {
+        usageService.record(AiEndpoint.CHAT, response(metadata().rateLimit(new Limits(500, 499, 30_000, 29_000)), "STOP"));
+        usageService.record(AiEndpoint.CHAT, response(metadata().rateLimit(new EmptyRateLimit()), "STOP"));
+
+        UsageSummary summary = usageService.getUsage(AiEndpoint.CHAT);
+        assertThat(summary.getRequestsLimit()).isEqualTo(500L);
+        assertThat(summary.getRequestsRemaining()).isEqualTo(499L);
+        assertThat(summary.getTokensRemaining()).isEqualTo(29_000L);
+    }
+
+    @Test
+    void cacheHitsAndCoalescedResponsesAreCountedAsReusedOnly() {
+        usageService.record(AiEndpoint.CHAT, response(metadata().usage(new DefaultUsage(10, 5)), "STOP"));
+        usageService.record(AiEndpoint.CHAT, new CachedResponse("cached", "gpt-4o").toChatResponse());
+        usageService.record(AiEndpoint.CHAT, response(metadata().keyValue(RequestCoalescingAdvisor.COALESCED, true), null));
+
+        UsageSummary summary = usageService.getUsage(AiEndpoint.CHAT);
+        assertThat(summary.getCalls()).isEqualTo(1);
+        assertThat(summary.getReused()).isEqualTo(2);
+        assertThat(summary.getTotalTokens()).isEqualTo(15);
+        assertThat(summary.getFinishReasons()).containsOnlyKeys("STOP");
+    }
+
+    @Test
+    void endpointsAreCountedSeparately() {
+        usageService.record(AiEndpoint.CHAT, response(metadata(), "STOP"));
+        usageService.record(AiEndpoint.BATCH, null);
+
+        assertThat(usageService.getUsage(AiEndpoint.CHAT).getCalls()).isEqualTo(1);
+        assertThat(usageService.getUsage(AiEndpoint.BATCH).getCalls()).isZero();
+        assertThat(usageService.getUsage()).containsKeys(AiEndpoint.CHAT.key(), AiEndpoint.BATCH.key());
+    }
+
+    private static ChatResponseMetadata.Builder metadata() {
+        return ChatResponseMetadata.builder();
+    }
+
+    private static ChatResponse response(ChatResponseMetadata.Builder metadata, String finishReason) {
+        Generation generation = new Generation(new AssistantMessage("text"),
+                ChatGenerationMetadata.builder().finishReason(finishReason).build());
+        return new ChatResponse(List.of(generation), metadata.build());
+    }
+
+    private record Limits(long requests, long requestsRemaining, long tokens, long tokensRemaining) implements RateLimit {
+
+        @Override
+        public Long getRequestsLimit() {
+            return requests;
+        }
+
+        @Override
+        public Long getRequestsRemaining() {
+            return requestsRemaining;
+        }
+
+        @Override
+        public Duration getRequestsReset() {
+            return Duration.ofSeconds(1);
+        }
+
+        @Override
+        public Long getTokensLimit() {
+            return tokens;
+        }
+
+        @Override
+        public Long getTokensRemaining() {
+            return tokensRemaining;
+        }
+
+        @Override
+        public Duration getTokensReset() {
+            return Duration.ofSeconds(1);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.xai.structured;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xai.entities.AiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AiResponseJsonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AiResponseJson binder = new AiResponseJson(objectMapper.getFactory());
+
+    @Test
+    void bindsTheSameFieldsAsTheMapper() throws IOException {
+        AiResponse expected = new AiResponse("Harry Kane", "England's all-time top scorer.", "2025-01-01");
+        String json = objectMapper.writeValueAsString(expected);
+
+        assertThat(binder.read(json)).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    @Test
+    void skipsUnknownFieldsAndReadsScalarsAsText() throws IOException {
+        AiResponse response = binder.read(
+                "{\"title\":\"a\",\"extra\":{\"nested\":[1,2]},\"data\":42,\"createdAt\":null}");
+
+        assertThat(response.getTitle()).isEqualTo("a");
+        assertThat(response.getData()).isEqualTo("42");
+        assertThat(response.getCreatedAt()).isNull();
+    }
+
+    @Test
+    void bindsListAndDropsNullElements() throws IOException {
+        List<AiResponse> responses = binder.readList("[{\"title\":\"a\"}, null, {\"title\":\"b\"}]");
+
+        assertThat(responses).extracting(AiResponse::getTitle).containsExactly("a", "b");
+    }
+
+    @Test
+    void rejectsWrongShapes() {
+        assertThatThrownBy(() -> binder.read("[]")).isInstanceOf(JsonProcessingException.class);
+        assertThatThrownBy(() -> binder.read("{\"title\":{\"a\":1}}")).isInstanceOf(JsonProcessingException.class);
+        assertThatThrownBy(() -> binder.readList("{\"title\":\"a\"}")).isInstanceOf(JsonProcessingException.class);
+    }
+
+    @Test
+    void structuredOutputRepairsBeforeFailing() {
+        StructuredOutputRegistry registry = new StructuredOutputRegistry(objectMapper, new SimpleMeterRegistry());
+        StructuredOutput<List<AiResponse>> output = registry.get(new ParameterizedTypeReference<List<AiResponse>>() {
+        });
+
+        assertThat(output.name()).isEqualTo("List<AiResponse>");
+        assertThat(output.format()).contains("\"type\" : \"array\"");
+        assertThat(output.convert("```json\n[{\"title\":\"a\"},{\"title\":\"b\"},]\n```"))
+                .extracting(AiResponse::getTitle).containsExactly("a", "b");
+        assertThatThrownBy(() -> output.convert("I cannot answer that.")).isInstanceOf(MalformedOutputException.class);
+    }
+}
@@ -0,0 +1,67 @@
+package com.xai.structured;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonArrayScannerTest {
+
+    private final JsonArrayScanner scanner = new JsonArrayScanner();
+
+    @Test
+    void emitsEachElementAsSoonAsItCloses() {
+        assertThat(scanner.feed("[{\"title\":\"a\"},")).extracting(JsonArrayScanner.Element::text)
+                .containsExactly("{\"title\":\"a\"}");
+        assertThat(scanner.feed("{\"title\":")).isEmpty();
+        assertThat(scanner.feed("\"b\"}")).extracting(JsonArrayScanner.Element::index).containsExactly(1);
+        assertThat(scanner.feed("]")).isEmpty();
+        assertThat(scanner.finish()).isNull();
+    }
+
+    @Test
+    void ignoresBracketsAndQuotesInsideStrings() {
+        String json = "[{\"title\":\"a [b] {c}\",\"data\":\"say \\\"}\\\"\"}]";
+
+        assertThat(feedInFragments(json, 2)).containsExactly("{\"title\":\"a [b] {c}\",\"data\":\"say \\\"}\\\"\"}");
+    }
+
+    @Test
+    void skipsTextAroundTheArray() {
+        String reply = "Here you go:\n```json\n[ {\"title\":\"a\"} , {\"title\":\"b\"} ]\n```\nAnything else?";
+
+        assertThat(feedInFragments(reply, 5)).containsExactly("{\"title\":\"a\"}", "{\"title\":\"b\"}");
+    }
+
+    @Test
+    void reportsScalarGarbageAsAnElementSoLaterElementsSurvive() {
+        assertThat(feedInFragments("[{\"title\":\"a\"}, oops, {\"title\":\"b\"}]", 4))
+                .containsExactly("{\"title\":\"a\"}", "oops", "{\"title\":\"b\"}");
+    }
+
+    @Test
+    void returnsTruncatedElementOnFinish() {
+        assertThat(scanner.feed("[{\"title\":\"a\"},{\"title\":\"b")).hasSize(1);
+
+        assertThat(scanner.finish()).isEqualTo("{\"title\":\"b");
+        assertThat(scanner.elements()).isEqualTo(1);
+    }
+
+    @Test
+    void tellsWhenNoArrayWasFound() {
+        assertThat(scanner.feed("I cannot help with that.")).isEmpty();
+
+        assertThat(scanner.arrayOpened()).isFalse();
+    }
+
+    private List<String> feedInFragments(String text, int fragmentLength) {
+        List<String> elements = new ArrayList<>();
+        for (int i = 0; i < text.length(); i += fragmentLength) {
+            scanner.feed(text.substring(i, Math.min(text.length(), i + fragmentLength)))
+                    .forEach(element -> elements.add(element.text()));
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,46 @@
+package com.xai.structured;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonRepairTest {
+
+    @Test
+    void stripsFencesAndProse() {
+        String reply = "Sure, here it is:\n```json\n{\"title\":\"a\"}\n```\nAnything else?";
+
+        assertThat(JsonRepair.repair(reply)).isEqualTo("{\"title\":\"a\"}");
+    }
+
+    @Test
+    void removesTrailingCommas() {
+        assertThat(JsonRepair.repair("[{\"title\":\"a\",}, {\"title\":\"b\"} ,\n]"))
+                .isEqualTo("[{\"title\":\"a\"}, {\"title\":\"b\"}]");
+    }
+
+    @Test
+    void leavesCommasAndBracketsInsideStringsAlone() {
+        String json = "{\"title\":\"a ,} [b,]\",\"data\":\"say \\\",]\\\"\"}";
+
+        assertThat(JsonRepair.repair(json)).isEqualTo(json);
+    }
+
+    @Test
+    void dropsTruncatedElementAndClosesArray() {
+        assertThat(JsonRepair.repair("```json\n[{\"title\":\"a\"}, {\"title\":\"b\", \"data\":\"cut o"))
+                .isEqualTo("[{\"title\":\"a\"}]");
+        assertThat(JsonRepair.repair("[{\"title\":\"a\"},")).isEqualTo("[{\"title\":\"a\"}]");
+        assertThat(JsonRepair.repair("[{\"title\":\"a\", \"tags\":[\"x\"")).isEqualTo("[]");
+    }
+
+    @Test
+    void doesNotCloseTruncatedObject() {
+        assertThat(JsonRepair.repair("{\"title\":\"a\", \"data\":\"cut o")).isNull();
+    }
+
+    @Test
+    void returnsNullWithoutJson() {
+        assertThat(JsonRepair.repair("I cannot answer that.")).isNull();
+    }
+}
@@ -0,0 +1,33 @@
+package com.xai.templates;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledTemplateTest {
+
+    @Test
+    void rendersPlaceholdersAndEscapedBraces() {
+        CompiledTemplate template = CompiledTemplate.compile("test",
+                "Tell me about {sport} in {countryName}, as JSON \\{\"sport\": ...\\} for {sport}.");
+
+        assertThat(template.placeholders()).containsExactly("sport", "countryName");
+        assertThat(template.render(Map.of("sport", "Pickleball", "countryName", "India", "unused", 1)))
+                .isEqualTo("Tell me about Pickleball in India, as JSON {\"sport\": ...} for Pickleball.");
+    }
+
+    @Test
+    void rejectsInvalidTemplatesAndMissingValues() {
+        assertThatThrownBy(() -> CompiledTemplate.compile("test", "Unclosed {sport"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompiledTemplate.compile("test", "Not a name {two words}"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        CompiledTemplate template = CompiledTemplate.compile("test", "{sport}");
+        assertThatThrownBy(() -> template.render(Map.of()))
+                .hasMessageContaining("sport");
+    }
+}
@@ -0,0 +1,42 @@
+package com.xai.tokens;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BpeTokenEstimatorTest {
+
+    private static final String TEXT = "The striker scored twice in the final and was named player of the match.";
+
+    private final BpeTokenEstimator estimator = new BpeTokenEstimator("o200k_base");
+
+    @Test
+    void countsTokensOfTheModelEncoding() {
+        assertThat(estimator.estimate("hello world", "gpt-4o")).isEqualTo(2);
+        assertThat(estimator.estimate(null, "gpt-4o")).isZero();
+        assertThat(estimator.estimate("")).isZero();
+    }
+
+    @Test
+    void unknownModelsUseTheDefaultEncoding() {
+        assertThat(estimator.encoding("llama3.1")).isSameAs(estimator.encoding(null));
+        assertThat(estimator.estimate(TEXT, "llama3.1")).isEqualTo(estimator.estimate(TEXT));
+    }
+
+    @Test
+    void treatsSpecialTokenMarkersAsText() {
+        assertThat(estimator.estimate("<|endoftext|>", "gpt-4o")).isGreaterThan(1);
+    }
+
+    @Test
+    void truncatesToTheRequestedNumberOfTokens() {
+        String head = estimator.truncate(TEXT, 5, false, "gpt-4o");
+        String tail = estimator.truncate(TEXT, 5, true, "gpt-4o");
+
+        assertThat(TEXT).startsWith(head);
+        assertThat(TEXT).endsWith(tail);
+        assertThat(estimator.estimate(head, "gpt-4o")).isEqualTo(5);
+        assertThat(estimator.estimate(tail, "gpt-4o")).isEqualTo(5);
+        assertThat(estimator.truncate(TEXT, 1000, true, "gpt-4o")).isSameAs(TEXT);
+    }
+}
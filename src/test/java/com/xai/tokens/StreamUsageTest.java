@@ -0,0 +1,68 @@
+package com.xai.tokens;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamUsageTest {
+
+    private final StreamUsage usage = new StreamUsage(new CharacterTokenEstimator());
+
+    @Test
+    void keepsTheUsageReportedOnTheLastChunk() {
+        ChatResponse last = new ChatResponse(List.of(), ChatResponseMetadata.builder()
+                .usage(new DefaultUsage(12, 3))
+                .build());
+        usage.add(chunk("Hello "), 12);
+        usage.add(last, 12);
+
+        assertThat(usage.response()).isSameAs(last);
+    }
+
+    @Test
+    void estimatesTheUsageOfAStreamThatReportsNone() {
+        usage.add(chunk("Hello "), 10);
+        usage.add(chunk("world, "), 10);
+        usage.add(chunk("again!"), 10);
+
+        ChatResponse response = usage.response();
+
+        assertThat(response.getResult().getOutput().getText()).isEqualTo("again!");
+        assertThat(response.getMetadata().getUsage().getPromptTokens()).isEqualTo(10);
+        // "Hello world, again!" is 19 characters
+        assertThat(response.getMetadata().getUsage().getCompletionTokens()).isEqualTo(5);
+    }
+
+    @Test
+    void countsNoPromptTokensWhenTheyWereNotCounted() {
+        usage.add(chunk("Hi"), -1);
+
+        assertThat(usage.response().getMetadata().getUsage().getPromptTokens()).isZero();
+        assertThat(usage.response().getMetadata().getUsage().getCompletionTokens()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsTheMetadataFlagsOfAnEstimatedResponse() {
+        usage.add(new ChatResponse(List.of(new Generation(new AssistantMessage("cached"))), ChatResponseMetadata.builder()
+                .keyValue("xai.cache.hit", true)
+                .build()), -1);
+
+        assertThat(usage.response().getMetadata().<Boolean>get("xai.cache.hit")).isTrue();
+    }
+
+    @Test
+    void anEmptyStreamHasNoResponse() {
+        assertThat(usage.response()).isNull();
+    }
+
+    private static ChatResponse chunk(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
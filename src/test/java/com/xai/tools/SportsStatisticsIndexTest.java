@@ -0,0 +1,88 @@
+package com.xai.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SportsStatisticsIndexTest {
+
+    private static final String TEAMS = """
+            # comment
+            team,sport,league,country,season,played,won,drawn,lost,goals_for,goals_against,points
+            Borussia Dortmund,Football,Bundesliga,Germany,2023-24,34,18,9,7,68,43,63
+            Bayern München,Football,Bundesliga,Germany,2023-24,34,23,3,8,94,45,72
+            VfB Stuttgart,Football,Bundesliga,Germany,2023-24,34,23,4,7,78,39,73
+            Arsenal,Football,Premier League,England,2023-24,38,28,5,5,91,29,89
+            """;
+
+    private static final String PLAYERS = """
+            player,team,sport,position,country,season,appearances,goals,assists
+            Harry Kane,Bayern München,Football,Forward,England,2023-24,32,36,8
+            Serhou Guirassy,VfB Stuttgart,Football,Forward,Guinea,2023-24,28,28,2
+            Bukayo Saka,Arsenal,Football,Forward,England,2023-24,35,16,9
+            """;
+
+    private static final String PARTICIPATION = """
+            sport,country,year,participants
+            Pickleball,India,2022,300000
+            Pickleball,India,2023,500000
+            Football,England,2023,12000000
+            """;
+
+    @Test
+    void ordersLeagueTablesAndMatchesNamesLoosely() throws IOException {
+        SportsStatisticsIndex index = load(TEAMS, PLAYERS);
+
+        assertThat(index.leagueTable("bundesliga", 10)).extracting(TeamStanding::team)
+                .containsExactly("VfB Stuttgart", "Bayern München", "Borussia Dortmund");
+        TeamStanding bayern = index.team("  bayern   munchen ");
+        assertThat(bayern.position()).isEqualTo(2);
+        assertThat(bayern.points()).isEqualTo(72);
+        assertThat(index.leagueTable("Bundesliga", 1)).hasSize(1);
+        assertThat(index.team("Tottenham Hotspur")).isNull();
+        assertThat(index.leagueTable("Serie A", 10)).isNull();
+    }
+
+    @Test
+    void joinsPlayersToTheirTeamsLeague() throws IOException {
+        SportsStatisticsIndex index = load(TEAMS, PLAYERS);
+
+        PlayerStatistics kane = index.player("harry kane");
+        assertThat(kane.league()).isEqualTo("Bundesliga");
+        assertThat(kane.goals()).isEqualTo(36);
+        assertThat(index.topScorers("Bundesliga", 10)).extracting(PlayerStatistics::player)
+                .containsExactly("Harry Kane", "Serhou Guirassy");
+        assertThat(index.topScorers("Premier League", 10)).extracting(PlayerStatistics::player)
+                .containsExactly("Bukayo Saka");
+    }
+
+    @Test
+    void returnsLatestParticipationFigure() throws IOException {
+        SportsStatisticsIndex index = load(TEAMS, PLAYERS);
+
+        assertThat(index.participation("pickleball", "INDIA"))
+                .isEqualTo(new Participation("Pickleball", "India", 2023, 500_000));
+        assertThat(index.participation("Pickleball", "England")).isNull();
+        assertThat(index.participation("Curling", "India")).isNull();
+    }
+
+    @Test
+    void rejectsMalformedFiles() {
+        assertThatThrownBy(() -> load(TEAMS, PLAYERS + "Nobody,Unknown FC,Football,Forward,Spain,2023-24,1,0,0\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown FC");
+        assertThatThrownBy(() -> load(TEAMS + "Arsenal,Football,Premier League,England,2023-24,1,1,0,0,1,0,3\n", PLAYERS))
+                .hasMessageContaining("Duplicate team");
+        assertThatThrownBy(() -> load(TEAMS.replace("goals_for", "scored"), PLAYERS))
+                .hasMessageContaining("Expected columns");
+    }
+
+    private static SportsStatisticsIndex load(String teams, String players) throws IOException {
+        return SportsStatisticsIndex.load(new StringReader(teams), new StringReader(players),
+                new StringReader(PARTICIPATION));
+    }
+}